@@ -0,0 +1,73 @@
+#!/bin/bash
+# measure-startup.sh - Compare startup time of the plain jar against the AOT + AppCDS build
+#
+# Requires the infrastructure from docker-compose (Kafka and Schema Registry) to be running:
+#   docker-compose up -d zookeeper kafka schema-registry
+#
+# Reports, for each variant, the "Started ... in N seconds" time Spring logs and the time from
+# JVM launch to the first 202 Accepted from POST /api/v1/transactions.
+
+set -e
+
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+NC='\033[0m' # No Color
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-8080}
+WORK_DIR=target/startup-measurement
+PAYLOAD='{"transactionId":"TX-STARTUP","amount":1.00,"currency":"USD","customerId":"CUST-1","sourceId":"SRC-1","transactionType":"PURCHASE"}'
+
+now_ms() {
+  date +%s%3N
+}
+
+# Launch the given command, wait for the first accepted transaction and print timings
+measure() {
+  local label=$1
+  shift
+  local total_started=0
+  local total_first_tx=0
+
+  for run in $(seq 1 "$RUNS"); do
+    local log_file="$WORK_DIR/$label-$run.log"
+    local start
+    start=$(now_ms)
+    "$@" --server.port="$PORT" > "$log_file" 2>&1 &
+    local pid=$!
+
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' -X POST "http://localhost:$PORT/api/v1/transactions" \
+        -H 'Content-Type: application/json' -d "$PAYLOAD")" = "202" ]; do
+      sleep 0.05
+    done
+    local first_tx=$(( $(now_ms) - start ))
+
+    kill "$pid" && wait "$pid" 2>/dev/null || true
+
+    local started
+    started=$(grep -oE 'Started [A-Za-z]+ in [0-9.]+ seconds' "$log_file" | grep -oE '[0-9.]+' | head -1)
+    total_started=$(echo "$total_started + $started" | bc)
+    total_first_tx=$((total_first_tx + first_tx))
+  done
+
+  echo -e "${GREEN}$label${NC}: context started in $(echo "scale=2; $total_started / $RUNS" | bc)s," \
+    "first accepted transaction after $((total_first_tx / RUNS))ms (mean of $RUNS runs)"
+}
+
+mkdir -p "$WORK_DIR"
+
+echo -e "${YELLOW}Building plain jar...${NC}"
+./mvnw -q package -DskipTests
+cp target/transaction-ingestion-service-*.jar "$WORK_DIR/plain.jar"
+
+echo -e "${YELLOW}Building AOT jar and AppCDS archive...${NC}"
+./mvnw -q package -Pfast-startup -DskipTests
+rm -rf "$WORK_DIR/fast"
+cp target/transaction-ingestion-service-*.jar "$WORK_DIR/app.jar"
+java -Djarmode=tools -jar "$WORK_DIR/app.jar" extract --destination "$WORK_DIR/fast"
+(cd "$WORK_DIR/fast" && java -XX:ArchiveClassesAtExit=application.jsa \
+  -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh -jar app.jar > training.log 2>&1)
+
+measure "plain" java -jar "$WORK_DIR/plain.jar"
+measure "aot+cds" java -XX:SharedArchiveFile="$WORK_DIR/fast/application.jsa" \
+  -Dspring.aot.enabled=true -jar "$WORK_DIR/fast/app.jar"
@@ -1,15 +1,29 @@
 package com.fraudrisk;
 
+import com.fraudrisk.replay.ReplayModeGuard;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.core.env.Profiles;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ComponentScan(basePackages = "com.fraudrisk")
+@EnableScheduling
+@ConfigurationPropertiesScan
 public class TransactionIngestionServiceApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(TransactionIngestionServiceApplication.class, args);
+		SpringApplication application = new SpringApplication(TransactionIngestionServiceApplication.class);
+		application.addListeners(new ReplayModeGuard());
+		ConfigurableApplicationContext context = application.run(args);
+
+		// Replay mode is a batch job: close the context (flushing the producer) once the runner is done
+		if (context.getEnvironment().acceptsProfiles(Profiles.of("replay"))) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
@@ -0,0 +1,24 @@
+package com.fraudrisk.bulk;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+
+/**
+ * Kafka deserializer for bulk topic consumers; returns a lazy reader over the envelope
+ */
+public class BulkEnvelopeDeserializer implements Deserializer<BulkEnvelopeReader> {
+
+    @Override
+    public BulkEnvelopeReader deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return BulkEnvelopeReader.open(data);
+        } catch (IOException e) {
+            throw new SerializationException("Invalid bulk envelope on topic " + topic, e);
+        }
+    }
+}
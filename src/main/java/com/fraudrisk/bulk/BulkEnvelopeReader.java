@@ -0,0 +1,71 @@
+package com.fraudrisk.bulk;
+
+import com.fraudrisk.model.Transaction;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.specific.SpecificDatumReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazily iterates the transactions in a bulk envelope.
+ *
+ * Only one container block is decompressed at a time and each transaction is decoded when it is
+ * requested, so a consumer can stream through a large batch without materializing it. Data
+ * written with an older or newer Transaction schema is resolved against the reader's schema.
+ * Pass the previous transaction to {@link #next(Transaction)} to reuse it and avoid allocation.
+ */
+public class BulkEnvelopeReader implements Iterator<Transaction>, Iterable<Transaction>, Closeable {
+
+    private final DataFileStream<Transaction> stream;
+
+    private BulkEnvelopeReader(DataFileStream<Transaction> stream) {
+        this.stream = stream;
+    }
+
+    /**
+     * Open a reader over an envelope's bytes
+     */
+    public static BulkEnvelopeReader open(byte[] envelope) throws IOException {
+        return new BulkEnvelopeReader(new DataFileStream<>(
+                new ByteArrayInputStream(envelope), new SpecificDatumReader<>(Transaction.class)));
+    }
+
+    @Override
+    public boolean hasNext() {
+        return stream.hasNext();
+    }
+
+    @Override
+    public Transaction next() {
+        return next(null);
+    }
+
+    /**
+     * Decode the next transaction, reusing the given instance when not null
+     */
+    public Transaction next(Transaction reuse) {
+        if (!stream.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            return stream.next(reuse);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Iterator<Transaction> iterator() {
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+}
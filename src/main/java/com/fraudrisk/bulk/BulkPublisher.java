@@ -0,0 +1,114 @@
+package com.fraudrisk.bulk;
+
+import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.exception.DeadlineExceededException;
+import com.fraudrisk.jfr.IngestionStageEvent;
+import com.fraudrisk.mapper.TransactionMapper;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.MetricsService;
+import com.fraudrisk.util.Deadline;
+import com.fraudrisk.util.RateLimitedLogger;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publishes a whole ingested batch as one record on the bulk topic.
+ *
+ * Opt-in via {@code ingestion.bulk.enabled}. The record key is a generated batch ID and the
+ * value is a {@link BulkEnvelopeWriter} container; consumers read it with
+ * {@link BulkEnvelopeDeserializer}. Per-transaction routing headers do not apply to bulk records.
+ */
+@Slf4j
+@Service
+public class BulkPublisher {
+
+    public static final String HEADER_FORMAT = "x-bulk-format";
+    public static final String HEADER_RECORD_COUNT = "x-bulk-record-count";
+
+    private static final RateLimitedLogger errorLog = new RateLimitedLogger(log);
+
+    private final KafkaTemplate<String, byte[]> bulkKafkaTemplate;
+    private final TransactionMapper transactionMapper;
+    private final MetricsService metricsService;
+    private final boolean enabled;
+    private final String bulkTopic;
+    private final BulkEnvelopeWriter writer;
+
+    public BulkPublisher(KafkaTemplate<String, byte[]> bulkKafkaTemplate,
+                         TransactionMapper transactionMapper,
+                         MetricsService metricsService,
+                         @Value("${ingestion.bulk.enabled:false}") boolean enabled,
+                         @Value("${kafka.topics.transactions-bulk:banking-transactions-bulk}") String bulkTopic,
+                         @Value("${ingestion.bulk.codec:null}") String codec) {
+        this.bulkKafkaTemplate = bulkKafkaTemplate;
+        this.transactionMapper = transactionMapper;
+        this.metricsService = metricsService;
+        this.enabled = enabled;
+        this.bulkTopic = bulkTopic;
+        this.writer = new BulkEnvelopeWriter(codec);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Map, encode and send the batch as a single record
+     */
+    public CompletableFuture<SendResult<String, byte[]>> publish(List<TransactionRequest> requests, Deadline deadline) {
+        String batchId = UUID.randomUUID().toString();
+        if (deadline.isExpired()) {
+            metricsService.recordDeadlineDropped("bulk");
+            throw new DeadlineExceededException(batchId, "bulk");
+        }
+
+        List<Transaction> transactions = new ArrayList<>(requests.size());
+        for (TransactionRequest request : requests) {
+            transactions.add(transactionMapper.toAvro(request));
+        }
+
+        byte[] envelope;
+        try {
+            envelope = writer.write(transactions);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode bulk envelope " + batchId, e);
+        }
+        metricsService.recordBulkEnvelope(transactions.size(), envelope.length);
+
+        List<Header> headers = List.of(
+                new RecordHeader(HEADER_FORMAT, BulkEnvelopeWriter.FORMAT.getBytes(StandardCharsets.UTF_8)),
+                new RecordHeader(HEADER_RECORD_COUNT, ByteBuffer.allocate(4).putInt(transactions.size()).array()));
+
+        IngestionStageEvent event = IngestionStageEvent.start(IngestionStageEvent.BULK_SEND);
+        CompletableFuture<SendResult<String, byte[]>> future =
+                bulkKafkaTemplate.send(new ProducerRecord<>(bulkTopic, null, batchId, envelope, headers));
+        future.whenComplete((result, ex) -> {
+            if (event != null) {
+                event.finish(null, batchId, transactions.size(), ex == null ? result.getRecordMetadata().partition() : -1);
+            }
+            if (ex == null) {
+                metricsService.recordKafkaProducerSuccess();
+            } else {
+                metricsService.recordKafkaProducerFailure();
+                errorLog.error("bulk-send", ex, "Failed to send bulk envelope {} with {} transactions: {}",
+                        batchId, transactions.size(), ex.getMessage());
+            }
+        });
+        return future;
+    }
+}
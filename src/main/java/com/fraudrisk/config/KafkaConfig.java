@@ -1,16 +1,17 @@
 package com.fraudrisk.config;
 
+import com.fraudrisk.kafka.InstrumentedAvroSerializer;
+import com.fraudrisk.kafka.SwappableProducerFactory;
 import com.fraudrisk.model.Transaction;
-import io.confluent.kafka.serializers.KafkaAvroSerializer;
 import io.confluent.kafka.serializers.KafkaAvroSerializerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.core.ProducerFactory;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -24,14 +25,61 @@ public class KafkaConfig {
     @Value("${spring.kafka.producer.properties.schema.registry.url}")
     private String schemaRegistryUrl;
 
+    /**
+     * Producer factories are swappable so the ingestion tuning endpoint can change producer
+     * settings at runtime
+     */
     @Bean
-    public ProducerFactory<String, Transaction> transactionProducerFactory() {
+    public SwappableProducerFactory<String, Transaction> transactionProducerFactory() {
+        return new SwappableProducerFactory<>("transactions",
+                producerConfigs(bootstrapServers, schemaRegistryUrl), DefaultKafkaProducerFactory::new);
+    }
+
+    @Bean
+    public KafkaTemplate<String, Transaction> kafkaTemplate() {
+        return new KafkaTemplate<>(transactionProducerFactory());
+    }
+
+    /**
+     * Producer for the compact v2 schema; only connects once something is sent in v2 or dual mode
+     */
+    @Bean
+    public SwappableProducerFactory<String, com.fraudrisk.model.v2.Transaction> transactionV2ProducerFactory() {
+        return new SwappableProducerFactory<>("transactions-v2",
+                producerConfigs(bootstrapServers, schemaRegistryUrl), DefaultKafkaProducerFactory::new);
+    }
+
+    @Bean
+    public KafkaTemplate<String, com.fraudrisk.model.v2.Transaction> kafkaTemplateV2() {
+        return new KafkaTemplate<>(transactionV2ProducerFactory());
+    }
+
+    /**
+     * Producer for bulk envelopes; the value is already an encoded Avro container
+     */
+    @Bean
+    public SwappableProducerFactory<String, byte[]> bulkProducerFactory() {
+        Map<String, Object> configProps = producerConfigs(bootstrapServers, schemaRegistryUrl);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        configProps.remove(KafkaAvroSerializerConfig.SCHEMA_REGISTRY_URL_CONFIG);
+        return new SwappableProducerFactory<>("bulk", configProps, DefaultKafkaProducerFactory::new);
+    }
+
+    @Bean
+    public KafkaTemplate<String, byte[]> bulkKafkaTemplate() {
+        return new KafkaTemplate<>(bulkProducerFactory());
+    }
+
+    /**
+     * Producer settings shared by every cluster the service writes to
+     */
+    public static Map<String, Object> producerConfigs(String bootstrapServers, String schemaRegistryUrl) {
         Map<String, Object> configProps = new HashMap<>();
 
         // Connection properties
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, KafkaAvroSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, InstrumentedAvroSerializer.class);
         configProps.put(KafkaAvroSerializerConfig.SCHEMA_REGISTRY_URL_CONFIG, schemaRegistryUrl);
 
         // Performance tuning
@@ -46,11 +94,6 @@ public class KafkaConfig {
         configProps.put(ProducerConfig.RETRIES_CONFIG, 5);
         configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
 
-        return new DefaultKafkaProducerFactory<>(configProps);
-    }
-
-    @Bean
-    public KafkaTemplate<String, Transaction> kafkaTemplate() {
-        return new KafkaTemplate<>(transactionProducerFactory());
+        return configProps;
     }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.fraudrisk.controller;
+
+import com.fraudrisk.exception.ServiceDrainingException;
+import com.fraudrisk.imports.ImportFormat;
+import com.fraudrisk.imports.ImportService;
+import com.fraudrisk.imports.ImportStatus;
+import com.fraudrisk.service.ShutdownDrainCoordinator;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Collection;
+
+/**
+ * Bulk file imports for back-office reconciliation.
+ *
+ * The request body is the raw file (not multipart), identified by a {@code text/csv} or
+ * {@code application/x-ndjson} content type or the {@code format} parameter.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/imports")
+@RequiredArgsConstructor
+public class ImportController {
+
+    private final ImportService importService;
+    private final ShutdownDrainCoordinator drainCoordinator;
+
+    /**
+     * Store an uploaded file and start importing it
+     */
+    @PostMapping
+    public ResponseEntity<ImportStatus> startImport(@RequestParam(required = false) String format,
+                                                    HttpServletRequest httpRequest) throws IOException {
+        ImportFormat importFormat = ImportFormat.resolve(format, httpRequest.getContentType());
+        if (importFormat == null) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        }
+        if (!drainCoordinator.isAccepting()) {
+            throw new ServiceDrainingException();
+        }
+
+        ImportStatus status;
+        try (InputStream body = httpRequest.getInputStream()) {
+            status = importService.start(body, importFormat);
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/imports/" + status.getImportId()))
+                .body(status);
+    }
+
+    @GetMapping
+    public ResponseEntity<Collection<ImportStatus>> listImports() {
+        return ResponseEntity.ok(importService.getImports());
+    }
+
+    /**
+     * Progress of one import
+     */
+    @GetMapping("/{importId}")
+    public ResponseEntity<ImportStatus> getImport(@PathVariable String importId) {
+        return ResponseEntity.ok(importService.getStatus(importId));
+    }
+
+    /**
+     * Continue an interrupted or failed import from its last checkpoint
+     */
+    @PostMapping("/{importId}/resume")
+    public ResponseEntity<ImportStatus> resumeImport(@PathVariable String importId) {
+        if (!drainCoordinator.isAccepting()) {
+            throw new ServiceDrainingException();
+        }
+        if (!importService.resume(importId)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(importService.getStatus(importId));
+        }
+        return ResponseEntity.accepted().body(importService.getStatus(importId));
+    }
+}
@@ -2,25 +2,47 @@ package com.fraudrisk.controller;
 
 import com.fraudrisk.dto.BatchResponse;
 import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.dto.TransactionStatusResponse;
+import com.fraudrisk.exception.BatchTooLargeException;
+import com.fraudrisk.exception.ProducerBackpressureException;
+import com.fraudrisk.exception.ServiceDrainingException;
+import com.fraudrisk.exception.TransactionNotFoundException;
+import com.fraudrisk.jfr.IngestionStageEvent;
+import com.fraudrisk.kafka.ProducerBackpressureMonitor;
+import com.fraudrisk.ratelimit.RateLimitCharge;
+import com.fraudrisk.ratelimit.RateLimiterService;
+import com.fraudrisk.service.DeadlinePolicy;
 import com.fraudrisk.service.MetricsService;
+import com.fraudrisk.service.ShutdownDrainCoordinator;
 import com.fraudrisk.service.TransactionService;
+import com.fraudrisk.status.TransactionStatusEntry;
+import com.fraudrisk.status.TransactionStatusIndex;
+import com.fraudrisk.tuning.IngestionTuningService;
+import com.fraudrisk.util.Deadline;
+import com.fraudrisk.validation.BatchValidator;
+import com.fraudrisk.validation.Rejection;
+import com.fraudrisk.validation.TransactionRequestValidator;
 import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
-import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.support.ModelAndViewContainer;
 
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @RestController
@@ -31,50 +53,81 @@ public class TransactionController {
 
     private final TransactionService transactionService;
     private final MetricsService metricsService;
+    private final RateLimiterService rateLimiterService;
+    private final DeadlinePolicy deadlinePolicy;
+    private final ProducerBackpressureMonitor backpressureMonitor;
+    private final ShutdownDrainCoordinator drainCoordinator;
+    private final TransactionStatusIndex statusIndex;
+    private final TransactionRequestValidator requestValidator;
+    private final BatchValidator batchValidator;
+    private final IngestionTuningService tuningService;
 
     /**
      * Ingest a single transaction
+     * Validated by hand rather than with @Valid so an invalid request costs a prebuilt response
+     * instead of a MethodArgumentNotValidException
      */
     @PostMapping
     @Timed(value = "api.transaction.single", description = "Time taken to process a single transaction API call")
-    public ResponseEntity<?> ingestTransaction(@Valid @RequestBody TransactionRequest request) {
+    public ResponseEntity<?> ingestTransaction(@RequestBody TransactionRequest request,
+                                               HttpServletRequest httpRequest) {
+        Rejection rejection = requestValidator.validate(request);
+        if (rejection != null) {
+            return rejection.toResponse();
+        }
         log.debug("Received transaction request: {}", request.getTransactionId());
 
+        checkBackpressure(rateLimiterService.checkSingle(httpRequest, request));
+
         Timer.Sample sample = metricsService.startProcessingTimer();
+        IngestionStageEvent event = IngestionStageEvent.start(IngestionStageEvent.REQUEST);
 
         // Record metrics for this transaction
         metricsService.recordTransactionReceived();
         metricsService.recordTransactionAmount(request.getAmount());
 
         try {
-            transactionService.processTransaction(request);
+            CompletableFuture<Void> sent = transactionService.processTransaction(request, deadlinePolicy.forRequest(httpRequest));
+            if (transactionService.isAcknowledgedSend()) {
+                return awaitAcknowledgement(sent, sample, httpRequest);
+            }
             metricsService.stopProcessingTimer(sample);
             return ResponseEntity.status(HttpStatus.ACCEPTED).body("Transaction Accepted");
         } catch (Exception e) {
             metricsService.recordTransactionFailed();
             metricsService.stopProcessingTimer(sample);
             throw e;
+        } finally {
+            if (event != null) {
+                event.finish(request.getTransactionId());
+            }
         }
     }
 
     /**
      * Ingest a batch of transactions
-     * Limits batch size and processes asynchronously
+     * Limits batch size and processes asynchronously; the limit can be tuned at runtime
      */
     @PostMapping("/batch")
     @Timed(value = "api.transaction.batch", description = "Time taken to process a batch of transactions API call")
     public ResponseEntity<BatchResponse> ingestBatchTransactions(
             @Valid @NotEmpty(message = "Batch cannot be empty")
-            @Size(max = 1000, message = "Batch size cannot exceed 1000 transactions")
-            @RequestBody List<@Valid TransactionRequest> requests) {
+            @RequestBody List<@Valid TransactionRequest> requests,
+            HttpServletRequest httpRequest) {
 
         log.debug("Received batch with {} transactions", requests.size());
+        checkBatchSize(requests);
+
+        if (!drainCoordinator.isAccepting()) {
+            throw new ServiceDrainingException();
+        }
+        RateLimitCharge charge = rateLimiterService.checkBatch(httpRequest, requests);
+        checkBackpressure(charge);
 
         // Record batch metrics
         metricsService.recordBatchReceived(requests.size());
 
-        // Process asynchronously
-        CompletableFuture.runAsync(() -> transactionService.processTransactions(requests));
+        publish(requests, deadlinePolicy.forBatch(httpRequest), charge);
 
         // Return immediately with accepted status
         BatchResponse response = BatchResponse.builder()
@@ -86,6 +139,69 @@ public class TransactionController {
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
     }
 
+    /**
+     * Ingest the valid items of a batch and report the invalid ones by index
+     * Selected with ?partial=true; answers 400 only when no item is valid
+     */
+    @PostMapping(value = "/batch", params = "partial=true")
+    @Timed(value = "api.transaction.batch.partial", description = "Time taken to process a partial batch API call")
+    public ResponseEntity<BatchResponse> ingestPartialBatch(
+            @NotEmpty(message = "Batch cannot be empty")
+            @RequestBody List<TransactionRequest> requests,
+            HttpServletRequest httpRequest) {
+
+        log.debug("Received partial batch with {} transactions", requests.size());
+        checkBatchSize(requests);
+
+        if (!drainCoordinator.isAccepting()) {
+            throw new ServiceDrainingException();
+        }
+
+        BatchValidator.Result validation = batchValidator.validate(requests);
+        List<TransactionRequest> accepted = validation.accepted();
+        int rejected = validation.errors().size();
+
+        metricsService.recordBatchReceived(requests.size());
+        metricsService.recordBatchItemsRejected(rejected);
+
+        if (!accepted.isEmpty()) {
+            // Only the items that will actually be published are charged against the quota
+            RateLimitCharge charge = rateLimiterService.checkBatch(httpRequest, accepted);
+            checkBackpressure(charge);
+            publish(accepted, deadlinePolicy.forBatch(httpRequest), charge);
+        }
+
+        BatchResponse response = BatchResponse.builder()
+                .batchSize(requests.size())
+                .timestamp(Instant.now())
+                .message(accepted.isEmpty() ? "No valid transactions in batch"
+                        : rejected == 0 ? "Batch accepted for processing"
+                        : "Batch partially accepted for processing")
+                .acceptedCount(accepted.size())
+                .rejectedCount(rejected)
+                .errors(validation.errors())
+                .build();
+
+        return ResponseEntity.status(accepted.isEmpty() ? HttpStatus.BAD_REQUEST : HttpStatus.ACCEPTED).body(response);
+    }
+
+    /**
+     * Status of a recently ingested transaction, from the in-memory status index
+     */
+    @GetMapping("/{transactionId}")
+    public ResponseEntity<TransactionStatusResponse> getTransactionStatus(@PathVariable String transactionId) {
+        TransactionStatusEntry entry = statusIndex.lookup(transactionId)
+                .orElseThrow(() -> new TransactionNotFoundException(transactionId));
+
+        return ResponseEntity.ok(TransactionStatusResponse.builder()
+                .transactionId(transactionId)
+                .status(entry.status().name())
+                .partition(entry.partition() >= 0 ? entry.partition() : null)
+                .offset(entry.partition() >= 0 ? entry.offset() : null)
+                .receivedAt(entry.receivedAt())
+                .build());
+    }
+
     /**
      * Health check endpoint
      */
@@ -121,4 +237,77 @@ public class TransactionController {
         log.info("Transaction throttling set to: {}", enabled);
         metricsService.setThrottlingEnabled(enabled);
     }
+
+    /**
+     * Release the request thread and answer once the broker has acknowledged the record.
+     * Async processing is started on the request directly rather than by returning a DeferredResult,
+     * so the fire-and-forget path keeps its plain synchronous dispatch. The handler adapter resumes
+     * the async dispatch with the container passed as processing context, as it would with the one
+     * its DeferredResult return value handler passes. Errors, including the producer's ack timeout,
+     * are resolved by GlobalExceptionHandler on the async dispatch.
+     */
+    private ResponseEntity<?> awaitAcknowledgement(CompletableFuture<Void> sent, Timer.Sample sample,
+                                                   HttpServletRequest httpRequest) {
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>();
+        try {
+            WebAsyncUtils.getAsyncManager(httpRequest).startDeferredResultProcessing(result, new ModelAndViewContainer());
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot start async processing for acknowledged send", e);
+        }
+        // Failures are already counted by TransactionService
+        sent.whenComplete((ignored, ex) -> {
+            metricsService.stopProcessingTimer(sample);
+            if (ex == null) {
+                result.setResult(ResponseEntity.status(HttpStatus.ACCEPTED).body("Transaction Accepted"));
+            } else {
+                result.setErrorResult(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            }
+        });
+        return null;
+    }
+
+    /**
+     * Shed the request with 503 while the producer is under pressure; a shed request was never
+     * ingested, so its rate limit permits are given back
+     */
+    private void checkBackpressure(RateLimitCharge charge) {
+        try {
+            backpressureMonitor.check();
+        } catch (ProducerBackpressureException e) {
+            charge.refund();
+            throw e;
+        }
+    }
+
+    private void checkBatchSize(List<TransactionRequest> requests) {
+        int maxBatchSize = tuningService.getMaxBatchSize();
+        if (requests.size() > maxBatchSize) {
+            throw new BatchTooLargeException(maxBatchSize);
+        }
+    }
+
+    /**
+     * Process accepted batch items asynchronously; queued items are shed if the client's explicit
+     * deadline passes. Items are tracked so a shutdown waits for them instead of dropping them.
+     * A batch the pipeline has no room for is shed with 503 and its permits are given back.
+     */
+    private void publish(List<TransactionRequest> requests, Deadline deadline, RateLimitCharge charge) {
+        IngestionStageEvent event = IngestionStageEvent.start(IngestionStageEvent.BATCH_REQUEST);
+        String batchId = event != null ? IngestionStageEvent.nextBatchId() : null;
+        try {
+            if (transactionService.isBulkMode()) {
+                drainCoordinator.track(requests, transactionService.processBulk(requests, deadline));
+            } else {
+                List<CompletableFuture<Void>> futures = transactionService.processTransactions(requests, deadline, batchId);
+                drainCoordinator.track(requests, futures);
+            }
+        } catch (ProducerBackpressureException e) {
+            charge.refund();
+            throw e;
+        } finally {
+            if (event != null) {
+                event.finish(null, batchId, requests.size(), -1);
+            }
+        }
+    }
 }
\ No newline at end of file
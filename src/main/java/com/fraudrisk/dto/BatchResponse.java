@@ -2,15 +2,18 @@
 package com.fraudrisk.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.Instant;
+import java.util.List;
 
 /**
  * Response for batch transaction processing
+ * The accepted/rejected counts and item errors are only present for partial batches
  */
 @Data
 @Builder
@@ -19,8 +22,29 @@ import java.time.Instant;
 public class BatchResponse {
     private int batchSize;
 
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSZ")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSZ", timezone = "UTC")
     private Instant timestamp;
 
     private String message;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer acceptedCount;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer rejectedCount;
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<ItemError> errors;
+
+    /**
+     * First validation failure of one batch item, by its position in the request
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemError {
+        private int index;
+        private String field;
+        private String message;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,195 @@
+package com.fraudrisk.enrichment;
+
+import com.fraudrisk.model.Location;
+import com.fraudrisk.util.IpAddressUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Resolves IP addresses to coordinates using a memory-mapped {@link GeoIpTable}.
+ *
+ * The active table and its hot-IP cache are published together through an
+ * {@link AtomicReference}; a reload maps the new file first and then swaps the reference,
+ * so lookups never pause while a new database version is installed.
+ *
+ * A lookup allocates nothing once its address is hot: the cache maps the address to a range
+ * index without boxing, and the result for a range is built once and shared by every address in
+ * it until a lookup for another range displaces it.
+ */
+@Slf4j
+@Service
+public class GeoIpService {
+
+    @Value("${enrichment.geoip.enabled:false}")
+    private boolean enabled;
+
+    @Value("${enrichment.geoip.database-path:}")
+    private String databasePath;
+
+    @Value("${enrichment.geoip.hot-cache-size:10000}")
+    private int hotCacheSize = 10000;
+
+    private static final int RESOLVED_PROBES = 4;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("Geo IP enrichment is disabled");
+            return;
+        }
+        if (databasePath == null || databasePath.isBlank()) {
+            log.warn("Geo IP enrichment is enabled but enrichment.geoip.database-path is not set");
+            return;
+        }
+        load(Paths.get(databasePath));
+    }
+
+    /**
+     * Re-map the database when the file on disk has been replaced
+     */
+    @Scheduled(fixedDelayString = "${enrichment.geoip.refresh-interval-ms:60000}",
+            initialDelayString = "${enrichment.geoip.refresh-interval-ms:60000}")
+    public void refreshIfChanged() {
+        if (!enabled || databasePath == null || databasePath.isBlank()) {
+            return;
+        }
+
+        Path path = Paths.get(databasePath);
+        Snapshot snapshot = current.get();
+        try {
+            FileTime modified = Files.getLastModifiedTime(path);
+            if (snapshot == null || !modified.equals(snapshot.modified())) {
+                load(path);
+            }
+        } catch (IOException e) {
+            log.warn("Unable to check geo IP database {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Map the database at the given path and make it the active version
+     *
+     * @return true if the new version was installed; on failure the previous version stays active
+     */
+    public synchronized boolean load(Path path) {
+        try {
+            FileTime modified = Files.getLastModifiedTime(path);
+            GeoIpTable table = GeoIpTable.open(path);
+            current.set(new Snapshot(table, new HotIpCache(hotCacheSize), new Resolved[pointSlots()], modified));
+            log.info("Loaded geo IP database {} with {} ranges", path, table.size());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load geo IP database {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Look up the coordinates for an IPv4 address
+     *
+     * @return The coordinates, or null if enrichment is unavailable or the address is unknown
+     */
+    public GeoPoint lookup(String ipAddress) {
+        Resolved resolved = resolve(ipAddress);
+        return resolved == null ? null : resolved.point();
+    }
+
+    /**
+     * Look up the coordinates for an IPv4 address as an Avro location.
+     * The instance is shared by every address in the same range and must not be modified.
+     *
+     * @return The location, or null if enrichment is unavailable or the address is unknown
+     */
+    public Location lookupLocation(String ipAddress) {
+        Resolved resolved = resolve(ipAddress);
+        return resolved == null ? null : resolved.location();
+    }
+
+    /**
+     * Check if a database version is currently loaded
+     */
+    public boolean isAvailable() {
+        return current.get() != null;
+    }
+
+    private Resolved resolve(String ipAddress) {
+        Snapshot snapshot = current.get();
+        if (snapshot == null) {
+            return null;
+        }
+
+        int ip = IpAddressUtils.parseIpv4(ipAddress);
+        if (ip == IpAddressUtils.INVALID_IPV4) {
+            return null;
+        }
+
+        int index = snapshot.cache().get(ip);
+        if (index == HotIpCache.NOT_CACHED) {
+            index = snapshot.table().find(ip);
+            snapshot.cache().put(ip, index);
+        }
+        return index == GeoIpTable.NOT_FOUND ? null : snapshot.resolved(index);
+    }
+
+    /**
+     * Hot addresses cannot span more ranges than there are hot addresses; twice that many slots
+     * keeps probe runs short
+     */
+    private int pointSlots() {
+        return Integer.highestOneBit(Math.max(RESOLVED_PROBES, hotCacheSize) * 2 - 1) << 1;
+    }
+
+    /**
+     * The result for one range; immutable, so it can be shared through a plain array
+     */
+    private record Resolved(int index, GeoPoint point, Location location) {
+    }
+
+    /**
+     * A mapped database version with its caches. {@code points} is an open-addressing cache of
+     * results by range index, probed like {@link HotIpCache} and read and written without locks:
+     * a racing lookup at worst builds the same result twice.
+     */
+    private record Snapshot(GeoIpTable table, HotIpCache cache, Resolved[] points, FileTime modified) {
+
+        Resolved resolved(int index) {
+            int mask = points.length - 1;
+            int h = index * 0x9E3779B9;
+            int home = (h ^ (h >>> 16)) & mask;
+            int free = (home + ThreadLocalRandom.current().nextInt(RESOLVED_PROBES)) & mask;
+            for (int i = 0; i < RESOLVED_PROBES; i++) {
+                int at = (home + i) & mask;
+                Resolved resolved = points[at];
+                if (resolved == null) {
+                    free = at;
+                    break;
+                }
+                if (resolved.index() == index) {
+                    return resolved;
+                }
+            }
+
+            double latitude = table.latitude(index);
+            double longitude = table.longitude(index);
+            Resolved resolved = new Resolved(index, new GeoPoint(latitude, longitude), Location.newBuilder()
+                    .setLatitude(latitude)
+                    .setLongitude(longitude)
+                    .build());
+            points[free] = resolved;
+            return resolved;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.fraudrisk.enrichment;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Immutable, memory-mapped view of an IP-range geo database.
+ *
+ * File layout (big-endian):
+ * <pre>
+ *   header : int magic ("GEO1"), int formatVersion, int rangeCount
+ *   ranges : rangeCount x { int startIp, int endIp, float latitude, float longitude }
+ * </pre>
+ * Ranges are sorted by unsigned {@code startIp} and do not overlap. Lookups are a binary
+ * search over absolute reads of the mapped buffer, so they never allocate.
+ */
+public final class GeoIpTable {
+
+    public static final int MAGIC = 0x47454F31;
+    public static final int FORMAT_VERSION = 1;
+    public static final int HEADER_BYTES = 12;
+    public static final int RANGE_BYTES = 16;
+
+    /** Returned by {@link #find(int)} when no range contains the address */
+    public static final int NOT_FOUND = -1;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int rangeCount;
+
+    private GeoIpTable(Path path, MappedByteBuffer buffer, int rangeCount) {
+        this.path = path;
+        this.buffer = buffer;
+        this.rangeCount = rangeCount;
+    }
+
+    /**
+     * Map a database file read-only and validate its header
+     */
+    public static GeoIpTable open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Geo IP database " + path + " is truncated");
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Geo IP database " + path + " has an invalid header");
+            }
+            if (buffer.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("Unsupported geo IP database version " + buffer.getInt(4));
+            }
+
+            int rangeCount = buffer.getInt(8);
+            if (rangeCount < 0 || HEADER_BYTES + (long) rangeCount * RANGE_BYTES > size) {
+                throw new IOException("Geo IP database " + path + " declares "
+                        + rangeCount + " ranges but is only " + size + " bytes");
+            }
+
+            // The mapping stays valid after the channel is closed
+            return new GeoIpTable(path, buffer, rangeCount);
+        }
+    }
+
+    /**
+     * Find the index of the range containing the address
+     *
+     * @param ip IPv4 address as an unsigned 32-bit value
+     * @return Range index, or {@link #NOT_FOUND}
+     */
+    public int find(int ip) {
+        int low = 0;
+        int high = rangeCount - 1;
+        int candidate = NOT_FOUND;
+
+        // Locate the last range whose start is <= ip
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Integer.compareUnsigned(startIp(mid), ip) <= 0) {
+                candidate = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        if (candidate != NOT_FOUND && Integer.compareUnsigned(ip, endIp(candidate)) <= 0) {
+            return candidate;
+        }
+        return NOT_FOUND;
+    }
+
+    public int startIp(int index) {
+        return buffer.getInt(offset(index));
+    }
+
+    public int endIp(int index) {
+        return buffer.getInt(offset(index) + 4);
+    }
+
+    public float latitude(int index) {
+        return buffer.getFloat(offset(index) + 8);
+    }
+
+    public float longitude(int index) {
+        return buffer.getFloat(offset(index) + 12);
+    }
+
+    public int size() {
+        return rangeCount;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    private static int offset(int index) {
+        return HEADER_BYTES + index * RANGE_BYTES;
+    }
+}
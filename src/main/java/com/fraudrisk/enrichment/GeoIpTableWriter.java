@@ -0,0 +1,66 @@
+package com.fraudrisk.enrichment;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Builds geo IP database files in the layout read by {@link GeoIpTable}.
+ *
+ * Files are written to a temporary sibling and atomically moved into place, so a running
+ * {@link GeoIpService} never maps a half-written file.
+ */
+public class GeoIpTableWriter {
+
+    private final List<Range> ranges = new ArrayList<>();
+
+    /**
+     * Add an inclusive IPv4 range
+     */
+    public GeoIpTableWriter addRange(int startIp, int endIp, float latitude, float longitude) {
+        if (Integer.compareUnsigned(startIp, endIp) > 0) {
+            throw new IllegalArgumentException("Range start must not be after range end");
+        }
+        ranges.add(new Range(startIp, endIp, latitude, longitude));
+        return this;
+    }
+
+    /**
+     * Sort, validate and write the ranges to the given path
+     */
+    public void writeTo(Path path) throws IOException {
+        List<Range> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparing(Range::startIp, Integer::compareUnsigned));
+
+        for (int i = 1; i < sorted.size(); i++) {
+            if (Integer.compareUnsigned(sorted.get(i).startIp(), sorted.get(i - 1).endIp()) <= 0) {
+                throw new IllegalArgumentException("Geo IP ranges must not overlap");
+            }
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(GeoIpTable.MAGIC);
+            out.writeInt(GeoIpTable.FORMAT_VERSION);
+            out.writeInt(sorted.size());
+            for (Range range : sorted) {
+                out.writeInt(range.startIp());
+                out.writeInt(range.endIp());
+                out.writeFloat(range.latitude());
+                out.writeFloat(range.longitude());
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private record Range(int startIp, int endIp, float latitude, float longitude) {
+    }
+}
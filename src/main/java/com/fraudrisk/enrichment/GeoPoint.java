@@ -0,0 +1,7 @@
+package com.fraudrisk.enrichment;
+
+/**
+ * Resolved coordinates for an IP address
+ */
+public record GeoPoint(double latitude, double longitude) {
+}
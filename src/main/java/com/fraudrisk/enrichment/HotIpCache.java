@@ -0,0 +1,73 @@
+package com.fraudrisk.enrichment;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free cache of the range index for frequently seen IP addresses.
+ *
+ * An open-addressing table of longs, each packing an address with its range index, so a lookup
+ * neither boxes the address nor allocates an entry. An address is looked for in {@value #PROBES}
+ * consecutive slots from its home slot; when they are all taken by other addresses, a random one
+ * of them is overwritten, so the table never grows and never needs a lock, and two hot addresses
+ * with the same home slot settle into different slots instead of evicting each other on every
+ * lookup. A slot is written as a single long, so a racing reader sees either the old entry or the
+ * new one.
+ */
+final class HotIpCache {
+
+    /** Returned by {@link #get(int)} for an address that is not cached */
+    static final int NOT_CACHED = -2;
+
+    private static final int PROBES = 4;
+    private static final long EMPTY = 0L;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+
+    HotIpCache(int maxEntries) {
+        // At least twice as many slots as entries, so probe runs stay short
+        int capacity = Integer.highestOneBit(Math.max(PROBES, maxEntries) * 2 - 1) << 1;
+        this.slots = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @return The cached range index, {@link GeoIpTable#NOT_FOUND} for an address known not to be
+     *         in the table, or {@link #NOT_CACHED}
+     */
+    int get(int ip) {
+        int home = home(ip);
+        for (int i = 0; i < PROBES; i++) {
+            long slot = slots.get((home + i) & mask);
+            if (slot == EMPTY) {
+                return NOT_CACHED;
+            }
+            if ((int) (slot >>> 32) == ip) {
+                return (int) slot - 2;
+            }
+        }
+        return NOT_CACHED;
+    }
+
+    void put(int ip, int rangeIndex) {
+        // The index is stored off by two so NOT_FOUND is never mistaken for an empty slot
+        long entry = ((long) ip << 32) | ((rangeIndex + 2) & 0xFFFFFFFFL);
+        int home = home(ip);
+        for (int i = 0; i < PROBES; i++) {
+            int at = (home + i) & mask;
+            long slot = slots.get(at);
+            if (slot == EMPTY || (int) (slot >>> 32) == ip) {
+                slots.set(at, entry);
+                return;
+            }
+        }
+        slots.set((home + ThreadLocalRandom.current().nextInt(PROBES)) & mask, entry);
+    }
+
+    private int home(int ip) {
+        // Mix the bits so addresses from the same /24 spread across the table
+        int h = ip * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
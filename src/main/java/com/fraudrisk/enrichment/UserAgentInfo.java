@@ -0,0 +1,10 @@
+package com.fraudrisk.enrichment;
+
+/**
+ * Device family, operating system and browser parsed from a user-agent string
+ */
+public record UserAgentInfo(String device, String os, String browser) {
+
+    public static final UserAgentInfo UNKNOWN =
+            new UserAgentInfo(UserAgentParser.OTHER, UserAgentParser.OTHER, UserAgentParser.OTHER);
+}
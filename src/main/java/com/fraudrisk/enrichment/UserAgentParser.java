@@ -0,0 +1,116 @@
+package com.fraudrisk.enrichment;
+
+import java.util.Locale;
+
+/**
+ * Classifies user-agent strings into a small fixed vocabulary of device, OS and browser families.
+ *
+ * Matching is a sequence of substring checks in precedence order (for example Edge and Opera
+ * also announce Chrome, and iOS announces "like Mac OS X"). Results only ever use the constants
+ * below, so header encodings can be cached per value. Versions are deliberately not extracted.
+ */
+public final class UserAgentParser {
+
+    public static final String OTHER = "other";
+
+    public static final String DEVICE_DESKTOP = "desktop";
+    public static final String DEVICE_MOBILE = "mobile";
+    public static final String DEVICE_TABLET = "tablet";
+    public static final String DEVICE_BOT = "bot";
+
+    public static final String OS_WINDOWS = "windows";
+    public static final String OS_MACOS = "macos";
+    public static final String OS_IOS = "ios";
+    public static final String OS_ANDROID = "android";
+    public static final String OS_CHROMEOS = "chromeos";
+    public static final String OS_LINUX = "linux";
+
+    public static final String BROWSER_EDGE = "edge";
+    public static final String BROWSER_OPERA = "opera";
+    public static final String BROWSER_SAMSUNG = "samsung";
+    public static final String BROWSER_FIREFOX = "firefox";
+    public static final String BROWSER_CHROME = "chrome";
+    public static final String BROWSER_SAFARI = "safari";
+    public static final String BROWSER_IE = "ie";
+
+    private static final String[] BOT_TOKENS = {
+            "bot", "crawl", "spider", "slurp", "curl/", "wget/", "python-requests", "go-http-client", "headless"
+    };
+
+    private UserAgentParser() {
+    }
+
+    public static UserAgentInfo parse(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return UserAgentInfo.UNKNOWN;
+        }
+        String os = os(userAgent);
+        return new UserAgentInfo(device(userAgent, os), os, browser(userAgent));
+    }
+
+    static String os(String ua) {
+        if (ua.contains("Windows")) {
+            return OS_WINDOWS;
+        }
+        if (ua.contains("iPhone") || ua.contains("iPad") || ua.contains("iPod")) {
+            return OS_IOS;
+        }
+        if (ua.contains("Android")) {
+            return OS_ANDROID;
+        }
+        if (ua.contains("CrOS")) {
+            return OS_CHROMEOS;
+        }
+        if (ua.contains("Mac OS X") || ua.contains("Macintosh")) {
+            return OS_MACOS;
+        }
+        if (ua.contains("Linux")) {
+            return OS_LINUX;
+        }
+        return OTHER;
+    }
+
+    static String device(String ua, String os) {
+        String lower = ua.toLowerCase(Locale.ROOT);
+        for (String token : BOT_TOKENS) {
+            if (lower.contains(token)) {
+                return DEVICE_BOT;
+            }
+        }
+        if (ua.contains("iPad") || ua.contains("Tablet") || (OS_ANDROID.equals(os) && !ua.contains("Mobile"))) {
+            return DEVICE_TABLET;
+        }
+        if (ua.contains("Mobi") || OS_IOS.equals(os) || OS_ANDROID.equals(os)) {
+            return DEVICE_MOBILE;
+        }
+        return switch (os) {
+            case OS_WINDOWS, OS_MACOS, OS_LINUX, OS_CHROMEOS -> DEVICE_DESKTOP;
+            default -> OTHER;
+        };
+    }
+
+    static String browser(String ua) {
+        if (ua.contains("Edg/") || ua.contains("EdgA/") || ua.contains("EdgiOS/") || ua.contains("Edge/")) {
+            return BROWSER_EDGE;
+        }
+        if (ua.contains("OPR/") || ua.contains("Opera")) {
+            return BROWSER_OPERA;
+        }
+        if (ua.contains("SamsungBrowser/")) {
+            return BROWSER_SAMSUNG;
+        }
+        if (ua.contains("Firefox/") || ua.contains("FxiOS/")) {
+            return BROWSER_FIREFOX;
+        }
+        if (ua.contains("Chrome/") || ua.contains("CriOS/") || ua.contains("Chromium/")) {
+            return BROWSER_CHROME;
+        }
+        if (ua.contains("Safari/") && ua.contains("Version/")) {
+            return BROWSER_SAFARI;
+        }
+        if (ua.contains("MSIE ") || ua.contains("Trident/")) {
+            return BROWSER_IE;
+        }
+        return OTHER;
+    }
+}
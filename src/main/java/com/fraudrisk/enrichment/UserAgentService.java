@@ -0,0 +1,103 @@
+package com.fraudrisk.enrichment;
+
+import com.fraudrisk.model.Metadata;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.MetricsService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Parses {@code metadata.userAgent} once at ingestion and publishes the result as headers.
+ *
+ * Results are cached per raw string in a Caffeine cache (W-TinyLFU admission), bounded by an
+ * estimate of retained bytes rather than an entry count because user agents vary from a few
+ * characters to 500. A one-off string from a scanner is not admitted over the few thousand
+ * agents real traffic repeats. Hit ratio and weighted size are exported as metrics.
+ *
+ * Header contract, all lower-case UTF-8 values from {@link UserAgentParser}'s vocabulary:
+ * {@value #DEVICE} (desktop, mobile, tablet, bot, other), {@value #OS} and {@value #BROWSER}.
+ */
+@Service
+public class UserAgentService {
+
+    public static final String DEVICE = "ua-device";
+    public static final String OS = "ua-os";
+    public static final String BROWSER = "ua-browser";
+
+    /** Approximate retained bytes per entry besides the key's characters: node, key and array headers, value */
+    static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private static final ConcurrentMap<String, byte[]> ENCODED = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+    private final Cache<String, UserAgentInfo> cache;
+
+    public UserAgentService(MetricsService metricsService,
+                            @Value("${enrichment.user-agent.enabled:true}") boolean enabled,
+                            @Value("${enrichment.user-agent.cache-max-bytes:4194304}") long cacheMaxBytes) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(cacheMaxBytes)
+                .weigher((String userAgent, UserAgentInfo info) -> weigh(userAgent))
+                .recordStats()
+                .build();
+        metricsService.registerCache("userAgents", cache);
+        metricsService.registerGauge("enrichment.useragent.cache.hit.ratio",
+                "Share of user-agent lookups served from the cache", () -> cache.stats().hitRate());
+        metricsService.registerGauge("enrichment.useragent.cache.weighted.bytes",
+                "Estimated bytes retained by the user-agent cache",
+                () -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Parsed form of a user agent, from the cache when it has been seen before
+     */
+    public UserAgentInfo lookup(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return UserAgentInfo.UNKNOWN;
+        }
+        return cache.get(userAgent, UserAgentParser::parse);
+    }
+
+    /**
+     * Append the user-agent headers when the transaction carries a user agent
+     */
+    public void appendHeaders(Transaction transaction, List<Header> headers) {
+        if (!enabled) {
+            return;
+        }
+        Metadata metadata = transaction.getMetadata();
+        String userAgent = metadata == null ? null : metadata.getUserAgent();
+        if (userAgent == null || userAgent.isBlank()) {
+            return;
+        }
+        UserAgentInfo info = lookup(userAgent);
+        headers.add(new RecordHeader(DEVICE, encode(info.device())));
+        headers.add(new RecordHeader(OS, encode(info.os())));
+        headers.add(new RecordHeader(BROWSER, encode(info.browser())));
+    }
+
+    static int weigh(String userAgent) {
+        return ENTRY_OVERHEAD_BYTES + 2 * userAgent.length();
+    }
+
+    /**
+     * Values come from the parser's fixed vocabulary, so the encodings are shared and read-only
+     */
+    private static byte[] encode(String value) {
+        return ENCODED.computeIfAbsent(value, v -> v.getBytes(StandardCharsets.UTF_8));
+    }
+}
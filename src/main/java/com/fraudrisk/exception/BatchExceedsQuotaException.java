@@ -0,0 +1,20 @@
+package com.fraudrisk.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a batch needs more rate-limit permits than its source's burst can ever hold,
+ * so retrying it unchanged would never succeed
+ */
+@Getter
+public class BatchExceedsQuotaException extends RuntimeException {
+
+    private final String source;
+    private final int burst;
+
+    public BatchExceedsQuotaException(String source, int burst) {
+        super("Batch needs more than the " + burst + " transactions this source may send at once", null, false, false);
+        this.source = source;
+        this.burst = burst;
+    }
+}
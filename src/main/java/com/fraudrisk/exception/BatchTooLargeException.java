@@ -0,0 +1,17 @@
+package com.fraudrisk.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a batch exceeds the batch size limit, which can be changed at runtime
+ */
+@Getter
+public class BatchTooLargeException extends RuntimeException {
+
+    private final int maxBatchSize;
+
+    public BatchTooLargeException(int maxBatchSize) {
+        super("Batch size cannot exceed " + maxBatchSize + " transactions", null, false, false);
+        this.maxBatchSize = maxBatchSize;
+    }
+}
@@ -0,0 +1,20 @@
+package com.fraudrisk.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when work is dropped because the caller's deadline has passed.
+ * Shedding is expected during overload, so no stack trace is captured.
+ */
+@Getter
+public class DeadlineExceededException extends RuntimeException {
+
+    private final String transactionId;
+    private final String stage;
+
+    public DeadlineExceededException(String transactionId, String stage) {
+        super("Deadline exceeded before " + stage, null, false, false);
+        this.transactionId = transactionId;
+        this.stage = stage;
+    }
+}
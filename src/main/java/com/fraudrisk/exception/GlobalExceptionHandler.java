@@ -1,10 +1,16 @@
 package com.fraudrisk.exception;
 
+import com.fraudrisk.util.RateLimitedLogger;
+import com.fraudrisk.validation.TransactionRequestValidator;
+import jakarta.validation.ConstraintViolationException;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -16,8 +22,21 @@ import java.util.Map;
 
 @Slf4j
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private static final RateLimitedLogger errorLog = new RateLimitedLogger(log);
+
+    private final TransactionRequestValidator requestValidator;
+
+    /**
+     * Unparseable bodies are a client error; answer with the prebuilt body instead of a 500
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<byte[]> handleMessageNotReadableException(HttpMessageNotReadableException ex) {
+        return requestValidator.malformed().toResponse();
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
@@ -39,6 +58,168 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errorResponse);
     }
 
+    /**
+     * Constraints on handler parameters themselves, such as an empty batch; keyed by the path
+     * below the method name, e.g. {@code requests}
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ErrorResponse> handleConstraintViolationException(ConstraintViolationException ex) {
+        Map<String, String> errors = new HashMap<>();
+
+        ex.getConstraintViolations().forEach(violation -> {
+            String path = violation.getPropertyPath().toString();
+            errors.put(path.substring(path.indexOf('.') + 1), violation.getMessage());
+        });
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Validation error",
+                errors,
+                LocalDateTime.now()
+        );
+
+        log.warn("Validation error: {}", errors);
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
+    @ExceptionHandler(BatchTooLargeException.class)
+    public ResponseEntity<ErrorResponse> handleBatchTooLargeException(BatchTooLargeException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("requests", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Validation error",
+                errors,
+                LocalDateTime.now()
+        );
+
+        log.warn("Validation error: {}", errors);
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceededException(RateLimitExceededException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Rate limit exceeded",
+                errors,
+                LocalDateTime.now()
+        );
+
+        // Rejections are routine under load; the reject counter carries the detail
+        log.debug("Rate limit exceeded for {}", ex.getKey());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(BatchExceedsQuotaException.class)
+    public ResponseEntity<ErrorResponse> handleBatchExceedsQuotaException(BatchExceedsQuotaException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("requests", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.PAYLOAD_TOO_LARGE.value(),
+                "Rate limit exceeded",
+                errors,
+                LocalDateTime.now()
+        );
+
+        // Retrying cannot help, so there is no Retry-After; the caller has to split the batch
+        log.debug("Batch exceeds the rate limit burst of {} for {}", ex.getBurst(), ex.getSource());
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(errorResponse);
+    }
+
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<ErrorResponse> handleDeadlineExceededException(DeadlineExceededException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", ex.getMessage());
+        errors.put("transactionId", ex.getTransactionId());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Deadline exceeded",
+                errors,
+                LocalDateTime.now()
+        );
+
+        // The caller has usually given up already; the drop counter carries the detail
+        log.debug("Dropped transaction {} at stage {}: deadline exceeded", ex.getTransactionId(), ex.getStage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+
+    @ExceptionHandler(ProducerBackpressureException.class)
+    public ResponseEntity<ErrorResponse> handleProducerBackpressureException(ProducerBackpressureException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service overloaded",
+                errors,
+                LocalDateTime.now()
+        );
+
+        // The monitor logs pressure transitions; per-request rejections are only counted
+        log.debug("Rejected request: producer buffer under pressure");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(ServiceDrainingException.class)
+    public ResponseEntity<ErrorResponse> handleServiceDrainingException(ServiceDrainingException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service shutting down",
+                errors,
+                LocalDateTime.now()
+        );
+
+        log.debug("Rejected batch: service is draining for shutdown");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(ImportNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleImportNotFoundException(ImportNotFoundException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.NOT_FOUND.value(),
+                "Import not found",
+                errors,
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    }
+
+    @ExceptionHandler(TransactionNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleTransactionNotFoundException(TransactionNotFoundException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", ex.getMessage());
+        errors.put("transactionId", ex.getTransactionId());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.NOT_FOUND.value(),
+                "Transaction not found",
+                errors,
+                LocalDateTime.now()
+        );
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    }
+
     @ExceptionHandler(TransactionProcessingException.class)
     public ResponseEntity<ErrorResponse> handleTransactionProcessingException(TransactionProcessingException ex) {
         Map<String, String> errors = new HashMap<>();
@@ -51,7 +232,8 @@ public class GlobalExceptionHandler {
                 LocalDateTime.now()
         );
 
-        log.error("Transaction processing error: {}", ex.getMessage(), ex);
+        // TransactionService has already logged the cause
+        log.debug("Transaction processing error: {}", ex.getMessage());
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
     }
 
@@ -68,8 +250,8 @@ public class GlobalExceptionHandler {
                 LocalDateTime.now()
         );
 
-        log.error("Kafka producer error for transaction {}: {}",
-                ex.getTransactionId(), ex.getMessage(), ex);
+        errorLog.error("kafka-producer", ex, "Kafka producer error for transaction {}: {}",
+                ex.getTransactionId(), ex.getMessage());
 
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
     }
@@ -86,7 +268,7 @@ public class GlobalExceptionHandler {
                 LocalDateTime.now()
         );
 
-        log.error("Unhandled exception: {}", ex.getMessage(), ex);
+        errorLog.error("unhandled", ex, "Unhandled exception: {}", ex.getMessage());
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
     }
 
@@ -0,0 +1,11 @@
+package com.fraudrisk.exception;
+
+/**
+ * Thrown when an import ID has no upload or checkpoint on this instance
+ */
+public class ImportNotFoundException extends RuntimeException {
+
+    public ImportNotFoundException(String importId) {
+        super("Import not found: " + importId, null, false, false);
+    }
+}
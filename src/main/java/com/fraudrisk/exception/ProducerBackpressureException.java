@@ -0,0 +1,22 @@
+package com.fraudrisk.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when the Kafka producer buffer is too full to accept more work without blocking.
+ * Rejections are expected under load, so no stack trace is captured.
+ */
+@Getter
+public class ProducerBackpressureException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ProducerBackpressureException(long retryAfterSeconds) {
+        this("Producer buffer is full, retry later", retryAfterSeconds);
+    }
+
+    public ProducerBackpressureException(String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
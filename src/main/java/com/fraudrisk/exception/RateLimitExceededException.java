@@ -0,0 +1,20 @@
+package com.fraudrisk.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a source exceeds its rate limit.
+ * Rejections are expected under load, so no stack trace is captured.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final String key;
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String key, long retryAfterSeconds) {
+        super("Rate limit exceeded", null, false, false);
+        this.key = key;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,12 @@
+package com.fraudrisk.exception;
+
+/**
+ * Thrown when a batch arrives after the service has started draining for shutdown.
+ * Expected during rolling deploys, so no stack trace is captured.
+ */
+public class ServiceDrainingException extends RuntimeException {
+
+    public ServiceDrainingException() {
+        super("Service is shutting down, retry on another instance", null, false, false);
+    }
+}
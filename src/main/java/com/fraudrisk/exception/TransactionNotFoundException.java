@@ -0,0 +1,17 @@
+package com.fraudrisk.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a transaction ID is not in the recent-transaction status index
+ */
+@Getter
+public class TransactionNotFoundException extends RuntimeException {
+
+    private final String transactionId;
+
+    public TransactionNotFoundException(String transactionId) {
+        super("Transaction not found in the recent-transaction index", null, false, false);
+        this.transactionId = transactionId;
+    }
+}
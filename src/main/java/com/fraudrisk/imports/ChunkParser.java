@@ -0,0 +1,197 @@
+package com.fraudrisk.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraudrisk.dto.TransactionRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parses and validates the lines of one memory-mapped chunk.
+ *
+ * Thread-safe: chunks of the same file are parsed concurrently on the import fork-join pool.
+ * Invalid lines are counted and skipped; the first {@link #MAX_ERRORS_PER_CHUNK} are reported
+ * with their byte offset in the file (line numbers are not known when chunks parse out of order).
+ * CSV fields may be quoted, but a quoted field cannot span lines.
+ */
+public class ChunkParser {
+
+    static final int MAX_ERRORS_PER_CHUNK = 10;
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ImportFormat format;
+    private final List<String> csvHeader;
+
+    /**
+     * @param csvHeader column names from the file's first line; ignored for NDJSON
+     */
+    public ChunkParser(ObjectMapper objectMapper, Validator validator, ImportFormat format, List<String> csvHeader) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.format = format;
+        this.csvHeader = csvHeader;
+    }
+
+    public ParsedChunk parse(FileChannel channel, FileChunk chunk) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start(), chunk.length());
+        List<TransactionRequest> requests = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        int rejected = 0;
+        byte[] line = new byte[1024];
+
+        int limit = buffer.limit();
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int length = lineEnd - lineStart;
+            if (length > 0 && buffer.get(lineEnd - 1) == '\r') {
+                length--;
+            }
+            long fileOffset = chunk.start() + lineStart;
+
+            // The CSV header is the line at offset 0; blank lines are ignored
+            if (length > 0 && !(format == ImportFormat.CSV && fileOffset == 0)) {
+                if (line.length < length) {
+                    line = new byte[Math.max(length, line.length * 2)];
+                }
+                buffer.get(lineStart, line, 0, length);
+                String error = parseLine(line, length, requests);
+                if (error != null) {
+                    rejected++;
+                    if (errors.size() < MAX_ERRORS_PER_CHUNK) {
+                        errors.add("offset " + fileOffset + ": " + error);
+                    }
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return new ParsedChunk(chunk, requests, rejected, errors);
+    }
+
+    /**
+     * @return null if the line produced a valid request, else the reason it was rejected
+     */
+    private String parseLine(byte[] line, int length, List<TransactionRequest> requests) {
+        TransactionRequest request;
+        try {
+            request = format == ImportFormat.NDJSON
+                    ? objectMapper.readValue(line, 0, length, TransactionRequest.class)
+                    : fromCsv(splitCsv(new String(line, 0, length, StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            return "unparseable: " + e.getClass().getSimpleName();
+        }
+
+        Set<ConstraintViolation<TransactionRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<TransactionRequest> first = violations.iterator().next();
+            return first.getPropertyPath() + " " + first.getMessage();
+        }
+        requests.add(request);
+        return null;
+    }
+
+    private TransactionRequest fromCsv(List<String> values) {
+        TransactionRequest request = new TransactionRequest();
+        TransactionRequest.MetadataDTO metadata = new TransactionRequest.MetadataDTO();
+        TransactionRequest.MetadataDTO.LocationDTO location = new TransactionRequest.MetadataDTO.LocationDTO();
+        boolean hasMetadata = false;
+        boolean hasLocation = false;
+
+        for (int i = 0; i < csvHeader.size() && i < values.size(); i++) {
+            String value = values.get(i);
+            if (value.isEmpty()) {
+                continue;
+            }
+            switch (csvHeader.get(i)) {
+                case "transactionId" -> request.setTransactionId(value);
+                case "timestamp" -> request.setTimestamp(Instant.parse(value));
+                case "amount" -> request.setAmount(new BigDecimal(value));
+                case "currency" -> request.setCurrency(value);
+                case "customerId" -> request.setCustomerId(value);
+                case "customerName" -> request.setCustomerName(value);
+                case "sourceId" -> request.setSourceId(value);
+                case "sourceType" -> request.setSourceType(value);
+                case "destinationId" -> request.setDestinationId(value);
+                case "destinationType" -> request.setDestinationType(value);
+                case "transactionType" -> request.setTransactionType(value);
+                case "ipAddress" -> {
+                    metadata.setIpAddress(value);
+                    hasMetadata = true;
+                }
+                case "deviceId" -> {
+                    metadata.setDeviceId(value);
+                    hasMetadata = true;
+                }
+                case "userAgent" -> {
+                    metadata.setUserAgent(value);
+                    hasMetadata = true;
+                }
+                case "latitude" -> {
+                    location.setLatitude(Double.valueOf(value));
+                    hasLocation = true;
+                }
+                case "longitude" -> {
+                    location.setLongitude(Double.valueOf(value));
+                    hasLocation = true;
+                }
+                default -> {
+                    // Unknown columns are ignored
+                }
+            }
+        }
+        if (hasLocation) {
+            metadata.setLocation(location);
+            hasMetadata = true;
+        }
+        if (hasMetadata) {
+            request.setMetadata(metadata);
+        }
+        return request;
+    }
+
+    /**
+     * Split one CSV line, honouring double quotes and doubled quotes inside them
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,64 @@
+package com.fraudrisk.imports;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cuts a file into chunks of roughly {@code targetBytes} that end just after a newline.
+ *
+ * Only a small window around each cut point is read, so splitting a multi-gigabyte file costs a
+ * handful of reads; the chunks themselves are memory-mapped later by the parsers. A line longer
+ * than the target simply makes its chunk larger.
+ */
+public final class ChunkSplitter {
+
+    private static final int SCAN_BUFFER_BYTES = 64 * 1024;
+
+    private ChunkSplitter() {
+    }
+
+    /**
+     * Split {@code [from, size)} of the channel into line-aligned chunks
+     */
+    public static List<FileChunk> split(FileChannel channel, long from, long targetBytes) throws IOException {
+        if (targetBytes <= 0) {
+            throw new IllegalArgumentException("targetBytes must be positive");
+        }
+        long size = channel.size();
+        List<FileChunk> chunks = new ArrayList<>((int) Math.min(Integer.MAX_VALUE, (size - from) / targetBytes + 1));
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+
+        long start = from;
+        while (start < size) {
+            long probe = start + targetBytes;
+            long end = probe >= size ? size : lineEndAfter(channel, probe, size, scan);
+            chunks.add(new FileChunk(chunks.size(), start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Offset just past the first newline at or after {@code position}, or the file size
+     */
+    static long lineEndAfter(FileChannel channel, long position, long size, ByteBuffer scan) throws IOException {
+        long offset = position;
+        while (offset < size) {
+            scan.clear();
+            int read = channel.read(scan, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,15 @@
+package com.fraudrisk.imports;
+
+/**
+ * A byte range of an import file that starts and ends on a line boundary
+ *
+ * @param index position of the chunk in file order
+ * @param start offset of the first byte
+ * @param end   offset one past the last byte (the start of the next chunk)
+ */
+public record FileChunk(int index, long start, long end) {
+
+    public long length() {
+        return end - start;
+    }
+}
@@ -0,0 +1,41 @@
+package com.fraudrisk.imports;
+
+import java.util.Locale;
+
+/**
+ * Supported bulk import file formats
+ */
+public enum ImportFormat {
+
+    /** One JSON {@code TransactionRequest} per line */
+    NDJSON,
+
+    /** Header row with TransactionRequest field names, metadata flattened (ipAddress, latitude, ...) */
+    CSV;
+
+    /**
+     * Pick the format from an explicit parameter, else from the upload's content type
+     *
+     * @return null if neither identifies a supported format
+     */
+    public static ImportFormat resolve(String format, String contentType) {
+        if (format != null && !format.isBlank()) {
+            try {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        if (contentType == null) {
+            return null;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl")) {
+            return NDJSON;
+        }
+        if (type.startsWith("text/csv")) {
+            return CSV;
+        }
+        return null;
+    }
+}
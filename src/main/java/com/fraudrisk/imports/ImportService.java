@@ -0,0 +1,327 @@
+package com.fraudrisk.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.exception.ImportNotFoundException;
+import com.fraudrisk.mapper.TransactionMapper;
+import com.fraudrisk.service.KafkaProducerService;
+import com.fraudrisk.service.MetricsService;
+import com.fraudrisk.util.RateLimitedLogger;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Imports large NDJSON or CSV transaction files.
+ *
+ * The upload is streamed to {@code dir} and split into line-aligned chunks. Chunks are
+ * memory-mapped and parsed in parallel on a dedicated fork-join pool, with at most
+ * {@code max-inflight-chunks} parsed ahead, and published strictly in file order. After every
+ * record of a chunk has been acknowledged, a checkpoint with the committed byte offset is
+ * written next to the file, so a resumed import never republishes a committed chunk; the chunk
+ * that was in progress when an import stopped may be partly sent twice. If any send of a chunk
+ * fails, the chunk is not committed and the import stops as {@link ImportState#FAILED}, so a
+ * resume sends the whole chunk again rather than losing the failed records.
+ */
+@Slf4j
+@Service
+public class ImportService {
+
+    private static final String DATA_SUFFIX = ".data";
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint.json";
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final RateLimitedLogger errorLog = new RateLimitedLogger(log);
+
+    private final TransactionMapper transactionMapper;
+    private final KafkaProducerService kafkaProducerService;
+    private final MetricsService metricsService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final Path dir;
+    private final long chunkBytes;
+    private final int maxInflightChunks;
+    private final ForkJoinPool parsePool;
+    private final ExecutorService importExecutor;
+
+    private final Map<String, ImportStatus> imports = new ConcurrentHashMap<>();
+    private volatile boolean stopping;
+
+    public ImportService(TransactionMapper transactionMapper,
+                         KafkaProducerService kafkaProducerService,
+                         MetricsService metricsService,
+                         ObjectMapper objectMapper,
+                         Validator validator,
+                         @Value("${ingestion.import.dir:${java.io.tmpdir}/transaction-imports}") String dir,
+                         @Value("${ingestion.import.chunk-size-bytes:8388608}") long chunkBytes,
+                         @Value("${ingestion.import.parse-parallelism:0}") int parallelism,
+                         @Value("${ingestion.import.max-inflight-chunks:0}") int maxInflightChunks,
+                         @Value("${ingestion.import.max-concurrent:2}") int maxConcurrent) {
+        this.transactionMapper = transactionMapper;
+        this.kafkaProducerService = kafkaProducerService;
+        this.metricsService = metricsService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.dir = Path.of(dir);
+        this.chunkBytes = chunkBytes;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.maxInflightChunks = maxInflightChunks > 0 ? maxInflightChunks : threads * 2;
+        this.parsePool = new ForkJoinPool(threads);
+        this.importExecutor = Executors.newFixedThreadPool(maxConcurrent, runnable -> {
+            Thread thread = new Thread(runnable, "transaction-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Load checkpoints left by a previous run; imports that were running become resumable
+     */
+    @PostConstruct
+    public void loadCheckpoints() throws IOException {
+        Files.createDirectories(dir);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + CHECKPOINT_SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    ImportStatus status = objectMapper.readValue(file.toFile(), ImportStatus.class);
+                    if (status.getState() == ImportState.RUNNING) {
+                        status.setState(ImportState.INTERRUPTED);
+                    }
+                    imports.put(status.getImportId(), status);
+                } catch (IOException e) {
+                    log.warn("Ignoring unreadable import checkpoint {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        if (!imports.isEmpty()) {
+            log.info("Loaded {} import checkpoints from {}", imports.size(), dir);
+        }
+    }
+
+    /**
+     * Stop between chunks; running imports are checkpointed as interrupted
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        importExecutor.shutdown();
+        importExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        parsePool.shutdownNow();
+    }
+
+    /**
+     * Store the upload and start importing it in the background
+     */
+    public ImportStatus start(InputStream upload, ImportFormat format) throws IOException {
+        String importId = UUID.randomUUID().toString();
+        Path data = dataFile(importId);
+        long bytes = Files.copy(upload, data);
+
+        Instant now = Instant.now();
+        ImportStatus status = ImportStatus.builder()
+                .importId(importId)
+                .format(format)
+                .state(ImportState.RUNNING)
+                .fileBytes(bytes)
+                .errors(List.of())
+                .startedAt(now)
+                .updatedAt(now)
+                .build();
+        checkpoint(status);
+        log.info("Import {} stored: {} bytes of {}", importId, bytes, format);
+        importExecutor.execute(() -> run(importId));
+        return status;
+    }
+
+    /**
+     * Continue an interrupted or failed import from its last checkpoint
+     *
+     * @return false if the import is running or already completed
+     */
+    public boolean resume(String importId) {
+        ImportStatus status = getStatus(importId);
+        if (!status.getState().isResumable()) {
+            return false;
+        }
+        if (!imports.replace(importId, status, status.toBuilder()
+                .state(ImportState.RUNNING)
+                .failureReason(null)
+                .updatedAt(Instant.now())
+                .build())) {
+            return false;
+        }
+        log.info("Resuming import {} at byte {}", importId, status.getCommittedBytes());
+        importExecutor.execute(() -> run(importId));
+        return true;
+    }
+
+    public ImportStatus getStatus(String importId) {
+        ImportStatus status = imports.get(importId);
+        if (status == null) {
+            throw new ImportNotFoundException(importId);
+        }
+        return status;
+    }
+
+    public Collection<ImportStatus> getImports() {
+        return imports.values();
+    }
+
+    private void run(String importId) {
+        ImportStatus status = imports.get(importId);
+        try (FileChannel channel = FileChannel.open(dataFile(importId), StandardOpenOption.READ)) {
+            List<String> header = status.getFormat() == ImportFormat.CSV ? readCsvHeader(channel) : null;
+            ChunkParser parser = new ChunkParser(objectMapper, validator, status.getFormat(), header);
+            List<FileChunk> chunks = ChunkSplitter.split(channel, status.getCommittedBytes(), chunkBytes);
+
+            Deque<ForkJoinTask<ParsedChunk>> window = new ArrayDeque<>(maxInflightChunks);
+            int next = 0;
+            while (next < chunks.size() || !window.isEmpty()) {
+                while (next < chunks.size() && window.size() < maxInflightChunks) {
+                    FileChunk chunk = chunks.get(next++);
+                    window.add(parsePool.submit(() -> parser.parse(channel, chunk)));
+                }
+                if (stopping) {
+                    window.forEach(task -> task.cancel(false));
+                    status = status.toBuilder().state(ImportState.INTERRUPTED).updatedAt(Instant.now()).build();
+                    checkpoint(status);
+                    log.info("Import {} interrupted at byte {}", importId, status.getCommittedBytes());
+                    return;
+                }
+                status = publish(status, window.poll().join());
+                checkpoint(status);
+                if (status.getState() == ImportState.FAILED) {
+                    window.forEach(task -> task.cancel(false));
+                    log.warn("Import {} stopped at byte {}: {}", importId, status.getCommittedBytes(),
+                            status.getFailureReason());
+                    return;
+                }
+            }
+
+            status = status.toBuilder().state(ImportState.COMPLETED).updatedAt(Instant.now()).build();
+            checkpoint(status);
+            Files.deleteIfExists(dataFile(importId));
+            log.info("Import {} completed: published={}, failed={}, rejected={}",
+                    importId, status.getPublished(), status.getFailed(), status.getRejected());
+        } catch (Exception e) {
+            errorLog.error("import", e, "Import {} failed at byte {}: {}",
+                    importId, status.getCommittedBytes(), e.getMessage());
+            try {
+                checkpoint(status.toBuilder()
+                        .state(ImportState.FAILED)
+                        .failureReason(e.getMessage())
+                        .updatedAt(Instant.now())
+                        .build());
+            } catch (IOException checkpointError) {
+                log.error("Failed to checkpoint import {}: {}", importId, checkpointError.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Send every valid record of the chunk and wait for all of them before committing it
+     *
+     * @return The status with the chunk committed, or, if any send failed, a failed status that
+     *         leaves the chunk uncommitted
+     */
+    private ImportStatus publish(ImportStatus status, ParsedChunk parsed) {
+        AtomicLong failed = new AtomicLong();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(parsed.requests().size());
+        for (TransactionRequest request : parsed.requests()) {
+            // Failed sends have already been handed to the retry scheduler by the producer service
+            futures.add(kafkaProducerService.sendTransaction(transactionMapper.toAvro(request))
+                    .exceptionally(ex -> {
+                        failed.incrementAndGet();
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        long published = futures.size() - failed.get();
+        metricsService.recordImportRecords("published", published);
+        metricsService.recordImportRecords("failed", failed.get());
+        metricsService.recordImportRecords("rejected", parsed.rejected());
+
+        if (failed.get() > 0) {
+            // The chunk is parsed and sent again on resume, so only the failures are carried over
+            return status.toBuilder()
+                    .state(ImportState.FAILED)
+                    .failed(status.getFailed() + failed.get())
+                    .failureReason(failed.get() + " of " + futures.size() + " records in the chunk at byte "
+                            + parsed.chunk().start() + " could not be sent")
+                    .updatedAt(Instant.now())
+                    .build();
+        }
+
+        List<String> errors = status.getErrors();
+        if (!parsed.errors().isEmpty() && errors.size() < MAX_REPORTED_ERRORS) {
+            errors = new ArrayList<>(errors);
+            errors.addAll(parsed.errors().subList(0, Math.min(parsed.errors().size(), MAX_REPORTED_ERRORS - errors.size())));
+        }
+        return status.toBuilder()
+                .committedBytes(parsed.chunk().end())
+                .chunksCommitted(status.getChunksCommitted() + 1)
+                .published(status.getPublished() + published)
+                .rejected(status.getRejected() + parsed.rejected())
+                .errors(errors)
+                .updatedAt(Instant.now())
+                .build();
+    }
+
+    /**
+     * Persist the status atomically, then publish it to readers
+     */
+    private void checkpoint(ImportStatus status) throws IOException {
+        Path file = dir.resolve(status.getImportId() + CHECKPOINT_SUFFIX);
+        Path tmp = dir.resolve(status.getImportId() + CHECKPOINT_SUFFIX + ".tmp");
+        objectMapper.writeValue(tmp.toFile(), status);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        imports.put(status.getImportId(), status);
+    }
+
+    private static List<String> readCsvHeader(FileChannel channel) throws IOException {
+        ByteBuffer scan = ByteBuffer.allocate(64 * 1024);
+        long end = ChunkSplitter.lineEndAfter(channel, 0, channel.size(), scan);
+        ByteBuffer header = ByteBuffer.allocate((int) end);
+        channel.read(header, 0);
+        String line = new String(header.array(), StandardCharsets.UTF_8).strip();
+        // Spreadsheet exports often start with a byte order mark
+        if (line.startsWith("\uFEFF")) {
+            line = line.substring(1);
+        }
+        return ChunkParser.splitCsv(line).stream().map(String::strip).toList();
+    }
+
+    private Path dataFile(String importId) {
+        return dir.resolve(importId + DATA_SUFFIX);
+    }
+}
@@ -0,0 +1,13 @@
+package com.fraudrisk.imports;
+
+public enum ImportState {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    /** Stopped by a shutdown or restart; can be resumed */
+    INTERRUPTED;
+
+    public boolean isResumable() {
+        return this == FAILED || this == INTERRUPTED;
+    }
+}
@@ -0,0 +1,36 @@
+package com.fraudrisk.imports;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Progress of a bulk import; also the checkpoint persisted next to the uploaded file.
+ *
+ * {@code committedBytes} is the file offset up to which every record has been handed to the
+ * producer and acknowledged; a resume starts parsing there. {@code failed} counts sends that
+ * failed in any attempt, including records that a resume later sent successfully.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportStatus {
+    private String importId;
+    private ImportFormat format;
+    private ImportState state;
+    private long fileBytes;
+    private long committedBytes;
+    private int chunksCommitted;
+    private long published;
+    private long failed;
+    private long rejected;
+    private List<String> errors;
+    private String failureReason;
+    private Instant startedAt;
+    private Instant updatedAt;
+}
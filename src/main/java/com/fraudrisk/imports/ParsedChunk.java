@@ -0,0 +1,11 @@
+package com.fraudrisk.imports;
+
+import com.fraudrisk.dto.TransactionRequest;
+
+import java.util.List;
+
+/**
+ * Result of parsing one chunk: the valid requests in file order and a sample of rejections
+ */
+public record ParsedChunk(FileChunk chunk, List<TransactionRequest> requests, int rejected, List<String> errors) {
+}
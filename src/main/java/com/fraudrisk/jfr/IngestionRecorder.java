@@ -0,0 +1,142 @@
+package com.fraudrisk.jfr;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Owns the continuous flight recording of the ingestion path.
+ *
+ * The recording uses a JDK settings file ({@code default} keeps the overhead around 1%) so GC,
+ * safepoint and lock events can be lined up with {@link IngestionStageEvent}s, which are enabled
+ * with a duration threshold. It is kept on disk and bounded by age and size; a dump writes the
+ * retained window to a single file that is replaced by the next dump.
+ */
+@Slf4j
+@Component
+public class IngestionRecorder {
+
+    static final String RECORDING_NAME = "ingestion";
+    static final String DUMP_FILE = "ingestion-recording.jfr";
+
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    private final Duration threshold;
+    private final String settings;
+    private final Path dumpDir;
+    private final boolean startOnBoot;
+
+    private Recording recording;
+
+    public IngestionRecorder(@Value("${ingestion.jfr.max-age-ms:900000}") long maxAgeMs,
+                             @Value("${ingestion.jfr.max-size-mb:128}") long maxSizeMb,
+                             @Value("${ingestion.jfr.threshold-ms:5}") long thresholdMs,
+                             @Value("${ingestion.jfr.settings:default}") String settings,
+                             @Value("${ingestion.jfr.dump-dir:${java.io.tmpdir}}") String dumpDir,
+                             @Value("${ingestion.jfr.start-on-boot:false}") boolean startOnBoot) {
+        this.maxAge = Duration.ofMillis(maxAgeMs);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+        this.threshold = Duration.ofMillis(thresholdMs);
+        this.settings = settings;
+        this.dumpDir = Path.of(dumpDir);
+        this.startOnBoot = startOnBoot;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (startOnBoot) {
+            start();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    /**
+     * Start the continuous recording; a no-op if it is already running
+     */
+    public synchronized Map<String, Object> start() {
+        if (recording == null) {
+            Recording started;
+            try {
+                started = new Recording(Configuration.getConfiguration(settings));
+            } catch (IOException | ParseException e) {
+                throw new IllegalArgumentException("Cannot load JFR settings '" + settings + "'", e);
+            }
+            started.setName(RECORDING_NAME);
+            started.setToDisk(true);
+            started.setMaxAge(maxAge);
+            started.setMaxSize(maxSizeBytes);
+            started.enable(IngestionStageEvent.class).withThreshold(threshold);
+            started.start();
+            recording = started;
+            log.info("Started flight recording '{}': settings={}, maxAge={}, maxSize={} bytes, stage threshold={}",
+                    RECORDING_NAME, settings, maxAge, maxSizeBytes, threshold);
+        }
+        return status();
+    }
+
+    /**
+     * Stop the recording and discard what it retained
+     */
+    public synchronized Map<String, Object> stop() {
+        if (recording != null) {
+            close();
+            log.info("Stopped flight recording '{}'", RECORDING_NAME);
+        }
+        return status();
+    }
+
+    /**
+     * Write the retained window of the running recording to the dump file
+     *
+     * @return The dump file, or null if no recording is running
+     */
+    public synchronized Path dump() {
+        if (recording == null) {
+            return null;
+        }
+        Path file = dumpDir.resolve(DUMP_FILE);
+        try {
+            Files.createDirectories(dumpDir);
+            Files.deleteIfExists(file);
+            recording.dump(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to dump flight recording to " + file, e);
+        }
+        log.info("Dumped flight recording '{}' to {}", RECORDING_NAME, file);
+        return file;
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", recording != null);
+        status.put("settings", settings);
+        status.put("maxAgeMs", maxAge.toMillis());
+        status.put("maxSizeBytes", maxSizeBytes);
+        status.put("stageThresholdMs", threshold.toMillis());
+        if (recording != null) {
+            status.put("startTime", recording.getStartTime());
+            status.put("recordedBytes", recording.getSize());
+        }
+        return status;
+    }
+}
@@ -0,0 +1,104 @@
+package com.fraudrisk.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flight Recorder event for one stage of one transaction or batch.
+ *
+ * Use {@link #start} and {@link #finish}: {@code start} returns null unless a recording has the
+ * event enabled, so a disabled event costs one field read and no allocation. Stages shorter than
+ * the recording's threshold are dropped by {@code shouldCommit} before any field is filled in.
+ *
+ * Item-level stages carry the transaction ID; {@value #BATCH_ITEM} events link a transaction to
+ * the batch ID of its {@value #BATCH_REQUEST} event.
+ */
+@Name(IngestionStageEvent.NAME)
+@Label("Ingestion Stage")
+@Category({"Fraud Risk", "Ingestion"})
+@Description("Duration of one ingestion stage of a transaction or batch")
+@StackTrace(false)
+public class IngestionStageEvent extends Event {
+
+    public static final String NAME = "com.fraudrisk.IngestionStage";
+
+    public static final String REQUEST = "request";
+    public static final String BATCH_REQUEST = "batch-request";
+    public static final String BATCH_ITEM = "batch-item";
+    public static final String MAP = "map";
+    public static final String SERIALIZE = "serialize";
+    public static final String SEND = "send";
+    public static final String BULK_SEND = "bulk-send";
+
+    private static final AtomicLong batchSequence = new AtomicLong();
+
+    @Label("Stage")
+    private String stage;
+
+    @Label("Transaction ID")
+    private String transactionId;
+
+    @Label("Batch ID")
+    private String batchId;
+
+    @Label("Batch Size")
+    private int batchSize;
+
+    @Label("Partition")
+    @Description("Partition the record was written to, or -1")
+    private int partition = -1;
+
+    /**
+     * Begin timing a stage
+     *
+     * @return The started event, or null if no recording has the event enabled
+     */
+    public static IngestionStageEvent start(String stage) {
+        if (!Type.INSTANCE.isEnabled()) {
+            return null;
+        }
+        IngestionStageEvent event = new IngestionStageEvent();
+        event.stage = stage;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * ID for a batch that has none of its own; only called while the event is enabled
+     */
+    public static String nextBatchId() {
+        return "batch-" + batchSequence.incrementAndGet();
+    }
+
+    public void finish(String transactionId) {
+        finish(transactionId, null, 0, -1);
+    }
+
+    /**
+     * End the stage and commit it if it passes the recording's threshold
+     */
+    public void finish(String transactionId, String batchId, int batchSize, int partition) {
+        end();
+        if (shouldCommit()) {
+            this.transactionId = transactionId;
+            this.batchId = batchId;
+            this.batchSize = batchSize;
+            this.partition = partition;
+            commit();
+        }
+    }
+
+    /**
+     * Looked up on first use rather than in this class's initializer, which registers the event
+     */
+    private static final class Type {
+        static final EventType INSTANCE = EventType.getEventType(IngestionStageEvent.class);
+    }
+}
@@ -0,0 +1,61 @@
+package com.fraudrisk.jfr;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for the continuous ingestion flight recording
+ *
+ * GET  /actuator/jfr          - recording status
+ * POST /actuator/jfr/start    - start the bounded recording
+ * POST /actuator/jfr/stop     - stop it and discard its data
+ * GET  /actuator/jfr/dump     - download the retained window as a .jfr file
+ */
+@Component
+@WebEndpoint(id = "jfr")
+@RequiredArgsConstructor
+public class JfrEndpoint {
+
+    static final String START = "start";
+    static final String STOP = "stop";
+    static final String DUMP = "dump";
+
+    private final IngestionRecorder recorder;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return recorder.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> control(@Selector String action) {
+        return switch (action) {
+            case START -> recorder.start();
+            case STOP -> recorder.stop();
+            default -> throw new InvalidEndpointRequestException("Unknown action: " + action, "Unknown action");
+        };
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Selector String action) {
+        if (!DUMP.equals(action)) {
+            throw new InvalidEndpointRequestException("Unknown action: " + action, "Unknown action");
+        }
+        Path file = recorder.dump();
+        if (file == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(file));
+    }
+}
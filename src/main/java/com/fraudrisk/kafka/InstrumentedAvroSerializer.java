@@ -0,0 +1,74 @@
+package com.fraudrisk.kafka;
+
+import com.fraudrisk.jfr.IngestionStageEvent;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+
+/**
+ * {@link KafkaAvroSerializer} that records each serialization as a {@code serialize}
+ * {@link IngestionStageEvent}.
+ *
+ * Wraps the serializer instead of extending it, so a call through one {@code serialize} overload
+ * that delegates to the other is still recorded once.
+ */
+public class InstrumentedAvroSerializer implements Serializer<Object> {
+
+    private final KafkaAvroSerializer delegate;
+
+    public InstrumentedAvroSerializer() {
+        this(new KafkaAvroSerializer());
+    }
+
+    public InstrumentedAvroSerializer(KafkaAvroSerializer delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        IngestionStageEvent event = IngestionStageEvent.start(IngestionStageEvent.SERIALIZE);
+        try {
+            return delegate.serialize(topic, data);
+        } finally {
+            if (event != null) {
+                event.finish(transactionId(data));
+            }
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        IngestionStageEvent event = IngestionStageEvent.start(IngestionStageEvent.SERIALIZE);
+        try {
+            return delegate.serialize(topic, headers, data);
+        } finally {
+            if (event != null) {
+                event.finish(transactionId(data));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    /**
+     * Transaction ID of a v1 or v2 record; both schemas have the field
+     */
+    private static String transactionId(Object data) {
+        if (data instanceof GenericRecord record && record.getSchema().getField("transactionId") != null) {
+            Object id = record.get("transactionId");
+            return id != null ? id.toString() : null;
+        }
+        return null;
+    }
+}
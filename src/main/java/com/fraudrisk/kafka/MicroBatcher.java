@@ -0,0 +1,244 @@
+package com.fraudrisk.kafka;
+
+import com.fraudrisk.exception.DeadlineExceededException;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.MetricsService;
+import com.fraudrisk.util.Deadline;
+import com.fraudrisk.util.RateLimitedLogger;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces records from concurrent requests into micro-batches.
+ *
+ * Request threads only enqueue; a single flusher thread drains the queue until either
+ * {@code max-records} are collected or {@code max-delay-us} has passed since the first record,
+ * then appends the whole batch through one producer handle. The producer's accumulator is
+ * therefore touched by one thread instead of every Tomcat worker, and each caller's future is
+ * completed individually from the producer callback. Records whose deadline passes while
+ * they wait in the queue are dropped at flush time instead of being sent.
+ */
+@Slf4j
+@Component
+public class MicroBatcher {
+
+    private static final long IDLE_POLL_MS = 100;
+    private static final RateLimitedLogger errorLog = new RateLimitedLogger(log);
+
+    private final KafkaTemplate<String, Transaction> kafkaTemplate;
+    private final MetricsService metricsService;
+    private final boolean enabled;
+    private final int maxRecords;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Pending> queue;
+    /** Records queued or held by the flusher that have not been handed to the producer yet */
+    private final AtomicInteger unsent = new AtomicInteger();
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    @Autowired
+    public MicroBatcher(KafkaTemplate<String, Transaction> kafkaTemplate,
+                        MetricsService metricsService,
+                        @Value("${kafka.producer.micro-batch.enabled:false}") boolean enabled,
+                        @Value("${kafka.producer.micro-batch.max-records:256}") int maxRecords,
+                        @Value("${kafka.producer.micro-batch.max-delay-us:200}") long maxDelayMicros,
+                        @Value("${kafka.producer.micro-batch.queue-capacity:65536}") int queueCapacity) {
+        this(kafkaTemplate, metricsService, enabled, maxRecords, maxDelayMicros, new ArrayBlockingQueue<>(queueCapacity));
+    }
+
+    MicroBatcher(KafkaTemplate<String, Transaction> kafkaTemplate, MetricsService metricsService,
+                 boolean enabled, int maxRecords, long maxDelayMicros, BlockingQueue<Pending> queue) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.metricsService = metricsService;
+        this.enabled = enabled;
+        this.maxRecords = maxRecords;
+        this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxDelayMicros);
+        this.queue = queue;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::runFlusher, "kafka-micro-batcher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Micro-batching enabled: maxRecords={}, maxDelayUs={}",
+                maxRecords, TimeUnit.NANOSECONDS.toMicros(maxDelayNanos));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        try {
+            // The flusher drains whatever is still queued before it exits
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue a record for the next micro-batch
+     * Falls back to a direct send when the batcher is stopped or its queue is full
+     */
+    public CompletableFuture<SendResult<String, Transaction>> submit(ProducerRecord<String, Transaction> record) {
+        return submit(record, Deadline.NONE);
+    }
+
+    /**
+     * Queue a record for the next micro-batch, to be dropped if its deadline passes first
+     */
+    public CompletableFuture<SendResult<String, Transaction>> submit(ProducerRecord<String, Transaction> record,
+                                                                     Deadline deadline) {
+        if (running) {
+            Pending pending = new Pending(record, deadline, new CompletableFuture<>());
+            // Counted before it becomes visible to the flusher, so awaitIdle never misses it
+            unsent.incrementAndGet();
+            if (queue.offer(pending)) {
+                return pending.future();
+            }
+            unsent.decrementAndGet();
+        }
+        return kafkaTemplate.send(record);
+    }
+
+    /**
+     * Wait until every submitted record has been handed to the producer (or failed). A record the
+     * flusher has taken off the queue still counts until its batch is appended.
+     *
+     * @return true if the batcher went idle within the timeout
+     */
+    public boolean awaitIdle(long timeoutMs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (unsent.get() > 0) {
+            if (deadline - System.nanoTime() <= 0) {
+                return false;
+            }
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Number of records waiting for the flusher
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void runFlusher() {
+        List<Pending> batch = new ArrayList<>(maxRecords);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                errorLog.error("flush", e, "Micro-batch flush failed: {}", e.getMessage());
+                for (Pending pending : batch) {
+                    pending.future().completeExceptionally(e);
+                }
+            } finally {
+                unsent.addAndGet(-batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Fill the batch until it is full or the deadline of its first record has passed
+     */
+    private void collect(List<Pending> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxRecords) {
+            queue.drainTo(batch, maxRecords - batch.size());
+            if (batch.size() >= maxRecords) {
+                return;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Append the whole batch through a single producer handle
+     */
+    private void flush(List<Pending> batch) {
+        metricsService.recordMicroBatch(batch.size());
+
+        kafkaTemplate.execute(producer -> {
+            for (Pending pending : batch) {
+                ProducerRecord<String, Transaction> record = pending.record();
+                CompletableFuture<SendResult<String, Transaction>> future = pending.future();
+                if (pending.deadline().isExpired()) {
+                    metricsService.recordDeadlineDropped("producer-queue");
+                    future.completeExceptionally(new DeadlineExceededException(record.key(), "producer-queue"));
+                    continue;
+                }
+                try {
+                    producer.send(record, (metadata, ex) -> {
+                        if (ex == null) {
+                            future.complete(new SendResult<>(record, metadata));
+                        } else {
+                            future.completeExceptionally(ex);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    // Serialization and buffer errors are thrown synchronously; fail only that record
+                    future.completeExceptionally(e);
+                }
+            }
+            return null;
+        });
+    }
+
+    record Pending(ProducerRecord<String, Transaction> record,
+                           Deadline deadline,
+                           CompletableFuture<SendResult<String, Transaction>> future) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.fraudrisk.kafka;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Takes the instance out of service while the producer buffer is under pressure,
+ * so load balancers shift traffic before request threads start blocking.
+ * Only the readiness group fails on it; root health ranks OUT_OF_SERVICE below UP,
+ * so the container healthcheck does not restart an instance that is shedding load.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProducerBackpressureHealthIndicator implements HealthIndicator {
+
+    private final ProducerBackpressureMonitor monitor;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = monitor.isUnderPressure() ? Health.outOfService() : Health.up();
+        return builder
+                .withDetail("bufferUsedRatio", monitor.getBufferUsedRatio())
+                .withDetail("waitingThreads", monitor.getWaitingThreads())
+                .build();
+    }
+}
@@ -0,0 +1,223 @@
+package com.fraudrisk.kafka;
+
+import com.fraudrisk.exception.ProducerBackpressureException;
+import com.fraudrisk.kafka.cluster.KafkaCluster;
+import com.fraudrisk.kafka.cluster.KafkaClusterRouter;
+import com.fraudrisk.service.MetricsService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Watches the producers' buffer pools and rejects new work before {@code send} would block.
+ *
+ * Once {@code buffer.memory} is exhausted, {@code KafkaTemplate.send} parks the calling thread
+ * for up to {@code max.block.ms}. Each producer's {@code buffer-available-bytes} and
+ * {@code waiting-threads} metrics are sampled on a short interval; when the fullest buffer
+ * crosses the high-water mark, or any thread is already waiting for buffer space, the
+ * endpoints answer 503 immediately and readiness goes out of service. Pressure is only
+ * released below the low-water mark so the state does not flap on every sample.
+ *
+ * Every producer factory bean (v1 including the fast lane, v2 and bulk) and every cluster the
+ * router created is watched, since a send to any of them can block a request thread. Producers
+ * are tracked through the factory listeners, so sampling never creates one.
+ */
+@Slf4j
+@Component
+public class ProducerBackpressureMonitor {
+
+    private static final String PRODUCER_METRICS_GROUP = "producer-metrics";
+
+    private final List<ProducerFactory<?, ?>> producerFactories;
+    private final MetricsService metricsService;
+    private final boolean enabled;
+    private final double highWaterMark;
+    private final double lowWaterMark;
+    private final long retryAfterSeconds;
+
+    private final Set<Producer<?, ?>> producers = ConcurrentHashMap.newKeySet();
+    private volatile boolean underPressure;
+    private volatile double bufferUsedRatio;
+    private volatile double waitingThreads;
+
+    @Autowired
+    public ProducerBackpressureMonitor(List<ProducerFactory<?, ?>> producerFactories,
+                                       KafkaClusterRouter clusterRouter,
+                                       MetricsService metricsService,
+                                       @Value("${kafka.producer.backpressure.enabled:true}") boolean enabled,
+                                       @Value("${kafka.producer.backpressure.high-water-mark:0.8}") double highWaterMark,
+                                       @Value("${kafka.producer.backpressure.low-water-mark:0.6}") double lowWaterMark,
+                                       @Value("${kafka.producer.backpressure.retry-after-seconds:1}") long retryAfterSeconds) {
+        this(withClusterFactories(producerFactories, clusterRouter), metricsService,
+                enabled, highWaterMark, lowWaterMark, retryAfterSeconds);
+    }
+
+    ProducerBackpressureMonitor(List<ProducerFactory<?, ?>> producerFactories, MetricsService metricsService,
+                                boolean enabled, double highWaterMark, double lowWaterMark, long retryAfterSeconds) {
+        this.producerFactories = producerFactories;
+        this.metricsService = metricsService;
+        this.enabled = enabled;
+        this.highWaterMark = highWaterMark;
+        this.lowWaterMark = Math.min(lowWaterMark, highWaterMark);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        producerFactories.forEach(this::watch);
+        metricsService.registerGauge("kafka.producer.buffer.used.ratio",
+                "Fraction of the fullest producer buffer memory in use", () -> bufferUsedRatio);
+        metricsService.registerGauge("kafka.producer.backpressure.active",
+                "1 while new requests are rejected because the producer buffer is full", () -> underPressure ? 1 : 0);
+    }
+
+    void producerAdded(Producer<?, ?> producer) {
+        producers.add(producer);
+    }
+
+    void producerRemoved(Producer<?, ?> producer) {
+        if (producers.remove(producer) && producers.isEmpty()) {
+            update(0, 0);
+        }
+    }
+
+    /**
+     * Sample every producer's buffer metrics; the fullest buffer and the total of waiting threads
+     * decide the pressure state
+     */
+    @Scheduled(fixedDelayString = "${kafka.producer.backpressure.sample-interval-ms:100}")
+    public void sample() {
+        if (!enabled || producers.isEmpty()) {
+            return;
+        }
+
+        double maxUsedRatio = Double.NaN;
+        double waiting = 0;
+        for (Producer<?, ?> producer : producers) {
+            BufferSample buffer = sampleBuffer(producer);
+            if (buffer != null) {
+                maxUsedRatio = Double.isNaN(maxUsedRatio) ? buffer.usedRatio() : Math.max(maxUsedRatio, buffer.usedRatio());
+                waiting += buffer.waitingThreads();
+            }
+        }
+
+        if (Double.isNaN(maxUsedRatio)) {
+            return;
+        }
+        update(maxUsedRatio, waiting);
+    }
+
+    /**
+     * One producer's buffer, or null if it has no buffer metrics yet
+     */
+    private static BufferSample sampleBuffer(Producer<?, ?> producer) {
+        double available = Double.NaN;
+        double total = Double.NaN;
+        double waiting = 0;
+        for (Map.Entry<MetricName, ? extends Metric> entry : producer.metrics().entrySet()) {
+            MetricName name = entry.getKey();
+            if (!PRODUCER_METRICS_GROUP.equals(name.group())) {
+                continue;
+            }
+            switch (name.name()) {
+                case "buffer-available-bytes" -> available = toDouble(entry.getValue());
+                case "buffer-total-bytes" -> total = toDouble(entry.getValue());
+                case "waiting-threads" -> waiting = toDouble(entry.getValue());
+                default -> { }
+            }
+        }
+
+        if (Double.isNaN(available) || Double.isNaN(total) || total <= 0) {
+            return null;
+        }
+        return new BufferSample(1.0 - available / total, waiting);
+    }
+
+    /**
+     * Reject the request if the producer is under backpressure
+     */
+    public void check() {
+        if (underPressure) {
+            metricsService.recordBackpressureRejected();
+            throw new ProducerBackpressureException(retryAfterSeconds);
+        }
+    }
+
+    public boolean isUnderPressure() {
+        return underPressure;
+    }
+
+    public double getBufferUsedRatio() {
+        return bufferUsedRatio;
+    }
+
+    public double getWaitingThreads() {
+        return waitingThreads;
+    }
+
+    void update(double usedRatio, double waiting) {
+        bufferUsedRatio = usedRatio;
+        waitingThreads = waiting;
+
+        boolean wasUnderPressure = underPressure;
+        if (!wasUnderPressure && (usedRatio >= highWaterMark || waiting > 0)) {
+            underPressure = true;
+            log.warn("Producer buffer under pressure: used={}%, waitingThreads={}; rejecting new requests",
+                    Math.round(usedRatio * 100), (long) waiting);
+        } else if (wasUnderPressure && usedRatio <= lowWaterMark && waiting == 0) {
+            underPressure = false;
+            log.info("Producer buffer pressure released: used={}%", Math.round(usedRatio * 100));
+        }
+    }
+
+    private <K, V> void watch(ProducerFactory<K, V> factory) {
+        factory.addListener(new ProducerFactory.Listener<>() {
+            @Override
+            public void producerAdded(String id, Producer<K, V> producer) {
+                ProducerBackpressureMonitor.this.producerAdded(producer);
+            }
+
+            @Override
+            public void producerRemoved(String id, Producer<K, V> producer) {
+                ProducerBackpressureMonitor.this.producerRemoved(producer);
+            }
+        });
+    }
+
+    /**
+     * The factory beans plus the producers the router created for its other clusters; the default
+     * cluster shares the transaction factory, so it is only listed once
+     */
+    private static List<ProducerFactory<?, ?>> withClusterFactories(List<ProducerFactory<?, ?>> producerFactories,
+                                                                   KafkaClusterRouter clusterRouter) {
+        Set<ProducerFactory<?, ?>> factories = new LinkedHashSet<>(producerFactories);
+        for (KafkaCluster cluster : clusterRouter.getClusters()) {
+            factories.add(cluster.getTemplate().getProducerFactory());
+        }
+        return List.copyOf(factories);
+    }
+
+    private static double toDouble(Metric metric) {
+        Object value = metric.metricValue();
+        return value instanceof Number number ? number.doubleValue() : Double.NaN;
+    }
+
+    private record BufferSample(double usedRatio, double waitingThreads) {
+    }
+}
@@ -0,0 +1,256 @@
+package com.fraudrisk.kafka;
+
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.MetricsService;
+import com.fraudrisk.status.TransactionStatus;
+import com.fraudrisk.status.TransactionStatusIndex;
+import com.fraudrisk.util.HashedTimerWheel;
+import com.fraudrisk.util.RateLimitedLogger;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.RetriableException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Re-sends failed records with exponential backoff and publishes exhausted ones to a dead-letter topic.
+ *
+ * The producer callback only enqueues onto a {@link HashedTimerWheel}, so a failing broker never
+ * adds work to the request threads' send path. Retries run on a separate small executor, at most
+ * {@code max-concurrent} at a time, and no more than {@code max-pending} records are held in
+ * memory; anything beyond that goes straight to the dead-letter topic. Dead-letter sends are
+ * dispatched to the same executor, since {@code send} can block on metadata or a full buffer and
+ * the failure callback runs on the producer's I/O thread.
+ */
+@Slf4j
+@Component
+public class RetryScheduler {
+
+    public static final String HEADER_FAILURE_REASON = "x-failure-reason";
+    public static final String HEADER_ATTEMPT_COUNT = "x-attempt-count";
+    public static final String HEADER_ORIGINAL_TOPIC = "x-original-topic";
+
+    private static final int MAX_REASON_LENGTH = 512;
+    private static final RateLimitedLogger errorLog = new RateLimitedLogger(log);
+
+    private final KafkaTemplate<String, Transaction> kafkaTemplate;
+    private final MetricsService metricsService;
+    private final TransactionStatusIndex statusIndex;
+
+    @Value("${kafka.retry.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${kafka.retry.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    @Value("${kafka.retry.initial-backoff-ms:200}")
+    private long initialBackoffMs = 200;
+
+    @Value("${kafka.retry.max-backoff-ms:30000}")
+    private long maxBackoffMs = 30000;
+
+    @Value("${kafka.retry.max-pending:10000}")
+    private int maxPending = 10000;
+
+    @Value("${kafka.retry.max-concurrent:64}")
+    private int maxConcurrent = 64;
+
+    @Value("${kafka.retry.tick-ms:10}")
+    private long tickMs = 10;
+
+    @Value("${kafka.retry.wheel-size:512}")
+    private int wheelSize = 512;
+
+    @Value("${kafka.topics.dead-letter:banking-transactions-dlt}")
+    private String deadLetterTopic = "banking-transactions-dlt";
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private Semaphore inFlight;
+    private ExecutorService retryExecutor;
+    private HashedTimerWheel wheel;
+
+    public RetryScheduler(KafkaTemplate<String, Transaction> kafkaTemplate, MetricsService metricsService,
+                          TransactionStatusIndex statusIndex) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.metricsService = metricsService;
+        this.statusIndex = statusIndex;
+    }
+
+    @PostConstruct
+    public void start() {
+        inFlight = new Semaphore(maxConcurrent);
+        retryExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "kafka-retry");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        wheel = new HashedTimerWheel("kafka-retry-wheel", tickMs, TimeUnit.MILLISECONDS, wheelSize, retryExecutor);
+        wheel.start();
+        metricsService.registerGauge("kafka.retry.pending", "Failed records waiting for a retry", pending::get);
+    }
+
+    @PreDestroy
+    public void stop() {
+        List<Runnable> unfired = wheel.stop();
+        retryExecutor.shutdown();
+        if (!unfired.isEmpty()) {
+            log.warn("{} records were still waiting for a retry at shutdown", unfired.size());
+        }
+    }
+
+    /**
+     * Handle a failed send of the given record
+     *
+     * @param attempts Number of attempts already made, including the one that just failed
+     */
+    public void onSendFailure(ProducerRecord<String, Transaction> record, Throwable failure, int attempts) {
+        if (!enabled) {
+            return;
+        }
+
+        if (!isRetriable(failure) || attempts >= maxAttempts) {
+            deadLetter(record, failure, attempts);
+            return;
+        }
+
+        // Bound the in-memory footprint; overflow is dead-lettered rather than dropped
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            deadLetter(record, failure, attempts);
+            return;
+        }
+
+        try {
+            wheel.schedule(() -> retry(record, attempts + 1), backoffMs(attempts), TimeUnit.MILLISECONDS);
+            metricsService.recordRetry("scheduled");
+            statusIndex.update(record.key(), TransactionStatus.RETRYING);
+        } catch (IllegalStateException e) {
+            // Shutting down: don't hold on to the record
+            pending.decrementAndGet();
+            deadLetter(record, failure, attempts);
+        }
+    }
+
+    /**
+     * Number of records currently waiting for a retry
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Full-jitter exponential backoff: uniform in [0, min(max, initial * 2^(attempts-1))]
+     */
+    long backoffMs(int attempts) {
+        long ceiling = initialBackoffMs << Math.min(attempts - 1, 30);
+        if (ceiling <= 0 || ceiling > maxBackoffMs) {
+            ceiling = maxBackoffMs;
+        }
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private void retry(ProducerRecord<String, Transaction> record, int attempt) {
+        // Cap concurrent retries; come back on the next tick if the cap is reached
+        if (!inFlight.tryAcquire()) {
+            try {
+                wheel.schedule(() -> retry(record, attempt), tickMs, TimeUnit.MILLISECONDS);
+                return;
+            } catch (IllegalStateException e) {
+                // Shutting down: send now rather than hold the record
+                inFlight.acquireUninterruptibly();
+            }
+        }
+        pending.decrementAndGet();
+
+        try {
+            kafkaTemplate.send(record).whenComplete((result, ex) -> {
+                inFlight.release();
+                if (ex == null) {
+                    metricsService.recordRetry("succeeded");
+                    statusIndex.sent(record.key(), result.getRecordMetadata().partition(),
+                            result.getRecordMetadata().offset());
+                } else {
+                    onSendFailure(record, ex, attempt);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            onSendFailure(record, e, attempt);
+        }
+    }
+
+    private void deadLetter(ProducerRecord<String, Transaction> record, Throwable failure, int attempts) {
+        try {
+            retryExecutor.execute(() -> publishDeadLetter(record, failure, attempts));
+        } catch (RejectedExecutionException e) {
+            // Shut down: nothing else will send it, so publish from the caller
+            publishDeadLetter(record, failure, attempts);
+        }
+    }
+
+    private void publishDeadLetter(ProducerRecord<String, Transaction> record, Throwable failure, int attempts) {
+        List<Header> headers = new ArrayList<>();
+        for (Header header : record.headers()) {
+            headers.add(header);
+        }
+        headers.add(new RecordHeader(HEADER_FAILURE_REASON, failureReason(failure).getBytes(StandardCharsets.UTF_8)));
+        headers.add(new RecordHeader(HEADER_ATTEMPT_COUNT, Integer.toString(attempts).getBytes(StandardCharsets.UTF_8)));
+        headers.add(new RecordHeader(HEADER_ORIGINAL_TOPIC, record.topic().getBytes(StandardCharsets.UTF_8)));
+
+        ProducerRecord<String, Transaction> deadLetter =
+                new ProducerRecord<>(deadLetterTopic, null, record.key(), record.value(), headers);
+
+        try {
+            kafkaTemplate.send(deadLetter).whenComplete((result, ex) -> {
+                if (ex == null) {
+                    metricsService.recordRetry("dead-lettered");
+                    statusIndex.update(record.key(), TransactionStatus.DEAD_LETTERED);
+                } else {
+                    metricsService.recordRetry("dead-letter-failed");
+                    errorLog.error("dead-letter", ex, "Failed to publish transaction {} to dead-letter topic {}: {}",
+                            record.key(), deadLetterTopic, ex.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            metricsService.recordRetry("dead-letter-failed");
+            errorLog.error("dead-letter", e, "Failed to publish transaction {} to dead-letter topic {}: {}",
+                    record.key(), deadLetterTopic, e.getMessage());
+        }
+    }
+
+    private static boolean isRetriable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String failureReason(Throwable failure) {
+        Throwable root = failure;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        String reason = root.getClass().getName() + ": " + root.getMessage();
+        return reason.length() > MAX_REASON_LENGTH ? reason.substring(0, MAX_REASON_LENGTH) : reason;
+    }
+}
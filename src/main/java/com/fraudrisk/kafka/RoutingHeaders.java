@@ -0,0 +1,127 @@
+package com.fraudrisk.kafka;
+
+import com.fraudrisk.model.Transaction;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Computes compact routing headers once at ingestion so consumers can filter records
+ * without decoding the Avro payload.
+ *
+ * Header contract:
+ * <ul>
+ *   <li>{@value #TRANSACTION_TYPE}: upper-case transaction type, US-ASCII/UTF-8 bytes</li>
+ *   <li>{@value #CURRENCY}: 3-byte ISO 4217 currency code</li>
+ *   <li>{@value #AMOUNT_BUCKET}: 1 byte, the number of integer digits of the amount
+ *       (0 for amounts below 1, 3 for 100.00-999.99, ...)</li>
+ *   <li>{@value #CUSTOMER_HASH}: 4 bytes, big-endian 32-bit FNV-1a hash of the customer ID's UTF-8 bytes</li>
+ * </ul>
+ * Encodings of low-cardinality values are cached and shared between records, so header values
+ * must be treated as read-only.
+ */
+@Component
+public class RoutingHeaders {
+
+    public static final String TRANSACTION_TYPE = "txn-type";
+    public static final String CURRENCY = "txn-currency";
+    public static final String AMOUNT_BUCKET = "txn-amount-bucket";
+    public static final String CUSTOMER_HASH = "txn-customer-hash";
+
+    // Caps the cache so a client sending random types cannot grow it without bound
+    private static final int MAX_CACHED_VALUES = 1024;
+    private static final int MAX_AMOUNT_BUCKET = 18;
+
+    private static final byte[][] AMOUNT_BUCKETS = new byte[MAX_AMOUNT_BUCKET + 1][];
+
+    static {
+        for (int i = 0; i <= MAX_AMOUNT_BUCKET; i++) {
+            AMOUNT_BUCKETS[i] = new byte[]{(byte) i};
+        }
+    }
+
+    private final ConcurrentMap<String, byte[]> transactionTypes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, byte[]> currencies = new ConcurrentHashMap<>();
+
+    /**
+     * Build the routing headers for a transaction
+     */
+    public List<Header> headersFor(Transaction transaction) {
+        List<Header> headers = new ArrayList<>(4);
+        headers.add(new RecordHeader(TRANSACTION_TYPE, encodeTransactionType(transaction.getTransactionType())));
+        headers.add(new RecordHeader(CURRENCY, encodeCurrency(transaction.getCurrency())));
+        headers.add(new RecordHeader(AMOUNT_BUCKET, encodeAmountBucket(transaction.getAmount())));
+        headers.add(new RecordHeader(CUSTOMER_HASH, encodeCustomerHash(transaction.getCustomerId())));
+        return headers;
+    }
+
+    byte[] encodeTransactionType(String transactionType) {
+        return cached(transactionTypes, transactionType == null ? "" : transactionType,
+                value -> value.toUpperCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+    }
+
+    byte[] encodeCurrency(String currency) {
+        return cached(currencies, currency == null ? "" : currency,
+                value -> value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static byte[] encodeAmountBucket(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            return AMOUNT_BUCKETS[0];
+        }
+        int integerDigits = Math.max(0, amount.precision() - amount.scale());
+        return AMOUNT_BUCKETS[Math.min(integerDigits, MAX_AMOUNT_BUCKET)];
+    }
+
+    static byte[] encodeCustomerHash(String customerId) {
+        int hash = fnv1a(customerId == null ? "" : customerId);
+        return new byte[]{(byte) (hash >>> 24), (byte) (hash >>> 16), (byte) (hash >>> 8), (byte) hash};
+    }
+
+    /**
+     * 32-bit FNV-1a over the UTF-8 bytes of the value
+     */
+    static int fnv1a(String value) {
+        int hash = 0x811C9DC5;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                // Validated IDs are ASCII; anything else takes the slower encoding path
+                return fnv1a(value.getBytes(StandardCharsets.UTF_8));
+            }
+            hash ^= c;
+            hash *= 0x01000193;
+        }
+        return hash;
+    }
+
+    private static int fnv1a(byte[] bytes) {
+        int hash = 0x811C9DC5;
+        for (byte b : bytes) {
+            hash ^= (b & 0xFF);
+            hash *= 0x01000193;
+        }
+        return hash;
+    }
+
+    private static byte[] cached(ConcurrentMap<String, byte[]> cache, String value,
+                                 Function<String, byte[]> encoder) {
+        byte[] encoded = cache.get(value);
+        if (encoded != null) {
+            return encoded;
+        }
+        if (cache.size() >= MAX_CACHED_VALUES) {
+            return encoder.apply(value);
+        }
+        return cache.computeIfAbsent(value, encoder);
+    }
+}
@@ -0,0 +1,16 @@
+package com.fraudrisk.kafka;
+
+/**
+ * Which wire schema(s) transactions are published in while consumers migrate to v2
+ */
+public enum SchemaWriteMode {
+
+    /** Original schema on {@code kafka.topics.transactions} only */
+    V1,
+
+    /** Compact schema on {@code kafka.topics.transactions-v2} only */
+    V2,
+
+    /** Both: v1 is authoritative, v2 is a best-effort copy for consumers being migrated */
+    DUAL
+}
@@ -0,0 +1,248 @@
+package com.fraudrisk.kafka;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.Producer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Producer factory whose configuration can be replaced while records are being sent.
+ *
+ * Each configuration is a generation wrapping its own delegate factory. {@link #reconfigure}
+ * swaps the current generation atomically; the old one stays usable by every caller that has
+ * already obtained a producer from it, and is destroyed only once the last of them closes it.
+ * Destroying the delegate closes its producer gracefully, which sends every buffered record
+ * first, so a swap never loses records.
+ *
+ * Callers such as {@code KafkaTemplate} obtain a producer per operation and close it afterwards,
+ * so the reference count drops to zero right after the last in-flight operation on the old
+ * generation.
+ *
+ * On {@link #destroy} the factory waits, up to {@code closeTimeout} in total, for replaced
+ * generations to finish draining before closing the current one; a generation still held by a
+ * caller when the time runs out is closed regardless, so its buffered records are still flushed.
+ */
+@Slf4j
+public class SwappableProducerFactory<K, V> implements ProducerFactory<K, V>, DisposableBean {
+
+    private final String name;
+    private final Function<Map<String, Object>, ProducerFactory<K, V>> delegateBuilder;
+    private final List<Listener<K, V>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Generation> current;
+    /** Replaced generations that have not finished closing yet */
+    private final Set<Generation> retiring = ConcurrentHashMap.newKeySet();
+    private volatile Duration closeTimeout = Duration.ofSeconds(30);
+
+    public SwappableProducerFactory(String name, Map<String, Object> configs,
+                                    Function<Map<String, Object>, ProducerFactory<K, V>> delegateBuilder) {
+        this.name = name;
+        this.delegateBuilder = delegateBuilder;
+        this.current = new AtomicReference<>(new Generation(1, Map.copyOf(configs), delegateBuilder.apply(configs)));
+    }
+
+    @Override
+    public Producer<K, V> createProducer() {
+        Generation generation = acquire();
+        try {
+            return track(generation.delegate.createProducer(), generation);
+        } catch (RuntimeException e) {
+            generation.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Replace the producer configuration; unchanged settings are kept
+     *
+     * @return The new generation number, or the current one if nothing changed
+     */
+    public synchronized int reconfigure(Map<String, Object> overrides) {
+        Generation previous = current.get();
+        Map<String, Object> configs = new HashMap<>(previous.configs);
+        configs.putAll(overrides);
+        if (configs.equals(previous.configs)) {
+            return previous.number;
+        }
+
+        ProducerFactory<K, V> delegate = delegateBuilder.apply(configs);
+        listeners.forEach(delegate::addListener);
+        Generation next = new Generation(previous.number + 1, Map.copyOf(configs), delegate);
+        current.set(next);
+        log.info("Producer factory '{}' switched to generation {}; draining generation {}",
+                name, next.number, previous.number);
+
+        // Drop the reference held on behalf of the factory; in-flight callers keep it alive
+        retiring.add(previous);
+        previous.release();
+        return next.number;
+    }
+
+    /**
+     * Longest time {@link #destroy} waits for replaced generations to drain
+     */
+    public void setCloseTimeout(Duration closeTimeout) {
+        this.closeTimeout = closeTimeout;
+    }
+
+    public int getGeneration() {
+        return current.get().number;
+    }
+
+    @Override
+    public Map<String, Object> getConfigurationProperties() {
+        return current.get().configs;
+    }
+
+    @Override
+    public synchronized void addListener(Listener<K, V> listener) {
+        listeners.add(listener);
+        current.get().delegate.addListener(listener);
+    }
+
+    @Override
+    public synchronized boolean removeListener(Listener<K, V> listener) {
+        current.get().delegate.removeListener(listener);
+        return listeners.remove(listener);
+    }
+
+    @Override
+    public List<Listener<K, V>> getListeners() {
+        return Collections.unmodifiableList(listeners);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        long deadline = System.nanoTime() + closeTimeout.toNanos();
+        for (Generation generation : retiring) {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            if (generation.closed.await(remaining, TimeUnit.NANOSECONDS)) {
+                continue;
+            }
+            if (generation.references.get() > 0) {
+                log.warn("Producer factory '{}' generation {} is still in use after {}; closing it now",
+                        name, generation.number, closeTimeout);
+                close(generation);
+            } else {
+                log.warn("Producer factory '{}' generation {} did not finish closing within {}",
+                        name, generation.number, closeTimeout);
+            }
+        }
+        close(current.get());
+    }
+
+    private void close(Generation generation) throws Exception {
+        if (generation.delegate instanceof DisposableBean disposable) {
+            disposable.destroy();
+        }
+    }
+
+    private Generation acquire() {
+        while (true) {
+            Generation generation = current.get();
+            if (generation.retain()) {
+                return generation;
+            }
+            // Retired between the read and the retain; the next read sees its successor
+        }
+    }
+
+    /**
+     * Wrap the delegate's producer so closing it releases the generation. A dynamic proxy keeps
+     * this independent of the methods a given kafka-clients version adds to {@link Producer}.
+     */
+    @SuppressWarnings("unchecked")
+    private Producer<K, V> track(Producer<K, V> producer, Generation generation) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Producer<K, V>) Proxy.newProxyInstance(Producer.class.getClassLoader(), new Class<?>[]{Producer.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        default -> { }
+                    }
+                    try {
+                        return method.invoke(producer, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                            generation.release();
+                        }
+                    }
+                });
+    }
+
+    private void retire(Generation generation) {
+        Thread retirer = new Thread(() -> {
+            try {
+                close(generation);
+                log.info("Producer factory '{}' generation {} drained and closed", name, generation.number);
+            } catch (Exception e) {
+                log.error("Failed to close producer factory '{}' generation {}", name, generation.number, e);
+            } finally {
+                generation.closed.countDown();
+                retiring.remove(generation);
+            }
+        }, "kafka-producer-retire-" + name);
+        retirer.setDaemon(true);
+        retirer.start();
+    }
+
+    /**
+     * One configuration and its delegate. Starts with one reference held by the factory itself;
+     * reaching zero means it has been replaced and nobody uses it any more.
+     */
+    private final class Generation {
+
+        private final int number;
+        private final Map<String, Object> configs;
+        private final ProducerFactory<K, V> delegate;
+        private final AtomicInteger references = new AtomicInteger(1);
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        private Generation(int number, Map<String, Object> configs, ProducerFactory<K, V> delegate) {
+            this.number = number;
+            this.configs = configs;
+            this.delegate = delegate;
+        }
+
+        boolean retain() {
+            while (true) {
+                int count = references.get();
+                if (count == 0) {
+                    return false;
+                }
+                if (references.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            if (references.decrementAndGet() == 0) {
+                retire(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.fraudrisk.kafka.cluster;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Consecutive-failure circuit breaker.
+ *
+ * After {@code failureThreshold} failures in a row the circuit opens and rejects sends for
+ * {@code openMs}. It then lets a single trial send through; success closes the circuit, failure
+ * opens it for another period.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+    private volatile long openUntilNanos;
+
+    public CircuitBreaker(int failureThreshold, long openMs) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+    }
+
+    /**
+     * Whether a send may be attempted now
+     */
+    public boolean allowRequest() {
+        if (consecutiveFailures.get() < failureThreshold) {
+            return true;
+        }
+        return System.nanoTime() - openUntilNanos >= 0 && trialInFlight.compareAndSet(false, true);
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        trialInFlight.set(false);
+    }
+
+    public void recordFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openUntilNanos = System.nanoTime() + openNanos;
+            trialInFlight.set(false);
+        }
+    }
+
+    public State getState() {
+        if (consecutiveFailures.get() < failureThreshold) {
+            return State.CLOSED;
+        }
+        return System.nanoTime() - openUntilNanos >= 0 ? State.HALF_OPEN : State.OPEN;
+    }
+}
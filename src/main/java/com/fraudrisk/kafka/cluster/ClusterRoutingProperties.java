@@ -0,0 +1,52 @@
+package com.fraudrisk.kafka.cluster;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Named Kafka clusters and the policy used to route transactions across them.
+ * The cluster named {@value KafkaClusterRouter#DEFAULT_CLUSTER} is always the one
+ * configured through {@code spring.kafka.bootstrap-servers}.
+ */
+@Data
+@ConfigurationProperties(prefix = "kafka.routing")
+public class ClusterRoutingProperties {
+
+    private RoutingPolicy policy = RoutingPolicy.SINGLE;
+
+    /** Cluster names in priority order (failover), shard order (shard) or primary first (mirror) */
+    private List<String> order = new ArrayList<>(List.of(KafkaClusterRouter.DEFAULT_CLUSTER));
+
+    /** Cluster receiving sampled copies under the mirror policy */
+    private String mirrorTarget;
+
+    /** Fraction of records copied to the mirror target, between 0 and 1 */
+    private double mirrorFraction = 0.0;
+
+    private BreakerProperties breaker = new BreakerProperties();
+
+    /** Additional clusters keyed by name */
+    private Map<String, ClusterProperties> clusters = new LinkedHashMap<>();
+
+    @Data
+    public static class ClusterProperties {
+        private String bootstrapServers;
+
+        /** Defaults to the default cluster's schema registry */
+        private String schemaRegistryUrl;
+    }
+
+    @Data
+    public static class BreakerProperties {
+        /** Consecutive failures that open a cluster's circuit */
+        private int failureThreshold = 5;
+
+        /** How long an open circuit rejects sends before letting a trial send through */
+        private long openMs = 10000;
+    }
+}
@@ -0,0 +1,74 @@
+package com.fraudrisk.kafka.cluster;
+
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.MetricsService;
+import lombok.Getter;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One named Kafka cluster: its own producer and circuit breaker
+ */
+public class KafkaCluster {
+
+    @Getter
+    private final String name;
+
+    @Getter
+    private final KafkaTemplate<String, Transaction> template;
+
+    @Getter
+    private final CircuitBreaker breaker;
+
+    private final MetricsService metricsService;
+
+    /** Whether the producer was created by the router and must be closed with it */
+    private final boolean owned;
+
+    public KafkaCluster(String name, KafkaTemplate<String, Transaction> template, CircuitBreaker breaker,
+                        MetricsService metricsService, boolean owned) {
+        this.name = name;
+        this.template = template;
+        this.breaker = breaker;
+        this.metricsService = metricsService;
+        this.owned = owned;
+    }
+
+    public boolean isAvailable() {
+        return breaker.getState() != CircuitBreaker.State.OPEN;
+    }
+
+    /**
+     * Send the record to this cluster, recording the outcome on the breaker
+     */
+    public CompletableFuture<SendResult<String, Transaction>> send(ProducerRecord<String, Transaction> record) {
+        CompletableFuture<SendResult<String, Transaction>> future;
+        try {
+            future = template.send(record);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, ex) -> {
+            if (ex == null) {
+                breaker.recordSuccess();
+                metricsService.recordClusterSend(name, "success");
+            } else {
+                breaker.recordFailure();
+                metricsService.recordClusterSend(name, "failure");
+            }
+        });
+    }
+
+    /**
+     * Flush and close the producer if the router created it
+     */
+    void close() {
+        if (owned) {
+            template.flush();
+            template.getProducerFactory().reset();
+        }
+    }
+}
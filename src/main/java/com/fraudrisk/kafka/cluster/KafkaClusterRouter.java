@@ -0,0 +1,205 @@
+package com.fraudrisk.kafka.cluster;
+
+import com.fraudrisk.config.KafkaConfig;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.MetricsService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Routes transaction records across named Kafka clusters.
+ *
+ * The default cluster wraps the application's {@code kafkaTemplate}; every cluster under
+ * {@code kafka.routing.clusters} gets its own producer built with the same tuning. Each cluster
+ * has a circuit breaker, and routing skips clusters whose circuit is open:
+ * <ul>
+ *   <li>{@code failover}: first available cluster in order; a failed send is retried on the next</li>
+ *   <li>{@code shard}: cluster chosen by key hash, falling through to the next available one</li>
+ *   <li>{@code mirror}: primary cluster, plus a best-effort copy of a sampled fraction</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class KafkaClusterRouter {
+
+    public static final String DEFAULT_CLUSTER = "default";
+
+    private final RoutingPolicy policy;
+    private final Map<String, KafkaCluster> clusters;
+    private final List<KafkaCluster> order;
+    private final KafkaCluster mirror;
+    private final double mirrorFraction;
+
+    @Autowired
+    public KafkaClusterRouter(KafkaTemplate<String, Transaction> kafkaTemplate,
+                              ClusterRoutingProperties properties,
+                              MetricsService metricsService,
+                              @Value("${spring.kafka.producer.properties.schema.registry.url}") String schemaRegistryUrl) {
+        this(properties, buildClusters(kafkaTemplate, properties, metricsService, schemaRegistryUrl));
+    }
+
+    KafkaClusterRouter(ClusterRoutingProperties properties, Map<String, KafkaCluster> clusters) {
+        this.policy = properties.getPolicy();
+        this.clusters = Collections.unmodifiableMap(clusters);
+        this.mirrorFraction = Math.max(0, Math.min(1, properties.getMirrorFraction()));
+
+        List<KafkaCluster> ordered = new ArrayList<>();
+        for (String name : properties.getOrder()) {
+            ordered.add(resolve(name));
+        }
+        if (ordered.isEmpty()) {
+            ordered.add(resolve(DEFAULT_CLUSTER));
+        }
+        this.order = List.copyOf(ordered);
+
+        if (policy == RoutingPolicy.MIRROR) {
+            if (properties.getMirrorTarget() == null) {
+                throw new IllegalStateException("kafka.routing.mirror-target is required for the mirror policy");
+            }
+            this.mirror = resolve(properties.getMirrorTarget());
+        } else {
+            this.mirror = null;
+        }
+
+        if (policy != RoutingPolicy.SINGLE) {
+            log.info("Kafka cluster routing: policy={}, order={}, mirror={}",
+                    policy, order.stream().map(KafkaCluster::getName).toList(),
+                    mirror != null ? mirror.getName() + "@" + mirrorFraction : "none");
+        }
+    }
+
+    /**
+     * Whether all records go to the default cluster
+     */
+    public boolean isSingleCluster() {
+        return policy == RoutingPolicy.SINGLE;
+    }
+
+    public Collection<KafkaCluster> getClusters() {
+        return clusters.values();
+    }
+
+    /**
+     * Send the record according to the routing policy
+     */
+    public CompletableFuture<SendResult<String, Transaction>> send(ProducerRecord<String, Transaction> record) {
+        return switch (policy) {
+            case SINGLE -> clusters.get(DEFAULT_CLUSTER).send(record);
+            case FAILOVER -> sendWithFailover(record, 0);
+            case SHARD -> sendFrom(record, shardIndex(record.key()));
+            case MIRROR -> sendMirrored(record);
+        };
+    }
+
+    @PreDestroy
+    public void close() {
+        for (KafkaCluster cluster : clusters.values()) {
+            try {
+                cluster.close();
+            } catch (RuntimeException e) {
+                log.warn("Failed to close producer for Kafka cluster {}: {}", cluster.getName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Send to the first available cluster at or after the index; on failure try the next one
+     */
+    private CompletableFuture<SendResult<String, Transaction>> sendWithFailover(
+            ProducerRecord<String, Transaction> record, int from) {
+        int index = nextAvailable(from, order.size() - from);
+        if (index < 0) {
+            // Every remaining circuit is open: try the preferred one anyway; a failure goes to the retry scheduler
+            return order.get(from).send(record);
+        }
+        return order.get(index).send(record).exceptionallyCompose(ex -> index + 1 < order.size()
+                ? sendWithFailover(record, index + 1)
+                : CompletableFuture.failedFuture(ex));
+    }
+
+    /**
+     * Send to the first available cluster starting at the index, wrapping around
+     */
+    private CompletableFuture<SendResult<String, Transaction>> sendFrom(
+            ProducerRecord<String, Transaction> record, int start) {
+        int index = nextAvailable(start, order.size());
+        return order.get(index < 0 ? start : index).send(record);
+    }
+
+    private CompletableFuture<SendResult<String, Transaction>> sendMirrored(ProducerRecord<String, Transaction> record) {
+        CompletableFuture<SendResult<String, Transaction>> primary = order.get(0).send(record);
+        if (mirrorFraction > 0 && ThreadLocalRandom.current().nextDouble() < mirrorFraction
+                && mirror.getBreaker().allowRequest()) {
+            // Best effort: the caller only waits for the primary; the mirror's outcome is counted on its breaker
+            mirror.send(record);
+        }
+        return primary;
+    }
+
+    /**
+     * Index of the first cluster, scanning count entries from start (wrapping), whose breaker allows a send
+     */
+    private int nextAvailable(int start, int count) {
+        for (int i = 0; i < count; i++) {
+            int index = (start + i) % order.size();
+            if (order.get(index).getBreaker().allowRequest()) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    int shardIndex(String key) {
+        if (key == null) {
+            return ThreadLocalRandom.current().nextInt(order.size());
+        }
+        int hash = key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), order.size());
+    }
+
+    private KafkaCluster resolve(String name) {
+        KafkaCluster cluster = clusters.get(name);
+        if (cluster == null) {
+            throw new IllegalStateException("Unknown Kafka cluster '" + name + "'; configure kafka.routing.clusters."
+                    + name + ".bootstrap-servers");
+        }
+        return cluster;
+    }
+
+    private static Map<String, KafkaCluster> buildClusters(KafkaTemplate<String, Transaction> kafkaTemplate,
+                                                           ClusterRoutingProperties properties,
+                                                           MetricsService metricsService,
+                                                           String defaultSchemaRegistryUrl) {
+        ClusterRoutingProperties.BreakerProperties breaker = properties.getBreaker();
+        Map<String, KafkaCluster> clusters = new LinkedHashMap<>();
+        clusters.put(DEFAULT_CLUSTER, new KafkaCluster(DEFAULT_CLUSTER, kafkaTemplate,
+                new CircuitBreaker(breaker.getFailureThreshold(), breaker.getOpenMs()), metricsService, false));
+
+        properties.getClusters().forEach((name, cluster) -> {
+            String registryUrl = cluster.getSchemaRegistryUrl() != null
+                    ? cluster.getSchemaRegistryUrl()
+                    : defaultSchemaRegistryUrl;
+            KafkaTemplate<String, Transaction> template = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                    KafkaConfig.producerConfigs(cluster.getBootstrapServers(), registryUrl)));
+            clusters.put(name, new KafkaCluster(name, template,
+                    new CircuitBreaker(breaker.getFailureThreshold(), breaker.getOpenMs()), metricsService, true));
+        });
+        return clusters;
+    }
+}
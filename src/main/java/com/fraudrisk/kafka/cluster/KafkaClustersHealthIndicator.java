@@ -0,0 +1,30 @@
+package com.fraudrisk.kafka.cluster;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reports each Kafka cluster's circuit state; down only when no cluster can take sends
+ */
+@Component
+@RequiredArgsConstructor
+public class KafkaClustersHealthIndicator implements HealthIndicator {
+
+    private final KafkaClusterRouter router;
+
+    @Override
+    public Health health() {
+        Map<String, Object> states = new LinkedHashMap<>();
+        boolean anyAvailable = false;
+        for (KafkaCluster cluster : router.getClusters()) {
+            states.put(cluster.getName(), cluster.getBreaker().getState());
+            anyAvailable |= cluster.isAvailable();
+        }
+        return (anyAvailable ? Health.up() : Health.down()).withDetails(states).build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.fraudrisk.kafka.cluster;
+
+/**
+ * How transaction records are spread across the configured Kafka clusters
+ */
+public enum RoutingPolicy {
+
+    /** Everything goes to the default cluster */
+    SINGLE,
+
+    /** First available cluster in {@code order}; a failed send moves on to the next one */
+    FAILOVER,
+
+    /** Clusters in {@code order} each own a share of the key space */
+    SHARD,
+
+    /** Everything goes to the first cluster in {@code order}; a sampled fraction is also copied to the mirror */
+    MIRROR
+}
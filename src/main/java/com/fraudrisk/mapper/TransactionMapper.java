@@ -1,9 +1,12 @@
 package com.fraudrisk.mapper;
 
 import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.enrichment.GeoIpService;
+import com.fraudrisk.jfr.IngestionStageEvent;
 import com.fraudrisk.model.Location;
 import com.fraudrisk.model.Metadata;
 import com.fraudrisk.model.Transaction;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -14,12 +17,16 @@ import java.time.Instant;
  */
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class TransactionMapper {
 
+    private final GeoIpService geoIpService;
+
     /**
      * Convert from REST API request to Avro Transaction model
      */
     public Transaction toAvro(TransactionRequest request) {
+        IngestionStageEvent event = IngestionStageEvent.start(IngestionStageEvent.MAP);
         try {
             // Create the metadata substructure if needed
             Metadata metadata = null;
@@ -46,7 +53,8 @@ public class TransactionMapper {
 
                     metadataBuilder.setLocation(location);
                 } else {
-                    metadataBuilder.setLocation(null);
+                    // Fill in the location from the geo IP database when the client didn't send one
+                    metadataBuilder.setLocation(lookupLocation(request.getMetadata().getIpAddress()));
                 }
 
                 metadata = metadataBuilder.build();
@@ -84,8 +92,24 @@ public class TransactionMapper {
                     .setMetadata(metadata)
                     .build();
         } catch (Exception e) {
-            log.error("Error converting TransactionRequest to Avro Transaction: {}", e.getMessage(), e);
+            // TransactionService logs the failure; avoid a second stack trace per request
+            log.debug("Error converting TransactionRequest to Avro Transaction: {}", e.getMessage());
             throw e;
+        } finally {
+            if (event != null) {
+                event.finish(request.getTransactionId());
+            }
+        }
+    }
+
+    /**
+     * Resolve a location from the IP address, or null if it cannot be resolved.
+     * The location is shared with other transactions from the same range.
+     */
+    private Location lookupLocation(String ipAddress) {
+        if (ipAddress == null) {
+            return null;
         }
+        return geoIpService.lookupLocation(ipAddress);
     }
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.fraudrisk.mapper;
+
+import com.fraudrisk.model.Location;
+import com.fraudrisk.model.Metadata;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.model.v2.PartyType;
+import com.fraudrisk.model.v2.TransactionType;
+import com.fraudrisk.util.IpAddressUtils;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts v1 Avro transactions to the compact v2 wire schema.
+ *
+ * Empty strings that v1 uses as padding become nulls, known low-cardinality values become
+ * enums or ISO numeric codes, and anything without a compact form is kept in the matching
+ * raw field so no information is lost. Location is narrowed to float (about 1 m precision).
+ */
+@Component
+public class TransactionV2Converter {
+
+    /** Scale of v1 amounts and of v2 minor units */
+    public static final int AMOUNT_SCALE = 2;
+
+    static final int UNKNOWN_CURRENCY = 0;
+
+    private static final Map<String, PartyType> PARTY_TYPES = index(PartyType.values());
+    private static final Map<String, TransactionType> TRANSACTION_TYPES = index(TransactionType.values());
+
+    /** Alphabetic to numeric codes; bounded by the 3-letter codes allowed by validation */
+    private final Map<String, Integer> currencyCodes = new ConcurrentHashMap<>();
+
+    /**
+     * Convert a v1 transaction to the v2 schema
+     */
+    public com.fraudrisk.model.v2.Transaction toV2(Transaction v1) {
+        com.fraudrisk.model.v2.Transaction.Builder builder = com.fraudrisk.model.v2.Transaction.newBuilder()
+                .setTransactionId(v1.getTransactionId())
+                .setTimestamp(v1.getTimestamp())
+                .setAmountMinor(toMinorUnits(v1.getAmount()))
+                .setCustomerId(v1.getCustomerId())
+                .setCustomerName(emptyToNull(v1.getCustomerName()))
+                .setSourceId(v1.getSourceId())
+                .setDestinationId(emptyToNull(v1.getDestinationId()))
+                .setMetadata(toV2(v1.getMetadata()));
+
+        int currency = currencyCodes.computeIfAbsent(v1.getCurrency(), TransactionV2Converter::numericCurrencyCode);
+        builder.setCurrency(currency);
+        if (currency == UNKNOWN_CURRENCY) {
+            builder.setCurrencyCode(v1.getCurrency());
+        }
+
+        String sourceType = emptyToNull(v1.getSourceType());
+        if (sourceType != null) {
+            PartyType type = PARTY_TYPES.getOrDefault(sourceType.toUpperCase(Locale.ROOT), PartyType.OTHER);
+            builder.setSourceType(type);
+            if (type == PartyType.OTHER) {
+                builder.setSourceTypeOther(sourceType);
+            }
+        }
+
+        String destinationType = emptyToNull(v1.getDestinationType());
+        if (destinationType != null) {
+            PartyType type = PARTY_TYPES.getOrDefault(destinationType.toUpperCase(Locale.ROOT), PartyType.OTHER);
+            builder.setDestinationType(type);
+            if (type == PartyType.OTHER) {
+                builder.setDestinationTypeOther(destinationType);
+            }
+        }
+
+        TransactionType transactionType =
+                TRANSACTION_TYPES.getOrDefault(v1.getTransactionType().toUpperCase(Locale.ROOT), TransactionType.OTHER);
+        builder.setTransactionType(transactionType);
+        if (transactionType == TransactionType.OTHER) {
+            builder.setTransactionTypeOther(v1.getTransactionType());
+        }
+
+        return builder.build();
+    }
+
+    private static com.fraudrisk.model.v2.Metadata toV2(Metadata v1) {
+        if (v1 == null || (v1.getIpAddress() == null && v1.getDeviceId() == null
+                && v1.getLocation() == null && v1.getUserAgent() == null)) {
+            return null;
+        }
+
+        com.fraudrisk.model.v2.Metadata.Builder builder = com.fraudrisk.model.v2.Metadata.newBuilder()
+                .setDeviceId(v1.getDeviceId())
+                .setUserAgent(v1.getUserAgent())
+                .setLocation(toV2(v1.getLocation()));
+
+        String ipAddress = v1.getIpAddress();
+        if (ipAddress != null) {
+            int ipv4 = IpAddressUtils.parseIpv4(ipAddress);
+            if (ipv4 != IpAddressUtils.INVALID_IPV4) {
+                builder.setIpv4(ipv4);
+            } else {
+                builder.setIpAddress(ipAddress);
+            }
+        }
+        return builder.build();
+    }
+
+    private static com.fraudrisk.model.v2.Location toV2(Location v1) {
+        if (v1 == null || v1.getLatitude() == null || v1.getLongitude() == null) {
+            return null;
+        }
+        return com.fraudrisk.model.v2.Location.newBuilder()
+                .setLatitude(v1.getLatitude().floatValue())
+                .setLongitude(v1.getLongitude().floatValue())
+                .build();
+    }
+
+    static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(AMOUNT_SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    private static int numericCurrencyCode(String code) {
+        try {
+            int numeric = Currency.getInstance(code).getNumericCode();
+            return numeric > 0 ? numeric : UNKNOWN_CURRENCY;
+        } catch (IllegalArgumentException e) {
+            return UNKNOWN_CURRENCY;
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static <E extends Enum<E>> Map<String, E> index(E[] values) {
+        Map<String, E> index = new HashMap<>();
+        for (E value : values) {
+            index.put(value.name(), value);
+        }
+        return Map.copyOf(index);
+    }
+}
@@ -0,0 +1,447 @@
+package com.fraudrisk.pipeline;
+
+import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.exception.BatchTooLargeException;
+import com.fraudrisk.exception.DeadlineExceededException;
+import com.fraudrisk.exception.ProducerBackpressureException;
+import com.fraudrisk.exception.TransactionProcessingException;
+import com.fraudrisk.jfr.IngestionStageEvent;
+import com.fraudrisk.mapper.TransactionMapper;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.KafkaProducerService;
+import com.fraudrisk.service.MetricsService;
+import com.fraudrisk.status.TransactionStatus;
+import com.fraudrisk.status.TransactionStatusIndex;
+import com.fraudrisk.util.Deadline;
+import com.fraudrisk.util.RateLimitedLogger;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Staged pipeline for batch items, built on one preallocated ring buffer.
+ *
+ * A request thread claims a contiguous run of slots for its whole batch and publishes them; three
+ * stages then process every slot in sequence order, each on its own threads and each gated on the
+ * stage before it, Disruptor-style:
+ * <ul>
+ *   <li>{@value #ADMIT} - deadline check, status index and metrics bookkeeping</li>
+ *   <li>{@value #MAP} - DTO to Avro conversion including geo IP enrichment, on {@code map-threads}</li>
+ *   <li>{@value #PUBLISH} - routing headers, Avro serialization and the producer send</li>
+ * </ul>
+ * A stage takes everything available up to its barrier in one pass, so work is batched naturally
+ * under load and stages idle with a short spin before backing off to parking. Slots are reused once
+ * the publish stage has passed them; when a batch cannot get slots within {@code offer-timeout-ms}
+ * it is rejected with a 503 instead of queueing without bound.
+ *
+ * Each item's future completes once the item has been handed to the producer. Items whose future is
+ * already done, e.g. cancelled by the shutdown drain, are skipped by every later stage. A handler
+ * that throws fails only its own item; the stage thread carries on with the next slot.
+ */
+@Slf4j
+@Component
+public class IngestionPipeline {
+
+    public static final String ADMIT = "admit";
+    public static final String MAP = "map";
+    public static final String PUBLISH = "publish";
+
+    private static final int SPIN_TRIES = 200;
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long RETRY_AFTER_SECONDS = 1;
+    private static final RateLimitedLogger errorLog = new RateLimitedLogger(log);
+
+    private final TransactionMapper transactionMapper;
+    private final KafkaProducerService kafkaProducerService;
+    private final MetricsService metricsService;
+    private final TransactionStatusIndex statusIndex;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final long offerTimeoutNanos;
+    /** Highest sequence claimed by a request thread */
+    private final AtomicLong claimed = new AtomicLong(-1);
+    /** Sequence each slot was last published with, so the admit stage sees only complete slots */
+    private final AtomicLongArray published;
+    private final Stage admitStage;
+    private final Stage mapStage;
+    private final Stage publishStage;
+    private final List<Thread> threads = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public IngestionPipeline(TransactionMapper transactionMapper,
+                             KafkaProducerService kafkaProducerService,
+                             MetricsService metricsService,
+                             TransactionStatusIndex statusIndex,
+                             @Value("${ingestion.pipeline.ring-size:4096}") int ringSize,
+                             @Value("${ingestion.pipeline.map-threads:2}") int mapThreads,
+                             @Value("${ingestion.pipeline.offer-timeout-ms:50}") long offerTimeoutMs) {
+        if (ringSize < 1 || mapThreads < 1) {
+            throw new IllegalArgumentException("ring-size and map-threads must be at least 1");
+        }
+        this.transactionMapper = transactionMapper;
+        this.kafkaProducerService = kafkaProducerService;
+        this.metricsService = metricsService;
+        this.statusIndex = statusIndex;
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+
+        // Power of two, so a sequence maps to its slot with a mask
+        int capacity = ringSize == 1 ? 1 : Integer.highestOneBit(ringSize - 1) << 1;
+        this.slots = new Slot[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+            published.set(i, -1);
+        }
+        this.mask = capacity - 1;
+
+        this.admitStage = new Stage(ADMIT, null, 1, this::admit);
+        this.mapStage = new Stage(MAP, admitStage, mapThreads, this::map);
+        this.publishStage = new Stage(PUBLISH, mapStage, 1, this::publish);
+
+        registerDepthGauge(admitStage);
+        registerDepthGauge(mapStage);
+        registerDepthGauge(publishStage);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (Stage stage : List.of(admitStage, mapStage, publishStage)) {
+            for (int lane = 0; lane < stage.lanes.length; lane++) {
+                Thread thread = new Thread(stage.worker(lane), "ingestion-pipeline-" + stage.name + "-" + lane);
+                thread.setDaemon(true);
+                thread.start();
+                threads.add(thread);
+            }
+        }
+        log.info("Ingestion pipeline started: ringSize={}, mapThreads={}, offerTimeoutMs={}",
+                slots.length, mapStage.lanes.length, TimeUnit.NANOSECONDS.toMillis(offerTimeoutNanos));
+    }
+
+    /**
+     * Stop the stage threads; runs after the shutdown drain has waited for or cancelled tracked items
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        for (Thread thread : threads) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        threads.clear();
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Items claimed but not yet passed by the given stage
+     */
+    public long getDepth(String stage) {
+        return switch (stage) {
+            case ADMIT -> depth(admitStage);
+            case MAP -> depth(mapStage);
+            case PUBLISH -> depth(publishStage);
+            default -> throw new IllegalArgumentException("Unknown stage: " + stage);
+        };
+    }
+
+    /**
+     * Queue a batch; items still queued when the deadline passes are dropped
+     *
+     * @return One future per request, in request order, completed once the item has been handed to the producer
+     * @throws ProducerBackpressureException if the ring has no room for the batch within the offer timeout
+     */
+    public List<CompletableFuture<Void>> publish(List<TransactionRequest> requests, Deadline deadline,
+                                                 String batchId) {
+        int count = requests.size();
+        if (count > slots.length) {
+            throw new BatchTooLargeException(slots.length);
+        }
+        List<CompletableFuture<Void>> futures = new ArrayList<>(count);
+        if (count == 0) {
+            return futures;
+        }
+
+        long last = claim(count);
+        long first = last - count + 1;
+        for (int i = 0; i < count; i++) {
+            long sequence = first + i;
+            Slot slot = slots[index(sequence)];
+            slot.request = requests.get(i);
+            slot.deadline = deadline;
+            slot.batchId = batchId;
+            slot.event = IngestionStageEvent.start(IngestionStageEvent.BATCH_ITEM);
+            slot.future = new CompletableFuture<>();
+            futures.add(slot.future);
+            published.set(index(sequence), sequence);
+        }
+        return futures;
+    }
+
+    /**
+     * Claim {@code count} consecutive sequences, waiting up to the offer timeout for the publish
+     * stage to free enough slots
+     *
+     * @return The last claimed sequence
+     */
+    private long claim(int count) {
+        long waitUntil = System.nanoTime() + offerTimeoutNanos;
+        while (true) {
+            long current = claimed.get();
+            long next = current + count;
+            if (next - slots.length > publishStage.sequence()) {
+                if (System.nanoTime() - waitUntil >= 0) {
+                    metricsService.recordBackpressureRejected();
+                    throw new ProducerBackpressureException("Ingestion pipeline is full, retry later",
+                            RETRY_AFTER_SECONDS);
+                }
+                LockSupport.parkNanos(MIN_PARK_NANOS);
+            } else if (claimed.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private void admit(Slot slot) {
+        if (slot.future.isDone()) {
+            return;
+        }
+        TransactionRequest request = slot.request;
+        metricsService.recordTransactionReceived();
+        slot.sample = metricsService.startProcessingTimer();
+
+        // Shed work the caller has already abandoned before spending anything on it
+        if (slot.deadline.isExpired()) {
+            metricsService.recordDeadlineDropped("mapping");
+            statusIndex.update(request.getTransactionId(), TransactionStatus.SHED);
+            slot.future.completeExceptionally(new DeadlineExceededException(request.getTransactionId(), "mapping"));
+            return;
+        }
+        statusIndex.received(request.getTransactionId());
+        metricsService.recordTransactionAmount(request.getAmount());
+    }
+
+    private void map(Slot slot) {
+        if (!slot.future.isDone()) {
+            slot.transaction = transactionMapper.toAvro(slot.request);
+        }
+    }
+
+    private void publish(Slot slot) {
+        if (slot.future.isDone()) {
+            return;
+        }
+        // The producer already logs send failures, and finishes the item's event on the broker ack
+        CompletableFuture<Void> sent = kafkaProducerService.sendTransaction(slot.transaction, slot.deadline,
+                slot.event, slot.batchId);
+        slot.event = null;
+        sent.exceptionally(ex -> {
+            metricsService.recordTransactionFailed();
+            return null;
+        });
+        metricsService.stopProcessingTimer(slot.sample);
+        metricsService.recordTransactionProcessed();
+        slot.future.complete(null);
+    }
+
+    private void fail(Slot slot, Throwable e) {
+        if (slot.future == null || slot.future.isDone()) {
+            return;
+        }
+        if (e instanceof DeadlineExceededException) {
+            slot.future.completeExceptionally(e);
+            return;
+        }
+        String transactionId = slot.request.getTransactionId();
+        try {
+            metricsService.recordTransactionFailed();
+            statusIndex.update(transactionId, TransactionStatus.FAILED);
+            errorLog.error("process", e, "Error processing transaction {}: {}", transactionId, e.getMessage());
+        } finally {
+            // The caller is waiting on the future, so complete it even if the bookkeeping fails
+            slot.future.completeExceptionally(
+                    new TransactionProcessingException("Failed to process transaction: " + e.getMessage(), e));
+        }
+    }
+
+    /**
+     * Last stage is done with the slot: close its flight recorder event if the producer never took it
+     * over, and drop its references
+     */
+    private void release(Slot slot) {
+        try {
+            if (slot.event != null) {
+                slot.event.finish(slot.request.getTransactionId(), slot.batchId, 0, -1);
+            }
+        } finally {
+            slot.clear();
+        }
+    }
+
+    /**
+     * Run a stage's handler for one slot; nothing it throws may stop the stage thread, or every
+     * later item would wait forever
+     */
+    private void process(Stage stage, Slot slot, boolean last) {
+        try {
+            stage.handler.accept(slot);
+        } catch (Throwable e) {
+            try {
+                fail(slot, e);
+            } catch (Throwable failure) {
+                log.error("Unable to fail a batch item in stage {}", stage.name, failure);
+            }
+        }
+        if (last) {
+            try {
+                release(slot);
+            } catch (Throwable e) {
+                log.error("Unable to release a batch item slot", e);
+            }
+        }
+    }
+
+    private void registerDepthGauge(Stage stage) {
+        metricsService.registerGauge("transactions.pipeline.depth",
+                "Batch items waiting for or in an ingestion pipeline stage", () -> depth(stage),
+                "stage", stage.name);
+    }
+
+    private long depth(Stage stage) {
+        return Math.max(0, claimed.get() - stage.sequence());
+    }
+
+    private int index(long sequence) {
+        return (int) sequence & mask;
+    }
+
+    /**
+     * Highest sequence from {@code next} on that request threads have finished publishing
+     */
+    private long highestPublished(long next) {
+        long highest = claimed.get();
+        long sequence = next;
+        while (sequence <= highest && published.get(index(sequence)) == sequence) {
+            sequence++;
+        }
+        return sequence - 1;
+    }
+
+    /**
+     * One pipeline stage. Each lane is a thread with its own sequence; lane {@code i} of {@code n}
+     * handles the sequences with {@code sequence % n == i}, and the stage has passed a sequence once
+     * every lane has.
+     */
+    private final class Stage {
+
+        final String name;
+        final Stage upstream;
+        final AtomicLong[] lanes;
+        final Consumer<Slot> handler;
+
+        Stage(String name, Stage upstream, int laneCount, Consumer<Slot> handler) {
+            this.name = name;
+            this.upstream = upstream;
+            this.handler = handler;
+            this.lanes = new AtomicLong[laneCount];
+            for (int i = 0; i < laneCount; i++) {
+                lanes[i] = new AtomicLong(-1);
+            }
+        }
+
+        long sequence() {
+            long min = Long.MAX_VALUE;
+            for (AtomicLong lane : lanes) {
+                min = Math.min(min, lane.get());
+            }
+            return min;
+        }
+
+        long available(long next) {
+            return upstream == null ? highestPublished(next) : upstream.sequence();
+        }
+
+        Runnable worker(int lane) {
+            return () -> {
+                AtomicLong sequence = lanes[lane];
+                boolean last = this == publishStage;
+                long next = sequence.get() + 1;
+                int idle = 0;
+                while (running) {
+                    long available = available(next);
+                    if (available < next) {
+                        idle = idle(idle);
+                        continue;
+                    }
+                    for (long current = next; current <= available; current++) {
+                        if (current % lanes.length != lane) {
+                            continue;
+                        }
+                        process(this, slots[index(current)], last);
+                    }
+                    sequence.set(available);
+                    next = available + 1;
+                    idle = 0;
+                }
+            };
+        }
+
+        /**
+         * Spin briefly, then park for increasing intervals up to a millisecond
+         */
+        private int idle(int idle) {
+            if (idle < SPIN_TRIES) {
+                Thread.onSpinWait();
+                return idle + 1;
+            }
+            int backoff = idle - SPIN_TRIES;
+            LockSupport.parkNanos(Math.min(MIN_PARK_NANOS << backoff, MAX_PARK_NANOS));
+            return MIN_PARK_NANOS << backoff < MAX_PARK_NANOS ? idle + 1 : idle;
+        }
+    }
+
+    /**
+     * Preallocated ring entry; its fields are published to the next stage by the sequence writes
+     */
+    private static final class Slot {
+
+        TransactionRequest request;
+        Deadline deadline;
+        String batchId;
+        IngestionStageEvent event;
+        Timer.Sample sample;
+        Transaction transaction;
+        CompletableFuture<Void> future;
+
+        void clear() {
+            request = null;
+            deadline = null;
+            batchId = null;
+            event = null;
+            sample = null;
+            transaction = null;
+            future = null;
+        }
+    }
+}
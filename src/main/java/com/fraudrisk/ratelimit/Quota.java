@@ -0,0 +1,25 @@
+package com.fraudrisk.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sustained rate and burst allowance for one rate-limit key
+ */
+public record Quota(double permitsPerSecond, int burst) {
+
+    public Quota {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be at least 1");
+        }
+    }
+
+    /**
+     * Time it takes to earn back one permit
+     */
+    public long nanosPerPermit() {
+        return Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+    }
+}
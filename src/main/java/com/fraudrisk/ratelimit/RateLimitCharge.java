@@ -0,0 +1,32 @@
+package com.fraudrisk.ratelimit;
+
+import java.util.Map;
+
+/**
+ * Permits taken from one or more buckets for a single request, so they can be given back if the
+ * request is shed after it was charged
+ */
+public final class RateLimitCharge {
+
+    /**
+     * Nothing was charged, e.g. because rate limiting is disabled
+     */
+    public static final RateLimitCharge NONE = new RateLimitCharge(Map.of());
+
+    private final Map<TokenBucket, Integer> charged;
+
+    RateLimitCharge(Map<TokenBucket, Integer> charged) {
+        this.charged = charged;
+    }
+
+    RateLimitCharge(TokenBucket bucket, int permits) {
+        this(Map.of(bucket, permits));
+    }
+
+    /**
+     * Return the permits to the buckets they were taken from
+     */
+    public void refund() {
+        charged.forEach(TokenBucket::refund);
+    }
+}
@@ -0,0 +1,55 @@
+package com.fraudrisk.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for inspecting and reloading rate limit quotas at runtime
+ *
+ * GET    /actuator/ratelimits                 - current quotas
+ * POST   /actuator/ratelimits/{key}           - set a key's quota (use "default" for the default)
+ * DELETE /actuator/ratelimits/{key}           - remove a key's override
+ */
+@Component
+@Endpoint(id = "ratelimits")
+@RequiredArgsConstructor
+public class RateLimitEndpoint {
+
+    static final String DEFAULT_KEY = "default";
+
+    private final RateLimiterService rateLimiterService;
+
+    @ReadOperation
+    public Map<String, Object> quotas() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("default", rateLimiterService.getDefaultQuota());
+        result.put("overrides", rateLimiterService.getQuotaOverrides());
+        result.put("trackedKeys", rateLimiterService.getTrackedKeyCount());
+        return result;
+    }
+
+    @WriteOperation
+    public Quota updateQuota(@Selector String key, double requestsPerSecond, @Nullable Integer burst) {
+        Quota quota = new Quota(requestsPerSecond, burst != null ? burst : (int) Math.ceil(requestsPerSecond));
+        if (DEFAULT_KEY.equals(key)) {
+            rateLimiterService.updateDefaultQuota(quota);
+        } else {
+            rateLimiterService.updateQuota(key, quota);
+        }
+        return quota;
+    }
+
+    @DeleteOperation
+    public void removeQuota(@Selector String key) {
+        rateLimiterService.removeQuota(key);
+    }
+}
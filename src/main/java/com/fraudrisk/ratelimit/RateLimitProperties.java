@@ -0,0 +1,45 @@
+package com.fraudrisk.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-source rate limit configuration
+ */
+@Data
+@ConfigurationProperties(prefix = "ratelimit")
+public class RateLimitProperties {
+
+    private boolean enabled = false;
+
+    /** Header carrying the client's API key; when absent the request's sourceId is used */
+    private String keyHeader = "X-Api-Key";
+
+    /** Upper bound on buckets held in memory; keys beyond it share one overflow bucket */
+    private int maxTrackedKeys = 10000;
+
+    /** Upper bound on distinct source tags on the reject metric; others are tagged "other" */
+    private int maxTaggedSources = 50;
+
+    private QuotaProperties defaults = new QuotaProperties(1000, 2000);
+
+    /** Overrides keyed by sourceId or API key */
+    private Map<String, QuotaProperties> sources = new ConcurrentHashMap<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class QuotaProperties {
+        private double requestsPerSecond;
+        private int burst;
+
+        public Quota toQuota() {
+            return new Quota(requestsPerSecond, burst);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.fraudrisk.ratelimit;
+
+import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.exception.BatchExceedsQuotaException;
+import com.fraudrisk.exception.RateLimitExceededException;
+import com.fraudrisk.service.MetricsService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-source rate limiting with one {@link TokenBucket} per sourceId or API key.
+ *
+ * Buckets live in a bounded concurrent map; idle buckets are swept periodically and, once the
+ * map is full, unknown keys share a single overflow bucket rather than growing it further.
+ *
+ * API keys are credentials, so they never appear in metric tags, exceptions or logs; those see
+ * a short SHA-256 fingerprint of the key instead.
+ */
+@Slf4j
+@Service
+public class RateLimiterService {
+
+    static final String OVERFLOW_KEY = "__overflow__";
+    static final String OTHER_TAG = "other";
+    static final String KEY_PREFIX = "key-";
+
+    private final RateLimitProperties properties;
+    private final MetricsService metricsService;
+
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Quota> overrides = new ConcurrentHashMap<>();
+    private final Set<String> taggedSources = ConcurrentHashMap.newKeySet();
+    private volatile Quota defaultQuota;
+
+    public RateLimiterService(RateLimitProperties properties, MetricsService metricsService) {
+        this.properties = properties;
+        this.metricsService = metricsService;
+        this.defaultQuota = properties.getDefaults().toQuota();
+        properties.getSources().forEach((key, quota) -> overrides.put(key, quota.toQuota()));
+    }
+
+    /**
+     * Charge one permit for a single transaction
+     *
+     * @return The charge, to refund if the request is shed later
+     * @throws RateLimitExceededException if the source is over its quota
+     */
+    public RateLimitCharge checkSingle(HttpServletRequest httpRequest, TransactionRequest request) {
+        if (!properties.isEnabled()) {
+            return RateLimitCharge.NONE;
+        }
+        String apiKey = httpRequest.getHeader(properties.getKeyHeader());
+        if (apiKey != null) {
+            return new RateLimitCharge(acquire(apiKey, true, 1), 1);
+        }
+        return new RateLimitCharge(acquire(request.getSourceId(), false, 1), 1);
+    }
+
+    /**
+     * Charge one permit per transaction in a batch, against the API key or each item's source.
+     * A batch is charged all or nothing: if any source is rejected, the permits already taken
+     * from the others are refunded.
+     *
+     * @return The charge, to refund if the batch is shed later
+     * @throws RateLimitExceededException if any source in the batch is over its quota
+     * @throws BatchExceedsQuotaException if a source's share of the batch is larger than its burst
+     */
+    public RateLimitCharge checkBatch(HttpServletRequest httpRequest, List<TransactionRequest> requests) {
+        if (!properties.isEnabled()) {
+            return RateLimitCharge.NONE;
+        }
+        String apiKey = httpRequest.getHeader(properties.getKeyHeader());
+        if (apiKey != null) {
+            return new RateLimitCharge(acquire(apiKey, true, requests.size()), requests.size());
+        }
+
+        Map<String, Integer> perSource = new HashMap<>();
+        for (TransactionRequest request : requests) {
+            perSource.merge(String.valueOf(request.getSourceId()), 1, Integer::sum);
+        }
+
+        // Sources can share the overflow bucket, so refunds are summed per bucket
+        Map<TokenBucket, Integer> charged = new IdentityHashMap<>();
+        try {
+            perSource.forEach((source, permits) -> charged.merge(acquire(source, false, permits), permits, Integer::sum));
+        } catch (RateLimitExceededException | BatchExceedsQuotaException e) {
+            charged.forEach(TokenBucket::refund);
+            throw e;
+        }
+        return new RateLimitCharge(charged);
+    }
+
+    /**
+     * Take permits for a key or throw with the time until they are available
+     *
+     * @param apiKey Whether the key is a credential that must not be exposed
+     * @return The bucket the permits were taken from
+     */
+    private TokenBucket acquire(String key, boolean apiKey, int permits) {
+        long now = System.nanoTime();
+        TokenBucket bucket = bucketFor(key, now);
+        long waitNanos = bucket.tryAcquire(permits, now);
+        if (waitNanos == 0) {
+            return bucket;
+        }
+
+        String label = apiKey ? fingerprint(key) : key;
+        metricsService.recordRateLimited(tagFor(key, label));
+        if (waitNanos == TokenBucket.NEVER) {
+            throw new BatchExceedsQuotaException(label, bucket.getQuota().burst());
+        }
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        throw new RateLimitExceededException(label, retryAfterSeconds);
+    }
+
+    /**
+     * Set or replace the quota for a key; applies to its existing bucket immediately
+     */
+    public void updateQuota(String key, Quota quota) {
+        overrides.put(key, quota);
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.setQuota(quota);
+        }
+        log.info("Rate limit quota for {} set to {}/s, burst {}", key, quota.permitsPerSecond(), quota.burst());
+    }
+
+    /**
+     * Remove a key's override so it falls back to the default quota
+     */
+    public void removeQuota(String key) {
+        overrides.remove(key);
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.setQuota(defaultQuota);
+        }
+        log.info("Rate limit quota override for {} removed", key);
+    }
+
+    /**
+     * Replace the default quota for keys without an override
+     */
+    public void updateDefaultQuota(Quota quota) {
+        defaultQuota = quota;
+        buckets.forEach((key, bucket) -> {
+            if (!overrides.containsKey(key)) {
+                bucket.setQuota(quota);
+            }
+        });
+        log.info("Default rate limit quota set to {}/s, burst {}", quota.permitsPerSecond(), quota.burst());
+    }
+
+    public Quota getDefaultQuota() {
+        return defaultQuota;
+    }
+
+    public Map<String, Quota> getQuotaOverrides() {
+        return Map.copyOf(overrides);
+    }
+
+    public int getTrackedKeyCount() {
+        return buckets.size();
+    }
+
+    /**
+     * Drop buckets that have fully refilled; recreating them later is equivalent
+     */
+    @Scheduled(fixedDelayString = "${ratelimit.sweep-interval-ms:10000}")
+    public void sweepIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(entry -> entry.getValue().isIdle(now));
+    }
+
+    private TokenBucket bucketFor(String key, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= properties.getMaxTrackedKeys()) {
+            return buckets.computeIfAbsent(OVERFLOW_KEY, k -> new TokenBucket(defaultQuota, now));
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(overrides.getOrDefault(k, defaultQuota), now));
+    }
+
+    /**
+     * Keep the reject metric's tag cardinality bounded
+     */
+    private String tagFor(String key, String label) {
+        if (overrides.containsKey(key) || taggedSources.contains(label)) {
+            return label;
+        }
+        if (taggedSources.size() < properties.getMaxTaggedSources() && taggedSources.add(label)) {
+            return label;
+        }
+        return OTHER_TAG;
+    }
+
+    /**
+     * Stable, non-reversible name for an API key; only computed on the reject path
+     */
+    static String fingerprint(String apiKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(apiKey.getBytes(StandardCharsets.UTF_8));
+            return KEY_PREFIX + HexFormat.of().formatHex(digest, 0, 4);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
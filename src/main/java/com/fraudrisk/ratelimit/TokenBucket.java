@@ -0,0 +1,83 @@
+package com.fraudrisk.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ *
+ * Implemented as the generic cell rate algorithm: instead of a token count and a refill
+ * timestamp, the bucket keeps a single "theoretical arrival time" that moves forward by one
+ * permit interval per acquired permit. A full bucket is a TAT at or before now; acquiring is
+ * allowed while the TAT stays within {@code burst} intervals of now. Because the whole state is
+ * one long, refill and acquire are a single compare-and-set with no locks.
+ */
+public final class TokenBucket {
+
+    /**
+     * Returned by {@link #tryAcquire} when more permits were asked for than the burst can ever hold
+     */
+    public static final long NEVER = Long.MAX_VALUE;
+
+    private final AtomicLong theoreticalArrivalNanos;
+    private volatile Quota quota;
+
+    public TokenBucket(Quota quota, long nowNanos) {
+        this.quota = quota;
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Try to take permits from the bucket
+     *
+     * @param permits  Number of permits, charged in full
+     * @param nowNanos Current {@link System#nanoTime()}
+     * @return 0 if the permits were acquired, {@link #NEVER} if they exceed the burst, otherwise the
+     *         nanoseconds until they would be available
+     */
+    public long tryAcquire(int permits, long nowNanos) {
+        Quota current = quota;
+        if (permits > current.burst()) {
+            return NEVER;
+        }
+        long interval = current.nanosPerPermit();
+        long tolerance = interval * current.burst();
+        long increment = interval * Math.max(permits, 1);
+
+        while (true) {
+            long tat = theoreticalArrivalNanos.get();
+            long newTat = Math.max(tat, nowNanos) + increment;
+            long allowedAt = newTat - tolerance;
+            if (allowedAt > nowNanos) {
+                return allowedAt - nowNanos;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Give back permits taken by {@link #tryAcquire} for work that was then rejected elsewhere
+     */
+    public void refund(int permits) {
+        theoreticalArrivalNanos.addAndGet(-quota.nanosPerPermit() * Math.max(permits, 1));
+    }
+
+    /**
+     * A bucket is idle once it has refilled completely; dropping it loses no state
+     */
+    public boolean isIdle(long nowNanos) {
+        return theoreticalArrivalNanos.get() <= nowNanos;
+    }
+
+    public Quota getQuota() {
+        return quota;
+    }
+
+    /**
+     * Apply a new quota; tokens already spent stay spent
+     */
+    public void setQuota(Quota quota) {
+        this.quota = quota;
+    }
+}
@@ -0,0 +1,62 @@
+package com.fraudrisk.replay;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Committed position of each replay unit, saved as a properties file.
+ *
+ * A unit is a whole Avro file or one chunk of a JSON lines file. The position is the Avro sync
+ * point or byte offset up to which every record has been acknowledged; {@link #DONE} marks a
+ * finished unit. Writes replace the file atomically so a crash leaves the previous checkpoint.
+ */
+public class ReplayCheckpoint {
+
+    public static final long DONE = -1;
+
+    private final Path file;
+    private final Properties positions = new Properties();
+
+    private ReplayCheckpoint(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Load the checkpoint, or start empty; a null path keeps it in memory only
+     */
+    public static ReplayCheckpoint load(Path file) throws IOException {
+        ReplayCheckpoint checkpoint = new ReplayCheckpoint(file);
+        if (file != null && Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                checkpoint.positions.load(reader);
+            }
+        }
+        return checkpoint;
+    }
+
+    /**
+     * @return the committed position, {@link #DONE}, or {@code start} if the unit has none
+     */
+    public synchronized long positionOf(String unit, long start) {
+        String value = positions.getProperty(unit);
+        return value == null ? start : Long.parseLong(value);
+    }
+
+    public synchronized void commit(String unit, long position) throws IOException {
+        positions.setProperty(unit, Long.toString(position));
+        if (file == null) {
+            return;
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            positions.store(writer, "transaction replay checkpoint");
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
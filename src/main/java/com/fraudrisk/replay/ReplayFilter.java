@@ -0,0 +1,57 @@
+package com.fraudrisk.replay;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Time-range and transaction ID filter for replayed records
+ */
+public class ReplayFilter {
+
+    private final Instant from;
+    private final Instant to;
+    private final Predicate<String> idPattern;
+    private final Set<String> ids;
+
+    public ReplayFilter(Instant from, Instant to, String idPattern, Set<String> ids) {
+        this.from = from;
+        this.to = to;
+        this.idPattern = idPattern == null || idPattern.isBlank() ? null : Pattern.compile(idPattern).asMatchPredicate();
+        this.ids = ids;
+    }
+
+    public static ReplayFilter from(ReplayProperties properties) throws IOException {
+        Set<String> ids = null;
+        if (properties.getIdsFile() != null && !properties.getIdsFile().isBlank()) {
+            try (Stream<String> lines = Files.lines(Path.of(properties.getIdsFile()))) {
+                ids = lines.map(String::strip).filter(line -> !line.isEmpty()).collect(Collectors.toSet());
+            }
+        }
+        return new ReplayFilter(properties.getFrom(), properties.getTo(), properties.getIdPattern(), ids);
+    }
+
+    /**
+     * Whether a record with this ID and timestamp should be replayed; with a time range set,
+     * records without a timestamp are skipped
+     */
+    public boolean accepts(String transactionId, Instant timestamp) {
+        if (from != null || to != null) {
+            if (timestamp == null
+                    || (from != null && timestamp.isBefore(from))
+                    || (to != null && !timestamp.isBefore(to))) {
+                return false;
+            }
+        }
+        if (ids != null && !ids.contains(transactionId)) {
+            return false;
+        }
+        return idPattern == null || (transactionId != null && idPattern.test(transactionId));
+    }
+}
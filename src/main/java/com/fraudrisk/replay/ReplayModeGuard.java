@@ -0,0 +1,36 @@
+package com.fraudrisk.replay;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Profiles;
+
+/**
+ * Refuses a {@code replay} run of the AOT-processed build before the context is created.
+ *
+ * AOT fixes profile-conditional beans and the web application type at build time, so with
+ * {@code spring.aot.enabled=true} the replay profile would neither create {@link ReplayRunner} nor
+ * turn off the web server: the service would start as usual and replay nothing.
+ */
+public class ReplayModeGuard implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+    static final String PROFILE = "replay";
+
+    private final boolean aotArtifacts;
+
+    public ReplayModeGuard() {
+        this(AotDetector.useGeneratedArtifacts());
+    }
+
+    ReplayModeGuard(boolean aotArtifacts) {
+        this.aotArtifacts = aotArtifacts;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        if (aotArtifacts && event.getEnvironment().acceptsProfiles(Profiles.of(PROFILE))) {
+            throw new IllegalStateException("The replay profile needs a JVM run: start the jar without "
+                    + "-Dspring.aot.enabled=true, because the AOT build fixed its beans without the profile");
+        }
+    }
+}
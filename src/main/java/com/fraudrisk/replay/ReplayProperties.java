@@ -0,0 +1,50 @@
+package com.fraudrisk.replay;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for the {@code replay} run mode
+ */
+@Data
+@ConfigurationProperties(prefix = "replay")
+public class ReplayProperties {
+
+    /** Files or directories to replay; .avro files are Avro containers, anything else JSON lines */
+    private List<String> inputs = new ArrayList<>();
+
+    /** Target publish rate across all readers; 0 publishes as fast as the producer accepts */
+    private double ratePerSecond = 0;
+
+    /** Burst allowance on top of the target rate */
+    private int burst = 1000;
+
+    private int readerThreads = 4;
+
+    /** JSON lines files are split into chunks of this size so one large file is read in parallel */
+    private long chunkSizeBytes = 64L * 1024 * 1024;
+
+    /** JSON lines are committed to the checkpoint every this many lines; Avro files per block */
+    private int commitEvery = 5000;
+
+    /** Only replay transactions with timestamp >= from (inclusive) */
+    private Instant from;
+
+    /** Only replay transactions with timestamp < to (exclusive) */
+    private Instant to;
+
+    /** Only replay transaction IDs matching this regular expression */
+    private String idPattern;
+
+    /** Only replay transaction IDs listed in this file, one per line */
+    private String idsFile;
+
+    /** Progress is saved here and skipped on the next run with the same inputs; empty disables it */
+    private String checkpointFile = "replay.checkpoint";
+
+    private long progressIntervalMs = 5000;
+}
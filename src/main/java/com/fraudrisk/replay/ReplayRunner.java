@@ -0,0 +1,333 @@
+package com.fraudrisk.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.imports.ChunkSplitter;
+import com.fraudrisk.imports.FileChunk;
+import com.fraudrisk.mapper.TransactionMapper;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.ratelimit.Quota;
+import com.fraudrisk.ratelimit.TokenBucket;
+import com.fraudrisk.service.KafkaProducerService;
+import com.fraudrisk.util.RateLimitedLogger;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Re-publishes archived transactions when the jar runs with the {@code replay} profile.
+ *
+ * Inputs are Avro container files of v1 Transactions ({@code .avro}) or JSON lines files of
+ * {@link TransactionRequest}s. Each Avro file, and each {@code chunk-size-bytes} chunk of a JSON
+ * lines file, is a unit read by one of {@code reader-threads}; all units publish through the
+ * regular producer stack (micro-batching, retries, cluster routing) under one shared token
+ * bucket. A unit's position is checkpointed only after every record before it has been
+ * acknowledged or handed to the retry path, so a rerun with the same inputs and chunk size
+ * skips what was already replayed.
+ *
+ * Exit codes: 0 when every record was sent, 1 when a unit failed or any record could not be sent or
+ * parsed, 2 when there were no inputs. The profile only takes effect in a JVM run; see
+ * {@link ReplayModeGuard}.
+ */
+@Slf4j
+@Component
+@Profile("replay")
+public class ReplayRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private static final RateLimitedLogger errorLog = new RateLimitedLogger(log);
+
+    private final ReplayProperties properties;
+    private final TransactionMapper transactionMapper;
+    private final KafkaProducerService kafkaProducerService;
+    private final ObjectMapper objectMapper;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder filtered = new LongAdder();
+    private final LongAdder invalid = new LongAdder();
+    private final TokenBucket rateLimiter;
+    private volatile int exitCode;
+    private long lastReportNanos;
+    private long lastReportSent;
+
+    public ReplayRunner(ReplayProperties properties,
+                        TransactionMapper transactionMapper,
+                        KafkaProducerService kafkaProducerService,
+                        ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.transactionMapper = transactionMapper;
+        this.kafkaProducerService = kafkaProducerService;
+        this.objectMapper = objectMapper;
+        this.rateLimiter = properties.getRatePerSecond() > 0
+                ? new TokenBucket(new Quota(properties.getRatePerSecond(), Math.max(1, properties.getBurst())), System.nanoTime())
+                : null;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        List<Path> files = resolveInputs();
+        if (files.isEmpty()) {
+            log.error("Replay has no input files; set replay.inputs");
+            exitCode = 2;
+            return;
+        }
+
+        ReplayFilter filter = ReplayFilter.from(properties);
+        String checkpointFile = properties.getCheckpointFile();
+        ReplayCheckpoint checkpoint = ReplayCheckpoint.load(
+                checkpointFile == null || checkpointFile.isBlank() ? null : Path.of(checkpointFile));
+        List<Callable<Void>> units = plan(files, filter, checkpoint);
+        log.info("Replaying {} files as {} units with {} readers at {}", files.size(), units.size(),
+                properties.getReaderThreads(),
+                rateLimiter == null ? "maximum rate" : properties.getRatePerSecond() + " records/s");
+
+        ExecutorService readers = Executors.newFixedThreadPool(Math.max(1, properties.getReaderThreads()),
+                daemonThreads("replay-reader"));
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(daemonThreads("replay-progress"));
+        long startNanos = System.nanoTime();
+        lastReportNanos = startNanos;
+        reporter.scheduleAtFixedRate(this::reportProgress, properties.getProgressIntervalMs(),
+                properties.getProgressIntervalMs(), TimeUnit.MILLISECONDS);
+        try {
+            for (Future<Void> result : readers.invokeAll(units)) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    exitCode = 1;
+                    errorLog.error("replay-unit", e.getCause(), "Replay unit failed: {}", e.getCause().getMessage());
+                }
+            }
+        } finally {
+            readers.shutdownNow();
+            reporter.shutdownNow();
+        }
+
+        double seconds = Math.max(1e-3, (System.nanoTime() - startNanos) / 1e9);
+        log.info("Replay finished in {}s: sent={}, failed={}, filtered={}, invalid={}, avg {}/s",
+                String.format("%.1f", seconds), sent.sum(), failed.sum(), filtered.sum(), invalid.sum(),
+                Math.round(sent.sum() / seconds));
+        if (failed.sum() > 0 || invalid.sum() > 0) {
+            // Records that were skipped are missing downstream just like records that were not sent
+            log.error("Replay incomplete: {} records could not be sent and {} could not be parsed",
+                    failed.sum(), invalid.sum());
+            exitCode = 1;
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    /**
+     * One unit per Avro file and per chunk of a JSON lines file, skipping finished units
+     */
+    List<Callable<Void>> plan(List<Path> files, ReplayFilter filter, ReplayCheckpoint checkpoint) throws IOException {
+        List<Callable<Void>> units = new ArrayList<>();
+        for (Path file : files) {
+            String name = file.toAbsolutePath().toString();
+            if (name.endsWith(".avro")) {
+                long position = checkpoint.positionOf(name, 0);
+                if (position != ReplayCheckpoint.DONE) {
+                    units.add(() -> replayAvro(file, name, position, filter, checkpoint));
+                }
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                for (FileChunk chunk : ChunkSplitter.split(channel, 0, properties.getChunkSizeBytes())) {
+                    String unit = name + "#" + chunk.start();
+                    long position = checkpoint.positionOf(unit, chunk.start());
+                    if (position != ReplayCheckpoint.DONE) {
+                        units.add(() -> replayJsonLines(file, unit, position, chunk.end(), filter, checkpoint));
+                    }
+                }
+            }
+        }
+        return units;
+    }
+
+    private Void replayAvro(Path file, String unit, long start, ReplayFilter filter,
+                            ReplayCheckpoint checkpoint) throws IOException {
+        try (DataFileReader<Transaction> reader =
+                     new DataFileReader<>(file.toFile(), new SpecificDatumReader<>(Transaction.class))) {
+            if (start > 0) {
+                reader.seek(start);
+            }
+            List<CompletableFuture<Void>> pending = new ArrayList<>();
+            long block = reader.previousSync();
+            while (reader.hasNext()) {
+                Transaction transaction = reader.next();
+                if (filter.accepts(transaction.getTransactionId(), transaction.getTimestamp())) {
+                    publish(transaction, pending);
+                } else {
+                    filtered.increment();
+                }
+                // previousSync moves to the next block once the last record of a block is read
+                long sync = reader.previousSync();
+                if (sync != block) {
+                    commit(checkpoint, unit, sync, pending);
+                    block = sync;
+                }
+            }
+            commit(checkpoint, unit, ReplayCheckpoint.DONE, pending);
+        }
+        return null;
+    }
+
+    private Void replayJsonLines(Path file, String unit, long start, long end, ReplayFilter filter,
+                                 ReplayCheckpoint checkpoint) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            InputStream in = new BufferedInputStream(Channels.newInputStream(channel.position(start)), 1 << 16);
+            List<CompletableFuture<Void>> pending = new ArrayList<>();
+            byte[] line = new byte[4096];
+            long position = start;
+            int uncommitted = 0;
+            while (position < end) {
+                int length = 0;
+                int b;
+                while ((b = in.read()) != -1 && b != '\n') {
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, length * 2);
+                    }
+                    line[length++] = (byte) b;
+                }
+                position += length + (b == '\n' ? 1 : 0);
+                if (length > 0 && line[length - 1] == '\r') {
+                    length--;
+                }
+                if (length > 0) {
+                    publishLine(line, length, filter, pending);
+                }
+                if (b == -1) {
+                    break;
+                }
+                if (++uncommitted >= properties.getCommitEvery()) {
+                    commit(checkpoint, unit, position, pending);
+                    uncommitted = 0;
+                }
+            }
+            commit(checkpoint, unit, ReplayCheckpoint.DONE, pending);
+        }
+        return null;
+    }
+
+    private void publishLine(byte[] line, int length, ReplayFilter filter, List<CompletableFuture<Void>> pending) {
+        TransactionRequest request;
+        try {
+            request = objectMapper.readValue(line, 0, length, TransactionRequest.class);
+        } catch (IOException e) {
+            invalid.increment();
+            errorLog.error("replay-parse", e, "Skipping unparseable replay line: {}", e.getMessage());
+            return;
+        }
+        if (!filter.accepts(request.getTransactionId(), request.getTimestamp())) {
+            filtered.increment();
+            return;
+        }
+        publish(transactionMapper.toAvro(request), pending);
+    }
+
+    private void publish(Transaction transaction, List<CompletableFuture<Void>> pending) {
+        acquirePermit();
+        try {
+            pending.add(kafkaProducerService.sendTransaction(transaction).handle((result, ex) -> {
+                if (ex == null) {
+                    sent.increment();
+                } else {
+                    failed.increment();
+                }
+                return null;
+            }));
+        } catch (RuntimeException e) {
+            failed.increment();
+        }
+    }
+
+    private void acquirePermit() {
+        if (rateLimiter == null) {
+            return;
+        }
+        long waitNanos;
+        while ((waitNanos = rateLimiter.tryAcquire(1, System.nanoTime())) > 0) {
+            LockSupport.parkNanos(waitNanos);
+        }
+    }
+
+    /**
+     * Wait for everything sent so far in the unit, then save the unit's position
+     */
+    private static void commit(ReplayCheckpoint checkpoint, String unit, long position,
+                               List<CompletableFuture<Void>> pending) throws IOException {
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).join();
+        pending.clear();
+        checkpoint.commit(unit, position);
+    }
+
+    private void reportProgress() {
+        long now = System.nanoTime();
+        long total = sent.sum();
+        double seconds = Math.max(1e-3, (now - lastReportNanos) / 1e9);
+        log.info("Replay progress: sent={}, failed={}, filtered={}, invalid={}, {}/s",
+                total, failed.sum(), filtered.sum(), invalid.sum(), Math.round((total - lastReportSent) / seconds));
+        lastReportNanos = now;
+        lastReportSent = total;
+    }
+
+    private List<Path> resolveInputs() throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String input : properties.getInputs()) {
+            if (input.isBlank()) {
+                continue;
+            }
+            Path path = Path.of(input);
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> children = Files.list(path)) {
+                    children.filter(Files::isRegularFile)
+                            .filter(child -> child.toString().matches(".*\\.(avro|jsonl|ndjson|json)$"))
+                            .sorted()
+                            .forEach(files::add);
+                }
+            } else {
+                files.add(path);
+            }
+        }
+        return files;
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package com.fraudrisk.rules;
+
+import com.fraudrisk.model.Transaction;
+import io.micrometer.core.instrument.Counter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Immutable, compiled pre-scoring rules; built by {@link RuleCompiler} and safe to share between threads.
+ *
+ * Rules are kept in one array per transaction type holding the rules that can match that type, in
+ * declaration order, plus one array of the rules that apply to any type. Evaluation looks up the
+ * array once and runs each rule's predicate tree; a transaction that matches nothing, or a single
+ * rule, allocates nothing.
+ */
+public final class CompiledRuleSet {
+
+    public static final CompiledRuleSet EMPTY = new CompiledRuleSet(new CompiledRule[0], Map.of(), 0);
+
+    private static final CompiledRule[] NO_RULES = new CompiledRule[0];
+
+    private final CompiledRule[] anyType;
+    private final Map<String, CompiledRule[]> byType;
+    private final int size;
+
+    private CompiledRuleSet(CompiledRule[] anyType, Map<String, CompiledRule[]> byType, int size) {
+        this.anyType = anyType;
+        this.byType = byType;
+        this.size = size;
+    }
+
+    /**
+     * @param rules Compiled rules in declaration order
+     * @param types For each rule, the transaction types it is limited to, or null for any type
+     */
+    static CompiledRuleSet of(List<CompiledRule> rules, List<Set<String>> types) {
+        Set<String> indexed = new HashSet<>();
+        List<CompiledRule> anyType = new ArrayList<>();
+        for (int i = 0; i < rules.size(); i++) {
+            if (types.get(i) == null) {
+                anyType.add(rules.get(i));
+            } else {
+                indexed.addAll(types.get(i));
+            }
+        }
+
+        Map<String, CompiledRule[]> byType = new HashMap<>();
+        for (String type : indexed) {
+            List<CompiledRule> applicable = new ArrayList<>();
+            for (int i = 0; i < rules.size(); i++) {
+                if (types.get(i) == null || types.get(i).contains(type)) {
+                    applicable.add(rules.get(i));
+                }
+            }
+            byType.put(type, applicable.toArray(NO_RULES));
+        }
+        return new CompiledRuleSet(anyType.toArray(NO_RULES), Map.copyOf(byType), rules.size());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public RuleMatch evaluate(Transaction transaction) {
+        String type = transaction.getTransactionType();
+        CompiledRule[] rules = type == null ? anyType : byType.getOrDefault(type, anyType);
+
+        CompiledRule first = null;
+        StringBuilder ids = null;
+        boolean fastLane = false;
+        for (CompiledRule rule : rules) {
+            if (!rule.predicate().test(transaction)) {
+                continue;
+            }
+            rule.matches().increment();
+            fastLane |= rule.fastLane();
+            if (first == null) {
+                first = rule;
+            } else {
+                if (ids == null) {
+                    ids = new StringBuilder(first.id());
+                }
+                ids.append(',').append(rule.id());
+            }
+        }
+
+        if (first == null) {
+            return RuleMatch.NONE;
+        }
+        if (ids == null) {
+            return first.match();
+        }
+        return new RuleMatch(ids.toString().getBytes(StandardCharsets.UTF_8), fastLane);
+    }
+
+    /**
+     * One compiled rule; {@code match} is its precomputed result when it is the only rule matched
+     */
+    record CompiledRule(String id, boolean fastLane, Predicate<Transaction> predicate, Counter matches,
+                        RuleMatch match) {
+
+        CompiledRule(String id, boolean fastLane, Predicate<Transaction> predicate, Counter matches) {
+            this(id, fastLane, predicate, matches, new RuleMatch(id.getBytes(StandardCharsets.UTF_8), fastLane));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.fraudrisk.rules;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.MetricsService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs cheap pre-scoring rules against every transaction at ingestion, so obvious cases can be
+ * tagged or sent to a fast lane before the full fraud stack sees them.
+ *
+ * Rules are read from the JSON file at {@code ingestion.rules.file} (see {@link RuleDefinition})
+ * and compiled once by {@link RuleCompiler}. The compiled set is published through an
+ * {@link AtomicReference}; when the file changes it is compiled again and swapped in, so
+ * evaluation never pauses. A file that fails to parse or compile leaves the previous rules active,
+ * and is reported once: it is not tried again until it changes.
+ *
+ * Header contract: {@value #HEADER} holds the IDs of the matched rules, comma-separated UTF-8 in
+ * declaration order, and is absent when no rule matched.
+ */
+@Slf4j
+@Service
+public class PreScoringEngine {
+
+    public static final String HEADER = "prescore-rules";
+
+    private final ObjectReader reader;
+    private final RuleCompiler compiler;
+    private final String rulesFile;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(new Snapshot(CompiledRuleSet.EMPTY, null));
+    /** Modification time of the last version of the file that was loaded or rejected */
+    private volatile FileTime lastAttempted;
+
+    public PreScoringEngine(ObjectMapper objectMapper,
+                            MetricsService metricsService,
+                            @Value("${ingestion.rules.file:}") String rulesFile) {
+        // A misspelt key in a rule would otherwise silently widen what the rule matches
+        this.reader = objectMapper.readerFor(RuleSetDefinition.class)
+                .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.compiler = new RuleCompiler(metricsService);
+        this.rulesFile = rulesFile;
+        metricsService.registerGauge("transactions.prescore.rules", "Pre-scoring rules currently active",
+                () -> current.get().rules().size());
+    }
+
+    @PostConstruct
+    public void init() {
+        if (rulesFile == null || rulesFile.isBlank()) {
+            log.info("Pre-scoring rules are disabled");
+            return;
+        }
+        load(Paths.get(rulesFile));
+    }
+
+    /**
+     * Recompile the rules when the file on disk has changed
+     */
+    @Scheduled(fixedDelayString = "${ingestion.rules.refresh-interval-ms:5000}",
+            initialDelayString = "${ingestion.rules.refresh-interval-ms:5000}")
+    public void refreshIfChanged() {
+        if (rulesFile == null || rulesFile.isBlank()) {
+            return;
+        }
+
+        Path path = Paths.get(rulesFile);
+        try {
+            FileTime modified = Files.getLastModifiedTime(path);
+            if (!modified.equals(lastAttempted)) {
+                load(path);
+            }
+        } catch (IOException e) {
+            log.warn("Unable to check pre-scoring rules {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Compile the rules file at the given path and make it the active rule set
+     *
+     * @return true if the new rules were installed; on failure the previous rules stay active
+     */
+    public synchronized boolean load(Path path) {
+        try {
+            FileTime modified = Files.getLastModifiedTime(path);
+            lastAttempted = modified;
+            CompiledRuleSet rules = compiler.compile(reader.readValue(path.toFile()));
+            current.set(new Snapshot(rules, modified));
+            log.info("Loaded {} pre-scoring rules from {}", rules.size(), path);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load pre-scoring rules {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    public RuleMatch evaluate(Transaction transaction) {
+        return current.get().rules().evaluate(transaction);
+    }
+
+    /**
+     * Evaluate the rules and add the {@value #HEADER} header if any matched
+     */
+    public RuleMatch appendHeader(Transaction transaction, List<Header> headers) {
+        RuleMatch match = evaluate(transaction);
+        if (match.matched()) {
+            headers.add(new RecordHeader(HEADER, match.header()));
+        }
+        return match;
+    }
+
+    public int getRuleCount() {
+        return current.get().rules().size();
+    }
+
+    private record Snapshot(CompiledRuleSet rules, FileTime modified) {
+    }
+}
@@ -0,0 +1,276 @@
+package com.fraudrisk.rules;
+
+import com.fraudrisk.model.Metadata;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.rules.RuleDefinition.Condition;
+import com.fraudrisk.service.MetricsService;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Compiles rule definitions into a {@link CompiledRuleSet}.
+ *
+ * Each condition becomes a tree of small predicates specialised for its field and operator: string
+ * fields are read through a direct accessor, {@code in} lists become hash sets, amount limits are
+ * parsed once, and single-child groups collapse into their child. Nothing of the definition is
+ * looked at again when a transaction is evaluated. Rules that require a {@code transactionType}
+ * are indexed by it, so a transaction is only tested against rules that can apply to its type.
+ *
+ * Operators: {@code eq}, {@code ne}, {@code in}, {@code not-in} and {@code prefix} on string
+ * fields; {@code eq}, {@code gt}, {@code gte}, {@code lt} and {@code lte} on {@code amount}.
+ * Every error names the rule, and a rule set with any error is rejected as a whole.
+ */
+@RequiredArgsConstructor
+public class RuleCompiler {
+
+    static final String AMOUNT = "amount";
+    static final String TRANSACTION_TYPE = "transactionType";
+    static final String TAG = "tag";
+    static final String FAST_LANE = "fast-lane";
+
+    static final Map<String, Function<Transaction, String>> STRING_FIELDS = Map.ofEntries(
+            Map.entry(TRANSACTION_TYPE, Transaction::getTransactionType),
+            Map.entry("currency", Transaction::getCurrency),
+            Map.entry("customerId", Transaction::getCustomerId),
+            Map.entry("sourceId", Transaction::getSourceId),
+            Map.entry("sourceType", Transaction::getSourceType),
+            Map.entry("destinationId", Transaction::getDestinationId),
+            Map.entry("destinationType", Transaction::getDestinationType),
+            Map.entry("ipAddress", transaction -> metadata(transaction, Metadata::getIpAddress)),
+            Map.entry("deviceId", transaction -> metadata(transaction, Metadata::getDeviceId)));
+
+    private final MetricsService metricsService;
+
+    public CompiledRuleSet compile(RuleSetDefinition definition) {
+        List<RuleDefinition> rules = definition == null || definition.rules() == null
+                ? List.of() : definition.rules();
+        Set<String> ids = new HashSet<>();
+        List<CompiledRuleSet.CompiledRule> compiled = new ArrayList<>(rules.size());
+        List<Set<String>> types = new ArrayList<>(rules.size());
+
+        for (RuleDefinition rule : rules) {
+            if (rule.id() == null || rule.id().isBlank()) {
+                throw new IllegalArgumentException("Every rule needs an id");
+            }
+            if (!ids.add(rule.id())) {
+                throw error(rule.id(), "duplicate rule id");
+            }
+            if (rule.when() == null) {
+                throw error(rule.id(), "missing 'when' condition");
+            }
+            compiled.add(new CompiledRuleSet.CompiledRule(rule.id(), fastLane(rule),
+                    compile(rule.id(), rule.when()), metricsService.preScoreMatchCounter(rule.id())));
+            types.add(transactionTypes(rule.when()));
+        }
+        return CompiledRuleSet.of(compiled, types);
+    }
+
+    private static boolean fastLane(RuleDefinition rule) {
+        if (rule.action() == null || TAG.equals(rule.action())) {
+            return false;
+        }
+        if (FAST_LANE.equals(rule.action())) {
+            return true;
+        }
+        throw error(rule.id(), "unknown action '" + rule.action() + "', expected tag or fast-lane");
+    }
+
+    private Predicate<Transaction> compile(String ruleId, Condition condition) {
+        int forms = (condition.field() != null ? 1 : 0) + (condition.all() != null ? 1 : 0)
+                + (condition.any() != null ? 1 : 0) + (condition.not() != null ? 1 : 0);
+        if (forms != 1) {
+            throw error(ruleId, "a condition needs exactly one of field, all, any or not");
+        }
+        if (condition.all() != null) {
+            return allOf(children(ruleId, condition.all(), "all"));
+        }
+        if (condition.any() != null) {
+            return anyOf(children(ruleId, condition.any(), "any"));
+        }
+        if (condition.not() != null) {
+            return compile(ruleId, condition.not()).negate();
+        }
+        if (condition.op() == null) {
+            throw error(ruleId, "missing 'op' for field '" + condition.field() + "'");
+        }
+        if (AMOUNT.equals(condition.field())) {
+            return amount(ruleId, condition);
+        }
+        Function<Transaction, String> accessor = STRING_FIELDS.get(condition.field());
+        if (accessor == null) {
+            throw error(ruleId, "unknown field '" + condition.field() + "'");
+        }
+        return string(ruleId, accessor, condition);
+    }
+
+    private List<Predicate<Transaction>> children(String ruleId, List<Condition> conditions, String group) {
+        if (conditions.isEmpty()) {
+            throw error(ruleId, "'" + group + "' needs at least one condition");
+        }
+        List<Predicate<Transaction>> children = new ArrayList<>(conditions.size());
+        for (Condition child : conditions) {
+            children.add(compile(ruleId, child));
+        }
+        return children;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate<Transaction> allOf(List<Predicate<Transaction>> children) {
+        if (children.size() == 1) {
+            return children.get(0);
+        }
+        Predicate<Transaction>[] all = children.toArray(new Predicate[0]);
+        return transaction -> {
+            for (Predicate<Transaction> child : all) {
+                if (!child.test(transaction)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate<Transaction> anyOf(List<Predicate<Transaction>> children) {
+        if (children.size() == 1) {
+            return children.get(0);
+        }
+        Predicate<Transaction>[] any = children.toArray(new Predicate[0]);
+        return transaction -> {
+            for (Predicate<Transaction> child : any) {
+                if (child.test(transaction)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    private static Predicate<Transaction> string(String ruleId, Function<Transaction, String> accessor,
+                                                 Condition condition) {
+        return switch (condition.op()) {
+            case "eq" -> {
+                String expected = value(ruleId, condition);
+                yield transaction -> expected.equals(accessor.apply(transaction));
+            }
+            case "ne" -> {
+                String expected = value(ruleId, condition);
+                yield transaction -> !expected.equals(accessor.apply(transaction));
+            }
+            case "prefix" -> {
+                String prefix = value(ruleId, condition);
+                yield transaction -> {
+                    String actual = accessor.apply(transaction);
+                    return actual != null && actual.startsWith(prefix);
+                };
+            }
+            case "in" -> {
+                Set<String> expected = values(ruleId, condition);
+                if (expected.size() == 1) {
+                    String only = expected.iterator().next();
+                    yield transaction -> only.equals(accessor.apply(transaction));
+                }
+                yield transaction -> {
+                    String actual = accessor.apply(transaction);
+                    return actual != null && expected.contains(actual);
+                };
+            }
+            case "not-in" -> {
+                Set<String> excluded = values(ruleId, condition);
+                yield transaction -> {
+                    String actual = accessor.apply(transaction);
+                    return actual == null || !excluded.contains(actual);
+                };
+            }
+            default -> throw error(ruleId, "operator '" + condition.op() + "' does not apply to field '"
+                    + condition.field() + "'");
+        };
+    }
+
+    private static Predicate<Transaction> amount(String ruleId, Condition condition) {
+        BigDecimal limit;
+        try {
+            limit = new BigDecimal(value(ruleId, condition));
+        } catch (NumberFormatException e) {
+            throw error(ruleId, "amount limit '" + condition.value() + "' is not a number");
+        }
+        return switch (condition.op()) {
+            case "eq" -> transaction -> {
+                BigDecimal amount = transaction.getAmount();
+                return amount != null && amount.compareTo(limit) == 0;
+            };
+            case "gt" -> transaction -> {
+                BigDecimal amount = transaction.getAmount();
+                return amount != null && amount.compareTo(limit) > 0;
+            };
+            case "gte" -> transaction -> {
+                BigDecimal amount = transaction.getAmount();
+                return amount != null && amount.compareTo(limit) >= 0;
+            };
+            case "lt" -> transaction -> {
+                BigDecimal amount = transaction.getAmount();
+                return amount != null && amount.compareTo(limit) < 0;
+            };
+            case "lte" -> transaction -> {
+                BigDecimal amount = transaction.getAmount();
+                return amount != null && amount.compareTo(limit) <= 0;
+            };
+            default -> throw error(ruleId, "operator '" + condition.op() + "' does not apply to field 'amount'");
+        };
+    }
+
+    /**
+     * Transaction types a rule is limited to, or null if it may match any type
+     */
+    static Set<String> transactionTypes(Condition condition) {
+        if (TRANSACTION_TYPE.equals(condition.field())) {
+            if ("eq".equals(condition.op()) && condition.value() != null) {
+                return Set.of(condition.value());
+            }
+            if ("in".equals(condition.op()) && condition.values() != null) {
+                return Set.copyOf(condition.values());
+            }
+            return null;
+        }
+        if (condition.all() != null) {
+            for (Condition child : condition.all()) {
+                Set<String> types = transactionTypes(child);
+                if (types != null) {
+                    return types;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String value(String ruleId, Condition condition) {
+        if (condition.value() == null) {
+            throw error(ruleId, "'" + condition.op() + "' on '" + condition.field() + "' needs a value");
+        }
+        return condition.value();
+    }
+
+    private static Set<String> values(String ruleId, Condition condition) {
+        if (condition.values() == null || condition.values().isEmpty()) {
+            throw error(ruleId, "'" + condition.op() + "' on '" + condition.field() + "' needs values");
+        }
+        return Set.copyOf(condition.values());
+    }
+
+    private static String metadata(Transaction transaction, Function<Metadata, String> accessor) {
+        Metadata metadata = transaction.getMetadata();
+        return metadata == null ? null : accessor.apply(metadata);
+    }
+
+    private static IllegalArgumentException error(String ruleId, String message) {
+        return new IllegalArgumentException("Rule '" + ruleId + "': " + message);
+    }
+}
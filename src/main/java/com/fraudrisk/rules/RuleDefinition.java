@@ -0,0 +1,27 @@
+package com.fraudrisk.rules;
+
+import java.util.List;
+
+/**
+ * One pre-scoring rule as declared in the rules file.
+ *
+ * <pre>
+ * {"id": "large-wire", "action": "fast-lane",
+ *  "when": {"all": [{"field": "transactionType", "op": "eq", "value": "WIRE_TRANSFER"},
+ *                   {"field": "amount", "op": "gt", "value": 10000}]}}
+ * </pre>
+ *
+ * @param id     Unique rule ID, used in the header and the match counter
+ * @param action {@code tag} (default) or {@code fast-lane}
+ * @param when   Condition a transaction must satisfy
+ */
+public record RuleDefinition(String id, String action, Condition when) {
+
+    /**
+     * Either a comparison ({@code field}, {@code op} and {@code value} or {@code values}) or exactly
+     * one of the groups {@code all}, {@code any} and {@code not}
+     */
+    public record Condition(String field, String op, String value, List<String> values,
+                            List<Condition> all, List<Condition> any, Condition not) {
+    }
+}
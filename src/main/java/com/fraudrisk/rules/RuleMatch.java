@@ -0,0 +1,17 @@
+package com.fraudrisk.rules;
+
+/**
+ * Result of evaluating the pre-scoring rules against one transaction
+ *
+ * @param header   Value of the {@value PreScoringEngine#HEADER} header, or null if no rule matched;
+ *                 shared between records, so it must be treated as read-only
+ * @param fastLane Whether a matched rule routes the transaction to the fast-lane topic
+ */
+public record RuleMatch(byte[] header, boolean fastLane) {
+
+    public static final RuleMatch NONE = new RuleMatch(null, false);
+
+    public boolean matched() {
+        return header != null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.fraudrisk.rules;
+
+import java.util.List;
+
+/**
+ * Contents of the pre-scoring rules file: the rules in evaluation order
+ */
+public record RuleSetDefinition(List<RuleDefinition> rules) {
+}
@@ -0,0 +1,51 @@
+package com.fraudrisk.service;
+
+import com.fraudrisk.util.Deadline;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Derives request deadlines from the optional timeout header or the server default
+ */
+@Slf4j
+@Component
+public class DeadlinePolicy {
+
+    @Value("${ingestion.deadline.header:X-Request-Timeout-Ms}")
+    private String header;
+
+    @Value("${ingestion.deadline.default-timeout-ms:0}")
+    private long defaultTimeoutMs;
+
+    /**
+     * Deadline for a synchronous request: the header's budget, else the server default
+     */
+    public Deadline forRequest(HttpServletRequest request) {
+        Long timeoutMs = headerTimeout(request);
+        return Deadline.afterMillis(timeoutMs != null ? timeoutMs : defaultTimeoutMs);
+    }
+
+    /**
+     * Deadline for accepted batch work
+     * The client already has its 202, so only an explicit header budget applies
+     */
+    public Deadline forBatch(HttpServletRequest request) {
+        Long timeoutMs = headerTimeout(request);
+        return timeoutMs != null ? Deadline.afterMillis(timeoutMs) : Deadline.NONE;
+    }
+
+    private Long headerTimeout(HttpServletRequest request) {
+        String value = request.getHeader(header);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed {} header: {}", header, value);
+            return null;
+        }
+    }
+}
@@ -1,17 +1,39 @@
 package com.fraudrisk.service;
 
+import com.fraudrisk.enrichment.UserAgentService;
+import com.fraudrisk.exception.DeadlineExceededException;
 import com.fraudrisk.exception.KafkaProducerException;
+import com.fraudrisk.jfr.IngestionStageEvent;
+import com.fraudrisk.kafka.MicroBatcher;
+import com.fraudrisk.kafka.RetryScheduler;
+import com.fraudrisk.kafka.RoutingHeaders;
+import com.fraudrisk.kafka.SchemaWriteMode;
+import com.fraudrisk.kafka.cluster.KafkaClusterRouter;
+import com.fraudrisk.mapper.TransactionV2Converter;
 import com.fraudrisk.model.Transaction;
+import com.fraudrisk.rules.PreScoringEngine;
+import com.fraudrisk.rules.RuleMatch;
+import com.fraudrisk.status.TransactionStatus;
+import com.fraudrisk.status.TransactionStatusIndex;
+import com.fraudrisk.util.Deadline;
+import com.fraudrisk.util.RateLimitedLogger;
 import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -20,8 +42,19 @@ import java.util.concurrent.TimeoutException;
 @RequiredArgsConstructor
 public class KafkaProducerService {
 
+    private static final RateLimitedLogger errorLog = new RateLimitedLogger(log);
+
     private final KafkaTemplate<String, Transaction> kafkaTemplate;
     private final MetricsService metricsService;
+    private final RoutingHeaders routingHeaders;
+    private final MicroBatcher microBatcher;
+    private final RetryScheduler retryScheduler;
+    private final KafkaClusterRouter clusterRouter;
+    private final KafkaTemplate<String, com.fraudrisk.model.v2.Transaction> kafkaTemplateV2;
+    private final TransactionV2Converter v2Converter;
+    private final UserAgentService userAgentService;
+    private final TransactionStatusIndex statusIndex;
+    private final PreScoringEngine preScoringEngine;
 
     @Value("${kafka.topics.transactions}")
     private String transactionTopic;
@@ -30,52 +63,226 @@ public class KafkaProducerService {
     private long producerTimeoutMs;
 
     @Value("${kafka.producer.sync-send:false}")
-    private boolean syncSend;
+    private volatile boolean syncSend;
+
+    @Value("${kafka.topics.transactions-v2:banking-transactions-v2}")
+    private String transactionV2Topic;
+
+    @Value("${kafka.schema.write-mode:v1}")
+    private SchemaWriteMode writeMode;
+
+    @Value("${kafka.topics.fast-lane:banking-transactions-fast-lane}")
+    private String fastLaneTopic;
+
+    /** Shared by every acknowledged send; only created once sync-send is enabled */
+    private volatile ScheduledThreadPoolExecutor ackTimeouts;
+
+    @PostConstruct
+    public void start() {
+        if (syncSend) {
+            startAckTimeouts();
+        }
+    }
+
+    private synchronized void startAckTimeouts() {
+        if (ackTimeouts != null) {
+            return;
+        }
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "kafka-ack-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Almost every timeout is cancelled by the ack; drop those from the queue right away
+        executor.setRemoveOnCancelPolicy(true);
+        ackTimeouts = executor;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ackTimeouts != null) {
+            ackTimeouts.shutdownNow();
+        }
+    }
+
+    /**
+     * Whether the futures returned by {@link #sendTransaction} complete on the broker ack and fail
+     * with a {@link KafkaProducerException} on error or timeout
+     */
+    public boolean isSyncSend() {
+        return syncSend;
+    }
+
+    /**
+     * Switch acknowledged sends on or off at runtime; sends already in flight keep their mode
+     */
+    public void setSyncSend(boolean syncSend) {
+        if (syncSend) {
+            // Published before the flag, so a send that sees the flag also sees the executor
+            startAckTimeouts();
+        }
+        this.syncSend = syncSend;
+    }
 
     /**
      * Send a transaction to Kafka
      * Can be configured for sync or async operation
      */
     public CompletableFuture<Void> sendTransaction(Transaction transaction) {
+        return sendTransaction(transaction, Deadline.NONE);
+    }
+
+    /**
+     * Send a transaction to Kafka unless the caller's deadline has already passed
+     */
+    public CompletableFuture<Void> sendTransaction(Transaction transaction, Deadline deadline) {
+        return sendTransaction(transaction, deadline, null, null);
+    }
+
+    /**
+     * Send a transaction and, on the broker ack, finish the caller's flight recorder event with the
+     * partition the record was written to
+     *
+     * @param itemEvent Event to finish, or null
+     * @param batchId   Batch ID to record on the event
+     */
+    public CompletableFuture<Void> sendTransaction(Transaction transaction, Deadline deadline,
+                                                   IngestionStageEvent itemEvent, String batchId) {
         // Use transaction ID as key to ensure related transactions go to the same partition
         String key = transaction.getTransactionId().toString();
 
+        if (deadline.isExpired()) {
+            metricsService.recordDeadlineDropped("send");
+            throw new DeadlineExceededException(key, "send");
+        }
+
         Timer.Sample sample = metricsService.startKafkaProducerTimer();
+        IngestionStageEvent event = IngestionStageEvent.start(IngestionStageEvent.SEND);
+
+        // Routing headers let consumers filter without decoding the Avro payload
+        List<Header> headers = routingHeaders.headersFor(transaction);
+        userAgentService.appendHeaders(transaction, headers);
+        RuleMatch preScore = preScoringEngine.appendHeader(transaction, headers);
 
-        CompletableFuture<SendResult<String, Transaction>> resultFuture =
-                kafkaTemplate.send(transactionTopic, key, transaction);
+        // v1 records are retried on failure; v2-only records are not
+        ProducerRecord<String, Transaction> record = writeMode == SchemaWriteMode.V2
+                ? null
+                : new ProducerRecord<>(transactionTopic, null, key, transaction, headers);
+
+        CompletableFuture<? extends SendResult<String, ?>> resultFuture;
+        if (record == null) {
+            resultFuture = sendV2(key, transaction, headers);
+        } else {
+            resultFuture = sendV1(record, deadline);
+            if (writeMode == SchemaWriteMode.DUAL) {
+                sendV2(key, transaction, headers).whenComplete((result, ex) ->
+                        metricsService.recordSchemaV2Send(ex == null ? "success" : "failure"));
+            }
+        }
+
+        // The full fraud stack still gets the record above; the fast lane gets a best-effort copy
+        if (preScore.fastLane()) {
+            sendFastLane(key, transaction, headers);
+        }
 
         // Apply callbacks for metrics
         resultFuture.whenComplete((result, ex) -> {
             metricsService.stopKafkaProducerTimer(sample);
+            int partition = ex == null ? result.getRecordMetadata().partition() : -1;
+            if (event != null) {
+                event.finish(key, null, 0, partition);
+            }
+            if (itemEvent != null) {
+                itemEvent.finish(key, batchId, 0, partition);
+            }
 
             if (ex == null) {
                 metricsService.recordKafkaProducerSuccess();
-                log.debug("Transaction sent successfully: id={}, topic={}, partition={}, offset={}",
-                        key, result.getRecordMetadata().topic(),
-                        result.getRecordMetadata().partition(),
-                        result.getRecordMetadata().offset());
+                statusIndex.sent(key, result.getRecordMetadata().partition(), result.getRecordMetadata().offset());
+                if (log.isDebugEnabled()) {
+                    log.debug("Transaction sent successfully: id={}, topic={}, partition={}, offset={}",
+                            key, result.getRecordMetadata().topic(),
+                            result.getRecordMetadata().partition(),
+                            result.getRecordMetadata().offset());
+                }
             } else {
                 metricsService.recordKafkaProducerFailure();
-                log.error("Failed to send transaction with id {}: {}", key, ex.getMessage(), ex);
+                errorLog.error("send", ex, "Failed to send transaction with id {}: {}", key, ex.getMessage());
+
+                // Shed records are not retried; everything else is handed to the retry wheel
+                boolean shed = ex instanceof DeadlineExceededException
+                        || ex.getCause() instanceof DeadlineExceededException;
+                statusIndex.update(key, shed ? TransactionStatus.SHED : TransactionStatus.FAILED);
+                if (record != null && !shed) {
+                    retryScheduler.onSendFailure(record, ex, 1);
+                }
             }
         });
 
-        // For synchronous operation, wait for completion with timeout
+        // Acknowledged mode: the caller waits on the returned future instead of this thread blocking
         if (syncSend) {
-            try {
-                resultFuture.get(producerTimeoutMs, TimeUnit.MILLISECONDS);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new KafkaProducerException("Interrupted while sending transaction", key, e);
-            } catch (ExecutionException e) {
-                throw new KafkaProducerException("Failed to send transaction", key, e.getCause());
-            } catch (TimeoutException e) {
-                throw new KafkaProducerException("Timeout while sending transaction", key, e);
-            }
+            return acknowledged(resultFuture, key, Math.min(producerTimeoutMs, deadline.remainingMillis()));
         }
 
         // Convert to CompletableFuture<Void> for easier chaining
         return resultFuture.thenApply(result -> null);
     }
+
+    /**
+     * Future completed by the broker ack, or failed with a KafkaProducerException on a send error
+     * or once the timeout elapses
+     */
+    private CompletableFuture<Void> acknowledged(CompletableFuture<?> resultFuture, String key, long timeoutMs) {
+        CompletableFuture<Void> acked = new CompletableFuture<>();
+        ScheduledFuture<?> timeout = ackTimeouts.schedule(() -> acked.completeExceptionally(
+                        new KafkaProducerException("Timeout while sending transaction", key,
+                                new TimeoutException("No broker acknowledgement within " + timeoutMs + " ms"))),
+                timeoutMs, TimeUnit.MILLISECONDS);
+
+        resultFuture.whenComplete((result, ex) -> {
+            timeout.cancel(false);
+            if (ex == null) {
+                acked.complete(null);
+            } else {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                acked.completeExceptionally(new KafkaProducerException("Failed to send transaction", key, cause));
+            }
+        });
+        return acked;
+    }
+
+    /**
+     * Route across clusters when configured; otherwise coalesce with concurrent requests
+     * when micro-batching is enabled
+     */
+    private CompletableFuture<SendResult<String, Transaction>> sendV1(ProducerRecord<String, Transaction> record,
+                                                                      Deadline deadline) {
+        if (!clusterRouter.isSingleCluster()) {
+            return clusterRouter.send(record);
+        }
+        if (microBatcher.isEnabled()) {
+            return microBatcher.submit(record, deadline);
+        }
+        return kafkaTemplate.send(record);
+    }
+
+    private void sendFastLane(String key, Transaction transaction, List<Header> headers) {
+        try {
+            kafkaTemplate.send(new ProducerRecord<>(fastLaneTopic, null, key, transaction, headers))
+                    .whenComplete((result, ex) -> metricsService.recordFastLaneSend(ex == null ? "success" : "failure"));
+        } catch (RuntimeException e) {
+            metricsService.recordFastLaneSend("failure");
+            errorLog.error("fast-lane", e, "Failed to send transaction {} to the fast lane: {}", key, e.getMessage());
+        }
+    }
+
+    private CompletableFuture<SendResult<String, com.fraudrisk.model.v2.Transaction>> sendV2(
+            String key, Transaction transaction, List<Header> headers) {
+        try {
+            return kafkaTemplateV2.send(new ProducerRecord<>(
+                    transactionV2Topic, null, key, v2Converter.toV2(transaction), headers));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 }
\ No newline at end of file
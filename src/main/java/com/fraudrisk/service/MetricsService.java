@@ -1,9 +1,12 @@
 package com.fraudrisk.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -11,6 +14,7 @@ import java.math.BigDecimal;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
  * Service for tracking metrics related to the Transaction Ingestion Service
@@ -36,6 +40,7 @@ public class MetricsService {
     // Distribution summaries
     private final DistributionSummary transactionAmountSummary;
     private final DistributionSummary batchSizeSummary;
+    private final DistributionSummary microBatchSizeSummary;
 
     // Service state
     private final AtomicBoolean throttlingEnabled = new AtomicBoolean(false);
@@ -91,6 +96,11 @@ public class MetricsService {
         this.batchSizeSummary = DistributionSummary.builder("transactions.batch.size")
                 .description("Distribution of batch sizes")
                 .register(meterRegistry);
+
+        this.microBatchSizeSummary = DistributionSummary.builder("kafka.producer.microbatch.size")
+                .description("Distribution of records per coalesced producer micro-batch")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
     }
 
     /**
@@ -122,6 +132,186 @@ public class MetricsService {
         batchSizeSummary.record(batchSize);
     }
 
+    /**
+     * Record items of a partial batch that failed validation and were not published
+     */
+    public void recordBatchItemsRejected(int count) {
+        if (count == 0) {
+            return;
+        }
+        Counter.builder("transactions.batch.items.rejected")
+                .description("Items of partial batches rejected by validation")
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    /**
+     * Record a micro-batch flushed to the producer
+     */
+    public void recordMicroBatch(int batchSize) {
+        microBatchSizeSummary.record(batchSize);
+    }
+
+    /**
+     * Counter for requests turned away by the fast reject path
+     * Registered once by the caller so counting a rejection does not look the meter up again
+     */
+    public Counter rejectCounter(String reason) {
+        return Counter.builder("transactions.rejected")
+                .description("Requests rejected before processing because they were oversized, malformed or invalid")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record a request rejected by the rate limiter
+     * The source tag must already be bounded by the caller
+     */
+    public void recordRateLimited(String source) {
+        Counter.builder("ratelimit.rejected")
+                .description("Number of requests rejected by per-source rate limiting")
+                .tag("source", source)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Record work dropped because its deadline had passed
+     *
+     * @param stage Pipeline stage that shed the work, e.g. "mapping" or "send"
+     */
+    public void recordDeadlineDropped(String stage) {
+        Counter.builder("transactions.deadline.dropped")
+                .description("Number of transactions dropped because the caller's deadline had passed")
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Record a request rejected because the producer buffer was under pressure
+     */
+    public void recordBackpressureRejected() {
+        Counter.builder("transactions.backpressure.rejected")
+                .description("Number of requests rejected because the Kafka producer buffer was full")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Record the outcome of a send to one of the routed Kafka clusters
+     */
+    public void recordClusterSend(String cluster, String outcome) {
+        Counter.builder("kafka.cluster.send")
+                .description("Sends per Kafka cluster, by outcome")
+                .tag("cluster", cluster)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Record an insert the status index dropped because its current segment was full
+     */
+    public void recordStatusIndexDropped() {
+        Counter.builder("transactions.status.index.dropped")
+                .description("Transactions not indexed because the status index segment was full")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Record the outcome of records from a bulk file import
+     */
+    public void recordImportRecords(String outcome, long count) {
+        if (count <= 0) {
+            return;
+        }
+        Counter.builder("transactions.import.records")
+                .description("Records read from bulk import files, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    /**
+     * Record a bulk envelope published as a single Kafka record
+     */
+    public void recordBulkEnvelope(int records, int bytes) {
+        DistributionSummary.builder("kafka.bulk.envelope.records")
+                .description("Transactions per bulk envelope")
+                .register(meterRegistry)
+                .record(records);
+        DistributionSummary.builder("kafka.bulk.envelope.bytes")
+                .description("Encoded size of bulk envelopes")
+                .baseUnit("bytes")
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    /**
+     * Record the outcome of a shadow v2 send in dual-write mode
+     */
+    public void recordSchemaV2Send(String outcome) {
+        Counter.builder("kafka.schema.v2.send")
+                .description("Shadow sends in the v2 wire schema during dual-write, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Counter for transactions matched by a pre-scoring rule
+     * Registered when the rules are compiled; rule IDs come from the rules file, so the tag is bounded
+     */
+    public Counter preScoreMatchCounter(String ruleId) {
+        return Counter.builder("transactions.prescore.matched")
+                .description("Transactions matched by a pre-scoring rule, by rule ID")
+                .tag("rule", ruleId)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record the outcome of a copy sent to the fast-lane topic
+     */
+    public void recordFastLaneSend(String outcome) {
+        Counter.builder("kafka.fastlane.send")
+                .description("Copies of pre-scored transactions sent to the fast-lane topic, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Record a retry scheduler outcome
+     *
+     * @param outcome One of "scheduled", "succeeded", "dead-lettered" or "dead-letter-failed"
+     */
+    public void recordRetry(String outcome) {
+        Counter.builder("kafka.retry")
+                .description("Failed sends handled by the retry scheduler, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Register a gauge backed by a live value, e.g. a queue depth
+     */
+    public void registerGauge(String name, String description, Supplier<Number> value, String... tags) {
+        Gauge.builder(name, value)
+                .description(description)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Export size, hit/miss and eviction metrics for a Caffeine cache built with recordStats()
+     */
+    public void registerCache(String name, Cache<?, ?> cache) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
     /**
      * Record a successful Kafka producer send
      */
@@ -0,0 +1,229 @@
+package com.fraudrisk.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.kafka.MicroBatcher;
+import com.fraudrisk.model.Transaction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains accepted batch work on shutdown instead of dropping it.
+ *
+ * New batches are refused, and the instance marked as refusing traffic, as soon as the context
+ * starts closing: {@link ContextClosedEvent} is published before any lifecycle bean stops, so
+ * requests still being served during the web server's graceful shutdown cannot add more work.
+ * The drain itself runs after that graceful shutdown phase and before the server and the Kafka
+ * producer are torn down. It waits up to {@code drain-timeout-ms} for tracked batch items, drains the
+ * micro-batcher and flushes the producer. Items that still have not started are cancelled and
+ * written to {@code spool-dir} as JSON lines (one {@link TransactionRequest} per line) for replay,
+ * or listed in the log when no spool directory is configured. An item that was already running
+ * when it was cancelled may be both sent and spooled; consumers deduplicate on transaction ID.
+ */
+@Slf4j
+@Component
+public class ShutdownDrainCoordinator implements SmartLifecycle, ApplicationListener<ContextClosedEvent> {
+
+    /** After the web server's graceful shutdown (DEFAULT_PHASE - 1024), before it stops (- 2048) */
+    public static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 1536;
+
+    private static final int MAX_REPORTED_IDS = 100;
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private final KafkaTemplate<String, Transaction> kafkaTemplate;
+    private final MicroBatcher microBatcher;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long drainTimeoutMs;
+    private final String spoolDir;
+
+    private final Map<CompletableFuture<?>, List<TransactionRequest>> inFlight = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private volatile boolean accepting = true;
+
+    public ShutdownDrainCoordinator(KafkaTemplate<String, Transaction> kafkaTemplate,
+                                    MicroBatcher microBatcher,
+                                    MetricsService metricsService,
+                                    ObjectMapper objectMapper,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${ingestion.shutdown.drain-timeout-ms:20000}") long drainTimeoutMs,
+                                    @Value("${ingestion.shutdown.spool-dir:}") String spoolDir) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.microBatcher = microBatcher;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.drainTimeoutMs = drainTimeoutMs;
+        this.spoolDir = spoolDir;
+        metricsService.registerGauge("transactions.batch.inflight",
+                "Accepted batch items not yet handed to the producer", inFlight::size);
+    }
+
+    /**
+     * Whether new batches may be accepted
+     */
+    public boolean isAccepting() {
+        return accepting;
+    }
+
+    /**
+     * Track the per-item futures of an accepted batch until they complete
+     */
+    public void track(List<TransactionRequest> requests, List<CompletableFuture<Void>> futures) {
+        for (int i = 0; i < futures.size(); i++) {
+            CompletableFuture<Void> future = futures.get(i);
+            inFlight.put(future, List.of(requests.get(i)));
+            future.whenComplete((result, ex) -> inFlight.remove(future));
+        }
+    }
+
+    /**
+     * Track a batch that is sent as a whole, e.g. as one bulk envelope
+     */
+    public void track(List<TransactionRequest> requests, CompletableFuture<?> future) {
+        inFlight.put(future, requests);
+        future.whenComplete((result, ex) -> inFlight.remove(future));
+    }
+
+    /**
+     * Number of tracked batch items that have not completed yet
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        accepting = true;
+    }
+
+    /**
+     * First step of shutdown, before the web server stops accepting connections
+     */
+    @Override
+    public void onApplicationEvent(ContextClosedEvent event) {
+        stopAccepting();
+    }
+
+    @Override
+    public void stop() {
+        stopAccepting();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(drainTimeoutMs);
+        log.info("Draining {} in-flight batch items (timeout {}ms)", inFlight.size(), drainTimeoutMs);
+
+        awaitInFlight(deadline);
+        if (!microBatcher.awaitIdle(remainingMillis(deadline))) {
+            log.warn("Micro-batch queue not empty at drain deadline: {} records", microBatcher.getQueueDepth());
+        }
+
+        try {
+            // Blocks until everything buffered has been acknowledged or has failed
+            kafkaTemplate.flush();
+        } catch (RuntimeException e) {
+            log.warn("Producer flush failed during shutdown: {}", e.getMessage());
+        }
+
+        List<TransactionRequest> leftover = cancelRemaining();
+        if (leftover.isEmpty()) {
+            log.info("Shutdown drain complete");
+        } else {
+            spool(leftover);
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private synchronized void stopAccepting() {
+        if (accepting) {
+            accepting = false;
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    private void awaitInFlight(long deadline) {
+        while (!inFlight.isEmpty() && deadline - System.nanoTime() > 0) {
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Cancel items that have not completed; cancelled items that had not started will never run
+     */
+    private List<TransactionRequest> cancelRemaining() {
+        List<TransactionRequest> leftover = new ArrayList<>();
+        for (Map.Entry<CompletableFuture<?>, List<TransactionRequest>> entry : inFlight.entrySet()) {
+            if (entry.getKey().cancel(false)) {
+                leftover.addAll(entry.getValue());
+            }
+        }
+        inFlight.clear();
+        return leftover;
+    }
+
+    private void spool(List<TransactionRequest> leftover) {
+        if (spoolDir == null || spoolDir.isBlank()) {
+            List<String> ids = leftover.stream()
+                    .limit(MAX_REPORTED_IDS)
+                    .map(TransactionRequest::getTransactionId)
+                    .toList();
+            log.error("Shutdown drain timed out: {} transactions were not sent and no spool directory is set; first IDs: {}",
+                    leftover.size(), ids);
+            return;
+        }
+
+        Path file = Path.of(spoolDir, "unsent-" + System.currentTimeMillis() + ".jsonl");
+        try {
+            Files.createDirectories(file.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                for (TransactionRequest request : leftover) {
+                    writer.write(objectMapper.writeValueAsString(request));
+                    writer.newLine();
+                }
+            }
+            log.warn("Shutdown drain timed out: spooled {} unsent transactions to {}", leftover.size(), file);
+        } catch (IOException e) {
+            log.error("Failed to spool {} unsent transactions to {}: {}", leftover.size(), file, e.getMessage());
+        }
+    }
+
+    private static long remainingMillis(long deadline) {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+}
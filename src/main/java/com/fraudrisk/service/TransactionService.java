@@ -1,15 +1,21 @@
 package com.fraudrisk.service;
 
+import com.fraudrisk.bulk.BulkPublisher;
 import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.exception.DeadlineExceededException;
 import com.fraudrisk.exception.TransactionProcessingException;
 import com.fraudrisk.mapper.TransactionMapper;
 import com.fraudrisk.model.Transaction;
+import com.fraudrisk.pipeline.IngestionPipeline;
+import com.fraudrisk.status.TransactionStatus;
+import com.fraudrisk.status.TransactionStatusIndex;
+import com.fraudrisk.util.Deadline;
+import com.fraudrisk.util.RateLimitedLogger;
 import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -18,39 +24,64 @@ import java.util.concurrent.CompletableFuture;
 @RequiredArgsConstructor
 public class TransactionService {
 
+    private static final RateLimitedLogger errorLog = new RateLimitedLogger(log);
+
     private final TransactionMapper transactionMapper;
     private final KafkaProducerService kafkaProducerService;
     private final MetricsService metricsService;
+    private final BulkPublisher bulkPublisher;
+    private final TransactionStatusIndex statusIndex;
+    private final IngestionPipeline ingestionPipeline;
 
     /**
      * Process a single transaction
      */
-    public void processTransaction(TransactionRequest request) {
+    public CompletableFuture<Void> processTransaction(TransactionRequest request) {
+        return processTransaction(request, Deadline.NONE);
+    }
+
+    /**
+     * Process a single transaction, dropping it if the caller's deadline has already passed
+     *
+     * @return The producer's future for the record; completes on the broker ack in sync-send mode
+     */
+    public CompletableFuture<Void> processTransaction(TransactionRequest request, Deadline deadline) {
         try {
             metricsService.recordTransactionReceived();
             Timer.Sample sample = metricsService.startProcessingTimer();
 
+            // Shed work the caller has already abandoned before spending anything on it
+            if (deadline.isExpired()) {
+                metricsService.recordDeadlineDropped("mapping");
+                statusIndex.update(request.getTransactionId(), TransactionStatus.SHED);
+                throw new DeadlineExceededException(request.getTransactionId(), "mapping");
+            }
+            statusIndex.received(request.getTransactionId());
+
             // Record transaction amount for metrics
             metricsService.recordTransactionAmount(request.getAmount());
 
             // Convert the DTO to Avro object
             Transaction transaction = transactionMapper.toAvro(request);
 
-            // Send to Kafka
-            kafkaProducerService.sendTransaction(transaction)
-                    .exceptionally(ex -> {
-                        metricsService.recordTransactionFailed();
-                        log.error("Error processing transaction {}: {}",
-                                request.getTransactionId(), ex.getMessage(), ex);
-                        return null;
-                    });
+            // Send to Kafka; the producer already logs send failures
+            CompletableFuture<Void> sent = kafkaProducerService.sendTransaction(transaction, deadline);
+            sent.exceptionally(ex -> {
+                metricsService.recordTransactionFailed();
+                return null;
+            });
 
             metricsService.stopProcessingTimer(sample);
             metricsService.recordTransactionProcessed();
+            return sent;
 
+        } catch (DeadlineExceededException e) {
+            throw e;
         } catch (Exception e) {
             metricsService.recordTransactionFailed();
-            log.error("Error processing transaction request: {}", e.getMessage(), e);
+            statusIndex.update(request.getTransactionId(), TransactionStatus.FAILED);
+            errorLog.error("process", e, "Error processing transaction {}: {}",
+                    request.getTransactionId(), e.getMessage());
             throw new TransactionProcessingException("Failed to process transaction: " + e.getMessage(), e);
         }
     }
@@ -58,18 +89,81 @@ public class TransactionService {
     /**
      * Process multiple transactions in batch
      */
-    public void processTransactions(List<TransactionRequest> requests) {
-        List<CompletableFuture<Void>> futures = new ArrayList<>(requests.size());
+    public List<CompletableFuture<Void>> processTransactions(List<TransactionRequest> requests) {
+        return processTransactions(requests, Deadline.NONE);
+    }
 
-        for (TransactionRequest request : requests) {
-            futures.add(CompletableFuture.runAsync(() -> processTransaction(request)));
-        }
+    /**
+     * Process multiple transactions in batch; items still queued when the deadline passes are dropped
+     *
+     * @return One future per request, in request order, completed once the item has been handed to the producer
+     */
+    public List<CompletableFuture<Void>> processTransactions(List<TransactionRequest> requests, Deadline deadline) {
+        return processTransactions(requests, deadline, null);
+    }
+
+    /**
+     * Process multiple transactions in batch through the staged ingestion pipeline, tagging each
+     * item's flight recorder event with the batch ID
+     *
+     * @throws com.fraudrisk.exception.ProducerBackpressureException if the pipeline has no room for the batch
+     */
+    public List<CompletableFuture<Void>> processTransactions(List<TransactionRequest> requests, Deadline deadline,
+                                                            String batchId) {
+        return ingestionPipeline.publish(requests, deadline, batchId);
+    }
 
-        // Wait for all to complete
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                .exceptionally(ex -> {
-                    log.error("Error processing transaction batch: {}", ex.getMessage(), ex);
-                    return null;
+    /**
+     * Whether single-transaction responses must wait for the broker ack
+     */
+    public boolean isAcknowledgedSend() {
+        return kafkaProducerService.isSyncSend();
+    }
+
+    /**
+     * Whether batches are published as a single bulk envelope
+     */
+    public boolean isBulkMode() {
+        return bulkPublisher != null && bulkPublisher.isEnabled();
+    }
+
+    /**
+     * Process a batch as one bulk envelope record
+     *
+     * @return A future completed once the envelope has been handed to the producer
+     */
+    public CompletableFuture<Void> processBulk(List<TransactionRequest> requests, Deadline deadline) {
+        return CompletableFuture.runAsync(() -> {
+            Timer.Sample sample = metricsService.startProcessingTimer();
+            for (TransactionRequest request : requests) {
+                metricsService.recordTransactionReceived();
+                metricsService.recordTransactionAmount(request.getAmount());
+                statusIndex.received(request.getTransactionId());
+            }
+            try {
+                bulkPublisher.publish(requests, deadline).whenComplete((result, ex) -> {
+                    for (TransactionRequest request : requests) {
+                        if (ex == null) {
+                            // Every transaction of the envelope shares the envelope's position
+                            statusIndex.sent(request.getTransactionId(),
+                                    result.getRecordMetadata().partition(), result.getRecordMetadata().offset());
+                        } else {
+                            metricsService.recordTransactionFailed();
+                            statusIndex.update(request.getTransactionId(), TransactionStatus.FAILED);
+                        }
+                    }
                 });
+                requests.forEach(request -> metricsService.recordTransactionProcessed());
+            } catch (DeadlineExceededException e) {
+                throw e;
+            } catch (Exception e) {
+                requests.forEach(request -> metricsService.recordTransactionFailed());
+                errorLog.error("bulk", e, "Error processing bulk batch of {} transactions: {}",
+                        requests.size(), e.getMessage());
+                throw new TransactionProcessingException("Failed to process bulk batch: " + e.getMessage(), e);
+            } finally {
+                metricsService.stopProcessingTimer(sample);
+            }
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,189 @@
+package com.fraudrisk.status;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * One time bucket of the status index: an open-addressing hash table over primitive arrays.
+ *
+ * Slots are claimed with a compare-and-set on the key hash, so writers never lock and readers
+ * never block writers. Each slot is 20 bytes: the 64-bit key hash, the 64-bit offset and a
+ * 32-bit word packing status (4 bits), partition + 1 (12 bits, 0 = unknown) and the receipt
+ * time in 100 ms units since the bucket started (16 bits). Arrays are allocated once and
+ * cleared when the segment is reused for a new bucket, so steady-state ingestion allocates
+ * nothing here.
+ */
+final class StatusSegment {
+
+    static final int BYTES_PER_SLOT = 20;
+    static final int MAX_PARTITION = (1 << 12) - 2;
+    static final long TIME_UNIT_MS = 100;
+    static final int MAX_TIME_UNITS = (1 << 16) - 1;
+
+    private static final int STATUS_BITS = 4;
+    private static final int PARTITION_SHIFT = STATUS_BITS;
+    private static final int TIME_SHIFT = 16;
+    private static final int STATUS_MASK = (1 << STATUS_BITS) - 1;
+    private static final int PARTITION_MASK = 0xFFF << PARTITION_SHIFT;
+    private static final int TIME_MASK = 0xFFFF << TIME_SHIFT;
+
+    private final int capacity;
+    private final int maxEntries;
+    private final AtomicLongArray hashes;
+    private final AtomicLongArray offsets;
+    private final AtomicIntegerArray meta;
+    private final AtomicInteger size = new AtomicInteger();
+
+    /** Bucket number (epoch millis / bucket millis) this segment currently holds */
+    private volatile long bucket = -1;
+    private volatile long bucketStartMillis;
+
+    StatusSegment(int capacity, double maxLoadFactor) {
+        this.capacity = capacity;
+        this.maxEntries = (int) (capacity * maxLoadFactor);
+        this.hashes = new AtomicLongArray(capacity);
+        this.offsets = new AtomicLongArray(capacity);
+        this.meta = new AtomicIntegerArray(capacity);
+    }
+
+    long bucket() {
+        return bucket;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * Empty the segment and assign it to a new bucket; callers serialize resets
+     */
+    void reset(long newBucket, long startMillis) {
+        bucket = -1;
+        for (int i = 0; i < capacity; i++) {
+            hashes.set(i, 0);
+        }
+        size.set(0);
+        bucketStartMillis = startMillis;
+        bucket = newBucket;
+    }
+
+    /**
+     * Insert or overwrite the entry for a key
+     *
+     * @return false if the segment is full
+     */
+    boolean put(long hash, TransactionStatus status, int partition, long offset, long nowMillis) {
+        int slot = find(hash);
+        if (slot < 0) {
+            slot = claim(hash);
+            if (slot < 0) {
+                return false;
+            }
+            offsets.set(slot, offset);
+            meta.set(slot, pack(status, partition, timeUnits(nowMillis)));
+            return true;
+        }
+        update(slot, status, partition, offset);
+        return true;
+    }
+
+    /**
+     * Change the status of an existing entry, keeping its receipt time
+     *
+     * @return false if the key is not in this segment
+     */
+    boolean update(long hash, TransactionStatus status, int partition, long offset) {
+        int slot = find(hash);
+        if (slot < 0) {
+            return false;
+        }
+        update(slot, status, partition, offset);
+        return true;
+    }
+
+    TransactionStatusEntry get(long hash) {
+        int slot = find(hash);
+        if (slot < 0) {
+            return null;
+        }
+        int word = meta.get(slot);
+        int partition = ((word & PARTITION_MASK) >>> PARTITION_SHIFT) - 1;
+        long receivedAt = bucketStartMillis + ((word & TIME_MASK) >>> TIME_SHIFT) * TIME_UNIT_MS;
+        return new TransactionStatusEntry(TransactionStatus.fromCode(word & STATUS_MASK),
+                partition, partition < 0 ? -1 : offsets.get(slot), Instant.ofEpochMilli(receivedAt));
+    }
+
+    private void update(int slot, TransactionStatus status, int partition, long offset) {
+        if (partition >= 0) {
+            offsets.set(slot, offset);
+        }
+        int current;
+        int next;
+        do {
+            current = meta.get(slot);
+            int partitionBits = partition >= 0 ? encodePartition(partition) : current & PARTITION_MASK;
+            next = (current & TIME_MASK) | partitionBits | status.code();
+        } while (!meta.compareAndSet(slot, current, next));
+    }
+
+    private int find(long hash) {
+        int slot = home(hash);
+        for (int probes = 0; probes < capacity; probes++) {
+            long existing = hashes.get(slot);
+            if (existing == hash) {
+                return slot;
+            }
+            if (existing == 0) {
+                return -1;
+            }
+            if (++slot == capacity) {
+                slot = 0;
+            }
+        }
+        return -1;
+    }
+
+    private int claim(long hash) {
+        if (size.incrementAndGet() > maxEntries) {
+            size.decrementAndGet();
+            return -1;
+        }
+        int slot = home(hash);
+        while (true) {
+            long existing = hashes.get(slot);
+            if (existing == 0 && hashes.compareAndSet(slot, 0, hash)) {
+                meta.set(slot, 0);
+                return slot;
+            }
+            if (existing == hash || hashes.get(slot) == hash) {
+                // Another thread inserted the same key first
+                size.decrementAndGet();
+                return slot;
+            }
+            if (++slot == capacity) {
+                slot = 0;
+            }
+        }
+    }
+
+    /**
+     * Map the hash onto [0, capacity) without requiring a power-of-two table
+     */
+    private int home(long hash) {
+        return (int) (((hash >>> 32) * capacity) >>> 32);
+    }
+
+    private int timeUnits(long nowMillis) {
+        return (int) Math.min(MAX_TIME_UNITS, Math.max(0, (nowMillis - bucketStartMillis) / TIME_UNIT_MS));
+    }
+
+    private static int pack(TransactionStatus status, int partition, int timeUnits) {
+        return (timeUnits << TIME_SHIFT) | (partition >= 0 ? encodePartition(partition) : 0) | status.code();
+    }
+
+    private static int encodePartition(int partition) {
+        return (Math.min(partition, MAX_PARTITION) + 1) << PARTITION_SHIFT;
+    }
+}
@@ -0,0 +1,29 @@
+package com.fraudrisk.status;
+
+/**
+ * Lifecycle of an ingested transaction as tracked by {@link TransactionStatusIndex}
+ */
+public enum TransactionStatus {
+    /** Accepted by the API and handed to the producer */
+    RECEIVED,
+    /** Acknowledged by the broker; partition and offset are known */
+    SENT,
+    /** The last send attempt failed */
+    FAILED,
+    /** Waiting for a retry after a failed send */
+    RETRYING,
+    /** Published to the dead-letter topic */
+    DEAD_LETTERED,
+    /** Dropped because the caller's deadline passed before it was sent */
+    SHED;
+
+    private static final TransactionStatus[] VALUES = values();
+
+    int code() {
+        return ordinal() + 1;
+    }
+
+    static TransactionStatus fromCode(int code) {
+        return code == 0 ? RECEIVED : VALUES[code - 1];
+    }
+}
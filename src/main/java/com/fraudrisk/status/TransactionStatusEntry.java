@@ -0,0 +1,9 @@
+package com.fraudrisk.status;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of one index entry; partition and offset are -1 until the record has been sent
+ */
+public record TransactionStatusEntry(TransactionStatus status, int partition, long offset, Instant receivedAt) {
+}
@@ -0,0 +1,218 @@
+package com.fraudrisk.status;
+
+import com.fraudrisk.service.MetricsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Recent-transaction index answering "did transaction X arrive, and where did it go?".
+ *
+ * Entries live in a ring of {@link StatusSegment}s, one per {@code bucket-minutes} of receipt
+ * time, covering {@code retention-minutes}. The memory budget is split evenly across segments
+ * and allocated up front; the oldest segment is cleared and reused when a new bucket starts, so
+ * an entry is forgotten after between retention and retention plus one bucket. A segment that
+ * reaches its load limit drops further inserts (counted in {@code transactions.status.index.dropped})
+ * rather than growing. Keys are 64-bit hashes of the transaction ID, so two IDs collide with
+ * probability around n^2 / 2^65.
+ *
+ * All operations are lock-free except the rotation to a new bucket, which is normally done ahead
+ * of time by a scheduled task and otherwise by the first writer of that bucket.
+ */
+@Slf4j
+@Component
+public class TransactionStatusIndex {
+
+    private static final double MAX_LOAD_FACTOR = 0.8;
+    private static final long PREPARE_INTERVAL_MS = 5000;
+
+    private final boolean enabled;
+    private final long bucketMillis;
+    private final StatusSegment[] segments;
+    private final MetricsService metricsService;
+    private final LongSupplier clock;
+
+    @Autowired
+    public TransactionStatusIndex(MetricsService metricsService,
+                                  @Value("${ingestion.status-index.enabled:true}") boolean enabled,
+                                  @Value("${ingestion.status-index.memory-budget-bytes:16777216}") long memoryBudgetBytes,
+                                  @Value("${ingestion.status-index.retention-minutes:240}") int retentionMinutes,
+                                  @Value("${ingestion.status-index.bucket-minutes:15}") int bucketMinutes) {
+        this(metricsService, enabled, memoryBudgetBytes, retentionMinutes, bucketMinutes, System::currentTimeMillis);
+    }
+
+    TransactionStatusIndex(MetricsService metricsService, boolean enabled, long memoryBudgetBytes,
+                           int retentionMinutes, int bucketMinutes, LongSupplier clock) {
+        if (bucketMinutes * 60_000L / StatusSegment.TIME_UNIT_MS > StatusSegment.MAX_TIME_UNITS) {
+            throw new IllegalArgumentException("bucket-minutes must be at most "
+                    + StatusSegment.MAX_TIME_UNITS * StatusSegment.TIME_UNIT_MS / 60_000);
+        }
+        this.metricsService = metricsService;
+        this.enabled = enabled;
+        this.clock = clock;
+        this.bucketMillis = TimeUnit.MINUTES.toMillis(bucketMinutes);
+
+        // One extra segment so a full retention window stays readable while the next bucket fills
+        int segmentCount = enabled ? Math.max(1, retentionMinutes / bucketMinutes) + 1 : 0;
+        this.segments = new StatusSegment[segmentCount];
+        long slots = segmentCount == 0 ? 0 : memoryBudgetBytes / segmentCount / StatusSegment.BYTES_PER_SLOT;
+        int capacity = (int) Math.max(16, Math.min(Integer.MAX_VALUE - 8, slots));
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new StatusSegment(capacity, MAX_LOAD_FACTOR);
+        }
+
+        if (enabled) {
+            metricsService.registerGauge("transactions.status.index.entries",
+                    "Transactions held in the status index", this::size);
+            metricsService.registerGauge("transactions.status.index.bytes",
+                    "Memory allocated to the status index",
+                    () -> (long) segmentCount * capacity * StatusSegment.BYTES_PER_SLOT);
+            log.info("Transaction status index: {} segments of {} slots ({} MB), {} minute buckets",
+                    segmentCount, capacity, (long) segmentCount * capacity * StatusSegment.BYTES_PER_SLOT >> 20,
+                    bucketMinutes);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Record a newly accepted transaction
+     */
+    public void received(String transactionId) {
+        put(transactionId, TransactionStatus.RECEIVED, -1, -1);
+    }
+
+    /**
+     * Record the broker acknowledgement of a transaction
+     */
+    public void sent(String transactionId, int partition, long offset) {
+        update(transactionId, TransactionStatus.SENT, partition, offset);
+    }
+
+    /**
+     * Move a transaction to a status that has no partition/offset (failed, retrying, ...)
+     */
+    public void update(String transactionId, TransactionStatus status) {
+        update(transactionId, status, -1, -1);
+    }
+
+    /**
+     * Latest known status of a transaction received within the retention window
+     */
+    public Optional<TransactionStatusEntry> lookup(String transactionId) {
+        if (!enabled || transactionId == null) {
+            return Optional.empty();
+        }
+        long hash = hash(transactionId);
+        long current = clock.getAsLong() / bucketMillis;
+        // Newest bucket first, so a resubmitted ID reports its latest attempt
+        for (int age = 0; age < segments.length; age++) {
+            StatusSegment segment = segments[(int) Math.floorMod(current - age, (long) segments.length)];
+            if (segment.bucket() != current - age) {
+                continue;
+            }
+            TransactionStatusEntry entry = segment.get(hash);
+            if (entry != null) {
+                return Optional.of(entry);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public long size() {
+        long size = 0;
+        for (StatusSegment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Update the entry in whichever live bucket holds it, or insert it into the current one
+     * (records published by imports and replays are indexed when they are acknowledged)
+     */
+    private void update(String transactionId, TransactionStatus status, int partition, long offset) {
+        if (!enabled || transactionId == null) {
+            return;
+        }
+        long hash = hash(transactionId);
+        long now = clock.getAsLong();
+        long current = now / bucketMillis;
+        for (int age = 0; age < segments.length; age++) {
+            StatusSegment segment = segments[(int) Math.floorMod(current - age, (long) segments.length)];
+            if (segment.bucket() == current - age && segment.update(hash, status, partition, offset)) {
+                return;
+            }
+        }
+        insert(hash, status, partition, offset, now);
+    }
+
+    private void put(String transactionId, TransactionStatus status, int partition, long offset) {
+        if (!enabled || transactionId == null) {
+            return;
+        }
+        insert(hash(transactionId), status, partition, offset, clock.getAsLong());
+    }
+
+    private void insert(long hash, TransactionStatus status, int partition, long offset, long now) {
+        long current = now / bucketMillis;
+        StatusSegment segment = segments[(int) Math.floorMod(current, (long) segments.length)];
+        if (segment.bucket() != current) {
+            rotate(segment, current);
+        }
+        if (!segment.put(hash, status, partition, offset, now)) {
+            metricsService.recordStatusIndexDropped();
+        }
+    }
+
+    /**
+     * Clear the next bucket's segment shortly before it starts, so no request thread pays for it
+     */
+    @Scheduled(fixedDelay = PREPARE_INTERVAL_MS)
+    public void prepareNextBucket() {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long next = now / bucketMillis + 1;
+        if (next * bucketMillis - now <= 2 * PREPARE_INTERVAL_MS) {
+            StatusSegment segment = segments[(int) Math.floorMod(next, (long) segments.length)];
+            if (segment.bucket() < next) {
+                rotate(segment, next);
+            }
+        }
+    }
+
+    private void rotate(StatusSegment segment, long bucket) {
+        synchronized (segment) {
+            if (segment.bucket() < bucket) {
+                segment.reset(bucket, bucket * bucketMillis);
+            }
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a over the ID's characters, finished with the MurmurHash3 mixer; never 0
+     */
+    static long hash(String transactionId) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < transactionId.length(); i++) {
+            h ^= transactionId.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb34fe63a53b9L;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+}
@@ -0,0 +1,58 @@
+package com.fraudrisk.tuning;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.SecurityContext;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for tuning the producer and the ingestion pipeline without a restart
+ *
+ * GET  /actuator/ingestiontuning    - current settings and recent changes
+ * POST /actuator/ingestiontuning    - change any of batchSize, lingerMs, compressionType,
+ *                                     syncSend, maxBatchSize, validationParallelism
+ */
+@Component
+@Endpoint(id = "ingestiontuning")
+@RequiredArgsConstructor
+public class IngestionTuningEndpoint {
+
+    static final String ANONYMOUS = "anonymous";
+
+    private final IngestionTuningService tuningService;
+
+    @ReadOperation
+    public Map<String, Object> settings() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("settings", tuningService.current());
+        result.put("recentChanges", tuningService.auditTrail());
+        return result;
+    }
+
+    @WriteOperation
+    public Map<String, Object> update(@Nullable Integer batchSize, @Nullable Integer lingerMs,
+                                      @Nullable String compressionType, @Nullable Boolean syncSend,
+                                      @Nullable Integer maxBatchSize, @Nullable Integer validationParallelism,
+                                      SecurityContext securityContext) {
+        IngestionTuningService.Change change = new IngestionTuningService.Change(
+                batchSize, lingerMs, compressionType, syncSend, maxBatchSize, validationParallelism);
+        try {
+            return tuningService.apply(change, actor(securityContext));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+
+    private static String actor(SecurityContext securityContext) {
+        Principal principal = securityContext != null ? securityContext.getPrincipal() : null;
+        return principal != null ? principal.getName() : ANONYMOUS;
+    }
+}
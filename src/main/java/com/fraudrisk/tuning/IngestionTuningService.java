@@ -0,0 +1,189 @@
+package com.fraudrisk.tuning;
+
+import com.fraudrisk.kafka.SwappableProducerFactory;
+import com.fraudrisk.service.KafkaProducerService;
+import com.fraudrisk.validation.BatchValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Applies producer and pipeline settings at runtime and keeps an audit trail of every change.
+ *
+ * Producer settings are applied to every swappable producer factory, which drains its old
+ * producer in the background. Sync-send, the batch size limit and the batch validation
+ * parallelism take effect for the next request. Every change is logged with the caller and the
+ * old and new values, and the most recent changes are kept for the actuator endpoint.
+ *
+ * Values are bounded above as well as below: the producer rejects a linger that does not fit in
+ * its delivery timeout, a batch larger than a request is never filled, and a batch size limit
+ * larger than the ingestion pipeline's ring could never be admitted.
+ */
+@Slf4j
+@Service
+public class IngestionTuningService {
+
+    static final Set<String> COMPRESSION_TYPES = Set.of("none", "gzip", "snappy", "lz4", "zstd");
+    private static final int AUDIT_HISTORY = 20;
+    /** Kafka producer defaults, used when the factory's configuration does not set them */
+    private static final int DEFAULT_MAX_REQUEST_SIZE = 1048576;
+    private static final int DEFAULT_DELIVERY_TIMEOUT_MS = 120000;
+    private static final int DEFAULT_REQUEST_TIMEOUT_MS = 30000;
+    /** Validation is CPU-bound; threads beyond this only add context switches */
+    static final int MAX_VALIDATION_PARALLELISM = Math.max(64, 4 * Runtime.getRuntime().availableProcessors());
+
+    private final List<SwappableProducerFactory<?, ?>> producerFactories;
+    private final SwappableProducerFactory<?, ?> primaryFactory;
+    private final KafkaProducerService kafkaProducerService;
+    private final BatchValidator batchValidator;
+    private final Deque<AuditEntry> auditTrail = new ArrayDeque<>();
+    private final int ringSize;
+
+    private volatile int maxBatchSize;
+
+    public IngestionTuningService(List<SwappableProducerFactory<?, ?>> producerFactories,
+                                  @Qualifier("transactionProducerFactory") SwappableProducerFactory<?, ?> transactionProducerFactory,
+                                  KafkaProducerService kafkaProducerService,
+                                  BatchValidator batchValidator,
+                                  @Value("${ingestion.batch.max-size:1000}") int maxBatchSize,
+                                  @Value("${ingestion.pipeline.ring-size:4096}") int ringSize) {
+        if (maxBatchSize > ringSize) {
+            throw new IllegalArgumentException("ingestion.batch.max-size (" + maxBatchSize
+                    + ") must not exceed ingestion.pipeline.ring-size (" + ringSize + ")");
+        }
+        this.producerFactories = producerFactories;
+        this.primaryFactory = transactionProducerFactory;
+        this.kafkaProducerService = kafkaProducerService;
+        this.batchValidator = batchValidator;
+        this.maxBatchSize = maxBatchSize;
+        this.ringSize = ringSize;
+    }
+
+    /**
+     * Requested changes; null fields are left as they are
+     */
+    public record Change(Integer batchSize, Integer lingerMs, String compressionType, Boolean syncSend,
+                         Integer maxBatchSize, Integer validationParallelism) {
+    }
+
+    /**
+     * One applied change: who made it and each setting's old and new value
+     */
+    public record AuditEntry(Instant timestamp, String actor, Map<String, String> changes) {
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Current value of every tunable setting
+     */
+    public Map<String, Object> current() {
+        Map<String, Object> producerConfigs = primaryFactory.getConfigurationProperties();
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("batchSize", producerConfigs.get(ProducerConfig.BATCH_SIZE_CONFIG));
+        settings.put("lingerMs", producerConfigs.get(ProducerConfig.LINGER_MS_CONFIG));
+        settings.put("compressionType", producerConfigs.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        settings.put("syncSend", kafkaProducerService.isSyncSend());
+        settings.put("maxBatchSize", maxBatchSize);
+        settings.put("validationParallelism", batchValidator.getParallelism());
+        settings.put("producerGeneration", primaryFactory.getGeneration());
+        return settings;
+    }
+
+    public synchronized List<AuditEntry> auditTrail() {
+        return new ArrayList<>(auditTrail);
+    }
+
+    /**
+     * Validate and apply a change; nothing is applied if any value is invalid
+     *
+     * @return The settings after the change
+     */
+    public synchronized Map<String, Object> apply(Change change, String actor) {
+        validate(change);
+        Map<String, Object> before = current();
+
+        Map<String, Object> producerOverrides = new LinkedHashMap<>();
+        if (change.batchSize() != null) {
+            producerOverrides.put(ProducerConfig.BATCH_SIZE_CONFIG, change.batchSize());
+        }
+        if (change.lingerMs() != null) {
+            producerOverrides.put(ProducerConfig.LINGER_MS_CONFIG, change.lingerMs());
+        }
+        if (change.compressionType() != null) {
+            producerOverrides.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, change.compressionType());
+        }
+        if (!producerOverrides.isEmpty()) {
+            producerFactories.forEach(factory -> factory.reconfigure(producerOverrides));
+        }
+        if (change.syncSend() != null) {
+            kafkaProducerService.setSyncSend(change.syncSend());
+        }
+        if (change.maxBatchSize() != null) {
+            maxBatchSize = change.maxBatchSize();
+        }
+        if (change.validationParallelism() != null) {
+            batchValidator.resize(change.validationParallelism());
+        }
+
+        Map<String, Object> after = current();
+        Map<String, String> diff = new LinkedHashMap<>();
+        before.forEach((key, value) -> {
+            if (!Objects.equals(value, after.get(key))) {
+                diff.put(key, value + " -> " + after.get(key));
+            }
+        });
+
+        if (diff.isEmpty()) {
+            log.info("AUDIT ingestion tuning: {} requested {}, nothing changed", actor, change);
+        } else {
+            log.info("AUDIT ingestion tuning changed by {}: {}", actor, diff);
+            auditTrail.addFirst(new AuditEntry(Instant.now(), actor, diff));
+            if (auditTrail.size() > AUDIT_HISTORY) {
+                auditTrail.removeLast();
+            }
+        }
+        return after;
+    }
+
+    private void validate(Change change) {
+        Map<String, Object> producerConfigs = primaryFactory.getConfigurationProperties();
+        int maxRequestSize = intConfig(producerConfigs, ProducerConfig.MAX_REQUEST_SIZE_CONFIG, DEFAULT_MAX_REQUEST_SIZE);
+        // KafkaProducer refuses to start unless delivery.timeout.ms >= linger.ms + request.timeout.ms
+        int maxLingerMs = intConfig(producerConfigs, ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, DEFAULT_DELIVERY_TIMEOUT_MS)
+                - intConfig(producerConfigs, ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, DEFAULT_REQUEST_TIMEOUT_MS);
+
+        checkRange("batchSize", change.batchSize(), 0, maxRequestSize);
+        checkRange("lingerMs", change.lingerMs(), 0, maxLingerMs);
+        if (change.compressionType() != null && !COMPRESSION_TYPES.contains(change.compressionType())) {
+            throw new IllegalArgumentException("compressionType must be one of " + COMPRESSION_TYPES);
+        }
+        checkRange("maxBatchSize", change.maxBatchSize(), 1, ringSize);
+        checkRange("validationParallelism", change.validationParallelism(), 1, MAX_VALIDATION_PARALLELISM);
+    }
+
+    private static void checkRange(String name, Integer value, int min, int max) {
+        if (value != null && (value < min || value > max)) {
+            throw new IllegalArgumentException(name + " must be between " + min + " and " + max);
+        }
+    }
+
+    private static int intConfig(Map<String, Object> configs, String key, int defaultValue) {
+        Object value = configs.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value.toString());
+    }
+}
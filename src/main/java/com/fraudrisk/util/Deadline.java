@@ -0,0 +1,54 @@
+package com.fraudrisk.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time after which the caller no longer wants a result.
+ * Based on {@link System#nanoTime()}, so it is immune to wall-clock adjustments.
+ */
+public final class Deadline {
+
+    /** No deadline: the work is never considered expired */
+    public static final Deadline NONE = new Deadline(0, false);
+
+    private final long deadlineNanos;
+    private final boolean bounded;
+
+    private Deadline(long deadlineNanos, boolean bounded) {
+        this.deadlineNanos = deadlineNanos;
+        this.bounded = bounded;
+    }
+
+    /**
+     * Deadline the given number of milliseconds from now; non-positive values mean no deadline
+     */
+    public static Deadline afterMillis(long timeoutMs) {
+        if (timeoutMs <= 0) {
+            return NONE;
+        }
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs), true);
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    public boolean isExpired() {
+        return bounded && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * Remaining time in milliseconds, or {@link Long#MAX_VALUE} when unbounded
+     */
+    public long remainingMillis() {
+        if (!bounded) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    @Override
+    public String toString() {
+        return bounded ? "Deadline[" + remainingMillis() + "ms remaining]" : "Deadline[none]";
+    }
+}
@@ -0,0 +1,169 @@
+package com.fraudrisk.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timer wheel for large numbers of short, approximate timeouts.
+ *
+ * Scheduling is O(1) and lock-free: callers append to a concurrent queue that only the wheel's
+ * worker thread drains into buckets. Every tick the worker expires the current bucket and hands
+ * due tasks to the supplied executor, so task execution never delays the wheel itself. Timeouts
+ * fire with tick granularity, which is ample for retry backoff.
+ */
+@Slf4j
+public class HashedTimerWheel {
+
+    private final long tickNanos;
+    private final int mask;
+    private final ArrayDeque<Timeout>[] wheel;
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Executor executor;
+    private final Thread worker;
+
+    private volatile boolean running;
+    private volatile long startNanos;
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(String name, long tickDuration, TimeUnit unit, int wheelSize, Executor executor) {
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.mask = wheelSize - 1;
+        this.wheel = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.executor = executor;
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        startNanos = System.nanoTime();
+        running = true;
+        worker.start();
+    }
+
+    /**
+     * Stop the wheel and return the tasks that had not yet fired
+     */
+    public synchronized List<Runnable> stop() {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<Runnable> unfired = new ArrayList<>();
+        for (ArrayDeque<Timeout> bucket : wheel) {
+            for (Timeout timeout : bucket) {
+                unfired.add(timeout.task);
+            }
+            bucket.clear();
+        }
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            unfired.add(timeout.task);
+        }
+        pending.set(0);
+        return unfired;
+    }
+
+    /**
+     * Run the task on the executor once the delay has elapsed
+     */
+    public void schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timer wheel is not running");
+        }
+        long deadline = System.nanoTime() - startNanos + unit.toNanos(Math.max(0, delay));
+        pending.incrementAndGet();
+        incoming.add(new Timeout(task, deadline));
+    }
+
+    /**
+     * Number of scheduled tasks that have not fired yet
+     */
+    public int pendingCount() {
+        return pending.get();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = startNanos + tickNanos * (tick + 1);
+            long sleep;
+            while (running && (sleep = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, sleep);
+            }
+            if (!running) {
+                return;
+            }
+
+            transferIncoming();
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferIncoming() {
+        // Bound the work per tick so a burst of schedules cannot stall expiry
+        for (int i = 0; i < 100_000; i++) {
+            Timeout timeout = incoming.poll();
+            if (timeout == null) {
+                return;
+            }
+            long targetTick = timeout.deadlineNanos / tickNanos;
+            timeout.remainingRounds = (targetTick - tick) / wheel.length;
+            long ticks = Math.max(targetTick, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void expire(ArrayDeque<Timeout> bucket) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                pending.decrementAndGet();
+                try {
+                    executor.execute(timeout.task);
+                } catch (RuntimeException e) {
+                    log.error("Failed to dispatch timer task: {}", e.getMessage(), e);
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    private static final class Timeout {
+        private final Runnable task;
+        private final long deadlineNanos;
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.fraudrisk.util;
+
+/**
+ * Utility class for allocation-free IPv4 address handling
+ */
+public class IpAddressUtils {
+
+    /**
+     * Sentinel returned by {@link #parseIpv4(CharSequence)} for unparseable input.
+     * 255.255.255.255 is the limited broadcast address and never appears as a client IP.
+     */
+    public static final int INVALID_IPV4 = -1;
+
+    /**
+     * Parses a dotted-quad IPv4 address into its 32-bit value without allocating
+     *
+     * @param address The address, e.g. "192.168.1.1"
+     * @return The address as an int (compare with {@link Integer#compareUnsigned}),
+     *         or {@link #INVALID_IPV4} if the input is not a valid IPv4 address
+     */
+    public static int parseIpv4(CharSequence address) {
+        if (address == null) {
+            return INVALID_IPV4;
+        }
+
+        int length = address.length();
+        int result = 0;
+        int octet = 0;
+        int digits = 0;
+        int dots = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = address.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = octet * 10 + (c - '0');
+                if (++digits > 3 || octet > 255) {
+                    return INVALID_IPV4;
+                }
+            } else if (c == '.') {
+                if (digits == 0 || ++dots > 3) {
+                    return INVALID_IPV4;
+                }
+                result = (result << 8) | octet;
+                octet = 0;
+                digits = 0;
+            } else {
+                return INVALID_IPV4;
+            }
+        }
+
+        if (dots != 3 || digits == 0) {
+            return INVALID_IPV4;
+        }
+        return (result << 8) | octet;
+    }
+
+    /**
+     * Formats a 32-bit IPv4 value as a dotted quad
+     */
+    public static String formatIpv4(int address) {
+        return ((address >>> 24) & 0xFF) + "." + ((address >>> 16) & 0xFF) + "."
+                + ((address >>> 8) & 0xFF) + "." + (address & 0xFF);
+    }
+}
@@ -0,0 +1,115 @@
+package com.fraudrisk.util;
+
+import org.slf4j.Logger;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Error logger that emits at most one line per error signature per interval.
+ *
+ * A signature is the call site's label plus the class of the failure's root cause, so a broker
+ * outage producing thousands of identical {@code TimeoutException}s per second is logged once
+ * per interval with the number of occurrences suppressed since the previous line. The stack
+ * trace is only printed the first time a signature is seen. Suppressed occurrences cost a map
+ * lookup and an increment; the number of tracked signatures is bounded.
+ */
+public final class RateLimitedLogger {
+
+    /** Default interval between lines for the same signature */
+    public static final long DEFAULT_INTERVAL_MS = 10_000;
+
+    private static final int DEFAULT_MAX_SIGNATURES = 256;
+    private static final String OVERFLOW_SIGNATURE = "other";
+
+    private final Logger log;
+    private final long intervalNanos;
+    private final int maxSignatures;
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    public RateLimitedLogger(Logger log) {
+        this(log, DEFAULT_INTERVAL_MS, DEFAULT_MAX_SIGNATURES);
+    }
+
+    public RateLimitedLogger(Logger log, long intervalMs, int maxSignatures) {
+        this.log = log;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+        this.maxSignatures = maxSignatures;
+    }
+
+    /**
+     * Log an error unless the same signature was already logged within the interval
+     *
+     * @param site Label of the call site, e.g. "send"; should not contain per-request values
+     */
+    public void error(String site, Throwable failure, String format, Object... args) {
+        if (!log.isErrorEnabled()) {
+            return;
+        }
+
+        Window window = window(site + '|' + rootCause(failure).getClass().getName());
+        long now = System.nanoTime();
+        if (!window.tryOpen(now, intervalNanos)) {
+            window.suppressed.increment();
+            return;
+        }
+
+        long suppressed = window.suppressed.sumThenReset();
+        boolean withTrace = !window.traced;
+        window.traced = true;
+
+        String message = format;
+        Object[] arguments = args;
+        if (suppressed > 0) {
+            message = format + " ({} similar suppressed in the last {}s)";
+            arguments = Arrays.copyOf(args, args.length + 2);
+            arguments[args.length] = suppressed;
+            arguments[args.length + 1] = TimeUnit.NANOSECONDS.toSeconds(intervalNanos);
+        }
+        if (withTrace) {
+            arguments = Arrays.copyOf(arguments, arguments.length + 1);
+            arguments[arguments.length - 1] = failure;
+        }
+        log.error(message, arguments);
+    }
+
+    /**
+     * Number of signatures currently tracked
+     */
+    public int signatureCount() {
+        return windows.size();
+    }
+
+    private Window window(String signature) {
+        Window window = windows.get(signature);
+        if (window != null) {
+            return window;
+        }
+        if (windows.size() >= maxSignatures) {
+            return windows.computeIfAbsent(OVERFLOW_SIGNATURE, k -> new Window());
+        }
+        return windows.computeIfAbsent(signature, k -> new Window());
+    }
+
+    private static Throwable rootCause(Throwable failure) {
+        Throwable root = failure;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root;
+    }
+
+    private static final class Window {
+        private final AtomicLong nextAllowedNanos = new AtomicLong(System.nanoTime());
+        private final LongAdder suppressed = new LongAdder();
+        private volatile boolean traced;
+
+        boolean tryOpen(long now, long intervalNanos) {
+            long next = nextAllowedNanos.get();
+            return now - next >= 0 && nextAllowedNanos.compareAndSet(next, now + intervalNanos);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.fraudrisk.validation;
+
+import com.fraudrisk.dto.BatchResponse;
+import com.fraudrisk.dto.TransactionRequest;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Validates every item of a partial batch and splits it into accepted items and per-index errors.
+ *
+ * Batches of at least {@code parallel-threshold} items are validated in slices on a dedicated
+ * fork-join pool, which cuts the latency of a large batch without competing for the common pool.
+ * Results are written into an array by index, so the accepted items keep their request order.
+ * The pool can be resized at runtime; the previous pool finishes the slices it already has.
+ */
+@Component
+public class BatchValidator {
+
+    private static final String ITEM_FIELD = "item";
+    private static final String ITEM_REQUIRED = "Transaction is required";
+    private static final int MIN_SLICE = 64;
+
+    private final TransactionRequestValidator validator;
+    private final int parallelThreshold;
+    private volatile ForkJoinPool pool;
+
+    public BatchValidator(TransactionRequestValidator validator,
+                          @Value("${ingestion.batch.validation.parallel-threshold:256}") int parallelThreshold,
+                          @Value("${ingestion.batch.validation.parallelism:0}") int parallelism) {
+        this.validator = validator;
+        this.parallelThreshold = parallelThreshold;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Replace the validation pool with one of the given parallelism
+     */
+    public synchronized void resize(int parallelism) {
+        if (parallelism == pool.getParallelism()) {
+            return;
+        }
+        ForkJoinPool previous = pool;
+        pool = new ForkJoinPool(parallelism);
+        previous.shutdown();
+    }
+
+    /**
+     * Accepted items and errors of a partial batch
+     */
+    public record Result(List<TransactionRequest> accepted, List<BatchResponse.ItemError> errors) {
+    }
+
+    public Result validate(List<TransactionRequest> requests) {
+        int size = requests.size();
+        Rejection[] rejections = new Rejection[size];
+        boolean[] missing = new boolean[size];
+        ForkJoinPool pool = this.pool;
+        int parallelism = pool.getParallelism();
+
+        if (size < parallelThreshold || parallelism == 1) {
+            validateSlice(requests, rejections, missing, 0, size);
+        } else {
+            int slice = Math.max(MIN_SLICE, (size + parallelism - 1) / parallelism);
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int from = 0; from < size; from += slice) {
+                int start = from;
+                int end = Math.min(size, from + slice);
+                try {
+                    tasks.add(pool.submit(() -> validateSlice(requests, rejections, missing, start, end)));
+                } catch (RejectedExecutionException e) {
+                    // The pool was replaced by a resize since it was read; finish the slice here
+                    validateSlice(requests, rejections, missing, start, end);
+                }
+            }
+            // join() publishes the slices' writes to this thread
+            tasks.forEach(ForkJoinTask::join);
+        }
+
+        List<TransactionRequest> accepted = new ArrayList<>(size);
+        List<BatchResponse.ItemError> errors = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (missing[i]) {
+                errors.add(new BatchResponse.ItemError(i, ITEM_FIELD, ITEM_REQUIRED));
+            } else if (rejections[i] != null) {
+                errors.add(new BatchResponse.ItemError(i, rejections[i].getField(), rejections[i].getMessage()));
+            } else {
+                accepted.add(requests.get(i));
+            }
+        }
+        return new Result(accepted, errors);
+    }
+
+    private void validateSlice(List<TransactionRequest> requests, Rejection[] rejections, boolean[] missing,
+                               int from, int to) {
+        for (int i = from; i < to; i++) {
+            TransactionRequest request = requests.get(i);
+            if (request == null) {
+                missing[i] = true;
+            } else {
+                rejections[i] = validator.validate(request);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.fraudrisk.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraudrisk.service.MetricsService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Turns away transaction POSTs that cannot succeed before Spring MVC reads the body: bodies whose
+ * declared length is over the limit (413) and bodies that are not JSON (415).
+ *
+ * Both checks use only the request headers, so the rejected body is never buffered or parsed. A
+ * chunked body has no declared length and is left to the normal binding path.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class FastRejectFilter extends OncePerRequestFilter {
+
+    static final String TRANSACTIONS_PATH = "/api/v1/transactions";
+    static final String BATCH_PATH = TRANSACTIONS_PATH + "/batch";
+
+    private final boolean enabled;
+    private final long maxBodyBytes;
+    private final long maxBatchBodyBytes;
+    private final Rejection oversized;
+    private final Rejection oversizedBatch;
+    private final Rejection unsupportedMediaType;
+
+    public FastRejectFilter(ObjectMapper objectMapper,
+                            MetricsService metricsService,
+                            @Value("${ingestion.reject.enabled:true}") boolean enabled,
+                            @Value("${ingestion.reject.max-body-bytes:16384}") long maxBodyBytes,
+                            @Value("${ingestion.reject.max-batch-body-bytes:4194304}") long maxBatchBodyBytes) {
+        this.enabled = enabled;
+        this.maxBodyBytes = maxBodyBytes;
+        this.maxBatchBodyBytes = maxBatchBodyBytes;
+        this.oversized = Rejection.of(objectMapper, HttpStatus.PAYLOAD_TOO_LARGE, "Payload too large",
+                "error", "Request body exceeds " + maxBodyBytes + " bytes", metricsService.rejectCounter("oversized"));
+        this.oversizedBatch = Rejection.of(objectMapper, HttpStatus.PAYLOAD_TOO_LARGE, "Payload too large",
+                "error", "Request body exceeds " + maxBatchBodyBytes + " bytes", metricsService.rejectCounter("oversized"));
+        this.unsupportedMediaType = Rejection.of(objectMapper, HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                "Unsupported media type", "error", "Content-Type must be application/json",
+                metricsService.rejectCounter("unsupported-media-type"));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !"POST".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        return !path.equals(TRANSACTIONS_PATH) && !path.equals(BATCH_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean batch = request.getRequestURI().equals(BATCH_PATH);
+        if (request.getContentLengthLong() > (batch ? maxBatchBodyBytes : maxBodyBytes)) {
+            // Closing the connection spares the server from draining a body it will never use
+            (batch ? oversizedBatch : oversized).writeTo(response, true);
+            return;
+        }
+        if (!isJson(request.getContentType())) {
+            unsupportedMediaType.writeTo(response, false);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * application/json or any application/*+json type, with or without parameters
+     */
+    static boolean isJson(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        int end = contentType.indexOf(';');
+        if (end < 0) {
+            end = contentType.length();
+        }
+        while (end > 0 && contentType.charAt(end - 1) == ' ') {
+            end--;
+        }
+        String json = "application/json";
+        if (end == json.length() && contentType.regionMatches(true, 0, json, 0, end)) {
+            return true;
+        }
+        return contentType.regionMatches(true, 0, "application/", 0, 12)
+                && end >= 17 && contentType.regionMatches(true, end - 5, "+json", 0, 5);
+    }
+}
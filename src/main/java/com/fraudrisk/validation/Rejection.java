@@ -0,0 +1,84 @@
+package com.fraudrisk.validation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A prebuilt rejection: the error body is serialized once at startup and the response entity is
+ * shared, so rejecting a request allocates next to nothing and throws no exception.
+ */
+@Getter
+public final class Rejection {
+
+    private final HttpStatus status;
+    private final String field;
+    private final String message;
+    private final byte[] body;
+    private final ResponseEntity<byte[]> response;
+    private final Counter counter;
+
+    /**
+     * Build a rejection whose body has the same shape as the error responses of
+     * {@code GlobalExceptionHandler}, minus the timestamp that would make it request-specific
+     */
+    static Rejection of(ObjectMapper objectMapper, HttpStatus status, String summary,
+                        String field, String message, Counter counter) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", status.value());
+        body.put("message", summary);
+        body.put("errors", Map.of(field, message));
+        try {
+            return new Rejection(status, field, message, objectMapper.writeValueAsBytes(body), counter);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize rejection for " + field, e);
+        }
+    }
+
+    private Rejection(HttpStatus status, String field, String message, byte[] body, Counter counter) {
+        this.status = status;
+        this.field = field;
+        this.message = message;
+        this.body = body;
+        this.counter = counter;
+        // ResponseEntity headers are read-only, so one instance can be returned to every caller
+        this.response = ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.length)
+                .body(body);
+    }
+
+    /**
+     * Count the rejection and return the shared response for a controller
+     */
+    public ResponseEntity<byte[]> toResponse() {
+        counter.increment();
+        return response;
+    }
+
+    /**
+     * Count the rejection and write it directly, for filters that run before Spring MVC
+     *
+     * @param closeConnection ask the client to reconnect rather than have the server drain an unread body
+     */
+    public void writeTo(HttpServletResponse servletResponse, boolean closeConnection) throws IOException {
+        counter.increment();
+        servletResponse.setStatus(status.value());
+        servletResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        servletResponse.setContentLength(body.length);
+        if (closeConnection) {
+            servletResponse.setHeader(HttpHeaders.CONNECTION, "close");
+        }
+        servletResponse.getOutputStream().write(body);
+    }
+}
@@ -0,0 +1,284 @@
+package com.fraudrisk.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.service.MetricsService;
+import io.micrometer.core.instrument.Counter;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Hand-written equivalent of the Bean Validation constraints on {@link TransactionRequest}.
+ *
+ * Checks run in field order and stop at the first failure, which is returned as a prebuilt
+ * {@link Rejection}; a valid request allocates nothing. The messages and field paths are the ones
+ * declared on the DTO, and {@code TransactionRequestValidatorTest} keeps the two in step, so a
+ * constraint added to the DTO must be added here as well.
+ */
+@Component
+public class TransactionRequestValidator {
+
+    private static final String VALIDATION_ERROR = "Validation error";
+    private static final int MAX_IDENTIFIER_LENGTH = 50;
+    private static final BigDecimal MIN_AMOUNT = new BigDecimal("0.01");
+    private static final int MAX_AMOUNT_INTEGER_DIGITS = 16;
+    private static final int MAX_AMOUNT_FRACTION_DIGITS = 2;
+
+    /**
+     * One entry per constraint message on the DTO
+     */
+    enum Rule {
+        TRANSACTION_ID_REQUIRED("transactionId", "Transaction ID is required"),
+        TRANSACTION_ID_INVALID("transactionId", "Transaction ID must be alphanumeric and between 1-50 characters"),
+        AMOUNT_REQUIRED("amount", "Amount is required"),
+        AMOUNT_TOO_SMALL("amount", "Amount must be greater than 0"),
+        AMOUNT_DIGITS("amount", "Amount cannot exceed 16 digits in total with 2 decimal places"),
+        CURRENCY_REQUIRED("currency", "Currency is required"),
+        CURRENCY_INVALID("currency", "Currency must be a 3-letter ISO currency code"),
+        CUSTOMER_ID_REQUIRED("customerId", "Customer ID is required"),
+        CUSTOMER_ID_INVALID("customerId", "Customer ID must be alphanumeric and between 1-50 characters"),
+        CUSTOMER_NAME_TOO_LONG("customerName", "Customer name cannot exceed 100 characters"),
+        SOURCE_ID_REQUIRED("sourceId", "Source ID is required"),
+        SOURCE_ID_INVALID("sourceId", "Source ID must be alphanumeric and between 1-50 characters"),
+        SOURCE_TYPE_TOO_LONG("sourceType", "Source type cannot exceed 50 characters"),
+        DESTINATION_ID_TOO_LONG("destinationId", "Destination ID cannot exceed 50 characters"),
+        DESTINATION_TYPE_TOO_LONG("destinationType", "Destination type cannot exceed 50 characters"),
+        TRANSACTION_TYPE_REQUIRED("transactionType", "Transaction type is required"),
+        TRANSACTION_TYPE_TOO_LONG("transactionType", "Transaction type cannot exceed 50 characters"),
+        IP_ADDRESS_INVALID("metadata.ipAddress", "IP address must be a valid IPv4 address"),
+        DEVICE_ID_TOO_LONG("metadata.deviceId", "Device ID cannot exceed 100 characters"),
+        USER_AGENT_TOO_LONG("metadata.userAgent", "User agent cannot exceed 500 characters"),
+        LATITUDE_REQUIRED("metadata.location.latitude", "Latitude is required when location is provided"),
+        LATITUDE_TOO_SMALL("metadata.location.latitude", "Latitude must be greater than or equal to -90"),
+        LATITUDE_TOO_LARGE("metadata.location.latitude", "Latitude must be less than or equal to 90"),
+        LONGITUDE_REQUIRED("metadata.location.longitude", "Longitude is required when location is provided"),
+        LONGITUDE_TOO_SMALL("metadata.location.longitude", "Longitude must be greater than or equal to -180"),
+        LONGITUDE_TOO_LARGE("metadata.location.longitude", "Longitude must be less than or equal to 180");
+
+        final String field;
+        final String message;
+
+        Rule(String field, String message) {
+            this.field = field;
+            this.message = message;
+        }
+    }
+
+    private final Rejection[] rejections = new Rejection[Rule.values().length];
+    private final Rejection malformed;
+
+    public TransactionRequestValidator(ObjectMapper objectMapper, MetricsService metricsService) {
+        Counter invalid = metricsService.rejectCounter("invalid");
+        for (Rule rule : Rule.values()) {
+            rejections[rule.ordinal()] = Rejection.of(objectMapper, HttpStatus.BAD_REQUEST, VALIDATION_ERROR,
+                    rule.field, rule.message, invalid);
+        }
+        malformed = Rejection.of(objectMapper, HttpStatus.BAD_REQUEST, "Malformed request",
+                "error", "Request body is not a valid JSON transaction", metricsService.rejectCounter("malformed"));
+    }
+
+    /**
+     * Check a request against the DTO's constraints
+     *
+     * @return the rejection for the first violated constraint, or null if the request is valid
+     */
+    public Rejection validate(TransactionRequest request) {
+        Rule rule = check(request);
+        return rule == null ? null : rejections[rule.ordinal()];
+    }
+
+    /**
+     * Rejection for a body that could not be read as a transaction
+     */
+    public Rejection malformed() {
+        return malformed;
+    }
+
+    static Rule check(TransactionRequest request) {
+        Rule rule = checkIdentifier(request.getTransactionId(), Rule.TRANSACTION_ID_REQUIRED, Rule.TRANSACTION_ID_INVALID);
+        if (rule != null) {
+            return rule;
+        }
+        rule = checkAmount(request.getAmount());
+        if (rule != null) {
+            return rule;
+        }
+        String currency = request.getCurrency();
+        if (isBlank(currency)) {
+            return Rule.CURRENCY_REQUIRED;
+        }
+        if (!isCurrencyCode(currency)) {
+            return Rule.CURRENCY_INVALID;
+        }
+        rule = checkIdentifier(request.getCustomerId(), Rule.CUSTOMER_ID_REQUIRED, Rule.CUSTOMER_ID_INVALID);
+        if (rule != null) {
+            return rule;
+        }
+        if (exceeds(request.getCustomerName(), 100)) {
+            return Rule.CUSTOMER_NAME_TOO_LONG;
+        }
+        rule = checkIdentifier(request.getSourceId(), Rule.SOURCE_ID_REQUIRED, Rule.SOURCE_ID_INVALID);
+        if (rule != null) {
+            return rule;
+        }
+        if (exceeds(request.getSourceType(), 50)) {
+            return Rule.SOURCE_TYPE_TOO_LONG;
+        }
+        if (exceeds(request.getDestinationId(), 50)) {
+            return Rule.DESTINATION_ID_TOO_LONG;
+        }
+        if (exceeds(request.getDestinationType(), 50)) {
+            return Rule.DESTINATION_TYPE_TOO_LONG;
+        }
+        if (isBlank(request.getTransactionType())) {
+            return Rule.TRANSACTION_TYPE_REQUIRED;
+        }
+        if (exceeds(request.getTransactionType(), 50)) {
+            return Rule.TRANSACTION_TYPE_TOO_LONG;
+        }
+        return request.getMetadata() == null ? null : checkMetadata(request.getMetadata());
+    }
+
+    private static Rule checkMetadata(TransactionRequest.MetadataDTO metadata) {
+        if (metadata.getIpAddress() != null && !isIpv4Shaped(metadata.getIpAddress())) {
+            return Rule.IP_ADDRESS_INVALID;
+        }
+        if (exceeds(metadata.getDeviceId(), 100)) {
+            return Rule.DEVICE_ID_TOO_LONG;
+        }
+        if (exceeds(metadata.getUserAgent(), 500)) {
+            return Rule.USER_AGENT_TOO_LONG;
+        }
+        TransactionRequest.MetadataDTO.LocationDTO location = metadata.getLocation();
+        if (location == null) {
+            return null;
+        }
+        Rule rule = checkRange(location.getLatitude(), 90.0,
+                Rule.LATITUDE_REQUIRED, Rule.LATITUDE_TOO_SMALL, Rule.LATITUDE_TOO_LARGE);
+        if (rule != null) {
+            return rule;
+        }
+        return checkRange(location.getLongitude(), 180.0,
+                Rule.LONGITUDE_REQUIRED, Rule.LONGITUDE_TOO_SMALL, Rule.LONGITUDE_TOO_LARGE);
+    }
+
+    private static Rule checkIdentifier(String value, Rule required, Rule invalid) {
+        if (isBlank(value)) {
+            return required;
+        }
+        return isIdentifier(value) ? null : invalid;
+    }
+
+    /**
+     * {@code @DecimalMin("0.01")} and {@code @Digits(integer = 16, fraction = 2)}, counting digits
+     * the way Hibernate Validator does for a BigDecimal (no trailing-zero stripping)
+     */
+    private static Rule checkAmount(BigDecimal amount) {
+        if (amount == null) {
+            return Rule.AMOUNT_REQUIRED;
+        }
+        if (amount.compareTo(MIN_AMOUNT) < 0) {
+            return Rule.AMOUNT_TOO_SMALL;
+        }
+        int integerDigits = amount.precision() - amount.scale();
+        int fractionDigits = Math.max(0, amount.scale());
+        if (integerDigits > MAX_AMOUNT_INTEGER_DIGITS || fractionDigits > MAX_AMOUNT_FRACTION_DIGITS) {
+            return Rule.AMOUNT_DIGITS;
+        }
+        return null;
+    }
+
+    private static Rule checkRange(Double value, double bound, Rule required, Rule tooSmall, Rule tooLarge) {
+        if (value == null) {
+            return required;
+        }
+        // Written so that NaN fails, as it does under Bean Validation
+        if (!(value >= -bound)) {
+            return tooSmall;
+        }
+        if (!(value <= bound)) {
+            return tooLarge;
+        }
+        return null;
+    }
+
+    /**
+     * {@code @NotBlank}: null, empty or only characters up to and including space
+     */
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean exceeds(String value, int max) {
+        return value != null && value.length() > max;
+    }
+
+    /**
+     * {@code ^[a-zA-Z0-9-_]{1,50}$}
+     */
+    private static boolean isIdentifier(String value) {
+        int length = value.length();
+        if (length == 0 || length > MAX_IDENTIFIER_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (!isAsciiLetterOrDigit(c) && c != '-' && c != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@code ^[A-Z]{3}$}
+     */
+    private static boolean isCurrencyCode(String value) {
+        if (value.length() != 3) {
+            return false;
+        }
+        for (int i = 0; i < 3; i++) {
+            char c = value.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@code ^(?:\d{1,3}\.){3}\d{1,3}$}: four groups of one to three digits, octet values unchecked
+     */
+    private static boolean isIpv4Shaped(String value) {
+        int groups = 0;
+        int digits = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > 3) {
+                    return false;
+                }
+            } else if (c == '.' && digits > 0 && groups < 3) {
+                groups++;
+                digits = 0;
+            } else {
+                return false;
+            }
+        }
+        return groups == 3 && digits > 0;
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+}
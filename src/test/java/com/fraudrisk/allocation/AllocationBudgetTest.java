@@ -0,0 +1,311 @@
+package com.fraudrisk.allocation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraudrisk.controller.TransactionController;
+import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.mapper.TransactionMapper;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.TransactionService;
+import com.fraudrisk.util.Deadline;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializerConfig;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fails the build when a stage of the single-transaction ingestion path allocates more per
+ * transaction than its budget in {@code allocation-budgets.properties}.
+ *
+ * Each stage is warmed up so the JIT has inlined and scalar-replaced what it will in production,
+ * then driven on the test thread while the thread's allocation counter is read before and after.
+ * The producer is a {@link MockProducer} that completes sends synchronously, so no allocation
+ * escapes to another thread and nothing reaches a broker.
+ *
+ * Run with {@code -Dallocation.budgets.update=true} to measure instead of assert: every budget in
+ * the source tree's properties file is then rewritten as the measured figure plus {@link #MARGIN},
+ * rounded up to {@link #ROUNDING} bytes, with the figure itself kept as {@code <stage>.measured},
+ * ready to be reviewed and committed.
+ */
+@SpringBootTest(properties = {
+        "spring.kafka.producer.properties.schema.registry.url=mock://allocation-budget",
+        "ingestion.status-index.memory-budget-bytes=1048576"
+})
+@AutoConfigureMockMvc
+@Import(AllocationBudgetTest.StubProducerConfig.class)
+@Tag("allocation-budget")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class AllocationBudgetTest {
+
+    private static final String TOPIC = "banking-transactions";
+    private static final int DISTINCT_REQUESTS = 64;
+    private static final int WARMUP = 20_000;
+    private static final int MEASURED = 20_000;
+    private static final int ENDPOINT_WARMUP = 5_000;
+    private static final int ENDPOINT_MEASURED = 2_000;
+    private static final String UPDATE_PROPERTY = "allocation.budgets.update";
+    private static final Path BUDGETS_FILE = Paths.get("src/test/resources/allocation-budgets.properties");
+    private static final String MEASURED_HEADER = "# Measured: ";
+    private static final String MEASURED_SUFFIX = ".measured";
+    /** Headroom over the measured figure, for JIT and JDK-version noise */
+    static final double MARGIN = 0.25;
+    static final long ROUNDING = 256;
+
+    @Autowired
+    private TransactionMapper transactionMapper;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionController transactionController;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockProducer<String, Transaction> producer;
+
+    private final KafkaAvroSerializer serializer = newSerializer();
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final List<TransactionRequest> requests = new ArrayList<>();
+    private final List<Transaction> transactions = new ArrayList<>();
+    private final List<byte[]> bodies = new ArrayList<>();
+    private final Map<String, Long> measuredBytes = new TreeMap<>();
+    private final boolean update = Boolean.getBoolean(UPDATE_PROPERTY);
+    private Properties budgets;
+
+    /**
+     * Imported rather than a @TestConfiguration: the application's explicit @ComponentScan would
+     * otherwise register this stub in every other test context too
+     */
+    static class StubProducerConfig {
+
+        @Bean
+        MockProducer<String, Transaction> mockProducer() {
+            // KafkaAvroSerializer is a Serializer<Object>; MockProducer needs one typed to the value
+            Serializer<Transaction> valueSerializer = newSerializer()::serialize;
+            return new MockProducer<>(true, new StringSerializer(), valueSerializer) {
+                @Override
+                public void close(Duration timeout) {
+                    // KafkaTemplate closes its producer after every send; this one serves the whole run
+                }
+            };
+        }
+
+        @Bean
+        @Primary
+        KafkaTemplate<String, Transaction> stubKafkaTemplate(MockProducer<String, Transaction> mockProducer) {
+            return new KafkaTemplate<>(new MockProducerFactory<>(() -> mockProducer));
+        }
+    }
+
+    @BeforeAll
+    void setUp() throws IOException {
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "thread allocation counters are not available");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        budgets = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/allocation-budgets.properties")) {
+            assertNotNull(in, "allocation-budgets.properties is missing");
+            budgets.load(in);
+        }
+
+        for (int i = 0; i < DISTINCT_REQUESTS; i++) {
+            TransactionRequest request = request(i);
+            requests.add(request);
+            transactions.add(transactionMapper.toAvro(request));
+            bodies.add(objectMapper.writeValueAsBytes(request));
+        }
+    }
+
+    @AfterEach
+    void clearProducerHistory() {
+        producer.clear();
+    }
+
+    /**
+     * In update mode, replace each measured stage's budget and the measurement header in place,
+     * keeping the file's comments and order
+     */
+    @AfterAll
+    void writeMeasuredBudgets() throws IOException {
+        if (!update || measuredBytes.isEmpty()) {
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        for (String line : Files.readAllLines(BUDGETS_FILE, StandardCharsets.UTF_8)) {
+            if (line.startsWith(MEASURED_HEADER)) {
+                lines.add(MEASURED_HEADER + LocalDate.now() + ", JDK " + Runtime.version() + ", "
+                        + System.getProperty("os.arch") + "; budget = measured + "
+                        + Math.round(MARGIN * 100) + "%, rounded up to " + ROUNDING + " bytes");
+                continue;
+            }
+            int equals = line.indexOf('=');
+            String key = line.startsWith("#") || equals < 0 ? null : line.substring(0, equals).trim();
+            if (key == null) {
+                lines.add(line);
+            } else if (measuredBytes.containsKey(key)) {
+                long measured = measuredBytes.get(key);
+                lines.add(key + "=" + budgetFor(measured));
+                lines.add(key + MEASURED_SUFFIX + "=" + measured);
+            } else if (!(key.endsWith(MEASURED_SUFFIX)
+                    && measuredBytes.containsKey(key.substring(0, key.length() - MEASURED_SUFFIX.length())))) {
+                lines.add(line);
+            }
+        }
+        Files.write(BUDGETS_FILE, lines, StandardCharsets.UTF_8);
+    }
+
+    static long budgetFor(long measured) {
+        long withMargin = (long) Math.ceil(measured * (1 + MARGIN));
+        return (withMargin + ROUNDING - 1) / ROUNDING * ROUNDING;
+    }
+
+    @Test
+    void mapping_StaysWithinBudget() {
+        assertWithinBudget("mapping", WARMUP, MEASURED, i -> transactionMapper.toAvro(requests.get(i)));
+    }
+
+    @Test
+    void serialization_StaysWithinBudget() {
+        assertWithinBudget("serialization", WARMUP, MEASURED, i -> serializer.serialize(TOPIC, transactions.get(i)));
+    }
+
+    @Test
+    void service_StaysWithinBudget() {
+        assertWithinBudget("service", WARMUP, MEASURED,
+                i -> transactionService.processTransaction(requests.get(i), Deadline.NONE));
+    }
+
+    @Test
+    void controller_StaysWithinBudget() {
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest("POST", "/api/v1/transactions");
+        assertWithinBudget("controller", WARMUP, MEASURED,
+                i -> transactionController.ingestTransaction(requests.get(i), httpRequest));
+    }
+
+    @Test
+    void endpoint_StaysWithinBudget() {
+        assertWithinBudget("endpoint", ENDPOINT_WARMUP, ENDPOINT_MEASURED, i -> {
+            try {
+                mockMvc.perform(post("/api/v1/transactions")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(bodies.get(i)))
+                        .andExpect(status().isAccepted());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private void assertWithinBudget(String stage, int warmup, int measured, Stage body) {
+        long budget = Long.parseLong(budgets.getProperty(stage).trim());
+
+        for (int i = 0; i < warmup; i++) {
+            body.run(i % DISTINCT_REQUESTS);
+            if ((i & 1023) == 0) {
+                producer.clear();
+            }
+        }
+        producer.clear();
+
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < measured; i++) {
+            body.run(i % DISTINCT_REQUESTS);
+        }
+        long perTransaction = (threads.getThreadAllocatedBytes(thread) - before) / measured;
+
+        if (update) {
+            measuredBytes.put(stage, perTransaction);
+            return;
+        }
+        assertTrue(perTransaction <= budget, String.format(
+                "%s allocated %d bytes per transaction, budget is %d (allocation-budgets.properties)",
+                stage, perTransaction, budget));
+    }
+
+    @FunctionalInterface
+    private interface Stage {
+        void run(int index);
+    }
+
+    private static KafkaAvroSerializer newSerializer() {
+        return new KafkaAvroSerializer(new MockSchemaRegistryClient(),
+                Map.of(KafkaAvroSerializerConfig.SCHEMA_REGISTRY_URL_CONFIG, "mock://allocation-budget"));
+    }
+
+    private static TransactionRequest request(int i) {
+        TransactionRequest.MetadataDTO.LocationDTO location = TransactionRequest.MetadataDTO.LocationDTO.builder()
+                .latitude(37.7749)
+                .longitude(-122.4194)
+                .build();
+
+        TransactionRequest.MetadataDTO metadata = TransactionRequest.MetadataDTO.builder()
+                .ipAddress("192.168.1." + (i % 250 + 1))
+                .deviceId("device-" + i)
+                .location(location)
+                .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36")
+                .build();
+
+        return TransactionRequest.builder()
+                .transactionId("TX-ALLOC-" + i)
+                .timestamp(Instant.now())
+                .amount(new BigDecimal("150.75").add(BigDecimal.valueOf(i)))
+                .currency("USD")
+                .customerId("CUST-" + i)
+                .customerName("John Doe")
+                .sourceId("ACCT-456")
+                .sourceType("CHECKING")
+                .destinationId("MERCHANT-789")
+                .destinationType("MERCHANT")
+                .transactionType("PURCHASE")
+                .metadata(metadata)
+                .build();
+    }
+}
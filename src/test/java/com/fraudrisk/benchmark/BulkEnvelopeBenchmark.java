@@ -0,0 +1,156 @@
+package com.fraudrisk.benchmark;
+
+import com.fraudrisk.bulk.BulkEnvelopeReader;
+import com.fraudrisk.bulk.BulkEnvelopeWriter;
+import com.fraudrisk.model.Location;
+import com.fraudrisk.model.Metadata;
+import com.fraudrisk.model.Transaction;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One record per transaction versus one bulk envelope per batch.
+ *
+ * Both paths serialize for real (the per-record path through {@link KafkaAvroSerializer} against
+ * an in-memory registry) and hand the result to a {@link MockProducer}, so the numbers cover
+ * encoding and per-record producer overhead but not the network. Each invocation sends one
+ * whole batch. The send benchmarks also report the value bytes they put on the wire per second
+ * ({@link WireBytes}); divided by the batches per second that is the value bytes per batch.
+ * Per-record mode additionally pays Kafka's record header (roughly 10-20 bytes per record) and key.
+ *
+ * Run with: ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.fraudrisk.benchmark.BulkEnvelopeBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BulkEnvelopeBenchmark {
+
+    private static final String TOPIC = "banking-transactions";
+
+    @Param({"10", "100", "1000"})
+    private int batchSize;
+
+    @Param({"null", "snappy", "zstandard"})
+    private String codec;
+
+    private List<Transaction> batch;
+    private MockProducer<String, Object> perRecordProducer;
+    private MockProducer<String, byte[]> bulkProducer;
+    private BulkEnvelopeWriter writer;
+    private byte[] envelope;
+    private long perRecordBytes;
+
+    /**
+     * Reported by JMH as a rate next to the primary score
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class WireBytes {
+        public long valueBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        batch = batch(batchSize);
+        writer = new BulkEnvelopeWriter(codec);
+
+        KafkaAvroSerializer serializer = new KafkaAvroSerializer(new MockSchemaRegistryClient());
+        serializer.configure(Map.of("schema.registry.url", "mock://bench", "auto.register.schemas", true), false);
+        perRecordProducer = new MockProducer<>(true, new StringSerializer(), serializer);
+        bulkProducer = new MockProducer<>(true, new StringSerializer(), new ByteArraySerializer());
+
+        perRecordBytes = 0;
+        for (Transaction transaction : batch) {
+            perRecordBytes += serializer.serialize(TOPIC, transaction).length;
+        }
+        envelope = writer.write(batch);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearHistory() {
+        perRecordProducer.clear();
+        bulkProducer.clear();
+    }
+
+    @Benchmark
+    public void perRecord(WireBytes wireBytes) {
+        for (Transaction transaction : batch) {
+            perRecordProducer.send(new ProducerRecord<>(TOPIC, transaction.getTransactionId(), transaction));
+        }
+        wireBytes.valueBytes += perRecordBytes;
+    }
+
+    @Benchmark
+    public void bulkEnvelope(WireBytes wireBytes) throws IOException {
+        byte[] value = writer.write(batch);
+        bulkProducer.send(new ProducerRecord<>(TOPIC + "-bulk", UUID.randomUUID().toString(), value));
+        wireBytes.valueBytes += value.length;
+    }
+
+    /**
+     * Consumer side: decode every transaction of one envelope, reusing a single instance
+     */
+    @Benchmark
+    public void bulkEnvelopeLazyRead(Blackhole blackhole) throws IOException {
+        try (BulkEnvelopeReader reader = BulkEnvelopeReader.open(envelope)) {
+            Transaction reuse = null;
+            while (reader.hasNext()) {
+                reuse = reader.next(reuse);
+                blackhole.consume(reuse);
+            }
+        }
+    }
+
+    private static List<Transaction> batch(int size) {
+        List<Transaction> transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            transactions.add(Transaction.newBuilder()
+                    .setTransactionId("TX-" + i)
+                    .setTimestamp(Instant.now())
+                    .setAmount(new BigDecimal("150.75"))
+                    .setCurrency("USD")
+                    .setCustomerId("CUST-" + (i % 100))
+                    .setCustomerName("John Doe")
+                    .setSourceId("ACCT-" + (i % 50))
+                    .setSourceType("CHECKING")
+                    .setDestinationId("MERCHANT-789")
+                    .setDestinationType("MERCHANT")
+                    .setTransactionType("PURCHASE")
+                    .setMetadata(Metadata.newBuilder()
+                            .setIpAddress("10.0." + (i / 256 % 256) + "." + (i % 256))
+                            .setDeviceId("device-" + (i % 20))
+                            .setLocation(Location.newBuilder().setLatitude(37.7749).setLongitude(-122.4194).build())
+                            .setUserAgent("Mozilla/5.0")
+                            .build())
+                    .build());
+        }
+        return transactions;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(BulkEnvelopeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
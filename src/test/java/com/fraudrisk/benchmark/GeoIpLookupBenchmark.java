@@ -0,0 +1,102 @@
+package com.fraudrisk.benchmark;
+
+import com.fraudrisk.enrichment.GeoIpService;
+import com.fraudrisk.enrichment.GeoIpTable;
+import com.fraudrisk.enrichment.GeoIpTableWriter;
+import com.fraudrisk.util.IpAddressUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geo IP lookups per second on a single core, with the GC profiler's bytes allocated per lookup
+ * ({@code gc.alloc.rate.norm}); hot lookups should report 0.
+ *
+ * Run with: ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.fraudrisk.benchmark.GeoIpLookupBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Threads(1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GeoIpLookupBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int ranges;
+
+    private Path database;
+    private GeoIpTable table;
+    private GeoIpService service;
+
+    private int[] ips;
+    private String[] hotIps;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = Files.createTempFile("geoip-bench", ".bin");
+
+        // Evenly spaced /16-ish ranges across the address space, leaving gaps between them
+        GeoIpTableWriter writer = new GeoIpTableWriter();
+        long step = (1L << 32) / ranges;
+        for (int i = 0; i < ranges; i++) {
+            int start = (int) (i * step);
+            int end = (int) (i * step + step / 2);
+            writer.addRange(start, end, (i % 180) - 90f, (i % 360) - 180f);
+        }
+        writer.writeTo(database);
+
+        table = GeoIpTable.open(database);
+        service = new GeoIpService();
+        service.load(database);
+
+        SplittableRandom random = new SplittableRandom(42);
+        ips = new int[1 << 16];
+        for (int i = 0; i < ips.length; i++) {
+            ips[i] = random.nextInt();
+        }
+
+        // A few thousand hot client addresses, as seen in production traffic
+        hotIps = new String[4096];
+        for (int i = 0; i < hotIps.length; i++) {
+            hotIps[i] = IpAddressUtils.formatIpv4(ips[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(database);
+    }
+
+    @Benchmark
+    public int tableFind() {
+        return table.find(ips[cursor++ & (ips.length - 1)]);
+    }
+
+    @Benchmark
+    public void serviceLookupHotIps(Blackhole blackhole) {
+        blackhole.consume(service.lookup(hotIps[cursor++ & (hotIps.length - 1)]));
+    }
+
+    @Benchmark
+    public void serviceLookupLocationHotIps(Blackhole blackhole) {
+        blackhole.consume(service.lookupLocation(hotIps[cursor++ & (hotIps.length - 1)]));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(GeoIpLookupBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,126 @@
+package com.fraudrisk.benchmark;
+
+import com.fraudrisk.kafka.MicroBatcher;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-record sends versus coalesced micro-batches at several concurrency levels.
+ *
+ * Each benchmark thread plays a request thread that sends one record and waits for its ack.
+ * The producer is a synchronized {@link MockProducer}, which stands in for the contended
+ * record accumulator; absolute numbers against a real broker will differ, the relative
+ * cost of lock handoffs and per-record overhead is what this measures. SampleTime mode
+ * reports p99 alongside the mean.
+ *
+ * Run with: ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.fraudrisk.benchmark.MicroBatchSendBenchmark
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MicroBatchSendBenchmark {
+
+    private static final int[] CONCURRENCY_LEVELS = {1, 8, 32, 128};
+
+    @Param({"64", "256"})
+    private int maxRecords;
+
+    @Param({"50", "200"})
+    private long maxDelayMicros;
+
+    private MockProducer<String, Transaction> producer;
+    private KafkaTemplate<String, Transaction> template;
+    private MicroBatcher microBatcher;
+    private final AtomicLong keys = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        producer = new MockProducer<>(true, new StringSerializer(), (topic, data) -> new byte[0]);
+        template = new DirectTemplate(producer);
+        microBatcher = new MicroBatcher(template, new MetricsService(new SimpleMeterRegistry()),
+                true, maxRecords, maxDelayMicros, 65536);
+        microBatcher.start();
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearHistory() {
+        producer.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        microBatcher.stop();
+    }
+
+    @Benchmark
+    public SendResult<String, Transaction> perRecordSend() {
+        return template.send(record()).join();
+    }
+
+    @Benchmark
+    public SendResult<String, Transaction> microBatchedSend() {
+        return microBatcher.submit(record()).join();
+    }
+
+    private ProducerRecord<String, Transaction> record() {
+        return new ProducerRecord<>("banking-transactions", "TX-" + keys.incrementAndGet(), null);
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int threads : CONCURRENCY_LEVELS) {
+            new Runner(new OptionsBuilder()
+                    .include(MicroBatchSendBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+
+    /**
+     * Template that hands out one long-lived producer instead of going through a producer factory
+     */
+    private static final class DirectTemplate extends KafkaTemplate<String, Transaction> {
+
+        private final Producer<String, Transaction> producer;
+
+        DirectTemplate(Producer<String, Transaction> producer) {
+            super(() -> producer);
+            this.producer = producer;
+        }
+
+        @Override
+        public CompletableFuture<SendResult<String, Transaction>> send(ProducerRecord<String, Transaction> record) {
+            CompletableFuture<SendResult<String, Transaction>> future = new CompletableFuture<>();
+            producer.send(record, (metadata, ex) -> {
+                if (ex == null) {
+                    future.complete(new SendResult<>(record, metadata));
+                } else {
+                    future.completeExceptionally(ex);
+                }
+            });
+            return future;
+        }
+
+        @Override
+        public <T> T execute(ProducerCallback<String, Transaction, T> callback) {
+            return callback.doInKafka(producer);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.fraudrisk.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.enrichment.GeoIpService;
+import com.fraudrisk.mapper.TransactionMapper;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.rules.CompiledRuleSet;
+import com.fraudrisk.rules.RuleCompiler;
+import com.fraudrisk.rules.RuleSetDefinition;
+import com.fraudrisk.service.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-scoring rule evaluations per second on a single core.
+ *
+ * The rule set has 26 rules: an amount limit per transaction type and currency, a currency and
+ * destination combination, and a 1000-entry blocked-device list. Each transaction runs the four
+ * limits of its type plus the two type-agnostic rules, and about 7% of them match a rule.
+ *
+ * Run with: ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.fraudrisk.benchmark.PreScoringBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PreScoringBenchmark {
+
+    private static final String[] TYPES = {"PURCHASE", "WITHDRAWAL", "TRANSFER", "WIRE_TRANSFER", "REFUND", "DEPOSIT"};
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "JPY"};
+
+    private CompiledRuleSet rules;
+    private Transaction[] transactions;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        StringBuilder json = new StringBuilder("{\"rules\": [");
+        for (String type : TYPES) {
+            for (String currency : CURRENCIES) {
+                if (json.charAt(json.length() - 1) == '}') {
+                    json.append(',');
+                }
+                json.append("{\"id\": \"limit-").append(type).append('-').append(currency)
+                        .append("\", \"when\": {\"all\": [")
+                        .append("{\"field\": \"transactionType\", \"op\": \"eq\", \"value\": \"").append(type).append("\"},")
+                        .append("{\"field\": \"currency\", \"op\": \"eq\", \"value\": \"").append(currency).append("\"},")
+                        .append("{\"field\": \"amount\", \"op\": \"gt\", \"value\": \"9500\"}]}}");
+            }
+        }
+        json.append(",{\"id\": \"offshore\", \"action\": \"fast-lane\", \"when\": {\"all\": [")
+                .append("{\"field\": \"currency\", \"op\": \"in\", \"values\": [\"USD\", \"EUR\"]},")
+                .append("{\"field\": \"destinationId\", \"op\": \"prefix\", \"value\": \"XX-\"}]}}")
+                .append(",{\"id\": \"blocked-device\", \"when\": {\"field\": \"deviceId\", \"op\": \"in\", \"values\": [");
+        for (int i = 0; i < 1000; i++) {
+            json.append(i == 0 ? "" : ",").append("\"dev-blocked-").append(i).append('"');
+        }
+        json.append("]}}]}");
+        rules = new RuleCompiler(new MetricsService(new SimpleMeterRegistry()))
+                .compile(new ObjectMapper().readValue(json.toString(), RuleSetDefinition.class));
+
+        TransactionMapper mapper = new TransactionMapper(new GeoIpService());
+        SplittableRandom random = new SplittableRandom(42);
+        transactions = new Transaction[1 << 12];
+        for (int i = 0; i < transactions.length; i++) {
+            transactions[i] = mapper.toAvro(TransactionRequest.builder()
+                    .transactionId("TX-" + i)
+                    .timestamp(Instant.now())
+                    .amount(BigDecimal.valueOf(random.nextInt(1_000_000), 2))
+                    .currency(CURRENCIES[random.nextInt(CURRENCIES.length)])
+                    .customerId("CUST-" + random.nextInt(10_000))
+                    .sourceId("ACCT-" + random.nextInt(10_000))
+                    .destinationId((random.nextInt(100) < 2 ? "XX-" : "ACCT-") + random.nextInt(10_000))
+                    .transactionType(TYPES[random.nextInt(TYPES.length)])
+                    .metadata(TransactionRequest.MetadataDTO.builder()
+                            .deviceId("dev-" + (random.nextInt(100) < 1 ? "blocked-" : "") + random.nextInt(1000))
+                            .build())
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public Object evaluate() {
+        return rules.evaluate(transactions[cursor++ & (transactions.length - 1)]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(PreScoringBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
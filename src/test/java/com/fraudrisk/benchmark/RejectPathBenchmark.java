@@ -0,0 +1,159 @@
+package com.fraudrisk.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fraudrisk.controller.TransactionController;
+import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.enrichment.GeoIpService;
+import com.fraudrisk.mapper.TransactionMapper;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.MetricsService;
+import com.fraudrisk.validation.Rejection;
+import com.fraudrisk.validation.TransactionRequestValidator;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.MethodParameter;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning away an invalid single-transaction body, against the cost of accepting a valid one.
+ *
+ * Every benchmark starts from the raw JSON body. {@code rejectBeanValidation} reproduces the
+ * previous path: Bean Validation, a {@link MethodArgumentNotValidException} with its stack trace,
+ * and a freshly serialized error response. {@code rejectFast} is the hand-written validator
+ * returning a prebuilt response. {@code acceptValid} parses, validates, maps and serializes a valid
+ * transaction, i.e. everything but the Kafka send.
+ *
+ * Run with: ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.fraudrisk.benchmark.RejectPathBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RejectPathBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Validator beanValidator;
+    private TransactionRequestValidator fastValidator;
+    private TransactionMapper mapper;
+    private KafkaAvroSerializer serializer;
+    private MethodParameter bodyParameter;
+    private byte[] invalidBody;
+    private byte[] validBody;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        beanValidator = Validation.buildDefaultValidatorFactory().getValidator();
+        fastValidator = new TransactionRequestValidator(objectMapper, new MetricsService(new SimpleMeterRegistry()));
+        mapper = new TransactionMapper(new GeoIpService());
+        serializer = new KafkaAvroSerializer(new MockSchemaRegistryClient(),
+                Map.of(KafkaAvroSerializerConfig.SCHEMA_REGISTRY_URL_CONFIG, "mock://reject-benchmark"));
+        bodyParameter = new MethodParameter(TransactionController.class.getMethod(
+                "ingestTransaction", TransactionRequest.class, HttpServletRequest.class), 0);
+
+        TransactionRequest valid = request();
+        validBody = objectMapper.writeValueAsBytes(valid);
+        // A typical client bug: lowercase currency and a missing transaction type
+        TransactionRequest invalid = request();
+        invalid.setCurrency("usd");
+        invalid.setTransactionType(null);
+        invalidBody = objectMapper.writeValueAsBytes(invalid);
+    }
+
+    @Benchmark
+    public byte[] rejectBeanValidation() throws Exception {
+        TransactionRequest request = objectMapper.readValue(invalidBody, TransactionRequest.class);
+        Set<ConstraintViolation<TransactionRequest>> violations = beanValidator.validate(request);
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(request, "transactionRequest");
+        for (ConstraintViolation<TransactionRequest> violation : violations) {
+            bindingResult.addError(new FieldError("transactionRequest",
+                    violation.getPropertyPath().toString(), violation.getMessage()));
+        }
+        MethodArgumentNotValidException exception = new MethodArgumentNotValidException(bodyParameter, bindingResult);
+
+        Map<String, String> errors = new HashMap<>();
+        exception.getBindingResult().getFieldErrors()
+                .forEach(error -> errors.put(error.getField(), error.getDefaultMessage()));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", 400);
+        body.put("message", "Validation error");
+        body.put("errors", errors);
+        body.put("timestamp", LocalDateTime.now());
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public byte[] rejectFast() throws Exception {
+        TransactionRequest request = objectMapper.readValue(invalidBody, TransactionRequest.class);
+        Rejection rejection = fastValidator.validate(request);
+        return rejection.toResponse().getBody();
+    }
+
+    @Benchmark
+    public byte[] acceptValid() throws Exception {
+        TransactionRequest request = objectMapper.readValue(validBody, TransactionRequest.class);
+        if (fastValidator.validate(request) != null) {
+            throw new IllegalStateException("valid request rejected");
+        }
+        Transaction transaction = mapper.toAvro(request);
+        return serializer.serialize("banking-transactions", transaction);
+    }
+
+    private static TransactionRequest request() {
+        TransactionRequest.MetadataDTO metadata = TransactionRequest.MetadataDTO.builder()
+                .ipAddress("192.168.1.1")
+                .deviceId("device-123")
+                .location(TransactionRequest.MetadataDTO.LocationDTO.builder()
+                        .latitude(37.7749)
+                        .longitude(-122.4194)
+                        .build())
+                .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36")
+                .build();
+
+        return TransactionRequest.builder()
+                .transactionId("TX-001")
+                .timestamp(Instant.parse("2025-03-01T12:00:00Z"))
+                .amount(new BigDecimal("150.75"))
+                .currency("USD")
+                .customerId("CUST-123")
+                .customerName("John Doe")
+                .sourceId("ACCT-456")
+                .sourceType("CHECKING")
+                .destinationId("MERCHANT-789")
+                .destinationType("MERCHANT")
+                .transactionType("PURCHASE")
+                .metadata(metadata)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(RejectPathBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,94 @@
+package com.fraudrisk.benchmark;
+
+import com.fraudrisk.enrichment.UserAgentInfo;
+import com.fraudrisk.enrichment.UserAgentParser;
+import com.fraudrisk.enrichment.UserAgentService;
+import com.fraudrisk.service.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User-agent classification cost with and without the cache.
+ *
+ * The workload is a few thousand distinct agents (browser builds x OS versions) drawn with a
+ * skewed distribution, as in production traffic, plus a share of one-off strings that a
+ * scanner would send. Lookups are new String instances each time so the cache pays for
+ * hashing and comparing the full key, as it would for strings decoded from a request.
+ *
+ * Run with: ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ *           -Dexec.mainClass=com.fraudrisk.benchmark.UserAgentParseBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserAgentParseBenchmark {
+
+    private static final String[] TEMPLATES = {
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/%d.0.%d.0 Safari/537.36",
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/%d.0.%d.0 Safari/537.36 Edg/%d.0.0.0",
+            "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_%d) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.%d Safari/605.1.15",
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 17_%d like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.%d Mobile/15E148 Safari/604.1",
+            "Mozilla/5.0 (Linux; Android %d; SM-S91%dB) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Mobile Safari/537.36",
+            "Mozilla/5.0 (X11; Linux x86_64; rv:%d.0) Gecko/20100101 Firefox/%d.0",
+    };
+
+    @Param({"0", "5"})
+    private int oneOffPercent;
+
+    private String[] workload;
+    private UserAgentService service;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        String[] distinct = new String[3000];
+        for (int i = 0; i < distinct.length; i++) {
+            String template = TEMPLATES[i % TEMPLATES.length];
+            distinct[i] = String.format(template, 100 + i / TEMPLATES.length % 30, i, i % 9);
+        }
+
+        workload = new String[1 << 16];
+        for (int i = 0; i < workload.length; i++) {
+            if (random.nextInt(100) < oneOffPercent) {
+                workload[i] = "Scanner/" + random.nextLong();
+            } else {
+                // Squaring a uniform draw skews traffic towards the first agents
+                double u = random.nextDouble();
+                workload[i] = distinct[(int) (u * u * distinct.length)];
+            }
+        }
+
+        service = new UserAgentService(new MetricsService(new SimpleMeterRegistry()), true, 4 * 1024 * 1024);
+    }
+
+    @Benchmark
+    public UserAgentInfo parseUncached() {
+        return UserAgentParser.parse(new String(next()));
+    }
+
+    @Benchmark
+    public UserAgentInfo lookupCached() {
+        return service.lookup(new String(next()));
+    }
+
+    private String next() {
+        String userAgent = workload[cursor];
+        cursor = (cursor + 1) & (workload.length - 1);
+        return userAgent;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(UserAgentParseBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
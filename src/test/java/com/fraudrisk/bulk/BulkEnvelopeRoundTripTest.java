@@ -0,0 +1,99 @@
+package com.fraudrisk.bulk;
+
+import com.fraudrisk.model.Location;
+import com.fraudrisk.model.Metadata;
+import com.fraudrisk.model.Transaction;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkEnvelopeRoundTripTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"null", "deflate", "snappy", "zstandard"})
+    void writeThenRead_EveryCodec_ReturnsSameTransactionsInOrder(String codec) throws Exception {
+        // Arrange
+        List<Transaction> transactions = transactions(250);
+
+        // Act
+        byte[] envelope = new BulkEnvelopeWriter(codec).write(transactions);
+        List<Transaction> decoded = new ArrayList<>();
+        try (BulkEnvelopeReader reader = new BulkEnvelopeDeserializer().deserialize("bulk", envelope)) {
+            reader.forEach(decoded::add);
+        }
+
+        // Assert
+        assertEquals(transactions, decoded);
+    }
+
+    @Test
+    void write_CompressingCodec_IsSmallerThanUncompressed() throws Exception {
+        // Arrange
+        List<Transaction> transactions = transactions(500);
+
+        // Act
+        int plain = new BulkEnvelopeWriter("null").write(transactions).length;
+        int deflated = new BulkEnvelopeWriter("deflate").write(transactions).length;
+
+        // Assert
+        assertTrue(deflated < plain, "deflate=" + deflated + " null=" + plain);
+    }
+
+    @Test
+    void next_WithReuse_DecodesIntoSameInstance() throws Exception {
+        // Arrange
+        byte[] envelope = new BulkEnvelopeWriter("null").write(transactions(3));
+
+        // Act & Assert
+        try (BulkEnvelopeReader reader = BulkEnvelopeReader.open(envelope)) {
+            Transaction first = reader.next(null);
+            assertEquals("TX-0", first.getTransactionId());
+            Transaction second = reader.next(first);
+            assertSame(first, second);
+            assertEquals("TX-1", second.getTransactionId());
+            reader.next(second);
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    void deserialize_CorruptBytes_ThrowsSerializationException() {
+        assertThrows(SerializationException.class,
+                () -> new BulkEnvelopeDeserializer().deserialize("bulk", new byte[]{1, 2, 3}));
+        assertNull(new BulkEnvelopeDeserializer().deserialize("bulk", null));
+    }
+
+    private static List<Transaction> transactions(int count) {
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            transactions.add(Transaction.newBuilder()
+                    .setTransactionId("TX-" + i)
+                    .setTimestamp(Instant.ofEpochMilli(1_700_000_000_000L + i))
+                    .setAmount(new BigDecimal("150.75"))
+                    .setCurrency("USD")
+                    .setCustomerId("CUST-" + (i % 10))
+                    .setCustomerName("John Doe")
+                    .setSourceId("ACCT-456")
+                    .setSourceType("CHECKING")
+                    .setDestinationId("MERCHANT-789")
+                    .setDestinationType("MERCHANT")
+                    .setTransactionType("PURCHASE")
+                    .setMetadata(Metadata.newBuilder()
+                            .setIpAddress("192.168.1." + (i % 255))
+                            .setDeviceId("device-123")
+                            .setLocation(Location.newBuilder().setLatitude(37.7749).setLongitude(-122.4194).build())
+                            .setUserAgent("Mozilla/5.0")
+                            .build())
+                    .build());
+        }
+        return transactions;
+    }
+}
@@ -0,0 +1,97 @@
+package com.fraudrisk.config;
+
+import com.fraudrisk.kafka.InstrumentedAvroSerializer;
+import com.fraudrisk.model.Location;
+import com.fraudrisk.model.Metadata;
+import com.fraudrisk.model.Transaction;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Wiring checks that also run against the AOT-processed context.
+ *
+ * Under {@code -Pfast-startup} this class runs with {@code spring.aot.enabled=true}, so it verifies
+ * that the generated bean definitions still produce the Kafka and metrics configuration the
+ * service relies on, and that the Avro classes work without reflection-based fallbacks.
+ */
+@SpringBootTest
+public class FastStartupAotContextTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void context_WiresKafkaConfig() {
+        assertNotNull(context.getBean(KafkaConfig.class));
+
+        ProducerFactory<?, ?> producerFactory = context.getBean("transactionProducerFactory", ProducerFactory.class);
+        assertEquals(InstrumentedAvroSerializer.class,
+                producerFactory.getConfigurationProperties().get(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
+        assertEquals(true,
+                producerFactory.getConfigurationProperties().get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+
+        KafkaTemplate<?, ?> template = context.getBean("kafkaTemplate", KafkaTemplate.class);
+        assertSame(producerFactory, template.getProducerFactory());
+    }
+
+    @Test
+    void context_WiresMetricsConfig() {
+        assertNotNull(context.getBean(MetricsConfig.class));
+        assertNotNull(context.getBean(TimedAspect.class));
+        assertNotNull(context.getBean(MeterRegistry.class));
+    }
+
+    @Test
+    void avroClasses_RoundTripThroughSpecificDatum() throws Exception {
+        // Arrange
+        Transaction transaction = Transaction.newBuilder()
+                .setTransactionId("TX-AOT-1")
+                .setTimestamp(Instant.now().truncatedTo(ChronoUnit.MILLIS))
+                .setAmount(new BigDecimal("150.75"))
+                .setCurrency("USD")
+                .setCustomerId("CUST-123")
+                .setCustomerName("")
+                .setSourceId("ACCT-456")
+                .setSourceType("")
+                .setDestinationId("")
+                .setDestinationType("")
+                .setTransactionType("PURCHASE")
+                .setMetadata(Metadata.newBuilder()
+                        .setLocation(Location.newBuilder().setLatitude(1.0).setLongitude(2.0).build())
+                        .build())
+                .build();
+
+        // Act
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        new SpecificDatumWriter<>(Transaction.class).write(transaction, encoder);
+        encoder.flush();
+
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(out.toByteArray(), null);
+        Transaction decoded = new SpecificDatumReader<>(Transaction.class).read(null, decoder);
+
+        // Assert
+        assertEquals(transaction, decoded);
+        assertEquals(new BigDecimal("150.75"), decoded.getAmount());
+    }
+}
@@ -2,7 +2,9 @@ package com.fraudrisk.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.exception.KafkaProducerException;
 import com.fraudrisk.service.KafkaProducerService;
+import com.fraudrisk.status.TransactionStatusIndex;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -10,15 +12,22 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -31,6 +40,9 @@ public class TransactionControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private TransactionStatusIndex statusIndex;
+
     @MockBean
     private KafkaProducerService kafkaProducerService;
 
@@ -42,7 +54,7 @@ public class TransactionControllerIntegrationTest {
 
         // Mock Kafka producer to return a successful future
         CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
-        when(kafkaProducerService.sendTransaction(any())).thenReturn(future);
+        when(kafkaProducerService.sendTransaction(any(), any())).thenReturn(future);
 
         // Act & Assert
         mockMvc.perform(post("/api/v1/transactions")
@@ -51,6 +63,48 @@ public class TransactionControllerIntegrationTest {
                 .andExpect(status().isAccepted());
     }
 
+    @Test
+    public void testIngestTransaction_AcknowledgedSend_RespondsAfterBrokerAck() throws Exception {
+        // Arrange
+        TransactionRequest request = createValidTransactionRequest();
+        CompletableFuture<Void> ack = new CompletableFuture<>();
+        when(kafkaProducerService.isSyncSend()).thenReturn(true);
+        when(kafkaProducerService.sendTransaction(any(), any())).thenReturn(ack);
+
+        // Act: the request thread is released before the ack arrives
+        MvcResult pending = mockMvc.perform(post("/api/v1/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ack.complete(null);
+
+        // Assert
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isAccepted());
+    }
+
+    @Test
+    public void testIngestTransaction_AcknowledgedSendFails_ReturnsServiceUnavailable() throws Exception {
+        // Arrange
+        TransactionRequest request = createValidTransactionRequest();
+        CompletableFuture<Void> ack = new CompletableFuture<>();
+        when(kafkaProducerService.isSyncSend()).thenReturn(true);
+        when(kafkaProducerService.sendTransaction(any(), any())).thenReturn(ack);
+
+        // Act
+        MvcResult pending = mockMvc.perform(post("/api/v1/transactions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ack.completeExceptionally(new KafkaProducerException("Timeout while sending transaction", "TX-001"));
+
+        // Assert
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isServiceUnavailable());
+    }
+
     @Test
     public void testIngestTransaction_InvalidRequest_ReturnsBadRequest() throws Exception {
         // Arrange
@@ -73,13 +127,14 @@ public class TransactionControllerIntegrationTest {
 
         // Mock Kafka producer to return a successful future
         CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
-        when(kafkaProducerService.sendTransaction(any())).thenReturn(future);
+        when(kafkaProducerService.sendTransaction(any(), any(), any(), any())).thenReturn(future);
 
         // Act & Assert
         mockMvc.perform(post("/api/v1/transactions/batch")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(Arrays.asList(request1, request2))))
-                .andExpect(status().isAccepted());
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.timestamp").isString());
     }
 
     @Test
@@ -88,7 +143,69 @@ public class TransactionControllerIntegrationTest {
         mockMvc.perform(post("/api/v1/transactions/batch")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(Arrays.asList())))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.requests").value("Batch cannot be empty"));
+    }
+
+    @Test
+    public void testIngestBatchTransactions_OverMaxSize_ReturnsBadRequest() throws Exception {
+        // Arrange
+        List<TransactionRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            requests.add(createValidTransactionRequest());
+        }
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.requests").value("Batch size cannot exceed 1000 transactions"));
+    }
+
+    @Test
+    public void testIngestPartialBatch_OneInvalidItem_AcceptsTheRest() throws Exception {
+        // Arrange
+        TransactionRequest request1 = createValidTransactionRequest();
+        TransactionRequest request2 = createValidTransactionRequest();
+        request2.setTransactionId("TX-002");
+        request2.setCurrency("usd");
+
+        CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
+        when(kafkaProducerService.sendTransaction(any(), any(), any(), any())).thenReturn(future);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/transactions/batch")
+                        .param("partial", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Arrays.asList(request1, request2))))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.acceptedCount").value(1))
+                .andExpect(jsonPath("$.rejectedCount").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].field").value("currency"));
+    }
+
+    @Test
+    public void testGetTransactionStatus_UnknownId_ReturnsNotFound() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/transactions/TX-UNKNOWN"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testGetTransactionStatus_SentTransaction_ReturnsPartitionAndOffset() throws Exception {
+        // Arrange
+        statusIndex.received("TX-STATUS");
+        statusIndex.sent("TX-STATUS", 3, 42L);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/transactions/TX-STATUS"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SENT"))
+                .andExpect(jsonPath("$.partition").value(3))
+                .andExpect(jsonPath("$.offset").value(42))
+                .andExpect(jsonPath("$.receivedAt").isString());
     }
 
     /**
@@ -0,0 +1,171 @@
+package com.fraudrisk.enrichment;
+
+import com.fraudrisk.model.Location;
+import com.fraudrisk.util.IpAddressUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class GeoIpServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void lookup_AddressInsideRange_ReturnsCoordinates() throws Exception {
+        // Arrange
+        Path database = tempDir.resolve("geo.bin");
+        new GeoIpTableWriter()
+                .addRange(ip("10.0.0.0"), ip("10.0.0.255"), 37.77f, -122.42f)
+                .addRange(ip("192.168.0.0"), ip("192.168.255.255"), 51.51f, -0.13f)
+                .writeTo(database);
+
+        GeoIpService service = new GeoIpService();
+        assertTrue(service.load(database));
+
+        // Act
+        GeoPoint point = service.lookup("192.168.1.1");
+
+        // Assert
+        assertNotNull(point);
+        assertEquals(51.51, point.latitude(), 0.001);
+        assertEquals(-0.13, point.longitude(), 0.001);
+    }
+
+    @Test
+    void lookup_AddressOutsideRanges_ReturnsNull() throws Exception {
+        // Arrange
+        Path database = tempDir.resolve("geo.bin");
+        new GeoIpTableWriter()
+                .addRange(ip("10.0.0.0"), ip("10.0.0.255"), 37.77f, -122.42f)
+                .writeTo(database);
+
+        GeoIpService service = new GeoIpService();
+        service.load(database);
+
+        // Act & Assert
+        assertNull(service.lookup("10.0.1.0"));
+        assertNull(service.lookup("9.255.255.255"));
+        assertNull(service.lookup("not-an-ip"));
+    }
+
+    @Test
+    void find_HighAddresses_ComparedUnsigned() throws Exception {
+        // Arrange
+        Path database = tempDir.resolve("geo.bin");
+        new GeoIpTableWriter()
+                .addRange(ip("1.0.0.0"), ip("1.0.0.255"), 1f, 1f)
+                .addRange(ip("200.0.0.0"), ip("200.0.0.255"), 2f, 2f)
+                .writeTo(database);
+
+        // Act
+        GeoIpTable table = GeoIpTable.open(database);
+
+        // Assert
+        assertEquals(1, table.find(ip("200.0.0.17")));
+        assertEquals(0, table.find(ip("1.0.0.0")));
+        assertEquals(GeoIpTable.NOT_FOUND, table.find(ip("100.0.0.0")));
+    }
+
+    @Test
+    void load_NewVersion_SwapsWithoutLosingPrevious() throws Exception {
+        // Arrange
+        Path database = tempDir.resolve("geo.bin");
+        new GeoIpTableWriter()
+                .addRange(ip("10.0.0.0"), ip("10.0.0.255"), 10f, 10f)
+                .writeTo(database);
+
+        GeoIpService service = new GeoIpService();
+        service.load(database);
+        assertEquals(10.0, service.lookup("10.0.0.1").latitude(), 0.001);
+
+        // Act
+        new GeoIpTableWriter()
+                .addRange(ip("10.0.0.0"), ip("10.0.0.255"), 20f, 20f)
+                .writeTo(database);
+        service.load(database);
+
+        // Assert - the hot cache belongs to the old version and must not leak through
+        assertEquals(20.0, service.lookup("10.0.0.1").latitude(), 0.001);
+        assertFalse(service.load(tempDir.resolve("missing.bin")));
+        assertEquals(20.0, service.lookup("10.0.0.1").latitude(), 0.001);
+    }
+
+    @Test
+    void lookup_HotAddresses_AllocateNothing() throws Exception {
+        // Arrange
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "thread allocation counters are not available");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        Path database = tempDir.resolve("geo.bin");
+        GeoIpTableWriter writer = new GeoIpTableWriter();
+        for (int i = 0; i < 256; i++) {
+            writer.addRange(ip("10." + i + ".0.0"), ip("10." + i + ".127.255"), i / 4f, -i / 4f);
+        }
+        writer.writeTo(database);
+        GeoIpService service = new GeoIpService();
+        service.load(database);
+
+        // Hits, known misses and an address outside every range, all seen once before
+        String[] addresses = new String[1024];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = "10." + (i % 256) + "." + (i % 3 == 0 ? 200 : i % 128) + "." + i % 250;
+        }
+        for (String address : addresses) {
+            service.lookup(address);
+        }
+
+        // Act
+        int lookups = 100_000;
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < lookups; i++) {
+            service.lookup(addresses[i % addresses.length]);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        // Assert - allow for the counter's own bookkeeping, not for a byte per lookup
+        assertTrue(allocated < lookups, allocated + " bytes allocated by " + lookups + " hot lookups");
+    }
+
+    @Test
+    void lookupLocation_SameRange_SharesOneInstance() throws Exception {
+        // Arrange
+        Path database = tempDir.resolve("geo.bin");
+        new GeoIpTableWriter()
+                .addRange(ip("10.0.0.0"), ip("10.0.0.255"), 37.77f, -122.42f)
+                .writeTo(database);
+        GeoIpService service = new GeoIpService();
+        service.load(database);
+
+        // Act
+        Location first = service.lookupLocation("10.0.0.1");
+        Location second = service.lookupLocation("10.0.0.2");
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(37.77, first.getLatitude(), 0.001);
+        assertEquals(-122.42, first.getLongitude(), 0.001);
+        assertNull(service.lookupLocation("10.0.1.1"));
+    }
+
+    @Test
+    void parseIpv4_RejectsMalformedAddresses() {
+        assertEquals(0xC0A80101, IpAddressUtils.parseIpv4("192.168.1.1"));
+        assertEquals(IpAddressUtils.INVALID_IPV4, IpAddressUtils.parseIpv4("256.1.1.1"));
+        assertEquals(IpAddressUtils.INVALID_IPV4, IpAddressUtils.parseIpv4("1.1.1"));
+        assertEquals(IpAddressUtils.INVALID_IPV4, IpAddressUtils.parseIpv4("1..1.1"));
+        assertEquals(IpAddressUtils.INVALID_IPV4, IpAddressUtils.parseIpv4("1.1.1.1.1"));
+    }
+
+    private static int ip(String address) {
+        return IpAddressUtils.parseIpv4(address);
+    }
+}
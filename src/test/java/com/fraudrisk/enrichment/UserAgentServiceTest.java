@@ -0,0 +1,98 @@
+package com.fraudrisk.enrichment;
+
+import com.fraudrisk.model.Metadata;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.header.Header;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserAgentServiceTest {
+
+    private static final String CHROME_WINDOWS =
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36";
+    private static final String EDGE_WINDOWS = CHROME_WINDOWS + " Edg/124.0.0.0";
+    private static final String SAFARI_IPHONE =
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 17_4 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.4 Mobile/15E148 Safari/604.1";
+    private static final String SAFARI_MAC =
+            "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.4 Safari/605.1.15";
+    private static final String SAMSUNG_ANDROID =
+            "Mozilla/5.0 (Linux; Android 14; SM-S918B) AppleWebKit/537.36 (KHTML, like Gecko) SamsungBrowser/24.0 Chrome/117.0.0.0 Mobile Safari/537.36";
+    private static final String CHROME_ANDROID_TABLET =
+            "Mozilla/5.0 (Linux; Android 13; SM-X710) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/124.0.0.0 Safari/537.36";
+    private static final String FIREFOX_LINUX = "Mozilla/5.0 (X11; Linux x86_64; rv:125.0) Gecko/20100101 Firefox/125.0";
+    private static final String GOOGLEBOT =
+            "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final UserAgentService service = new UserAgentService(new MetricsService(registry), true, 1024 * 1024);
+
+    @Test
+    void parse_CommonAgents_ClassifiesDeviceOsAndBrowser() {
+        assertEquals(new UserAgentInfo("desktop", "windows", "chrome"), UserAgentParser.parse(CHROME_WINDOWS));
+        assertEquals(new UserAgentInfo("desktop", "windows", "edge"), UserAgentParser.parse(EDGE_WINDOWS));
+        assertEquals(new UserAgentInfo("mobile", "ios", "safari"), UserAgentParser.parse(SAFARI_IPHONE));
+        assertEquals(new UserAgentInfo("desktop", "macos", "safari"), UserAgentParser.parse(SAFARI_MAC));
+        assertEquals(new UserAgentInfo("mobile", "android", "samsung"), UserAgentParser.parse(SAMSUNG_ANDROID));
+        assertEquals(new UserAgentInfo("tablet", "android", "chrome"), UserAgentParser.parse(CHROME_ANDROID_TABLET));
+        assertEquals(new UserAgentInfo("desktop", "linux", "firefox"), UserAgentParser.parse(FIREFOX_LINUX));
+        assertEquals(new UserAgentInfo("bot", "other", "other"), UserAgentParser.parse(GOOGLEBOT));
+        assertEquals(UserAgentInfo.UNKNOWN, UserAgentParser.parse(""));
+        assertEquals(UserAgentInfo.UNKNOWN, UserAgentParser.parse("Mozilla/5.0"));
+    }
+
+    @Test
+    void lookup_RepeatedAgent_IsServedFromCacheAndReported() {
+        // Act
+        for (int i = 0; i < 10; i++) {
+            service.lookup(new String(CHROME_WINDOWS));
+        }
+
+        // Assert
+        assertEquals(9.0, registry.get("cache.gets").tag("cache", "userAgents").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(0.9, registry.get("enrichment.useragent.cache.hit.ratio").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void appendHeaders_TransactionWithUserAgent_AddsParsedHeaders() {
+        // Arrange
+        List<Header> headers = new ArrayList<>();
+
+        // Act
+        service.appendHeaders(transaction(SAFARI_IPHONE), headers);
+        service.appendHeaders(transaction(null), headers);
+
+        // Assert - only the first transaction has a user agent
+        assertEquals(List.of(UserAgentService.DEVICE, UserAgentService.OS, UserAgentService.BROWSER),
+                headers.stream().map(Header::key).toList());
+        assertEquals("mobile", new String(headers.get(0).value(), StandardCharsets.UTF_8));
+        assertEquals("ios", new String(headers.get(1).value(), StandardCharsets.UTF_8));
+        assertEquals("safari", new String(headers.get(2).value(), StandardCharsets.UTF_8));
+    }
+
+    private static Transaction transaction(String userAgent) {
+        return Transaction.newBuilder()
+                .setTransactionId("TX-1")
+                .setTimestamp(Instant.now())
+                .setAmount(new BigDecimal("10.00"))
+                .setCurrency("USD")
+                .setCustomerId("CUST-1")
+                .setCustomerName("")
+                .setSourceId("ACCT-1")
+                .setSourceType("")
+                .setDestinationId("")
+                .setDestinationType("")
+                .setTransactionType("PURCHASE")
+                .setMetadata(Metadata.newBuilder().setUserAgent(userAgent).build())
+                .build();
+    }
+}
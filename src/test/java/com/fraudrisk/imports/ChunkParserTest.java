@@ -0,0 +1,86 @@
+package com.fraudrisk.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraudrisk.dto.TransactionRequest;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkParserTest {
+
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parse_Ndjson_ReturnsValidRequestsAndCountsRejected() throws IOException {
+        // Arrange
+        String content = """
+                {"transactionId":"TX-1","amount":10.50,"currency":"USD","customerId":"C-1","sourceId":"S-1","transactionType":"PURCHASE"}
+                {"transactionId":"TX-2","amount":-1,"currency":"USD","customerId":"C-1","sourceId":"S-1","transactionType":"PURCHASE"}
+
+                not json
+                {"transactionId":"TX-3","amount":3,"currency":"EUR","customerId":"C-2","sourceId":"S-2","transactionType":"REFUND"}
+                """;
+
+        // Act
+        ParsedChunk parsed = parseWhole(content, ImportFormat.NDJSON, null);
+
+        // Assert
+        assertEquals(List.of("TX-1", "TX-3"), parsed.requests().stream().map(TransactionRequest::getTransactionId).toList());
+        assertEquals(2, parsed.rejected());
+        assertEquals(2, parsed.errors().size());
+        assertTrue(parsed.errors().get(0).contains("amount"), parsed.errors().get(0));
+        assertTrue(parsed.errors().get(1).contains("unparseable"), parsed.errors().get(1));
+    }
+
+    @Test
+    void parse_Csv_SkipsHeaderAndMapsFlattenedMetadata() throws IOException {
+        // Arrange
+        String header = "transactionId,amount,currency,customerId,customerName,sourceId,transactionType,ipAddress,latitude,longitude";
+        String content = header + "\r\n"
+                + "TX-1,150.75,USD,C-1,\"Doe, John\",S-1,PURCHASE,192.168.1.1,37.7749,-122.4194\r\n"
+                + "TX-2,5,USD,C-2,,S-2,TRANSFER,,,\r\n";
+
+        // Act
+        ParsedChunk parsed = parseWhole(content, ImportFormat.CSV, ChunkParser.splitCsv(header));
+
+        // Assert
+        assertEquals(0, parsed.rejected());
+        assertEquals(2, parsed.requests().size());
+        TransactionRequest first = parsed.requests().get(0);
+        assertEquals(new BigDecimal("150.75"), first.getAmount());
+        assertEquals("Doe, John", first.getCustomerName());
+        assertEquals("192.168.1.1", first.getMetadata().getIpAddress());
+        assertEquals(37.7749, first.getMetadata().getLocation().getLatitude());
+        assertNull(parsed.requests().get(1).getMetadata());
+    }
+
+    @Test
+    void splitCsv_HandlesQuotesAndEmptyFields() {
+        assertEquals(List.of("a", "", "b \"quoted\", c", ""), ChunkParser.splitCsv("a,,\"b \"\"quoted\"\", c\","));
+    }
+
+    private ParsedChunk parseWhole(String content, ImportFormat format, List<String> header) throws IOException {
+        Path file = Files.writeString(tempDir.resolve("import.data"), content, StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ChunkParser(objectMapper, VALIDATOR, format, header)
+                    .parse(channel, new FileChunk(0, 0, channel.size()));
+        }
+    }
+}
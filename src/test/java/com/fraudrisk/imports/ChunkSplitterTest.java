@@ -0,0 +1,82 @@
+package com.fraudrisk.imports;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkSplitterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void split_CutsOnlyAfterNewlines_AndCoversWholeFile() throws IOException {
+        // Arrange - 100 lines of varying length, with CRLF endings and no trailing newline
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            content.append("line-").append(i).append("x".repeat(i % 17)).append(i < 99 ? "\r\n" : "");
+        }
+        byte[] bytes = content.toString().getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        List<FileChunk> chunks = split(bytes, 0, 64);
+
+        // Assert
+        assertEquals(0, chunks.get(0).start());
+        assertEquals(bytes.length, chunks.get(chunks.size() - 1).end());
+        for (int i = 0; i < chunks.size(); i++) {
+            FileChunk chunk = chunks.get(i);
+            assertEquals(i, chunk.index());
+            assertTrue(chunk.length() >= 64 || i == chunks.size() - 1);
+            if (i > 0) {
+                assertEquals(chunks.get(i - 1).end(), chunk.start());
+                assertEquals('\n', bytes[(int) chunk.start() - 1]);
+            }
+        }
+    }
+
+    @Test
+    void split_FromCommittedOffset_SkipsCommittedPrefix() throws IOException {
+        // Arrange
+        byte[] bytes = "a\nbb\nccc\ndddd\n".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        List<FileChunk> chunks = split(bytes, 5, 1);
+
+        // Assert
+        assertEquals(List.of(new FileChunk(0, 5, 9), new FileChunk(1, 9, 14)), chunks);
+    }
+
+    @Test
+    void split_LineLongerThanTarget_StaysInOneChunk() throws IOException {
+        // Arrange
+        byte[] bytes = ("x".repeat(200_000) + "\nshort\n").getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        List<FileChunk> chunks = split(bytes, 0, 10);
+
+        // Assert
+        assertEquals(List.of(new FileChunk(0, 0, 200_001), new FileChunk(1, 200_001, 200_007)), chunks);
+    }
+
+    @Test
+    void split_EmptyFile_ReturnsNoChunks() throws IOException {
+        assertTrue(split(new byte[0], 0, 64).isEmpty());
+    }
+
+    private List<FileChunk> split(byte[] bytes, long from, long target) throws IOException {
+        Path file = Files.write(tempDir.resolve("import.data"), bytes);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return ChunkSplitter.split(channel, from, target);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.fraudrisk.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraudrisk.mapper.TransactionMapper;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.KafkaProducerService;
+import com.fraudrisk.service.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.apache.kafka.common.errors.NetworkException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ImportServiceTest {
+
+    private static final String CONTENT = """
+            {"transactionId":"TX-1","amount":10.50,"currency":"USD","customerId":"C-1","sourceId":"S-1","transactionType":"PURCHASE"}
+            {"transactionId":"TX-2","amount":20.00,"currency":"USD","customerId":"C-1","sourceId":"S-1","transactionType":"PURCHASE"}
+            {"transactionId":"TX-3","amount":3,"currency":"EUR","customerId":"C-2","sourceId":"S-2","transactionType":"REFUND"}
+            """;
+
+    @Mock
+    private TransactionMapper transactionMapper;
+
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+
+    @TempDir
+    Path dir;
+
+    private ImportService importService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        importService = new ImportService(transactionMapper, kafkaProducerService,
+                new MetricsService(new SimpleMeterRegistry()), new ObjectMapper().findAndRegisterModules(),
+                Validation.buildDefaultValidatorFactory().getValidator(), dir.toString(), 1 << 20, 1, 1, 1);
+        importService.loadCheckpoints();
+        when(transactionMapper.toAvro(any())).thenReturn(mock(Transaction.class));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        importService.shutdown();
+    }
+
+    @Test
+    void run_SendFails_ChunkNotCommittedAndResumeSendsItAgain() throws Exception {
+        // Arrange - the second record of the only chunk fails
+        CompletableFuture<Void> ok = CompletableFuture.completedFuture(null);
+        when(kafkaProducerService.sendTransaction(any()))
+                .thenReturn(ok, CompletableFuture.failedFuture(new NetworkException("broker down")), ok)
+                .thenReturn(ok);
+
+        // Act
+        String importId = importService.start(
+                new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8)), ImportFormat.NDJSON).getImportId();
+        ImportStatus failed = awaitState(importId, ImportState.FAILED);
+
+        // Assert
+        assertEquals(0, failed.getCommittedBytes());
+        assertEquals(0, failed.getChunksCommitted());
+        assertEquals(0, failed.getPublished());
+        assertEquals(1, failed.getFailed());
+        assertTrue(failed.getFailureReason().startsWith("1 of 3 records"));
+
+        // Act - resume with the broker back
+        assertTrue(importService.resume(importId));
+        ImportStatus completed = awaitState(importId, ImportState.COMPLETED);
+
+        // Assert - the whole chunk was sent again
+        assertEquals(CONTENT.length(), completed.getCommittedBytes());
+        assertEquals(3, completed.getPublished());
+        verify(kafkaProducerService, times(6)).sendTransaction(any());
+    }
+
+    private ImportStatus awaitState(String importId, ImportState state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() - deadline < 0) {
+            ImportStatus status = importService.getStatus(importId);
+            if (status.getState() == state) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        fail("Import " + importId + " did not reach " + state + ": " + importService.getStatus(importId));
+        return null;
+    }
+}
@@ -0,0 +1,111 @@
+package com.fraudrisk.jfr;
+
+import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.enrichment.GeoIpService;
+import com.fraudrisk.kafka.InstrumentedAvroSerializer;
+import com.fraudrisk.mapper.TransactionMapper;
+import com.fraudrisk.model.Transaction;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializerConfig;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IngestionRecorderTest {
+
+    @TempDir
+    Path dumpDir;
+
+    private IngestionRecorder recorder;
+
+    @AfterEach
+    void tearDown() {
+        if (recorder != null) {
+            recorder.close();
+        }
+    }
+
+    @Test
+    void stageEvents_AreOnlyCreatedWhileRecording() {
+        assertNull(IngestionStageEvent.start(IngestionStageEvent.MAP));
+
+        recorder = newRecorder();
+        recorder.start();
+        assertNotNull(IngestionStageEvent.start(IngestionStageEvent.MAP));
+
+        recorder.stop();
+        assertNull(IngestionStageEvent.start(IngestionStageEvent.MAP));
+    }
+
+    @Test
+    void dump_ContainsMapAndSerializeStagesOfTheTransaction() throws Exception {
+        // Arrange
+        recorder = newRecorder();
+        recorder.start();
+        TransactionMapper mapper = new TransactionMapper(new GeoIpService());
+        InstrumentedAvroSerializer serializer = new InstrumentedAvroSerializer(new KafkaAvroSerializer(
+                new MockSchemaRegistryClient(),
+                Map.of(KafkaAvroSerializerConfig.SCHEMA_REGISTRY_URL_CONFIG, "mock://jfr-test")));
+
+        // Act
+        Transaction transaction = mapper.toAvro(request("TX-JFR-1"));
+        serializer.serialize("banking-transactions", transaction);
+        Path file = recorder.dump();
+
+        // Assert
+        assertEquals(dumpDir.resolve(IngestionRecorder.DUMP_FILE), file);
+        List<RecordedEvent> stages = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> IngestionStageEvent.NAME.equals(event.getEventType().getName()))
+                .toList();
+        assertEquals(List.of(IngestionStageEvent.MAP, IngestionStageEvent.SERIALIZE),
+                stages.stream().map(event -> event.getString("stage")).toList());
+        for (RecordedEvent stage : stages) {
+            assertEquals("TX-JFR-1", stage.getString("transactionId"));
+            assertEquals(-1, stage.getInt("partition"));
+            assertNull(stage.getString("batchId"));
+        }
+    }
+
+    @Test
+    void dump_WithoutRecording_ReturnsNull() {
+        recorder = newRecorder();
+
+        assertNull(recorder.dump());
+        assertEquals(false, recorder.status().get("running"));
+    }
+
+    private IngestionRecorder newRecorder() {
+        // Zero threshold so the test's sub-millisecond stages are committed
+        return new IngestionRecorder(60_000, 16, 0, "default", dumpDir.toString(), false);
+    }
+
+    private static TransactionRequest request(String transactionId) {
+        return TransactionRequest.builder()
+                .transactionId(transactionId)
+                .timestamp(Instant.now())
+                .amount(new BigDecimal("150.75"))
+                .currency("USD")
+                .customerId("CUST-123")
+                .sourceId("ACCT-456")
+                .transactionType("PURCHASE")
+                .metadata(TransactionRequest.MetadataDTO.builder()
+                        .ipAddress("192.168.1.1")
+                        .location(TransactionRequest.MetadataDTO.LocationDTO.builder()
+                                .latitude(37.7749)
+                                .longitude(-122.4194)
+                                .build())
+                        .build())
+                .build();
+    }
+}
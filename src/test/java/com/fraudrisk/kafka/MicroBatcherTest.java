@@ -0,0 +1,151 @@
+package com.fraudrisk.kafka;
+
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.MetricsService;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MicroBatcherTest {
+
+    @Mock
+    private KafkaTemplate<String, Transaction> kafkaTemplate;
+
+    @Mock
+    private MetricsService metricsService;
+
+    private MockProducer<String, Transaction> mockProducer;
+    private MicroBatcher microBatcher;
+
+    @BeforeEach
+    void setUp() {
+        mockProducer = new MockProducer<>(true, new StringSerializer(), (topic, data) -> new byte[0]);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (microBatcher != null) {
+            microBatcher.stop();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submit_ConcurrentCallers_CoalescesAndCompletesEachFuture() throws Exception {
+        // Arrange
+        when(kafkaTemplate.execute(any())).thenAnswer(invocation ->
+                ((KafkaOperations.ProducerCallback<String, Transaction, Object>) invocation.getArgument(0))
+                        .doInKafka(mockProducer));
+        microBatcher = new MicroBatcher(kafkaTemplate, metricsService, true, 64, 2000, 1024);
+        microBatcher.start();
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<SendResult<String, Transaction>>> futures = new ArrayList<>();
+
+        // Act
+        List<CompletableFuture<List<CompletableFuture<SendResult<String, Transaction>>>>> submissions = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            submissions.add(CompletableFuture.supplyAsync(() -> {
+                List<CompletableFuture<SendResult<String, Transaction>>> sent = new ArrayList<>();
+                for (int i = 0; i < 100; i++) {
+                    sent.add(microBatcher.submit(new ProducerRecord<>("topic", "TX-" + thread + "-" + i, null)));
+                }
+                return sent;
+            }, callers));
+        }
+        for (CompletableFuture<List<CompletableFuture<SendResult<String, Transaction>>>> submission : submissions) {
+            futures.addAll(submission.get(5, TimeUnit.SECONDS));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        callers.shutdown();
+
+        // Assert
+        assertEquals(800, mockProducer.history().size());
+        assertTrue(futures.stream().allMatch(f -> f.join().getRecordMetadata() != null));
+
+        ArgumentCaptor<Integer> batchSizes = ArgumentCaptor.forClass(Integer.class);
+        verify(metricsService, atLeastOnce()).recordMicroBatch(batchSizes.capture());
+        assertEquals(800, batchSizes.getAllValues().stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.getAllValues().stream().allMatch(size -> size <= 64));
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void awaitIdle_FlusherHoldsTakenRecord_NotIdleUntilAppended() throws Exception {
+        // Arrange - park the flusher right after it takes the record off the queue
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingQueue<MicroBatcher.Pending> queue = new ArrayBlockingQueue<>(16) {
+            @Override
+            public MicroBatcher.Pending poll(long timeout, TimeUnit unit) throws InterruptedException {
+                MicroBatcher.Pending pending = super.poll(timeout, unit);
+                if (pending != null && taken.getCount() > 0) {
+                    taken.countDown();
+                    release.await();
+                }
+                return pending;
+            }
+        };
+        when(kafkaTemplate.execute(any())).thenAnswer(invocation ->
+                ((KafkaOperations.ProducerCallback<String, Transaction, Object>) invocation.getArgument(0))
+                        .doInKafka(mockProducer));
+        microBatcher = new MicroBatcher(kafkaTemplate, metricsService, true, 64, 0, queue);
+        microBatcher.start();
+        CompletableFuture<SendResult<String, Transaction>> future =
+                microBatcher.submit(new ProducerRecord<>("topic", "TX-1", null));
+        assertTrue(taken.await(5, TimeUnit.SECONDS));
+
+        // Act
+        boolean idleWhileHeld = microBatcher.awaitIdle(0);
+        release.countDown();
+        boolean idleOnceAppended = microBatcher.awaitIdle(5000);
+
+        // Assert
+        assertFalse(idleWhileHeld, "queue is empty but the record has not been appended yet");
+        assertTrue(idleOnceAppended);
+        assertEquals(1, mockProducer.history().size());
+        assertTrue(future.isDone());
+    }
+
+    @Test
+    void submit_Disabled_SendsDirectly() {
+        // Arrange
+        ProducerRecord<String, Transaction> record = new ProducerRecord<>("topic", "TX-1", null);
+        CompletableFuture<SendResult<String, Transaction>> direct = new CompletableFuture<>();
+        when(kafkaTemplate.send(record)).thenReturn(direct);
+        microBatcher = new MicroBatcher(kafkaTemplate, metricsService, false, 64, 200, 1024);
+        microBatcher.start();
+
+        // Act & Assert
+        assertSame(direct, microBatcher.submit(record));
+        verify(metricsService, never()).recordMicroBatch(anyInt());
+    }
+}
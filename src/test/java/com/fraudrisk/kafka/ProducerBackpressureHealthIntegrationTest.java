@@ -0,0 +1,66 @@
+package com.fraudrisk.kafka;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Producer backpressure takes the instance out of readiness but leaves root health, which the
+ * container healthcheck polls, up
+ */
+@SpringBootTest(properties = {
+        // Keep the scheduled sampler from overwriting the state set by the test
+        "kafka.producer.backpressure.sample-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+public class ProducerBackpressureHealthIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProducerBackpressureMonitor monitor;
+
+    @AfterEach
+    void releasePressure() {
+        monitor.update(0, 0);
+    }
+
+    @Test
+    void underPressure_ReadinessOutOfService() throws Exception {
+        // Arrange
+        monitor.update(0.95, 0);
+
+        // Act & Assert
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value("OUT_OF_SERVICE"));
+    }
+
+    @Test
+    void underPressure_RootHealthStaysUp() throws Exception {
+        // Arrange
+        monitor.update(0.95, 0);
+
+        // Act & Assert
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"))
+                .andExpect(jsonPath("$.components.producerBackpressure.status").value("OUT_OF_SERVICE"));
+    }
+
+    @Test
+    void noPressure_ReadinessUp() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+}
@@ -0,0 +1,181 @@
+package com.fraudrisk.kafka;
+
+import com.fraudrisk.exception.ProducerBackpressureException;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.MetricsService;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProducerBackpressureMonitorTest {
+
+    private static final double TOTAL_BYTES = 64 * 1024 * 1024;
+
+    @Mock
+    private ProducerFactory<String, Transaction> producerFactory;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @Mock
+    private Producer<String, Transaction> producer;
+
+    private ProducerBackpressureMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new ProducerBackpressureMonitor(List.of(producerFactory), metricsService, true, 0.8, 0.6, 2);
+        monitor.producerAdded(producer);
+    }
+
+    @Test
+    void sample_AboveHighWaterMark_RejectsRequests() {
+        // Arrange
+        stubBuffer(0.1 * TOTAL_BYTES, 0);
+
+        // Act
+        monitor.sample();
+
+        // Assert
+        assertTrue(monitor.isUnderPressure());
+        ProducerBackpressureException ex = assertThrows(ProducerBackpressureException.class, monitor::check);
+        assertEquals(2, ex.getRetryAfterSeconds());
+        verify(metricsService).recordBackpressureRejected();
+    }
+
+    @Test
+    void sample_WaitingThreads_RejectsEvenBelowHighWaterMark() {
+        // Arrange
+        stubBuffer(0.5 * TOTAL_BYTES, 3);
+
+        // Act
+        monitor.sample();
+
+        // Assert
+        assertTrue(monitor.isUnderPressure());
+    }
+
+    @Test
+    void sample_BetweenWaterMarks_KeepsCurrentState() {
+        // Arrange - engage pressure first
+        stubBuffer(0.1 * TOTAL_BYTES, 0);
+        monitor.sample();
+
+        // Act - 70% used is below the high-water mark but above the low-water mark
+        stubBuffer(0.3 * TOTAL_BYTES, 0);
+        monitor.sample();
+
+        // Assert
+        assertTrue(monitor.isUnderPressure());
+
+        // Act - dropping below the low-water mark releases it
+        stubBuffer(0.5 * TOTAL_BYTES, 0);
+        monitor.sample();
+
+        // Assert
+        assertFalse(monitor.isUnderPressure());
+        assertDoesNotThrow(monitor::check);
+    }
+
+    @Test
+    void sample_NoProducerYet_StaysOpen() {
+        // Arrange
+        ProducerBackpressureMonitor idle =
+                new ProducerBackpressureMonitor(List.of(producerFactory), metricsService, true, 0.8, 0.6, 1);
+
+        // Act
+        idle.sample();
+
+        // Assert
+        assertFalse(idle.isUnderPressure());
+        verifyNoInteractions(producer);
+    }
+
+    @Test
+    void sample_OneOfSeveralProducersFull_RejectsRequests() {
+        // Arrange - the v1 producer is nearly idle, a second cluster's producer is 90% full
+        Producer<String, Transaction> secondary = mock(Producer.class);
+        monitor.producerAdded(secondary);
+        stubBuffer(0.9 * TOTAL_BYTES, 0);
+        stubBuffer(secondary, 0.1 * TOTAL_BYTES, 0);
+
+        // Act
+        monitor.sample();
+
+        // Assert
+        assertTrue(monitor.isUnderPressure());
+        assertEquals(0.9, monitor.getBufferUsedRatio(), 1e-9);
+    }
+
+    @Test
+    void start_EveryFactory_SamplesTheProducersItCreates() {
+        // Arrange
+        ProducerFactory<String, byte[]> bulkFactory = mock(ProducerFactory.class);
+        Producer<String, byte[]> bulkProducer = mock(Producer.class);
+        ProducerBackpressureMonitor watching = new ProducerBackpressureMonitor(
+                List.of(producerFactory, bulkFactory), metricsService, true, 0.8, 0.6, 1);
+        stubBuffer(bulkProducer, 0.1 * TOTAL_BYTES, 0);
+
+        // Act
+        watching.start();
+        ArgumentCaptor<ProducerFactory.Listener<String, byte[]>> listener = ArgumentCaptor.forClass(ProducerFactory.Listener.class);
+        verify(producerFactory).addListener(any());
+        verify(bulkFactory).addListener(listener.capture());
+        listener.getValue().producerAdded("bulk-1", bulkProducer);
+        watching.sample();
+
+        // Assert
+        assertTrue(watching.isUnderPressure());
+    }
+
+    @Test
+    void producerRemoved_LastProducer_ReleasesPressure() {
+        // Arrange
+        stubBuffer(0.1 * TOTAL_BYTES, 0);
+        monitor.sample();
+
+        // Act
+        monitor.producerRemoved(producer);
+
+        // Assert
+        assertFalse(monitor.isUnderPressure());
+    }
+
+    private void stubBuffer(double availableBytes, double waitingThreads) {
+        stubBuffer(producer, availableBytes, waitingThreads);
+    }
+
+    private static void stubBuffer(Producer<?, ?> producer, double availableBytes, double waitingThreads) {
+        Map<MetricName, Metric> metrics = new HashMap<>();
+        metrics.put(name("buffer-available-bytes"), metric(availableBytes));
+        metrics.put(name("buffer-total-bytes"), metric(TOTAL_BYTES));
+        metrics.put(name("waiting-threads"), metric(waitingThreads));
+        metrics.put(new MetricName("record-send-rate", "producer-topic-metrics", "", Map.of()), mock(Metric.class));
+        doReturn(metrics).when(producer).metrics();
+    }
+
+    private static MetricName name(String name) {
+        return new MetricName(name, "producer-metrics", "", Map.of());
+    }
+
+    private static Metric metric(double value) {
+        Metric metric = mock(Metric.class);
+        when(metric.metricValue()).thenReturn(value);
+        return metric;
+    }
+}
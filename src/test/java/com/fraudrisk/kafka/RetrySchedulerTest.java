@@ -0,0 +1,151 @@
+package com.fraudrisk.kafka;
+
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.MetricsService;
+import com.fraudrisk.status.TransactionStatus;
+import com.fraudrisk.status.TransactionStatusIndex;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.NetworkException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.header.Header;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RetrySchedulerTest {
+
+    @Mock
+    private KafkaTemplate<String, Transaction> kafkaTemplate;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @Mock
+    private TransactionStatusIndex statusIndex;
+
+    private RetryScheduler retryScheduler;
+    private final ProducerRecord<String, Transaction> record = new ProducerRecord<>("banking-transactions", "TX-1", null);
+
+    @BeforeEach
+    void setUp() {
+        retryScheduler = new RetryScheduler(kafkaTemplate, metricsService, statusIndex);
+        ReflectionTestUtils.setField(retryScheduler, "initialBackoffMs", 1L);
+        ReflectionTestUtils.setField(retryScheduler, "maxAttempts", 3);
+        ReflectionTestUtils.setField(retryScheduler, "tickMs", 1L);
+        retryScheduler.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        retryScheduler.stop();
+    }
+
+    @Test
+    void onSendFailure_RetriableError_ResendsRecord() {
+        // Arrange
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition("banking-transactions", 2), 41L, 0, 0L, 0, 0);
+        when(kafkaTemplate.send(record)).thenReturn(CompletableFuture.completedFuture(new SendResult<>(record, metadata)));
+
+        // Act
+        retryScheduler.onSendFailure(record, new NetworkException("broker down"), 1);
+
+        // Assert
+        verify(kafkaTemplate, timeout(2000)).send(record);
+        verify(metricsService, timeout(2000)).recordRetry("succeeded");
+        verify(statusIndex, timeout(2000)).sent("TX-1", 2, 41L);
+        verify(statusIndex).update("TX-1", TransactionStatus.RETRYING);
+        assertEquals(0, retryScheduler.getPendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onSendFailure_NonRetriableError_DeadLettersWithHeaders() {
+        // Arrange
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        // Act
+        retryScheduler.onSendFailure(record, new RecordTooLargeException("too large"), 1);
+
+        // Assert
+        ArgumentCaptor<ProducerRecord<String, Transaction>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, timeout(2000)).send(captor.capture());
+        ProducerRecord<String, Transaction> deadLetter = captor.getValue();
+
+        assertEquals("banking-transactions-dlt", deadLetter.topic());
+        assertEquals("TX-1", deadLetter.key());
+        assertEquals("1", header(deadLetter, RetryScheduler.HEADER_ATTEMPT_COUNT));
+        assertEquals("banking-transactions", header(deadLetter, RetryScheduler.HEADER_ORIGINAL_TOPIC));
+        assertTrue(header(deadLetter, RetryScheduler.HEADER_FAILURE_REASON).contains("RecordTooLargeException"));
+        verify(metricsService, timeout(2000)).recordRetry("dead-lettered");
+        verify(statusIndex, timeout(2000)).update("TX-1", TransactionStatus.DEAD_LETTERED);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onSendFailure_DeadLetter_SentOffTheCallingThread() {
+        // Arrange
+        AtomicReference<String> sendingThread = new AtomicReference<>();
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+            sendingThread.set(Thread.currentThread().getName());
+            return CompletableFuture.completedFuture(mock(SendResult.class));
+        });
+
+        // Act - as if called from the producer's I/O thread
+        retryScheduler.onSendFailure(record, new RecordTooLargeException("too large"), 1);
+
+        // Assert
+        verify(metricsService, timeout(2000)).recordRetry("dead-lettered");
+        assertEquals("kafka-retry", sendingThread.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onSendFailure_RetriesExhausted_DeadLetters() {
+        // Arrange - every retry fails again with a retriable error
+        CompletableFuture<SendResult<String, Transaction>> failed = CompletableFuture.failedFuture(new NetworkException("still down"));
+        when(kafkaTemplate.send(record)).thenReturn(failed);
+        when(kafkaTemplate.send(argThat((ProducerRecord<String, Transaction> r) -> r != null && r.topic().endsWith("-dlt"))))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        // Act
+        retryScheduler.onSendFailure(record, new NetworkException("broker down"), 1);
+
+        // Assert - attempts 2 and 3 are retries, then the record is dead-lettered
+        verify(metricsService, timeout(2000)).recordRetry("dead-lettered");
+        verify(kafkaTemplate, times(2)).send(record);
+    }
+
+    @Test
+    void backoffMs_StaysWithinCap() {
+        ReflectionTestUtils.setField(retryScheduler, "initialBackoffMs", 100L);
+        ReflectionTestUtils.setField(retryScheduler, "maxBackoffMs", 1000L);
+
+        for (int attempt = 1; attempt < 40; attempt++) {
+            long backoff = retryScheduler.backoffMs(attempt);
+            assertTrue(backoff >= 0 && backoff <= 1000, "attempt " + attempt + " backoff " + backoff);
+        }
+    }
+
+    private static String header(ProducerRecord<String, Transaction> record, String key) {
+        Header header = record.headers().lastHeader(key);
+        return new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
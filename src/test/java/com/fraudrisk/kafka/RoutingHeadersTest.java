@@ -0,0 +1,73 @@
+package com.fraudrisk.kafka;
+
+import com.fraudrisk.model.Metadata;
+import com.fraudrisk.model.Transaction;
+import org.apache.kafka.common.header.Header;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoutingHeadersTest {
+
+    private final RoutingHeaders routingHeaders = new RoutingHeaders();
+
+    @Test
+    void headersFor_Transaction_EncodesAllRoutingFields() {
+        // Act
+        List<Header> headers = routingHeaders.headersFor(transaction("purchase", "USD", "150.75", "CUST-123"));
+
+        // Assert
+        assertEquals(List.of(RoutingHeaders.TRANSACTION_TYPE, RoutingHeaders.CURRENCY,
+                        RoutingHeaders.AMOUNT_BUCKET, RoutingHeaders.CUSTOMER_HASH),
+                headers.stream().map(Header::key).collect(Collectors.toList()));
+        assertEquals("PURCHASE", new String(headers.get(0).value(), StandardCharsets.UTF_8));
+        assertEquals("USD", new String(headers.get(1).value(), StandardCharsets.US_ASCII));
+        assertArrayEquals(new byte[]{3}, headers.get(2).value());
+        assertEquals(4, headers.get(3).value().length);
+    }
+
+    @Test
+    void encode_LowCardinalityValues_AreCachedAndShared() {
+        assertSame(routingHeaders.encodeCurrency("EUR"), routingHeaders.encodeCurrency("EUR"));
+        assertSame(routingHeaders.encodeTransactionType("TRANSFER"), routingHeaders.encodeTransactionType("TRANSFER"));
+    }
+
+    @Test
+    void encodeAmountBucket_UsesIntegerDigits() {
+        assertArrayEquals(new byte[]{0}, RoutingHeaders.encodeAmountBucket(new BigDecimal("0.99")));
+        assertArrayEquals(new byte[]{1}, RoutingHeaders.encodeAmountBucket(new BigDecimal("9.99")));
+        assertArrayEquals(new byte[]{4}, RoutingHeaders.encodeAmountBucket(new BigDecimal("1000.00")));
+        assertArrayEquals(new byte[]{18}, RoutingHeaders.encodeAmountBucket(new BigDecimal("1E+30")));
+    }
+
+    @Test
+    void fnv1a_MatchesReferenceVectors() {
+        // Reference values from the FNV specification test suite
+        assertEquals(0x811C9DC5, RoutingHeaders.fnv1a(""));
+        assertEquals(0xE40C292C, RoutingHeaders.fnv1a("a"));
+        assertEquals(0xBF9CF968, RoutingHeaders.fnv1a("foobar"));
+    }
+
+    private static Transaction transaction(String type, String currency, String amount, String customerId) {
+        return Transaction.newBuilder()
+                .setTransactionId("TX-001")
+                .setTimestamp(Instant.now())
+                .setAmount(new BigDecimal(amount))
+                .setCurrency(currency)
+                .setCustomerId(customerId)
+                .setCustomerName("")
+                .setSourceId("ACCT-456")
+                .setSourceType("")
+                .setDestinationId("")
+                .setDestinationType("")
+                .setTransactionType(type)
+                .setMetadata(Metadata.newBuilder().build())
+                .build();
+    }
+}
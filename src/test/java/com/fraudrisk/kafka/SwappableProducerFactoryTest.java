@@ -0,0 +1,174 @@
+package com.fraudrisk.kafka;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwappableProducerFactoryTest {
+
+    private final List<StubFactory> delegates = new CopyOnWriteArrayList<>();
+    private final SwappableProducerFactory<String, String> factory = new SwappableProducerFactory<>("test",
+            Map.of(ProducerConfig.LINGER_MS_CONFIG, 5, ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4"),
+            configs -> {
+                StubFactory delegate = new StubFactory(configs);
+                delegates.add(delegate);
+                return delegate;
+            });
+
+    @Test
+    void reconfigure_NewProducersUseNewSettings() {
+        // Act
+        int generation = factory.reconfigure(Map.of(ProducerConfig.LINGER_MS_CONFIG, 20));
+        factory.createProducer().close();
+
+        // Assert
+        assertEquals(2, generation);
+        assertEquals(20, factory.getConfigurationProperties().get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals("lz4", factory.getConfigurationProperties().get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        assertEquals(20, delegates.get(1).configs.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals(1, delegates.get(1).created);
+        assertEquals(0, delegates.get(0).created);
+    }
+
+    @Test
+    void reconfigure_OldGenerationDrainsOnlyAfterInFlightProducerCloses() throws Exception {
+        // Arrange
+        Producer<String, String> inFlight = factory.createProducer();
+
+        // Act
+        factory.reconfigure(Map.of(ProducerConfig.LINGER_MS_CONFIG, 20));
+        inFlight.send(new ProducerRecord<>("banking-transactions", "TX-1", "value"));
+
+        // Assert
+        assertFalse(delegates.get(0).destroyed.await(100, TimeUnit.MILLISECONDS));
+        inFlight.close();
+        assertTrue(delegates.get(0).destroyed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, delegates.get(0).producer.history().size());
+        assertEquals(1, delegates.get(1).destroyed.getCount());
+    }
+
+    @Test
+    void destroy_GenerationStillInUse_ClosedAfterTimeout() throws Exception {
+        // Arrange - a caller never closes its producer from the old generation
+        Producer<String, String> leaked = factory.createProducer();
+        factory.reconfigure(Map.of(ProducerConfig.LINGER_MS_CONFIG, 20));
+        leaked.send(new ProducerRecord<>("banking-transactions", "TX-1", "value"));
+        factory.setCloseTimeout(Duration.ofMillis(100));
+
+        // Act
+        factory.destroy();
+
+        // Assert - both generations are closed, the old one despite the open producer
+        assertEquals(0, delegates.get(0).destroyed.getCount());
+        assertEquals(0, delegates.get(1).destroyed.getCount());
+        assertEquals(1, delegates.get(0).producer.history().size());
+    }
+
+    @Test
+    void destroy_WaitsForRetiringGeneration() throws Exception {
+        // Arrange - closing the old generation takes a while
+        CountDownLatch slowClose = new CountDownLatch(1);
+        delegatesCloseSlowly(slowClose);
+        factory.reconfigure(Map.of(ProducerConfig.LINGER_MS_CONFIG, 20));
+
+        // Act
+        Thread releaser = new Thread(() -> {
+            sleep(200);
+            slowClose.countDown();
+        });
+        releaser.start();
+        long start = System.nanoTime();
+        factory.destroy();
+
+        // Assert
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(150));
+        assertEquals(0, delegates.get(0).destroyed.getCount());
+        releaser.join();
+    }
+
+    @Test
+    void reconfigure_SameSettings_KeepsGeneration() {
+        // Act
+        int generation = factory.reconfigure(Map.of(ProducerConfig.LINGER_MS_CONFIG, 5));
+
+        // Assert
+        assertEquals(1, generation);
+        assertEquals(1, delegates.size());
+    }
+
+    @Test
+    void listeners_AreRegisteredOnLaterGenerations() {
+        // Arrange
+        ProducerFactory.Listener<String, String> listener = new ProducerFactory.Listener<>() { };
+        factory.addListener(listener);
+
+        // Act
+        factory.reconfigure(Map.of(ProducerConfig.COMPRESSION_TYPE_CONFIG, "zstd"));
+
+        // Assert
+        assertEquals(List.of(listener), delegates.get(0).listeners);
+        assertEquals(List.of(listener), delegates.get(1).listeners);
+        assertEquals(List.of(listener), factory.getListeners());
+    }
+
+    private void delegatesCloseSlowly(CountDownLatch release) {
+        delegates.forEach(delegate -> delegate.beforeClose = release);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class StubFactory implements ProducerFactory<String, String>, DisposableBean {
+
+        private final Map<String, Object> configs;
+        private final MockProducer<String, String> producer =
+                new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+        private final List<Listener<String, String>> listeners = new CopyOnWriteArrayList<>();
+        private final CountDownLatch destroyed = new CountDownLatch(1);
+        private volatile int created;
+        private volatile CountDownLatch beforeClose;
+
+        StubFactory(Map<String, Object> configs) {
+            this.configs = configs;
+        }
+
+        @Override
+        public Producer<String, String> createProducer() {
+            created++;
+            return producer;
+        }
+
+        @Override
+        public void addListener(Listener<String, String> listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void destroy() throws InterruptedException {
+            if (beforeClose != null) {
+                beforeClose.await();
+            }
+            producer.close();
+            destroyed.countDown();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.fraudrisk.kafka.cluster;
+
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.MetricsService;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.NetworkException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class KafkaClusterRouterTest {
+
+    @Mock
+    private KafkaTemplate<String, Transaction> primaryTemplate;
+
+    @Mock
+    private KafkaTemplate<String, Transaction> secondaryTemplate;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failover_PrimaryFails_SendsToSecondary() {
+        // Arrange
+        KafkaClusterRouter router = router(RoutingPolicy.FAILOVER, 3);
+        ProducerRecord<String, Transaction> record = record("TX-1");
+        when(primaryTemplate.send(record)).thenReturn(CompletableFuture.failedFuture(new NetworkException("down")));
+        when(secondaryTemplate.send(record)).thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        // Act
+        CompletableFuture<SendResult<String, Transaction>> result = router.send(record);
+
+        // Assert
+        assertFalse(result.isCompletedExceptionally());
+        verify(metricsService).recordClusterSend("default", "failure");
+        verify(metricsService).recordClusterSend("secondary", "success");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failover_PrimaryCircuitOpen_SkipsPrimary() {
+        // Arrange - two failures open a circuit with threshold 2
+        KafkaClusterRouter router = router(RoutingPolicy.FAILOVER, 2);
+        when(primaryTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new NetworkException("down")));
+        when(secondaryTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        router.send(record("TX-1"));
+        router.send(record("TX-2"));
+
+        // Act
+        router.send(record("TX-3"));
+
+        // Assert
+        verify(primaryTemplate, times(2)).send(any(ProducerRecord.class));
+        verify(secondaryTemplate, times(3)).send(any(ProducerRecord.class));
+        assertEquals(CircuitBreaker.State.OPEN, cluster(router, "default").getBreaker().getState());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shard_SameKey_AlwaysSameCluster() {
+        // Arrange
+        KafkaClusterRouter router = router(RoutingPolicy.SHARD, 5);
+        lenient().when(primaryTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        lenient().when(secondaryTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            router.send(record("TX-" + (i % 20)));
+        }
+
+        // Assert - both shards get traffic and each key sticks to its shard
+        int expectedPrimary = 0;
+        for (int i = 0; i < 200; i++) {
+            if (router.shardIndex("TX-" + (i % 20)) == 0) {
+                expectedPrimary++;
+            }
+        }
+        assertTrue(expectedPrimary > 0 && expectedPrimary < 200);
+        verify(primaryTemplate, times(expectedPrimary)).send(any(ProducerRecord.class));
+        verify(secondaryTemplate, times(200 - expectedPrimary)).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void mirror_FullFraction_CopiesEveryRecord() {
+        // Arrange
+        ClusterRoutingProperties properties = properties(RoutingPolicy.MIRROR, 5);
+        properties.setOrder(List.of("default"));
+        properties.setMirrorTarget("secondary");
+        properties.setMirrorFraction(1.0);
+        KafkaClusterRouter router = new KafkaClusterRouter(properties, clusters(properties));
+        ProducerRecord<String, Transaction> record = record("TX-1");
+        when(primaryTemplate.send(record)).thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(secondaryTemplate.send(record)).thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        // Act
+        router.send(record);
+
+        // Assert
+        verify(primaryTemplate).send(record);
+        verify(secondaryTemplate).send(record);
+    }
+
+    @Test
+    void constructor_UnknownCluster_FailsFast() {
+        ClusterRoutingProperties properties = properties(RoutingPolicy.FAILOVER, 5);
+        properties.setOrder(List.of("default", "missing"));
+
+        assertThrows(IllegalStateException.class, () -> new KafkaClusterRouter(properties, clusters(properties)));
+    }
+
+    private KafkaClusterRouter router(RoutingPolicy policy, int failureThreshold) {
+        ClusterRoutingProperties properties = properties(policy, failureThreshold);
+        return new KafkaClusterRouter(properties, clusters(properties));
+    }
+
+    private static ClusterRoutingProperties properties(RoutingPolicy policy, int failureThreshold) {
+        ClusterRoutingProperties properties = new ClusterRoutingProperties();
+        properties.setPolicy(policy);
+        properties.setOrder(List.of("default", "secondary"));
+        properties.getBreaker().setFailureThreshold(failureThreshold);
+        properties.getBreaker().setOpenMs(60_000);
+        return properties;
+    }
+
+    private Map<String, KafkaCluster> clusters(ClusterRoutingProperties properties) {
+        int threshold = properties.getBreaker().getFailureThreshold();
+        long openMs = properties.getBreaker().getOpenMs();
+        Map<String, KafkaCluster> clusters = new LinkedHashMap<>();
+        clusters.put("default", new KafkaCluster("default", primaryTemplate,
+                new CircuitBreaker(threshold, openMs), metricsService, false));
+        clusters.put("secondary", new KafkaCluster("secondary", secondaryTemplate,
+                new CircuitBreaker(threshold, openMs), metricsService, false));
+        return clusters;
+    }
+
+    private static KafkaCluster cluster(KafkaClusterRouter router, String name) {
+        return router.getClusters().stream().filter(c -> c.getName().equals(name)).findFirst().orElseThrow();
+    }
+
+    private static ProducerRecord<String, Transaction> record(String key) {
+        return new ProducerRecord<>("banking-transactions", key, null);
+    }
+}
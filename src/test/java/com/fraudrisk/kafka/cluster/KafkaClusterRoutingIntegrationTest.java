@@ -0,0 +1,147 @@
+package com.fraudrisk.kafka.cluster;
+
+import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.mapper.TransactionMapper;
+import com.fraudrisk.service.KafkaProducerService;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Shards records across two embedded brokers and checks where each key landed
+ */
+@SpringBootTest(properties = {
+        "spring.kafka.producer.properties.schema.registry.url=mock://cluster-routing",
+        "kafka.topics.transactions=" + KafkaClusterRoutingIntegrationTest.TOPIC,
+        "kafka.routing.policy=shard",
+        "kafka.routing.order=default,secondary"
+})
+@DirtiesContext
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class KafkaClusterRoutingIntegrationTest {
+
+    static final String TOPIC = "banking-transactions";
+    private static final int RECORDS = 40;
+
+    private static final EmbeddedKafkaBroker primaryBroker = new EmbeddedKafkaKraftBroker(1, 2, TOPIC);
+    private static final EmbeddedKafkaBroker secondaryBroker = new EmbeddedKafkaKraftBroker(1, 2, TOPIC);
+
+    static {
+        primaryBroker.afterPropertiesSet();
+        secondaryBroker.afterPropertiesSet();
+    }
+
+    @DynamicPropertySource
+    static void brokers(DynamicPropertyRegistry registry) {
+        registry.add("spring.kafka.bootstrap-servers", primaryBroker::getBrokersAsString);
+        registry.add("kafka.routing.clusters.secondary.bootstrap-servers", secondaryBroker::getBrokersAsString);
+    }
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    @Autowired
+    private TransactionMapper transactionMapper;
+
+    @Autowired
+    private KafkaClusterRouter router;
+
+    @AfterAll
+    void stopBrokers() {
+        // @DirtiesContext closes the context after this; every send has completed by then, so the
+        // producers close without reaching a broker. Closing it here instead would break the
+        // after-class listeners, which still need an active context
+        primaryBroker.destroy();
+        secondaryBroker.destroy();
+    }
+
+    @Test
+    void shardPolicy_SplitsKeysAcrossClusters() throws Exception {
+        // Arrange
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < RECORDS; i++) {
+            sends.add(kafkaProducerService.sendTransaction(transactionMapper.toAvro(request("TX-" + i))));
+        }
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+        // Assert
+        int expectedPrimary = 0;
+        for (int i = 0; i < RECORDS; i++) {
+            if (router.shardIndex("TX-" + i) == 0) {
+                expectedPrimary++;
+            }
+        }
+        List<String> primaryKeys = consumeKeys(primaryBroker, expectedPrimary);
+        List<String> secondaryKeys = consumeKeys(secondaryBroker, RECORDS - expectedPrimary);
+
+        assertEquals(RECORDS, primaryKeys.size() + secondaryKeys.size());
+        assertFalse(primaryKeys.isEmpty());
+        assertFalse(secondaryKeys.isEmpty());
+        primaryKeys.forEach(key -> assertEquals(0, router.shardIndex(key), key));
+        secondaryKeys.forEach(key -> assertEquals(1, router.shardIndex(key), key));
+    }
+
+    private static List<String> consumeKeys(EmbeddedKafkaBroker broker, int expected) {
+        Map<String, Object> props = Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ConsumerConfig.GROUP_ID_CONFIG, "routing-test-" + UUID.randomUUID(),
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+                ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+
+        List<String> keys = new ArrayList<>();
+        try (KafkaConsumer<String, byte[]> consumer = new KafkaConsumer<>(props)) {
+            consumer.subscribe(List.of(TOPIC));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+            // Keep polling briefly after reaching the expected count to catch misrouted extras
+            long settleUntil = Long.MAX_VALUE;
+            while (System.nanoTime() < Math.min(deadline, settleUntil)) {
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(Duration.ofMillis(200))) {
+                    keys.add(record.key());
+                }
+                if (keys.size() >= expected && settleUntil == Long.MAX_VALUE) {
+                    settleUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static TransactionRequest request(String id) {
+        return TransactionRequest.builder()
+                .transactionId(id)
+                .timestamp(Instant.now())
+                .amount(new BigDecimal("25.00"))
+                .currency("USD")
+                .customerId("CUST-1")
+                .sourceId("ACCT-1")
+                .transactionType("PURCHASE")
+                .build();
+    }
+}
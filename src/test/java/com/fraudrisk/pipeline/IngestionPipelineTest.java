@@ -0,0 +1,243 @@
+package com.fraudrisk.pipeline;
+
+import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.exception.BatchTooLargeException;
+import com.fraudrisk.exception.DeadlineExceededException;
+import com.fraudrisk.exception.ProducerBackpressureException;
+import com.fraudrisk.mapper.TransactionMapper;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.KafkaProducerService;
+import com.fraudrisk.service.MetricsService;
+import com.fraudrisk.status.TransactionStatus;
+import com.fraudrisk.status.TransactionStatusIndex;
+import com.fraudrisk.util.Deadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IngestionPipelineTest {
+
+    @Mock
+    private TransactionMapper transactionMapper;
+
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+
+    @Mock
+    private TransactionStatusIndex statusIndex;
+
+    private IngestionPipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void publish_Batch_SendsEveryItemInOrder() throws Exception {
+        // Arrange
+        pipeline = newPipeline(8, 2);
+        List<TransactionRequest> requests = IntStream.range(0, 20).mapToObj(i -> request("TX-" + i)).toList();
+        List<Transaction> transactions = requests.stream().map(request -> mock(Transaction.class)).toList();
+        when(transactionMapper.toAvro(any()))
+                .thenAnswer(invocation -> transactions.get(requests.indexOf(invocation.getArgument(0))));
+        when(kafkaProducerService.sendTransaction(any(), any(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act: more items than slots, so the ring wraps
+        List<CompletableFuture<Void>> futures = pipeline.publish(requests.subList(0, 8), Deadline.NONE, null);
+        allOf(futures).get(5, TimeUnit.SECONDS);
+        futures = pipeline.publish(requests.subList(8, 16), Deadline.NONE, null);
+        allOf(futures).get(5, TimeUnit.SECONDS);
+        futures = pipeline.publish(requests.subList(16, 20), Deadline.NONE, null);
+        allOf(futures).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        ArgumentCaptor<Transaction> sent = ArgumentCaptor.forClass(Transaction.class);
+        verify(kafkaProducerService, times(20)).sendTransaction(sent.capture(), any(), any(), any());
+        assertEquals(transactions, sent.getAllValues());
+        verify(statusIndex, times(20)).received(any());
+    }
+
+    @Test
+    void publish_RingFull_RejectsWithBackpressure() throws Exception {
+        // Arrange: mapping blocks, so the first batch occupies every slot
+        pipeline = newPipeline(4, 1);
+        Transaction transaction = mock(Transaction.class);
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionMapper.toAvro(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return transaction;
+        });
+        when(kafkaProducerService.sendTransaction(any(), any(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        List<CompletableFuture<Void>> futures = pipeline.publish(
+                List.of(request("TX-1"), request("TX-2"), request("TX-3"), request("TX-4")), Deadline.NONE, null);
+
+        // Act & Assert
+        assertThrows(ProducerBackpressureException.class,
+                () -> pipeline.publish(List.of(request("TX-5")), Deadline.NONE, null));
+        assertEquals(4, pipeline.getDepth(IngestionPipeline.PUBLISH));
+
+        release.countDown();
+        allOf(futures).get(5, TimeUnit.SECONDS);
+        allOf(pipeline.publish(List.of(request("TX-5")), Deadline.NONE, null)).get(5, TimeUnit.SECONDS);
+        verify(kafkaProducerService, times(5)).sendTransaction(any(), any(), any(), any());
+    }
+
+    @Test
+    void publish_CancelledItem_IsNotSent() throws Exception {
+        // Arrange: hold the first item in the map stage while the second is cancelled
+        pipeline = newPipeline(8, 1);
+        Transaction transaction = mock(Transaction.class);
+        CountDownLatch mapping = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionMapper.toAvro(any())).thenAnswer(invocation -> {
+            mapping.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return transaction;
+        });
+        when(kafkaProducerService.sendTransaction(any(), any(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        List<CompletableFuture<Void>> futures = pipeline.publish(
+                List.of(request("TX-1"), request("TX-2")), Deadline.NONE, null);
+        assertTrue(mapping.await(5, TimeUnit.SECONDS));
+        assertTrue(futures.get(1).cancel(false));
+        release.countDown();
+        futures.get(0).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        verify(transactionMapper, times(1)).toAvro(any());
+        verify(kafkaProducerService, times(1)).sendTransaction(any(), any(), any(), any());
+    }
+
+    @Test
+    void publish_ExpiredDeadline_ShedsBeforeMapping() throws Exception {
+        // Arrange
+        pipeline = newPipeline(8, 1);
+        Deadline deadline = Deadline.afterMillis(1);
+        Thread.sleep(5);
+
+        // Act
+        CompletableFuture<Void> future = pipeline.publish(List.of(request("TX-1")), deadline, null).get(0);
+
+        // Assert
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DeadlineExceededException.class, e.getCause());
+        verify(statusIndex).update("TX-1", TransactionStatus.SHED);
+        verifyNoInteractions(transactionMapper, kafkaProducerService);
+    }
+
+    @Test
+    void publish_MappingError_FailsOnlyThatItem() throws Exception {
+        // Arrange
+        pipeline = newPipeline(8, 2);
+        Transaction transaction = mock(Transaction.class);
+        when(transactionMapper.toAvro(any())).thenAnswer(invocation -> {
+            TransactionRequest request = invocation.getArgument(0);
+            if (request.getTransactionId().equals("TX-BAD")) {
+                throw new IllegalStateException("Mapping error");
+            }
+            return transaction;
+        });
+        when(kafkaProducerService.sendTransaction(any(), any(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        List<CompletableFuture<Void>> futures = pipeline.publish(
+                List.of(request("TX-1"), request("TX-BAD"), request("TX-3")), Deadline.NONE, null);
+
+        // Assert
+        futures.get(0).get(5, TimeUnit.SECONDS);
+        futures.get(2).get(5, TimeUnit.SECONDS);
+        assertThrows(ExecutionException.class, () -> futures.get(1).get(5, TimeUnit.SECONDS));
+        verify(statusIndex).update("TX-BAD", TransactionStatus.FAILED);
+        verify(kafkaProducerService, times(2)).sendTransaction(any(), any(), any(), any());
+    }
+
+    @Test
+    void publish_HandlerThrowsError_FailsItemAndKeepsStageRunning() throws Exception {
+        // Arrange
+        pipeline = newPipeline(8, 1);
+        Transaction transaction = mock(Transaction.class);
+        when(transactionMapper.toAvro(any())).thenAnswer(invocation -> {
+            TransactionRequest request = invocation.getArgument(0);
+            if (request.getTransactionId().equals("TX-BAD")) {
+                throw new StackOverflowError();
+            }
+            return transaction;
+        });
+        when(kafkaProducerService.sendTransaction(any(), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        List<CompletableFuture<Void>> first = pipeline.publish(
+                List.of(request("TX-1"), request("TX-BAD")), Deadline.NONE, null);
+        List<CompletableFuture<Void>> second = pipeline.publish(List.of(request("TX-3")), Deadline.NONE, null);
+
+        // Assert
+        first.get(0).get(5, TimeUnit.SECONDS);
+        ExecutionException failed = assertThrows(ExecutionException.class, () -> first.get(1).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(StackOverflowError.class, failed.getCause().getCause());
+        second.get(0).get(5, TimeUnit.SECONDS);
+        verify(statusIndex).update("TX-BAD", TransactionStatus.FAILED);
+    }
+
+    @Test
+    void publish_BatchLargerThanRing_IsRejected() {
+        pipeline = newPipeline(4, 1);
+        List<TransactionRequest> requests = IntStream.range(0, 5).mapToObj(i -> request("TX-" + i)).toList();
+
+        BatchTooLargeException e = assertThrows(BatchTooLargeException.class,
+                () -> pipeline.publish(requests, Deadline.NONE, null));
+        assertEquals(4, e.getMaxBatchSize());
+    }
+
+    @Test
+    void constructor_RoundsRingSizeUpToPowerOfTwo() {
+        pipeline = newPipeline(1000, 1);
+
+        assertEquals(1024, pipeline.getCapacity());
+    }
+
+    private IngestionPipeline newPipeline(int ringSize, int mapThreads) {
+        IngestionPipeline created = new IngestionPipeline(transactionMapper, kafkaProducerService,
+                new MetricsService(new SimpleMeterRegistry()), statusIndex, ringSize, mapThreads, 100);
+        created.start();
+        return created;
+    }
+
+    private static CompletableFuture<Void> allOf(List<CompletableFuture<Void>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    private static TransactionRequest request(String transactionId) {
+        return TransactionRequest.builder()
+                .transactionId(transactionId)
+                .timestamp(Instant.now())
+                .amount(new BigDecimal("150.75"))
+                .currency("USD")
+                .customerId("CUST-123")
+                .sourceId("ACCT-456")
+                .transactionType("PURCHASE")
+                .build();
+    }
+}
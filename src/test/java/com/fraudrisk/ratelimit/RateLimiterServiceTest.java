@@ -0,0 +1,102 @@
+package com.fraudrisk.ratelimit;
+
+import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.exception.BatchExceedsQuotaException;
+import com.fraudrisk.exception.RateLimitExceededException;
+import com.fraudrisk.service.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterServiceTest {
+
+    private static final String API_KEY = "sk-live-4f9a8c7d6e5b";
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimiterService rateLimiterService;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setEnabled(true);
+        properties.setDefaults(new RateLimitProperties.QuotaProperties(1, 5));
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiterService = new RateLimiterService(properties, new MetricsService(meterRegistry));
+    }
+
+    @Test
+    void checkBatch_OneSourceOverQuota_RefundsTheOthers() {
+        // Arrange - source B has one permit left
+        rateLimiterService.checkBatch(new MockHttpServletRequest(), batch("B", 4));
+
+        // Act
+        assertThrows(RateLimitExceededException.class,
+                () -> rateLimiterService.checkBatch(new MockHttpServletRequest(), batch("A", 5, "B", 2)));
+
+        // Assert - A's five permits were given back
+        rateLimiterService.checkBatch(new MockHttpServletRequest(), batch("A", 5));
+    }
+
+    @Test
+    void checkBatch_LargerThanBurst_RejectedAsTooLarge() {
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+        httpRequest.addHeader("X-Api-Key", API_KEY);
+
+        BatchExceedsQuotaException ex = assertThrows(BatchExceedsQuotaException.class,
+                () -> rateLimiterService.checkBatch(httpRequest, batch("A", 6)));
+
+        assertEquals(5, ex.getBurst());
+        rateLimiterService.checkBatch(httpRequest, batch("A", 5));
+    }
+
+    @Test
+    void refund_BatchShedAfterCharge_GivesBackEveryPermit() {
+        // Arrange - the batch takes every permit of A and B
+        RateLimitCharge charge = rateLimiterService.checkBatch(new MockHttpServletRequest(), batch("A", 5, "B", 5));
+
+        // Act - e.g. the batch was then shed with 503 under producer backpressure
+        charge.refund();
+
+        // Assert
+        rateLimiterService.checkBatch(new MockHttpServletRequest(), batch("A", 5, "B", 5));
+        assertThrows(RateLimitExceededException.class,
+                () -> rateLimiterService.checkSingle(new MockHttpServletRequest(), batch("A", 1).get(0)));
+    }
+
+    @Test
+    void checkSingle_ApiKeyOverQuota_NeverExposesTheKey() {
+        // Arrange
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+        httpRequest.addHeader("X-Api-Key", API_KEY);
+        rateLimiterService.checkBatch(httpRequest, batch("A", 5));
+
+        // Act
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> rateLimiterService.checkSingle(httpRequest, batch("A", 1).get(0)));
+
+        // Assert
+        String fingerprint = RateLimiterService.fingerprint(API_KEY);
+        assertEquals(fingerprint, ex.getKey());
+        assertFalse(fingerprint.contains(API_KEY.substring(3)));
+        assertEquals(1.0, meterRegistry.counter("ratelimit.rejected", "source", fingerprint).count());
+    }
+
+    private static List<TransactionRequest> batch(Object... sourcesAndCounts) {
+        List<TransactionRequest> requests = new ArrayList<>();
+        for (int i = 0; i < sourcesAndCounts.length; i += 2) {
+            for (int n = 0; n < (int) sourcesAndCounts[i + 1]; n++) {
+                requests.add(TransactionRequest.builder()
+                        .transactionId("TX-" + requests.size())
+                        .sourceId((String) sourcesAndCounts[i])
+                        .build());
+            }
+        }
+        return requests;
+    }
+}
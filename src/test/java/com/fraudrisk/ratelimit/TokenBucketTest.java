@@ -0,0 +1,119 @@
+package com.fraudrisk.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_WithinBurst_Succeeds() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(new Quota(10, 5), 0);
+
+        // Act & Assert
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(1, 0));
+        }
+        assertTrue(bucket.tryAcquire(1, 0) > 0);
+    }
+
+    @Test
+    void tryAcquire_OverLimit_ReportsTimeUntilNextPermit() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(new Quota(10, 1), 0);
+        assertEquals(0, bucket.tryAcquire(1, 0));
+
+        // Act
+        long wait = bucket.tryAcquire(1, 0);
+
+        // Assert - one permit every 100ms
+        assertEquals(SECOND / 10, wait);
+        assertEquals(0, bucket.tryAcquire(1, wait));
+    }
+
+    @Test
+    void tryAcquire_AfterIdle_RefillsOnlyUpToBurst() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(new Quota(10, 3), 0);
+
+        // Act - a long idle period must not bank more than the burst
+        long later = 60 * SECOND;
+        int acquired = 0;
+        while (bucket.tryAcquire(1, later) == 0) {
+            acquired++;
+        }
+
+        // Assert
+        assertEquals(3, acquired);
+        assertTrue(bucket.isIdle(later + SECOND));
+    }
+
+    @Test
+    void tryAcquire_BatchLargerThanBurst_NeverAcquired() {
+        TokenBucket bucket = new TokenBucket(new Quota(10, 5), 0);
+
+        assertEquals(TokenBucket.NEVER, bucket.tryAcquire(50, 0));
+        assertEquals(0, bucket.tryAcquire(5, 0));
+    }
+
+    @Test
+    void tryAcquire_Batch_ChargesEveryPermit() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(new Quota(10, 5), 0);
+
+        // Act
+        assertEquals(0, bucket.tryAcquire(4, 0));
+
+        // Assert - one permit left, and a second batch of 4 waits for three more
+        assertEquals(3 * SECOND / 10, bucket.tryAcquire(4, 0));
+        assertEquals(0, bucket.tryAcquire(1, 0));
+    }
+
+    @Test
+    void refund_ReturnsPermits() {
+        TokenBucket bucket = new TokenBucket(new Quota(10, 5), 0);
+        assertEquals(0, bucket.tryAcquire(5, 0));
+
+        bucket.refund(2);
+
+        assertEquals(0, bucket.tryAcquire(2, 0));
+        assertTrue(bucket.tryAcquire(1, 0) > 0);
+    }
+
+    @Test
+    void tryAcquire_ConcurrentCallers_NeverExceedBurst() throws Exception {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(new Quota(1, 100), 0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger acquired = new AtomicInteger();
+
+        // Act - time is frozen, so only the initial burst can be handed out
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryAcquire(1, 0) == 0) {
+                        acquired.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(100, acquired.get());
+    }
+}
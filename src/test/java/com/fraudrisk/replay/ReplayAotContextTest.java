@@ -0,0 +1,61 @@
+package com.fraudrisk.replay;
+
+import com.fraudrisk.TransactionIngestionServiceApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultBootstrapContext;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replay mode against the AOT-processed context.
+ *
+ * Under {@code -Pfast-startup} this class runs with {@code spring.aot.enabled=true}: the generated
+ * context has no {@link ReplayRunner}, and asking it for the replay profile must fail up front
+ * instead of starting the web service.
+ */
+@SpringBootTest
+public class ReplayAotContextTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void context_WithoutReplayProfile_HasNoReplayRunner() {
+        assertTrue(context.getBeansOfType(ReplayRunner.class).isEmpty());
+    }
+
+    @Test
+    void run_ReplayProfileWithAotArtifacts_FailsBeforeTheContextIsCreated() {
+        // Arrange
+        SpringApplication application = new SpringApplication(TransactionIngestionServiceApplication.class);
+        application.addListeners(new ReplayModeGuard(true));
+
+        // Act
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> application.run("--spring.profiles.active=replay", "--replay.inputs=/nonexistent"));
+
+        // Assert
+        assertTrue(ex.getMessage().contains("spring.aot.enabled"));
+    }
+
+    @Test
+    void guard_MatchesHowThisContextWasBuilt() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles(ReplayModeGuard.PROFILE);
+        ApplicationEnvironmentPreparedEvent event = new ApplicationEnvironmentPreparedEvent(
+                new DefaultBootstrapContext(), new SpringApplication(), new String[0], environment);
+
+        if (AotDetector.useGeneratedArtifacts()) {
+            assertThrows(IllegalStateException.class, () -> new ReplayModeGuard().onApplicationEvent(event));
+        } else {
+            assertDoesNotThrow(() -> new ReplayModeGuard().onApplicationEvent(event));
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.fraudrisk.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraudrisk.enrichment.GeoIpService;
+import com.fraudrisk.mapper.TransactionMapper;
+import com.fraudrisk.model.Metadata;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.KafkaProducerService;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReplayRunnerTest {
+
+    private static final Instant BASE = Instant.parse("2024-05-01T00:00:00Z");
+
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+
+    @Mock
+    private GeoIpService geoIpService;
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private ReplayProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ReplayProperties();
+        properties.setReaderThreads(2);
+        properties.setCheckpointFile(tempDir.resolve("replay.checkpoint").toString());
+        properties.setProgressIntervalMs(60_000);
+    }
+
+    @Test
+    void run_AvroAndJsonLines_PublishesOnlyRecordsInsideFilters() throws Exception {
+        // Arrange - 10 Avro and 10 JSON lines records, one per hour
+        Path avro = writeAvro(tempDir.resolve("archive.avro"), "AV-", 10);
+        Path jsonl = writeJsonLines(tempDir.resolve("archive.jsonl"), "JS-", 10);
+        properties.setInputs(List.of(avro.toString(), jsonl.toString()));
+        properties.setFrom(BASE.plusSeconds(2 * 3600));
+        properties.setTo(BASE.plusSeconds(7 * 3600));
+        properties.setIdPattern(".*-[0-5]");
+        when(kafkaProducerService.sendTransaction(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        ReplayRunner runner = runner();
+        runner.run(null);
+
+        // Assert - hours 2..6 and IDs ending 0..5 leave 2, 3, 4, 5 from each file
+        assertEquals(List.of("AV-2", "AV-3", "AV-4", "AV-5", "JS-2", "JS-3", "JS-4", "JS-5"), sentIds(8));
+        assertEquals(0, runner.getExitCode());
+    }
+
+    @Test
+    void run_AfterCompletedRun_SkipsFinishedUnits() throws Exception {
+        // Arrange
+        writeJsonLines(tempDir.resolve("archive.jsonl"), "JS-", 5);
+        properties.setInputs(List.of(tempDir.toString()));
+        when(kafkaProducerService.sendTransaction(any())).thenReturn(CompletableFuture.completedFuture(null));
+        runner().run(null);
+
+        // Act - same inputs again, plus a new file in the directory
+        writeAvro(tempDir.resolve("new.avro"), "AV-", 3);
+        runner().run(null);
+
+        // Assert - the JSON lines file is not sent twice
+        assertEquals(List.of("AV-0", "AV-1", "AV-2", "JS-0", "JS-1", "JS-2", "JS-3", "JS-4"), sentIds(8));
+    }
+
+    @Test
+    void run_ResumesJsonLinesFromCommittedOffset() throws Exception {
+        // Arrange - a checkpoint from an earlier run that committed the first three lines
+        Path jsonl = writeJsonLines(tempDir.resolve("archive.jsonl"), "JS-", 6);
+        long committed = 0;
+        List<String> lines = Files.readAllLines(jsonl);
+        for (int i = 0; i < 3; i++) {
+            committed += lines.get(i).length() + 1;
+        }
+        ReplayCheckpoint.load(Path.of(properties.getCheckpointFile()))
+                .commit(jsonl.toAbsolutePath() + "#0", committed);
+        properties.setInputs(List.of(jsonl.toString()));
+        when(kafkaProducerService.sendTransaction(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        runner().run(null);
+
+        // Assert
+        assertEquals(List.of("JS-3", "JS-4", "JS-5"), sentIds(3));
+    }
+
+    @Test
+    void run_SomeSendsFail_ExitsNonZero() throws Exception {
+        // Arrange
+        writeJsonLines(tempDir.resolve("archive.jsonl"), "JS-", 4);
+        properties.setInputs(List.of(tempDir.toString()));
+        when(kafkaProducerService.sendTransaction(any()))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        // Act
+        ReplayRunner runner = runner();
+        runner.run(null);
+
+        // Assert - every unit finished, but records are missing downstream
+        sentIds(4);
+        assertEquals(1, runner.getExitCode());
+    }
+
+    @Test
+    void run_UnparseableLine_ExitsNonZero() throws Exception {
+        // Arrange
+        Path jsonl = writeJsonLines(tempDir.resolve("archive.jsonl"), "JS-", 2);
+        Files.writeString(jsonl, "{not json\n", StandardOpenOption.APPEND);
+        properties.setInputs(List.of(jsonl.toString()));
+        when(kafkaProducerService.sendTransaction(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        ReplayRunner runner = runner();
+        runner.run(null);
+
+        // Assert
+        assertEquals(List.of("JS-0", "JS-1"), sentIds(2));
+        assertEquals(1, runner.getExitCode());
+    }
+
+    private ReplayRunner runner() {
+        return new ReplayRunner(properties, new TransactionMapper(geoIpService), kafkaProducerService, objectMapper);
+    }
+
+    private List<String> sentIds(int expected) {
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+        verify(kafkaProducerService, times(expected)).sendTransaction(captor.capture());
+        return captor.getAllValues().stream().map(Transaction::getTransactionId).sorted().toList();
+    }
+
+    private static Path writeAvro(Path file, String idPrefix, int count) throws IOException {
+        try (DataFileWriter<Transaction> writer = new DataFileWriter<>(new SpecificDatumWriter<>(Transaction.class))) {
+            // A tiny sync interval puts the records into several blocks
+            writer.setSyncInterval(32);
+            writer.create(Transaction.getClassSchema(), file.toFile());
+            for (int i = 0; i < count; i++) {
+                writer.append(Transaction.newBuilder()
+                        .setTransactionId(idPrefix + i)
+                        .setTimestamp(BASE.plusSeconds(i * 3600L))
+                        .setAmount(new BigDecimal("10.00"))
+                        .setCurrency("USD")
+                        .setCustomerId("CUST-1")
+                        .setCustomerName("")
+                        .setSourceId("ACCT-1")
+                        .setSourceType("")
+                        .setDestinationId("")
+                        .setDestinationType("")
+                        .setTransactionType("PURCHASE")
+                        .setMetadata(Metadata.newBuilder().build())
+                        .build());
+            }
+        }
+        return file;
+    }
+
+    private static Path writeJsonLines(Path file, String idPrefix, int count) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add("{\"transactionId\":\"" + idPrefix + i + "\",\"timestamp\":\"" + BASE.plusSeconds(i * 3600L)
+                    + "\",\"amount\":10.00,\"currency\":\"USD\",\"customerId\":\"CUST-1\",\"sourceId\":\"ACCT-1\","
+                    + "\"transactionType\":\"PURCHASE\"}");
+        }
+        return Files.write(file, lines);
+    }
+}
@@ -0,0 +1,134 @@
+package com.fraudrisk.rules;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.enrichment.GeoIpService;
+import com.fraudrisk.mapper.TransactionMapper;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.header.Header;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PreScoringEngineTest {
+
+    @TempDir
+    Path dir;
+
+    private final TransactionMapper mapper = new TransactionMapper(new GeoIpService());
+
+    @Test
+    void refreshIfChanged_NewFile_SwapsRules() throws Exception {
+        // Arrange
+        Path file = writeRules(rule("eur", "EUR"), Instant.parse("2026-01-01T00:00:00Z"));
+        PreScoringEngine engine = newEngine(file);
+        engine.init();
+        assertFalse(engine.evaluate(transaction("USD")).matched());
+
+        // Act
+        writeRules(rule("usd", "USD"), Instant.parse("2026-01-01T00:01:00Z"));
+        engine.refreshIfChanged();
+
+        // Assert
+        List<Header> headers = new ArrayList<>();
+        RuleMatch match = engine.appendHeader(transaction("USD"), headers);
+        assertTrue(match.matched());
+        assertEquals(1, headers.size());
+        assertEquals(PreScoringEngine.HEADER, headers.get(0).key());
+        assertEquals("usd", new String(headers.get(0).value(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void refreshIfChanged_InvalidFile_KeepsPreviousRules() throws Exception {
+        // Arrange
+        Path file = writeRules(rule("usd", "USD"), Instant.parse("2026-01-01T00:00:00Z"));
+        PreScoringEngine engine = newEngine(file);
+        engine.init();
+
+        // Act: misspelt key
+        writeRules("{\"id\": \"usd\", \"when\": {\"feild\": \"currency\", \"op\": \"eq\", \"value\": \"EUR\"}}",
+                Instant.parse("2026-01-01T00:01:00Z"));
+        engine.refreshIfChanged();
+
+        // Assert
+        assertEquals(1, engine.getRuleCount());
+        assertTrue(engine.evaluate(transaction("USD")).matched());
+    }
+
+    @Test
+    void refreshIfChanged_InvalidFileUnchanged_IsNotReloaded() throws Exception {
+        // Arrange
+        Path file = writeRules(rule("usd", "USD"), Instant.parse("2026-01-01T00:00:00Z"));
+        PreScoringEngine engine = spy(newEngine(file));
+        engine.init();
+        writeRules("{\"id\": \"usd\"}", Instant.parse("2026-01-01T00:01:00Z"));
+
+        // Act
+        engine.refreshIfChanged();
+        engine.refreshIfChanged();
+        engine.refreshIfChanged();
+
+        // Assert - the broken version is tried, and reported, once
+        verify(engine, times(2)).load(file);
+        assertEquals(1, engine.getRuleCount());
+
+        // A fix is picked up again
+        writeRules(rule("eur", "EUR"), Instant.parse("2026-01-01T00:02:00Z"));
+        engine.refreshIfChanged();
+        assertTrue(engine.evaluate(transaction("EUR")).matched());
+    }
+
+    @Test
+    void appendHeader_WithoutRulesFile_AddsNothing() {
+        PreScoringEngine engine = newEngine(null);
+        engine.init();
+        List<Header> headers = new ArrayList<>();
+
+        RuleMatch match = engine.appendHeader(transaction("USD"), headers);
+
+        assertFalse(match.matched());
+        assertTrue(headers.isEmpty());
+    }
+
+    private PreScoringEngine newEngine(Path file) {
+        return new PreScoringEngine(new ObjectMapper(), new MetricsService(new SimpleMeterRegistry()),
+                file == null ? "" : file.toString());
+    }
+
+    private Path writeRules(String rule, Instant modified) throws Exception {
+        Path file = dir.resolve("rules.json");
+        Files.writeString(file, "{\"rules\": [" + rule + "]}");
+        Files.setLastModifiedTime(file, FileTime.from(modified));
+        return file;
+    }
+
+    private static String rule(String id, String currency) {
+        return "{\"id\": \"" + id + "\", \"when\": {\"field\": \"currency\", \"op\": \"eq\", \"value\": \""
+                + currency + "\"}}";
+    }
+
+    private Transaction transaction(String currency) {
+        return mapper.toAvro(TransactionRequest.builder()
+                .transactionId("TX-RULES-2")
+                .timestamp(Instant.now())
+                .amount(new BigDecimal("150.75"))
+                .currency(currency)
+                .customerId("CUST-123")
+                .sourceId("ACCT-456")
+                .transactionType("PURCHASE")
+                .build());
+    }
+}
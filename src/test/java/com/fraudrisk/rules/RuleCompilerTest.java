@@ -0,0 +1,148 @@
+package com.fraudrisk.rules;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.enrichment.GeoIpService;
+import com.fraudrisk.mapper.TransactionMapper;
+import com.fraudrisk.model.Transaction;
+import com.fraudrisk.service.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RuleCompilerTest {
+
+    private static final String RULES = """
+            {"rules": [
+              {"id": "large-wire", "action": "fast-lane",
+               "when": {"all": [{"field": "transactionType", "op": "eq", "value": "WIRE_TRANSFER"},
+                                {"field": "amount", "op": "gt", "value": 10000}]}},
+              {"id": "blocked-device",
+               "when": {"field": "deviceId", "op": "in", "values": ["dev-0001", "dev-0002"]}},
+              {"id": "usd-offshore",
+               "when": {"all": [{"field": "currency", "op": "eq", "value": "USD"},
+                                {"any": [{"field": "destinationId", "op": "prefix", "value": "XX-"},
+                                         {"not": {"field": "destinationType", "op": "in",
+                                                  "values": ["ACCOUNT", "MERCHANT"]}}]}]}}
+            ]}
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TransactionMapper mapper = new TransactionMapper(new GeoIpService());
+    private SimpleMeterRegistry meterRegistry;
+    private RuleCompiler compiler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        compiler = new RuleCompiler(new MetricsService(meterRegistry));
+    }
+
+    @Test
+    void evaluate_NoRuleMatches_ReturnsNone() throws Exception {
+        CompiledRuleSet rules = compile(RULES);
+
+        RuleMatch match = rules.evaluate(transaction("PURCHASE", "500.00", "dev-9999", "ACCT-1", "ACCOUNT"));
+
+        assertSame(RuleMatch.NONE, match);
+        assertFalse(match.matched());
+    }
+
+    @Test
+    void evaluate_FastLaneRule_MatchesOnlyItsTransactionType() throws Exception {
+        // Arrange
+        CompiledRuleSet rules = compile(RULES);
+
+        // Act
+        RuleMatch wire = rules.evaluate(transaction("WIRE_TRANSFER", "25000.00", null, "ACCT-1", "ACCOUNT"));
+        RuleMatch purchase = rules.evaluate(transaction("PURCHASE", "25000.00", null, "ACCT-1", "ACCOUNT"));
+        RuleMatch smallWire = rules.evaluate(transaction("WIRE_TRANSFER", "10000.00", null, "ACCT-1", "ACCOUNT"));
+
+        // Assert
+        assertEquals("large-wire", header(wire));
+        assertTrue(wire.fastLane());
+        assertFalse(purchase.matched());
+        assertFalse(smallWire.matched());
+        assertEquals(1.0, meterRegistry.counter("transactions.prescore.matched", "rule", "large-wire").count());
+    }
+
+    @Test
+    void evaluate_SeveralRulesMatch_ListsThemInDeclarationOrder() throws Exception {
+        // Arrange
+        CompiledRuleSet rules = compile(RULES);
+
+        // Act
+        RuleMatch match = rules.evaluate(transaction("WIRE_TRANSFER", "50000.00", "dev-0002", "XX-77", "ACCOUNT"));
+
+        // Assert
+        assertEquals("large-wire,blocked-device,usd-offshore", header(match));
+        assertTrue(match.fastLane());
+    }
+
+    @Test
+    void evaluate_NestedGroups_FollowAllAnyAndNot() throws Exception {
+        CompiledRuleSet rules = compile(RULES);
+
+        assertEquals("usd-offshore", header(rules.evaluate(transaction("PURCHASE", "10.00", null, "ACCT-1", "WALLET"))));
+        assertEquals("usd-offshore", header(rules.evaluate(transaction("PURCHASE", "10.00", null, "XX-1", "ACCOUNT"))));
+        assertFalse(rules.evaluate(transaction("PURCHASE", "10.00", null, "ACCT-1", "MERCHANT")).matched());
+    }
+
+    @Test
+    void compile_InvalidRules_NameTheRule() {
+        IllegalArgumentException unknownField = assertThrows(IllegalArgumentException.class, () -> compile("""
+                {"rules": [{"id": "r1", "when": {"field": "merchantCategory", "op": "eq", "value": "5967"}}]}
+                """));
+        assertEquals("Rule 'r1': unknown field 'merchantCategory'", unknownField.getMessage());
+
+        IllegalArgumentException badOperator = assertThrows(IllegalArgumentException.class, () -> compile("""
+                {"rules": [{"id": "r2", "when": {"field": "currency", "op": "gt", "value": "USD"}}]}
+                """));
+        assertEquals("Rule 'r2': operator 'gt' does not apply to field 'currency'", badOperator.getMessage());
+
+        IllegalArgumentException badAmount = assertThrows(IllegalArgumentException.class, () -> compile("""
+                {"rules": [{"id": "r3", "when": {"field": "amount", "op": "gt", "value": "lots"}}]}
+                """));
+        assertEquals("Rule 'r3': amount limit 'lots' is not a number", badAmount.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> compile("""
+                {"rules": [{"id": "r4", "when": {"field": "currency", "op": "eq", "value": "USD"}},
+                           {"id": "r4", "when": {"field": "currency", "op": "eq", "value": "EUR"}}]}
+                """));
+        assertThrows(IllegalArgumentException.class, () -> compile("""
+                {"rules": [{"id": "r5", "action": "block", "when": {"field": "currency", "op": "eq", "value": "USD"}}]}
+                """));
+    }
+
+    private CompiledRuleSet compile(String json) throws Exception {
+        return compiler.compile(objectMapper.readValue(json, RuleSetDefinition.class));
+    }
+
+    private static String header(RuleMatch match) {
+        return match.header() == null ? null : new String(match.header(), StandardCharsets.UTF_8);
+    }
+
+    private Transaction transaction(String type, String amount, String deviceId, String destinationId,
+                                    String destinationType) {
+        return mapper.toAvro(TransactionRequest.builder()
+                .transactionId("TX-RULES-1")
+                .timestamp(Instant.now())
+                .amount(new BigDecimal(amount))
+                .currency("USD")
+                .customerId("CUST-123")
+                .sourceId("ACCT-456")
+                .destinationId(destinationId)
+                .destinationType(destinationType)
+                .transactionType(type)
+                .metadata(TransactionRequest.MetadataDTO.builder()
+                        .deviceId(deviceId)
+                        .build())
+                .build());
+    }
+}
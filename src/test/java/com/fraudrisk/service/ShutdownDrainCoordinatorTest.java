@@ -0,0 +1,137 @@
+package com.fraudrisk.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.kafka.MicroBatcher;
+import com.fraudrisk.model.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ShutdownDrainCoordinatorTest {
+
+    @Mock
+    private KafkaTemplate<String, Transaction> kafkaTemplate;
+
+    @Mock
+    private MicroBatcher microBatcher;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    Path spoolDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @BeforeEach
+    void setUp() {
+        when(microBatcher.awaitIdle(anyLong())).thenReturn(true);
+    }
+
+    @Test
+    void stop_AllItemsComplete_FlushesWithoutSpooling() throws Exception {
+        // Arrange
+        ShutdownDrainCoordinator coordinator = coordinator(2000);
+        CompletableFuture<Void> item = new CompletableFuture<>();
+        coordinator.track(List.of(request("TX-1")), List.of(item));
+        CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS)
+                .execute(() -> item.complete(null));
+
+        // Act
+        coordinator.stop();
+
+        // Assert
+        assertFalse(coordinator.isAccepting());
+        assertEquals(0, coordinator.getInFlightCount());
+        verify(eventPublisher).publishEvent(any(AvailabilityChangeEvent.class));
+        verify(kafkaTemplate).flush();
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void onContextClosed_RefusesBatchesBeforeTheDrain() {
+        // Arrange
+        ShutdownDrainCoordinator coordinator = coordinator(2000);
+        coordinator.start();
+
+        // Act
+        coordinator.onApplicationEvent(new ContextClosedEvent(mock(ApplicationContext.class)));
+
+        // Assert - refused straight away, and the drain does not announce it a second time
+        assertFalse(coordinator.isAccepting());
+        assertTrue(coordinator.isRunning());
+        coordinator.stop();
+        verify(eventPublisher, times(1)).publishEvent(any(AvailabilityChangeEvent.class));
+    }
+
+    @Test
+    void stop_ItemsStillPending_CancelsAndSpoolsThem() throws Exception {
+        // Arrange
+        ShutdownDrainCoordinator coordinator = coordinator(100);
+        CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
+        CompletableFuture<Void> stuck = new CompletableFuture<>();
+        coordinator.track(List.of(request("TX-1"), request("TX-2")), List.of(done, stuck));
+
+        // Act
+        coordinator.stop();
+
+        // Assert
+        assertTrue(stuck.isCancelled());
+        verify(kafkaTemplate).flush();
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(spoolDir)) {
+            files = list.toList();
+        }
+        assertEquals(1, files.size());
+        List<String> lines = Files.readAllLines(files.get(0));
+        assertEquals(1, lines.size());
+        TransactionRequest spooled = objectMapper.readValue(lines.get(0), TransactionRequest.class);
+        assertEquals("TX-2", spooled.getTransactionId());
+        assertEquals(new BigDecimal("10.00"), spooled.getAmount());
+    }
+
+    private ShutdownDrainCoordinator coordinator(long drainTimeoutMs) {
+        return new ShutdownDrainCoordinator(kafkaTemplate, microBatcher, metricsService, objectMapper,
+                eventPublisher, drainTimeoutMs, spoolDir.toString());
+    }
+
+    private static TransactionRequest request(String id) {
+        return TransactionRequest.builder()
+                .transactionId(id)
+                .amount(new BigDecimal("10.00"))
+                .currency("USD")
+                .customerId("CUST-1")
+                .sourceId("ACCT-1")
+                .transactionType("PURCHASE")
+                .build();
+    }
+}
@@ -1,9 +1,13 @@
 package com.fraudrisk.service;
 
 import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.exception.DeadlineExceededException;
 import com.fraudrisk.exception.TransactionProcessingException;
 import com.fraudrisk.mapper.TransactionMapper;
 import com.fraudrisk.model.Transaction;
+import com.fraudrisk.pipeline.IngestionPipeline;
+import com.fraudrisk.status.TransactionStatusIndex;
+import com.fraudrisk.util.Deadline;
 import io.micrometer.core.instrument.Timer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,6 +23,7 @@ import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -38,6 +43,12 @@ public class TransactionServiceTest {
     @Mock
     private Timer.Sample timerSample;
 
+    @Mock
+    private TransactionStatusIndex statusIndex;
+
+    @Mock
+    private IngestionPipeline ingestionPipeline;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -49,7 +60,7 @@ public class TransactionServiceTest {
         validRequest = createValidTransactionRequest();
         mockTransaction = mock(Transaction.class);
 
-        when(metricsService.startProcessingTimer()).thenReturn(timerSample);
+        lenient().when(metricsService.startProcessingTimer()).thenReturn(timerSample);
     }
 
     @Test
@@ -57,7 +68,7 @@ public class TransactionServiceTest {
         // Arrange
         CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
         when(transactionMapper.toAvro(any())).thenReturn(mockTransaction);
-        when(kafkaProducerService.sendTransaction(any())).thenReturn(future);
+        when(kafkaProducerService.sendTransaction(any(), any())).thenReturn(future);
 
         // Act & Assert
         assertDoesNotThrow(() -> transactionService.processTransaction(validRequest));
@@ -66,7 +77,7 @@ public class TransactionServiceTest {
         verify(metricsService).recordTransactionReceived();
         verify(metricsService).recordTransactionAmount(validRequest.getAmount());
         verify(transactionMapper).toAvro(validRequest);
-        verify(kafkaProducerService).sendTransaction(mockTransaction);
+        verify(kafkaProducerService).sendTransaction(eq(mockTransaction), any());
         verify(metricsService).stopProcessingTimer(timerSample);
         verify(metricsService).recordTransactionProcessed();
     }
@@ -88,25 +99,37 @@ public class TransactionServiceTest {
     }
 
     @Test
-    void processTransactions_ValidBatch_ProcessesAll() throws InterruptedException {
+    void processTransactions_ValidBatch_QueuesAllOnPipeline() {
         // Arrange
         List<TransactionRequest> requests = Arrays.asList(
                 validRequest,
                 createValidTransactionRequest());
 
-        CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
-        when(transactionMapper.toAvro(any())).thenReturn(mockTransaction);
-        when(kafkaProducerService.sendTransaction(any())).thenReturn(future);
+        List<CompletableFuture<Void>> futures = List.of(new CompletableFuture<>(), new CompletableFuture<>());
+        when(ingestionPipeline.publish(requests, Deadline.NONE, null)).thenReturn(futures);
 
         // Act
-        transactionService.processTransactions(requests);
+        List<CompletableFuture<Void>> result = transactionService.processTransactions(requests);
 
-        // Small delay to allow async processing to complete
-        Thread.sleep(100);
+        // Assert
+        assertSame(futures, result);
+        verifyNoInteractions(transactionMapper, kafkaProducerService);
+    }
 
-        // Verify (considering async processing)
-        verify(transactionMapper, times(2)).toAvro(any());
-        verify(kafkaProducerService, times(2)).sendTransaction(any());
+    @Test
+    void processTransaction_ExpiredDeadline_DropsBeforeMapping() throws InterruptedException {
+        // Arrange
+        Deadline deadline = Deadline.afterMillis(1);
+        Thread.sleep(5);
+
+        // Act & Assert
+        assertThrows(DeadlineExceededException.class,
+                () -> transactionService.processTransaction(validRequest, deadline));
+
+        // Verify
+        verify(metricsService).recordDeadlineDropped("mapping");
+        verify(metricsService, never()).recordTransactionFailed();
+        verifyNoInteractions(transactionMapper, kafkaProducerService);
     }
 
     /**
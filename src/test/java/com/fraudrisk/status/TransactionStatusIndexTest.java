@@ -0,0 +1,143 @@
+package com.fraudrisk.status;
+
+import com.fraudrisk.service.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransactionStatusIndexTest {
+
+    private static final long START = 1_700_000_100_000L;
+    // 5 segments of 16 slots, 12 usable entries each
+    private static final long BUDGET = 5 * 16 * StatusSegment.BYTES_PER_SLOT;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong(START);
+    private final TransactionStatusIndex index =
+            new TransactionStatusIndex(new MetricsService(registry), true, BUDGET, 60, 15, clock::get);
+
+    @Test
+    void received_ThenSent_ReportsBrokerPosition() {
+        // Act
+        index.received("TX-1");
+        TransactionStatusEntry received = index.lookup("TX-1").orElseThrow();
+        clock.addAndGet(250);
+        index.sent("TX-1", 3, 42L);
+
+        // Assert
+        assertEquals(TransactionStatus.RECEIVED, received.status());
+        assertEquals(-1, received.partition());
+        assertEquals(-1L, received.offset());
+
+        TransactionStatusEntry sent = index.lookup("TX-1").orElseThrow();
+        assertEquals(TransactionStatus.SENT, sent.status());
+        assertEquals(3, sent.partition());
+        assertEquals(42L, sent.offset());
+        assertEquals(received.receivedAt(), sent.receivedAt());
+        assertTrue(Math.abs(sent.receivedAt().toEpochMilli() - START) < StatusSegment.TIME_UNIT_MS);
+    }
+
+    @Test
+    void update_RetryingThenDeadLettered_TracksLatestStatus() {
+        // Act
+        index.received("TX-1");
+        index.update("TX-1", TransactionStatus.RETRYING);
+        index.update("TX-1", TransactionStatus.DEAD_LETTERED);
+
+        // Assert
+        assertEquals(TransactionStatus.DEAD_LETTERED, index.lookup("TX-1").orElseThrow().status());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void sent_WithoutReceived_IsIndexed() {
+        // Act
+        index.sent("TX-IMPORTED", 0, 7L);
+
+        // Assert
+        TransactionStatusEntry entry = index.lookup("TX-IMPORTED").orElseThrow();
+        assertEquals(TransactionStatus.SENT, entry.status());
+        assertEquals(7L, entry.offset());
+    }
+
+    @Test
+    void lookup_AfterRetention_IsEmpty() {
+        // Arrange
+        index.received("TX-1");
+
+        // Act & Assert
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(59));
+        assertTrue(index.lookup("TX-1").isPresent());
+
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(16) + 1);
+        assertTrue(index.lookup("TX-1").isEmpty());
+        assertTrue(index.lookup("TX-UNKNOWN").isEmpty());
+    }
+
+    @Test
+    void received_SegmentFull_DropsAndCounts() {
+        // Act
+        for (int i = 0; i < 13; i++) {
+            index.received("TX-" + i);
+        }
+
+        // Assert
+        assertEquals(12, index.size());
+        assertEquals(1.0, registry.get("transactions.status.index.dropped").counter().count());
+        assertEquals(12.0, registry.get("transactions.status.index.entries").gauge().value());
+    }
+
+    @Test
+    void received_Resubmitted_ReportsNewestAttempt() {
+        // Arrange
+        index.received("TX-1");
+        index.sent("TX-1", 1, 10L);
+
+        // Act
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(20));
+        index.received("TX-1");
+
+        // Assert
+        TransactionStatusEntry entry = index.lookup("TX-1").orElseThrow();
+        assertEquals(TransactionStatus.RECEIVED, entry.status());
+        assertTrue(entry.receivedAt().isAfter(Instant.ofEpochMilli(START)));
+    }
+
+    @Test
+    void prepareNextBucket_BeforeBoundary_ReusesExpiredSegment() {
+        // Arrange: a segment that once held an expired bucket is reused for the next one
+        index.received("TX-OLD");
+        long bucketMillis = TimeUnit.MINUTES.toMillis(15);
+        long nextBoundary = (START / bucketMillis + 5) * bucketMillis;
+        clock.set(nextBoundary - 1000);
+
+        // Act
+        index.prepareNextBucket();
+        clock.set(nextBoundary);
+        index.received("TX-NEW");
+
+        // Assert
+        assertTrue(index.lookup("TX-OLD").isEmpty());
+        assertTrue(index.lookup("TX-NEW").isPresent());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void disabled_IgnoresUpdates() {
+        // Arrange
+        TransactionStatusIndex disabled =
+                new TransactionStatusIndex(new MetricsService(registry), false, BUDGET, 60, 15, clock::get);
+
+        // Act
+        disabled.received("TX-1");
+
+        // Assert
+        assertTrue(disabled.lookup("TX-1").isEmpty());
+        assertEquals(0, disabled.size());
+    }
+}
@@ -0,0 +1,133 @@
+package com.fraudrisk.tuning;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraudrisk.kafka.SwappableProducerFactory;
+import com.fraudrisk.service.KafkaProducerService;
+import com.fraudrisk.service.MetricsService;
+import com.fraudrisk.validation.BatchValidator;
+import com.fraudrisk.validation.TransactionRequestValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class IngestionTuningServiceTest {
+
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+
+    private SwappableProducerFactory<String, String> producerFactory;
+    private BatchValidator batchValidator;
+    private IngestionTuningService tuningService;
+
+    @BeforeEach
+    void setUp() {
+        producerFactory = new SwappableProducerFactory<>("test", Map.of(
+                ProducerConfig.BATCH_SIZE_CONFIG, 32768,
+                ProducerConfig.LINGER_MS_CONFIG, 5,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4"),
+                configs -> new MockProducerFactory<>(
+                        () -> new MockProducer<>(true, new StringSerializer(), new StringSerializer())));
+        batchValidator = new BatchValidator(new TransactionRequestValidator(
+                new ObjectMapper(), new MetricsService(new SimpleMeterRegistry())), 256, 2);
+        tuningService = new IngestionTuningService(List.of(producerFactory), producerFactory,
+                kafkaProducerService, batchValidator, 1000, 4096);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchValidator.shutdown();
+    }
+
+    @Test
+    void apply_ProducerSettings_SwapsProducerAndRecordsAudit() {
+        // Act
+        Map<String, Object> settings = tuningService.apply(
+                new IngestionTuningService.Change(null, 20, "zstd", null, null, null), "ops-user");
+
+        // Assert
+        assertEquals(20, settings.get("lingerMs"));
+        assertEquals("zstd", settings.get("compressionType"));
+        assertEquals(32768, settings.get("batchSize"));
+        assertEquals(2, settings.get("producerGeneration"));
+
+        List<IngestionTuningService.AuditEntry> audit = tuningService.auditTrail();
+        assertEquals(1, audit.size());
+        assertEquals("ops-user", audit.get(0).actor());
+        assertEquals(Map.of(
+                "lingerMs", "5 -> 20",
+                "compressionType", "lz4 -> zstd",
+                "producerGeneration", "1 -> 2"), audit.get(0).changes());
+    }
+
+    @Test
+    void apply_PipelineSettings_TakeEffectWithoutNewProducer() {
+        // Act
+        Map<String, Object> settings = tuningService.apply(
+                new IngestionTuningService.Change(null, null, null, true, 2000, 3), "ops-user");
+
+        // Assert
+        verify(kafkaProducerService).setSyncSend(true);
+        assertEquals(2000, tuningService.getMaxBatchSize());
+        assertEquals(3, batchValidator.getParallelism());
+        assertEquals(3, settings.get("validationParallelism"));
+        assertEquals(1, settings.get("producerGeneration"));
+    }
+
+    @Test
+    void apply_InvalidValue_AppliesNothing() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> tuningService.apply(
+                new IngestionTuningService.Change(null, 20, "brotli", true, 2000, null), "ops-user"));
+
+        assertEquals(5, producerFactory.getConfigurationProperties().get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals(1, producerFactory.getGeneration());
+        assertEquals(1000, tuningService.getMaxBatchSize());
+        verify(kafkaProducerService, never()).setSyncSend(anyBoolean());
+        assertTrue(tuningService.auditTrail().isEmpty());
+    }
+
+    @Test
+    void apply_ValueAboveLimit_Rejected() {
+        // linger.ms must leave room for request.timeout.ms within delivery.timeout.ms
+        IllegalArgumentException linger = assertThrows(IllegalArgumentException.class, () -> tuningService.apply(
+                new IngestionTuningService.Change(null, 100_000, null, null, null, null), "ops-user"));
+        assertEquals("lingerMs must be between 0 and 90000", linger.getMessage());
+
+        IllegalArgumentException maxBatch = assertThrows(IllegalArgumentException.class, () -> tuningService.apply(
+                new IngestionTuningService.Change(null, null, null, null, 5000, null), "ops-user"));
+        assertEquals("maxBatchSize must be between 1 and 4096", maxBatch.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> tuningService.apply(
+                new IngestionTuningService.Change(2 * 1048576, null, null, null, null, null), "ops-user"));
+        assertThrows(IllegalArgumentException.class, () -> tuningService.apply(
+                new IngestionTuningService.Change(null, null, null, null, null, 100_000), "ops-user"));
+        assertEquals(1, producerFactory.getGeneration());
+    }
+
+    @Test
+    void apply_SameValues_IsNotAudited() {
+        // Act
+        tuningService.apply(new IngestionTuningService.Change(32768, 5, "lz4", null, 1000, null), "ops-user");
+
+        // Assert
+        assertEquals(1, producerFactory.getGeneration());
+        assertTrue(tuningService.auditTrail().isEmpty());
+    }
+}
@@ -0,0 +1,74 @@
+package com.fraudrisk.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashedTimerWheelTest {
+
+    private final HashedTimerWheel wheel =
+            new HashedTimerWheel("test-wheel", 5, TimeUnit.MILLISECONDS, 8, Runnable::run);
+
+    @AfterEach
+    void tearDown() {
+        wheel.stop();
+    }
+
+    @Test
+    void schedule_FiresTasksInDelayOrder() throws Exception {
+        // Arrange
+        wheel.start();
+        ConcurrentLinkedQueue<Integer> fired = new ConcurrentLinkedQueue<>();
+        CountDownLatch done = new CountDownLatch(3);
+
+        // Act - 120ms spans several rotations of an 8-slot, 5ms wheel
+        wheel.schedule(() -> { fired.add(3); done.countDown(); }, 120, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> { fired.add(1); done.countDown(); }, 10, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> { fired.add(2); done.countDown(); }, 50, TimeUnit.MILLISECONDS);
+
+        // Assert
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2, 3), List.copyOf(fired));
+        assertEquals(0, wheel.pendingCount());
+    }
+
+    @Test
+    void schedule_DoesNotFireEarly() throws Exception {
+        // Arrange
+        wheel.start();
+        CountDownLatch done = new CountDownLatch(1);
+        long start = System.nanoTime();
+        long[] firedAfterMs = new long[1];
+
+        // Act
+        wheel.schedule(() -> {
+            firedAfterMs[0] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            done.countDown();
+        }, 60, TimeUnit.MILLISECONDS);
+
+        // Assert
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertTrue(firedAfterMs[0] >= 55, "fired after " + firedAfterMs[0] + "ms");
+    }
+
+    @Test
+    void stop_ReturnsUnfiredTasks() {
+        // Arrange
+        wheel.start();
+        wheel.schedule(() -> { }, 10, TimeUnit.SECONDS);
+        wheel.schedule(() -> { }, 20, TimeUnit.SECONDS);
+
+        // Act
+        List<Runnable> unfired = wheel.stop();
+
+        // Assert
+        assertEquals(2, unfired.size());
+        assertThrows(IllegalStateException.class, () -> wheel.schedule(() -> { }, 1, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,92 @@
+package com.fraudrisk.util;
+
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RateLimitedLoggerTest {
+
+    @Mock
+    private Logger log;
+
+    @BeforeEach
+    void setUp() {
+        when(log.isErrorEnabled()).thenReturn(true);
+    }
+
+    @Test
+    void error_SameSignature_LogsOncePerInterval() {
+        // Arrange
+        RateLimitedLogger errorLog = new RateLimitedLogger(log, 60_000, 16);
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            errorLog.error("send", new TimeoutException("expired"), "Failed to send {}", "TX-" + i);
+        }
+
+        // Assert - only the first occurrence is written, with its stack trace
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(log, times(1)).error(eq("Failed to send {}"), args.capture());
+        assertEquals("TX-0", args.getValue()[0]);
+        assertInstanceOf(TimeoutException.class, args.getValue()[1]);
+    }
+
+    @Test
+    void error_AfterInterval_ReportsSuppressedCountWithoutTrace() throws InterruptedException {
+        // Arrange
+        RateLimitedLogger errorLog = new RateLimitedLogger(log, 1, 16);
+        errorLog.error("send", new TimeoutException("expired"), "Failed to send {}", "TX-1");
+        Thread.sleep(5);
+
+        // Act
+        errorLog.error("send", new TimeoutException("expired"), "Failed to send {}", "TX-2");
+
+        // Assert
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(log, times(2)).error(anyString(), args.capture());
+        Object[] second = args.getAllValues().get(1);
+        assertEquals(1, second.length);
+        assertEquals("TX-2", second[0]);
+    }
+
+    @Test
+    void error_DifferentRootCauses_AreSeparateSignatures() {
+        // Arrange
+        RateLimitedLogger errorLog = new RateLimitedLogger(log, 60_000, 16);
+
+        // Act - wrapping does not change the signature, a different root cause does
+        errorLog.error("send", new TimeoutException("expired"), "Failed");
+        errorLog.error("send", new ExecutionException(new TimeoutException("expired")), "Failed");
+        errorLog.error("send", new IllegalStateException("closed"), "Failed");
+
+        // Assert
+        verify(log, times(2)).error(eq("Failed"), any(Object[].class));
+        assertEquals(2, errorLog.signatureCount());
+    }
+
+    @Test
+    void error_SignatureCapReached_FoldsIntoOverflow() {
+        // Arrange
+        RateLimitedLogger errorLog = new RateLimitedLogger(log, 60_000, 2);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            errorLog.error("site-" + i, new IllegalStateException(), "Failed");
+        }
+
+        // Assert
+        assertEquals(3, errorLog.signatureCount());
+    }
+}
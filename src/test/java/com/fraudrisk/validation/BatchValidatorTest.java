@@ -0,0 +1,83 @@
+package com.fraudrisk.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraudrisk.dto.BatchResponse;
+import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.service.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchValidatorTest {
+
+    private final TransactionRequestValidator requestValidator =
+            new TransactionRequestValidator(new ObjectMapper(), new MetricsService(new SimpleMeterRegistry()));
+    private final BatchValidator batchValidator = new BatchValidator(requestValidator, 100, 4);
+
+    @AfterEach
+    void tearDown() {
+        batchValidator.shutdown();
+    }
+
+    @Test
+    void validate_SmallBatch_SplitsValidFromInvalid() {
+        // Arrange
+        TransactionRequest invalid = request(1);
+        invalid.setCurrency("usd");
+        List<TransactionRequest> batch = Arrays.asList(request(0), invalid, null, request(3));
+
+        // Act
+        BatchValidator.Result result = batchValidator.validate(batch);
+
+        // Assert
+        assertEquals(List.of(batch.get(0), batch.get(3)), result.accepted());
+        assertEquals(List.of(
+                new BatchResponse.ItemError(1, "currency", "Currency must be a 3-letter ISO currency code"),
+                new BatchResponse.ItemError(2, "item", "Transaction is required")), result.errors());
+    }
+
+    @Test
+    void validate_LargeBatch_ValidatesInParallelAndKeepsOrder() {
+        // Arrange: every seventh item has a blank transaction ID
+        List<TransactionRequest> batch = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            TransactionRequest request = request(i);
+            if (i % 7 == 0) {
+                request.setTransactionId(" ");
+            }
+            batch.add(request);
+        }
+
+        // Act
+        BatchValidator.Result result = batchValidator.validate(batch);
+
+        // Assert
+        assertEquals(143, result.errors().size());
+        assertEquals(857, result.accepted().size());
+        for (int i = 0; i < result.errors().size(); i++) {
+            assertEquals(i * 7, result.errors().get(i).getIndex());
+            assertEquals("transactionId", result.errors().get(i).getField());
+        }
+        for (int i = 1; i < result.accepted().size(); i++) {
+            assertTrue(result.accepted().get(i - 1).getAmount().compareTo(result.accepted().get(i).getAmount()) < 0);
+        }
+    }
+
+    private static TransactionRequest request(int i) {
+        return TransactionRequest.builder()
+                .transactionId("TX-" + i)
+                .amount(BigDecimal.valueOf(i + 1))
+                .currency("USD")
+                .customerId("CUST-123")
+                .sourceId("ACCT-456")
+                .transactionType("PURCHASE")
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.fraudrisk.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraudrisk.service.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FastRejectFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FastRejectFilter filter =
+            new FastRejectFilter(new ObjectMapper(), new MetricsService(registry), true, 1024, 4096);
+
+    @Test
+    void oversizedSingle_IsRejectedWithoutReachingTheController() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = post(FastRejectFilter.TRANSACTIONS_PATH, "application/json", 2048);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(413, response.getStatus());
+        assertEquals("close", response.getHeader("Connection"));
+        assertTrue(response.getContentAsString().contains("Request body exceeds 1024 bytes"));
+        assertNull(chain.getRequest());
+        assertEquals(1.0, registry.get("transactions.rejected").tag("reason", "oversized").counter().count());
+    }
+
+    @Test
+    void batch_UsesBatchLimit() throws Exception {
+        // Arrange
+        MockFilterChain accepted = new MockFilterChain();
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(post(FastRejectFilter.BATCH_PATH, "application/json", 2048), new MockHttpServletResponse(), accepted);
+        filter.doFilter(post(FastRejectFilter.BATCH_PATH, "application/json", 8192), rejected, new MockFilterChain());
+
+        // Assert
+        assertNotNull(accepted.getRequest());
+        assertEquals(413, rejected.getStatus());
+    }
+
+    @Test
+    void nonJsonContentType_IsRejected() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(post(FastRejectFilter.TRANSACTIONS_PATH, "text/plain", 10), response, chain);
+
+        // Assert
+        assertEquals(415, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void otherRequests_PassThrough() throws Exception {
+        // Arrange
+        MockHttpServletRequest get = new MockHttpServletRequest("GET", FastRejectFilter.TRANSACTIONS_PATH + "/TX-1");
+        MockHttpServletRequest imports = post("/api/v1/imports", "text/csv", 1 << 20);
+        MockFilterChain getChain = new MockFilterChain();
+        MockFilterChain importChain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(get, new MockHttpServletResponse(), getChain);
+        filter.doFilter(imports, new MockHttpServletResponse(), importChain);
+
+        // Assert
+        assertNotNull(getChain.getRequest());
+        assertNotNull(importChain.getRequest());
+    }
+
+    @Test
+    void isJson_AcceptsJsonTypesWithParameters() {
+        assertTrue(FastRejectFilter.isJson("application/json"));
+        assertTrue(FastRejectFilter.isJson("Application/JSON; charset=UTF-8"));
+        assertTrue(FastRejectFilter.isJson("application/vnd.fraudrisk.transaction+json"));
+        assertFalse(FastRejectFilter.isJson(null));
+        assertFalse(FastRejectFilter.isJson("application/jsonx"));
+        assertFalse(FastRejectFilter.isJson("text/json"));
+        assertFalse(FastRejectFilter.isJson("application/x-www-form-urlencoded"));
+    }
+
+    private static MockHttpServletRequest post(String path, String contentType, int length) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setContentType(contentType);
+        request.setContent(new byte[length]);
+        return request;
+    }
+}
@@ -0,0 +1,219 @@
+package com.fraudrisk.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraudrisk.dto.TransactionRequest;
+import com.fraudrisk.service.MetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransactionRequestValidatorTest {
+
+    private static final ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
+    private static final Validator beanValidator = factory.getValidator();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TransactionRequestValidator validator =
+            new TransactionRequestValidator(objectMapper, new MetricsService(registry));
+
+    @AfterAll
+    static void closeFactory() {
+        factory.close();
+    }
+
+    static Stream<Arguments> mutations() {
+        return Stream.of(
+                mutation("valid", r -> { }),
+                mutation("no metadata", r -> r.setMetadata(null)),
+                mutation("no location", r -> r.getMetadata().setLocation(null)),
+                mutation("null transactionId", r -> r.setTransactionId(null)),
+                mutation("blank transactionId", r -> r.setTransactionId("   ")),
+                mutation("transactionId with space", r -> r.setTransactionId("TX 1")),
+                mutation("transactionId of 51", r -> r.setTransactionId("T".repeat(51))),
+                mutation("transactionId of 50", r -> r.setTransactionId("T".repeat(50))),
+                mutation("transactionId non-ascii", r -> r.setTransactionId("TX-\u00e9")),
+                mutation("null amount", r -> r.setAmount(null)),
+                mutation("zero amount", r -> r.setAmount(BigDecimal.ZERO)),
+                mutation("minimum amount", r -> r.setAmount(new BigDecimal("0.01"))),
+                mutation("three decimals", r -> r.setAmount(new BigDecimal("1.005"))),
+                mutation("trailing zero decimals", r -> r.setAmount(new BigDecimal("1.500"))),
+                mutation("seventeen integer digits", r -> r.setAmount(new BigDecimal("12345678901234567"))),
+                mutation("exponent amount", r -> r.setAmount(new BigDecimal("1E+20"))),
+                mutation("lowercase currency", r -> r.setCurrency("usd")),
+                mutation("empty currency", r -> r.setCurrency("")),
+                mutation("four letter currency", r -> r.setCurrency("USDT")),
+                mutation("blank customerId", r -> r.setCustomerId("")),
+                mutation("long customerName", r -> r.setCustomerName("n".repeat(101))),
+                mutation("customerName of 100", r -> r.setCustomerName("n".repeat(100))),
+                mutation("null sourceId", r -> r.setSourceId(null)),
+                mutation("sourceId with dot", r -> r.setSourceId("ATM.1")),
+                mutation("long sourceType", r -> r.setSourceType("s".repeat(51))),
+                mutation("long destinationId", r -> r.setDestinationId("d".repeat(51))),
+                mutation("long destinationType", r -> r.setDestinationType("d".repeat(51))),
+                mutation("null transactionType", r -> r.setTransactionType(null)),
+                mutation("long transactionType", r -> r.setTransactionType("t".repeat(51))),
+                mutation("ip with five groups", r -> r.getMetadata().setIpAddress("1.2.3.4.5")),
+                mutation("ip with long group", r -> r.getMetadata().setIpAddress("1.2.3.4567")),
+                mutation("ip out of range", r -> r.getMetadata().setIpAddress("999.999.999.999")),
+                mutation("ip with empty group", r -> r.getMetadata().setIpAddress("1..3.4")),
+                mutation("ip with trailing dot", r -> r.getMetadata().setIpAddress("1.2.3.4.")),
+                mutation("ipv6", r -> r.getMetadata().setIpAddress("::1")),
+                mutation("long deviceId", r -> r.getMetadata().setDeviceId("d".repeat(101))),
+                mutation("long userAgent", r -> r.getMetadata().setUserAgent("u".repeat(501))),
+                mutation("null latitude", r -> r.getMetadata().getLocation().setLatitude(null)),
+                mutation("latitude below", r -> r.getMetadata().getLocation().setLatitude(-90.0001)),
+                mutation("latitude at bound", r -> r.getMetadata().getLocation().setLatitude(90.0)),
+                mutation("latitude above", r -> r.getMetadata().getLocation().setLatitude(90.5)),
+                mutation("latitude NaN", r -> r.getMetadata().getLocation().setLatitude(Double.NaN)),
+                mutation("null longitude", r -> r.getMetadata().getLocation().setLongitude(null)),
+                mutation("longitude above", r -> r.getMetadata().getLocation().setLongitude(180.01)),
+                mutation("longitude below", r -> r.getMetadata().getLocation().setLongitude(-181.0)));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("mutations")
+    void validate_AgreesWithBeanValidation(String name, Consumer<TransactionRequest> mutation) {
+        // Arrange
+        TransactionRequest request = validRequest();
+        mutation.accept(request);
+
+        // Act & Assert
+        assertAgreesWithBeanValidation(request);
+    }
+
+    @Test
+    void validate_RandomRequests_AgreeWithBeanValidation() {
+        SplittableRandom random = new SplittableRandom(7);
+        String alphabet = "aZ09-_ .\u00e9A";
+        for (int i = 0; i < 5000; i++) {
+            TransactionRequest request = validRequest();
+            switch (random.nextInt(8)) {
+                case 0 -> request.setTransactionId(randomString(random, alphabet, 52));
+                case 1 -> request.setCurrency(randomString(random, "ABZaz1 ", 4));
+                case 2 -> request.setAmount(BigDecimal.valueOf(random.nextLong(-10, 10_000_000), random.nextInt(-3, 5)));
+                case 3 -> request.getMetadata().setIpAddress(randomString(random, "0129.", 17));
+                case 4 -> request.getMetadata().getLocation().setLatitude(random.nextDouble(-100, 100));
+                case 5 -> request.setSourceType(random.nextBoolean() ? null : "s".repeat(random.nextInt(45, 55)));
+                case 6 -> request.setTransactionType(randomString(random, " t", 52));
+                default -> request.setCustomerId(randomString(random, alphabet, 52));
+            }
+            assertAgreesWithBeanValidation(request);
+        }
+    }
+
+    @Test
+    void validate_Invalid_ReturnsSharedPrebuiltResponse() throws Exception {
+        // Arrange
+        TransactionRequest request = validRequest();
+        request.setCurrency("usd");
+
+        // Act
+        ResponseEntity<byte[]> first = validator.validate(request).toResponse();
+        ResponseEntity<byte[]> second = validator.validate(request).toResponse();
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(HttpStatus.BAD_REQUEST, first.getStatusCode());
+        JsonNode body = objectMapper.readTree(first.getBody());
+        assertEquals(400, body.get("status").asInt());
+        assertEquals("Validation error", body.get("message").asText());
+        assertEquals("Currency must be a 3-letter ISO currency code", body.get("errors").get("currency").asText());
+        assertEquals(2.0, registry.get("transactions.rejected").tag("reason", "invalid").counter().count());
+    }
+
+    @Test
+    void malformed_ReturnsBadRequestBody() throws Exception {
+        // Act
+        ResponseEntity<byte[]> response = validator.malformed().toResponse();
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Malformed request", objectMapper.readTree(response.getBody()).get("message").asText());
+        assertEquals(1.0, registry.get("transactions.rejected").tag("reason", "malformed").counter().count());
+    }
+
+    private void assertAgreesWithBeanValidation(TransactionRequest request) {
+        Set<String> violations = beanValidator.validate(request).stream()
+                .map(TransactionRequestValidatorTest::describe)
+                .collect(Collectors.toSet());
+        Rejection rejection = validator.validate(request);
+
+        if (violations.isEmpty()) {
+            assertNull(rejection, () -> "rejected a request Bean Validation accepts: " + request);
+        } else {
+            assertNotNull(rejection, () -> "accepted a request with violations " + violations + ": " + request);
+            String reported = rejection.getField() + ": " + rejection.getMessage();
+            assertTrue(violations.contains(reported), () -> reported + " is not among " + violations);
+        }
+    }
+
+    private static String describe(ConstraintViolation<TransactionRequest> violation) {
+        return violation.getPropertyPath() + ": " + violation.getMessage();
+    }
+
+    private static String randomString(SplittableRandom random, String alphabet, int maxLength) {
+        if (random.nextInt(10) == 0) {
+            return null;
+        }
+        StringBuilder value = new StringBuilder();
+        int length = random.nextInt(maxLength + 1);
+        for (int i = 0; i < length; i++) {
+            value.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return value.toString();
+    }
+
+    private static Arguments mutation(String name, Consumer<TransactionRequest> mutation) {
+        return Arguments.of(name, mutation);
+    }
+
+    private static TransactionRequest validRequest() {
+        TransactionRequest.MetadataDTO.LocationDTO location = TransactionRequest.MetadataDTO.LocationDTO.builder()
+                .latitude(37.7749)
+                .longitude(-122.4194)
+                .build();
+
+        TransactionRequest.MetadataDTO metadata = TransactionRequest.MetadataDTO.builder()
+                .ipAddress("192.168.1.1")
+                .deviceId("device-123")
+                .location(location)
+                .userAgent("Mozilla/5.0")
+                .build();
+
+        return TransactionRequest.builder()
+                .transactionId("TX-001")
+                .timestamp(Instant.now())
+                .amount(new BigDecimal("150.75"))
+                .currency("USD")
+                .customerId("CUST-123")
+                .customerName("John Doe")
+                .sourceId("ACCT-456")
+                .sourceType("CHECKING")
+                .destinationId("MERCHANT-789")
+                .destinationType("MERCHANT")
+                .transactionType("PURCHASE")
+                .metadata(metadata)
+                .build();
+    }
+}